@@ -0,0 +1,516 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.configuration.startup;
+
+import org.apache.felix.ipojo.ComponentInstance;
+import org.apache.felix.ipojo.InstanceStateListener;
+import org.apache.felix.ipojo.annotations.*;
+import org.apache.felix.ipojo.architecture.Architecture;
+import org.apache.felix.ipojo.architecture.InstanceDescription;
+import org.apache.felix.ipojo.extender.queue.JobInfo;
+import org.apache.felix.ipojo.extender.queue.QueueListener;
+import org.apache.felix.ipojo.extender.queue.QueueService;
+import org.osgi.framework.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.engine.StartupProfiler;
+import org.wisdom.api.engine.StartupReport;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default implementation of the {@link org.wisdom.api.engine.StartupProfiler}. It is started very early (it
+ * lives in the same bundle as the application configuration), so most of the bundles and components are observed.
+ * Bundles and instances started before this component are not part of the report.
+ * <p>
+ * The recording stops when the application is ready.
+ */
+@Component(immediate = true)
+@Provides
+@Instantiate
+public class StartupProfilerImpl implements StartupProfiler, SynchronousBundleListener, ServiceListener,
+        QueueListener, InstanceStateListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupProfiler.class);
+
+    /**
+     * The number of entries of each category logged when the application is ready.
+     */
+    static final int SUMMARY_SIZE = 5;
+
+    /**
+     * Only the actual queues are observed, the preference queue delegates to them.
+     */
+    private static final String QUEUE_FILTER = "(&(" + Constants.OBJECTCLASS + "=" + QueueService.class.getName()
+            + ")(|(" + QueueService.QUEUE_MODE_PROPERTY + "=" + QueueService.SYNCHRONOUS_QUEUE_MODE + ")("
+            + QueueService.QUEUE_MODE_PROPERTY + "=" + QueueService.ASYNCHRONOUS_QUEUE_MODE + ")))";
+
+    private static final String ARCHITECTURE_FILTER = "(" + Constants.OBJECTCLASS + "=" + Architecture.class.getName()
+            + ")";
+
+    @Requires
+    ApplicationConfiguration configuration;
+
+    private final BundleContext context;
+
+    private final long jvmStartTime;
+
+    private final Map<Long, Long> resolved = new HashMap<>();
+    private final Map<Long, Long> starting = new HashMap<>();
+    private final Map<ComponentInstance, Long> created = new HashMap<>();
+    private final Map<ServiceReference<QueueService>, QueueService> queues = new HashMap<>();
+
+    private final List<StartupReport.Entry> bundles = new ArrayList<>();
+    private final List<StartupReport.Entry> jobs = new ArrayList<>();
+    private final List<StartupReport.Entry> components = new ArrayList<>();
+    private final List<StartupReport.Entry> deferred = new ArrayList<>();
+
+    private final List<DeferredTask> pending = new ArrayList<>();
+
+    private final ServiceListener queueListener = new ServiceListener() {
+        @Override
+        public void serviceChanged(ServiceEvent event) {
+            onQueueEvent(event);
+        }
+    };
+
+    /**
+     * Whether or not the tasks given to {@link #whenReady(String, Runnable)} are deferred.
+     */
+    private boolean deferring;
+    private boolean recording;
+    private long readyTime = -1;
+    private Timer timer;
+
+    /**
+     * Creates the profiler.
+     *
+     * @param context the bundle context
+     */
+    public StartupProfilerImpl(@Context BundleContext context) {
+        this.context = context;
+        this.jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Starts the recording.
+     */
+    @Validate
+    public void start() {
+        long timeout = configuration.getDuration(DEFER_TIMEOUT, TimeUnit.MILLISECONDS, 30000L);
+        boolean defer = configuration.getBooleanWithDefault(DEFER, false);
+        synchronized (this) {
+            if (readyTime != -1) {
+                return;
+            }
+            recording = true;
+            deferring = defer;
+        }
+        context.addBundleListener(this);
+        try {
+            context.addServiceListener(this, ARCHITECTURE_FILTER);
+            context.addServiceListener(queueListener, QUEUE_FILTER);
+            ServiceReference[] refs = context.getServiceReferences((String) null, QUEUE_FILTER);
+            if (refs != null) {
+                for (ServiceReference ref : refs) {
+                    onQueueEvent(new ServiceEvent(ServiceEvent.REGISTERED, ref));
+                }
+            }
+        } catch (InvalidSyntaxException e) {
+            // Cannot happen, the filters are constants.
+            throw new IllegalStateException(e);
+        }
+
+        if (defer) {
+            synchronized (this) {
+                timer = new Timer("wisdom-startup-deferral", true);
+                timer.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        onTimeout();
+                    }
+                }, timeout);
+            }
+        }
+    }
+
+    private void onTimeout() {
+        List<DeferredTask> tasks = takePendingTasks();
+        if (!tasks.isEmpty()) {
+            LOGGER.warn("The application is still not ready, starting the deferred components");
+            execute(tasks);
+        }
+    }
+
+    /**
+     * Stops the recording and drops the tasks not executed yet.
+     */
+    @Invalidate
+    public void stop() {
+        stopRecording();
+        synchronized (this) {
+            pending.clear();
+            deferring = false;
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+
+    private void stopRecording() {
+        Map<ServiceReference<QueueService>, QueueService> observed;
+        synchronized (this) {
+            if (!recording) {
+                return;
+            }
+            recording = false;
+            for (ComponentInstance instance : created.keySet()) {
+                instance.removeInstanceStateListener(this);
+            }
+            created.clear();
+            resolved.clear();
+            starting.clear();
+            observed = new HashMap<>(queues);
+            queues.clear();
+        }
+        context.removeBundleListener(this);
+        context.removeServiceListener(this);
+        context.removeServiceListener(queueListener);
+        for (Map.Entry<ServiceReference<QueueService>, QueueService> entry : observed.entrySet()) {
+            entry.getValue().removeQueueListener(this);
+            context.ungetService(entry.getKey());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ready() {
+        synchronized (this) {
+            if (readyTime != -1) {
+                return;
+            }
+            readyTime = now();
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+        stopRecording();
+        List<DeferredTask> tasks = takePendingTasks();
+        logSummary();
+        if (!tasks.isEmpty()) {
+            execute(tasks);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isReady() {
+        return readyTime != -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void whenReady(String name, Runnable task) {
+        synchronized (this) {
+            if (deferring) {
+                LOGGER.debug("Deferring {} until the application is ready", name);
+                pending.add(new DeferredTask(name, task, true));
+                return;
+            }
+        }
+        run(new DeferredTask(name, task, false));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized StartupReport getReport() {
+        return new StartupReport(jvmStartTime, readyTime, bundles, jobs, components, deferred);
+    }
+
+    private synchronized List<DeferredTask> takePendingTasks() {
+        deferring = false;
+        List<DeferredTask> tasks = new ArrayList<>(pending);
+        pending.clear();
+        return tasks;
+    }
+
+    /**
+     * Executes the deferred tasks in a dedicated thread, so the engine threads are not blocked.
+     *
+     * @param tasks the tasks
+     */
+    private void execute(final List<DeferredTask> tasks) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (DeferredTask task : tasks) {
+                    StartupProfilerImpl.this.run(task);
+                }
+            }
+        }, "wisdom-startup-deferred");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(DeferredTask task) {
+        long begin = now();
+        try {
+            task.task.run();
+        } catch (RuntimeException e) {
+            LOGGER.error("The deferred task {} has thrown an exception", task.name, e);
+        }
+        synchronized (this) {
+            if (task.deferred || recording) {
+                deferred.add(new StartupReport.Entry(task.name, task.deferred ? "deferred" : "not deferred", begin,
+                        now() - begin));
+            }
+        }
+    }
+
+    private long now() {
+        return System.currentTimeMillis() - jvmStartTime;
+    }
+
+    /**
+     * Records the bundle resolution and start.
+     *
+     * @param event the bundle event
+     */
+    @Override
+    public void bundleChanged(BundleEvent event) {
+        long id = event.getBundle().getBundleId();
+        synchronized (this) {
+            if (!recording) {
+                return;
+            }
+            switch (event.getType()) {
+                case BundleEvent.RESOLVED:
+                    resolved.put(id, now());
+                    break;
+                case BundleEvent.STARTING:
+                    starting.put(id, now());
+                    break;
+                case BundleEvent.STARTED:
+                    Long begin = starting.remove(id);
+                    if (begin != null) {
+                        Long resolution = resolved.remove(id);
+                        bundles.add(new StartupReport.Entry(event.getBundle().getSymbolicName(),
+                                resolution != null ? "resolved at " + resolution + " ms" : null, begin,
+                                now() - begin));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Tracks the component instances from the registration of their architecture service.
+     *
+     * @param event the service event
+     */
+    @Override
+    public void serviceChanged(ServiceEvent event) {
+        if (event.getType() != ServiceEvent.REGISTERED) {
+            return;
+        }
+        ServiceReference reference = event.getServiceReference();
+        Architecture architecture = (Architecture) context.getService(reference);
+        if (architecture == null) {
+            return;
+        }
+        try {
+            ComponentInstance instance = architecture.getInstanceDescription().getInstance();
+            synchronized (this) {
+                if (!recording || instance.getState() == ComponentInstance.VALID) {
+                    return;
+                }
+                created.put(instance, now());
+            }
+            instance.addInstanceStateListener(this);
+        } finally {
+            context.ungetService(reference);
+        }
+    }
+
+    /**
+     * Records the time needed by an instance to become valid.
+     *
+     * @param instance the instance
+     * @param state    the new state
+     */
+    @Override
+    public void stateChanged(ComponentInstance instance, int state) {
+        if (state != ComponentInstance.VALID && state != ComponentInstance.DISPOSED) {
+            return;
+        }
+        synchronized (this) {
+            Long begin = created.remove(instance);
+            if (begin != null && state == ComponentInstance.VALID) {
+                InstanceDescription description = (InstanceDescription) instance.getInstanceDescription();
+                components.add(new StartupReport.Entry(instance.getInstanceName(),
+                        description.getComponentDescription().getName(), begin, now() - begin));
+            }
+        }
+        instance.removeInstanceStateListener(this);
+    }
+
+    private void onQueueEvent(ServiceEvent event) {
+        @SuppressWarnings("unchecked")
+        ServiceReference<QueueService> reference = (ServiceReference<QueueService>) event.getServiceReference();
+        QueueService queue;
+        synchronized (this) {
+            if (event.getType() == ServiceEvent.REGISTERED) {
+                if (!recording || queues.containsKey(reference)) {
+                    return;
+                }
+                queue = context.getService(reference);
+                if (queue == null) {
+                    return;
+                }
+                queues.put(reference, queue);
+            } else if (event.getType() == ServiceEvent.UNREGISTERING) {
+                queue = queues.remove(reference);
+                if (queue == null) {
+                    return;
+                }
+            } else {
+                return;
+            }
+        }
+        if (event.getType() == ServiceEvent.REGISTERED) {
+            queue.addQueueListener(this);
+        } else {
+            queue.removeQueueListener(this);
+            context.ungetService(reference);
+        }
+    }
+
+    /**
+     * Ignored.
+     *
+     * @param info the job
+     */
+    @Override
+    public void enlisted(JobInfo info) {
+        // Do nothing.
+    }
+
+    /**
+     * Ignored.
+     *
+     * @param info the job
+     */
+    @Override
+    public void started(JobInfo info) {
+        // Do nothing.
+    }
+
+    /**
+     * Records the execution of an iPOJO extender job.
+     *
+     * @param info   the job
+     * @param result the result
+     */
+    @Override
+    public void executed(JobInfo info, Object result) {
+        record(info, info.getJobType());
+    }
+
+    /**
+     * Records the execution of an iPOJO extender job.
+     *
+     * @param info      the job
+     * @param throwable the error
+     */
+    @Override
+    public void failed(JobInfo info, Throwable throwable) {
+        record(info, info.getJobType() + ", failed");
+    }
+
+    private synchronized void record(JobInfo info, String detail) {
+        if (recording) {
+            jobs.add(new StartupReport.Entry(info.getDescription(),
+                    detail + ", waited " + info.getWaitDuration() + " ms",
+                    info.getStartTime() - jvmStartTime, info.getExecutionDuration()));
+        }
+    }
+
+    private void logSummary() {
+        StartupReport report = getReport();
+        LOGGER.info("Application ready {} ms after the JVM start ({} bundles, {} iPOJO jobs and {} component " +
+                        "instances recorded)", report.getReadyTime(), report.getBundles().size(),
+                report.getJobs().size(), report.getComponents().size());
+        log("bundle starts", report.getBundles());
+        log("iPOJO jobs", report.getJobs());
+        log("component validations", report.getComponents());
+    }
+
+    private void log(String category, List<StartupReport.Entry> entries) {
+        List<StartupReport.Entry> slowest = slowest(entries, SUMMARY_SIZE);
+        if (!slowest.isEmpty()) {
+            LOGGER.info("Slowest {}: {}", category, slowest);
+        }
+    }
+
+    /**
+     * Sorts the given entries by decreasing duration.
+     *
+     * @param entries the entries
+     * @param max     the maximum number of entries to return
+     * @return the slowest entries
+     */
+    static List<StartupReport.Entry> slowest(List<StartupReport.Entry> entries, int max) {
+        List<StartupReport.Entry> list = new ArrayList<>(entries);
+        Collections.sort(list, new Comparator<StartupReport.Entry>() {
+            @Override
+            public int compare(StartupReport.Entry o1, StartupReport.Entry o2) {
+                return Long.compare(o2.getDuration(), o1.getDuration());
+            }
+        });
+        return list.subList(0, Math.min(max, list.size()));
+    }
+
+    private static class DeferredTask {
+        private final String name;
+        private final Runnable task;
+        private final boolean deferred;
+
+        private DeferredTask(String name, Runnable task, boolean deferred) {
+            this.name = name;
+            this.task = task;
+            this.deferred = deferred;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.configuration.startup;
+
+import org.apache.felix.ipojo.extender.queue.JobInfo;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.engine.StartupProfiler;
+import org.wisdom.api.engine.StartupReport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class StartupProfilerImplTest {
+
+    private StartupProfilerImpl create(boolean defer, long timeout) {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getBooleanWithDefault(StartupProfiler.DEFER, false)).thenReturn(defer);
+        when(configuration.getDuration(StartupProfiler.DEFER_TIMEOUT, TimeUnit.MILLISECONDS, 30000L))
+                .thenReturn(timeout);
+        StartupProfilerImpl profiler = new StartupProfilerImpl(mock(BundleContext.class));
+        profiler.configuration = configuration;
+        profiler.start();
+        return profiler;
+    }
+
+    @Test
+    public void testBundleStartsAndJobsAreRecordedUntilReady() {
+        StartupProfilerImpl profiler = create(false, 30000L);
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getBundleId()).thenReturn(1L);
+        when(bundle.getSymbolicName()).thenReturn("my-bundle");
+
+        profiler.bundleChanged(new BundleEvent(BundleEvent.RESOLVED, bundle));
+        profiler.bundleChanged(new BundleEvent(BundleEvent.STARTING, bundle));
+        profiler.bundleChanged(new BundleEvent(BundleEvent.STARTED, bundle));
+
+        JobInfo job = mock(JobInfo.class);
+        when(job.getDescription()).thenReturn("my-bundle");
+        when(job.getJobType()).thenReturn("bundle");
+        when(job.getExecutionDuration()).thenReturn(12L);
+        profiler.executed(job, null);
+
+        assertThat(profiler.isReady()).isFalse();
+        profiler.ready();
+        assertThat(profiler.isReady()).isTrue();
+
+        // Not recorded anymore.
+        profiler.bundleChanged(new BundleEvent(BundleEvent.STARTING, bundle));
+        profiler.bundleChanged(new BundleEvent(BundleEvent.STARTED, bundle));
+        profiler.executed(job, null);
+
+        StartupReport report = profiler.getReport();
+        assertThat(report.getReadyTime()).isGreaterThanOrEqualTo(0);
+        assertThat(report.getBundles()).hasSize(1);
+        assertThat(report.getBundles().get(0).getName()).isEqualTo("my-bundle");
+        assertThat(report.getBundles().get(0).getDetail()).startsWith("resolved at ");
+        assertThat(report.getJobs()).hasSize(1);
+        assertThat(report.getJobs().get(0).getDuration()).isEqualTo(12L);
+        profiler.stop();
+    }
+
+    @Test
+    public void testTasksAreExecutedImmediatelyWithoutDeferral() {
+        StartupProfilerImpl profiler = create(false, 30000L);
+        final AtomicInteger counter = new AtomicInteger();
+        profiler.whenReady("task", new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        });
+        assertThat(counter.get()).isEqualTo(1);
+        assertThat(profiler.getReport().getDeferred()).hasSize(1);
+        assertThat(profiler.getReport().getDeferred().get(0).getDetail()).isEqualTo("not deferred");
+        profiler.stop();
+    }
+
+    @Test
+    public void testTasksAreDeferredUntilReady() throws InterruptedException {
+        StartupProfilerImpl profiler = create(true, 30000L);
+        final CountDownLatch latch = new CountDownLatch(1);
+        profiler.whenReady("task", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertThat(latch.getCount()).isEqualTo(1);
+        profiler.ready();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The application is ready, new tasks are executed immediately.
+        final AtomicInteger counter = new AtomicInteger();
+        profiler.whenReady("late", new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        });
+        assertThat(counter.get()).isEqualTo(1);
+        profiler.stop();
+    }
+
+    @Test
+    public void testDeferredTasksAreExecutedOnTimeout() throws InterruptedException {
+        StartupProfilerImpl profiler = create(true, 10L);
+        final CountDownLatch latch = new CountDownLatch(1);
+        profiler.whenReady("task", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(profiler.isReady()).isFalse();
+        profiler.stop();
+    }
+
+    @Test
+    public void testSlowest() {
+        List<StartupReport.Entry> entries = Arrays.asList(
+                new StartupReport.Entry("a", null, 0, 10),
+                new StartupReport.Entry("b", null, 0, 30),
+                new StartupReport.Entry("c", null, 0, 20));
+        List<StartupReport.Entry> slowest = StartupProfilerImpl.slowest(entries, 2);
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).getName()).isEqualTo("b");
+        assertThat(slowest.get(1).getName()).isEqualTo("c");
+    }
+}
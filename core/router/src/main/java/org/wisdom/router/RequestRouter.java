@@ -31,6 +31,7 @@ import org.wisdom.api.interception.Interceptor;
 import org.wisdom.api.router.AbstractRouter;
 import org.wisdom.api.router.Route;
 import org.wisdom.api.router.RouteUtils;
+import org.wisdom.api.router.Router;
 import org.wisdom.api.router.RoutingException;
 
 import javax.validation.Validator;
@@ -89,6 +90,12 @@ public class RequestRouter extends AbstractRouter {
 
     private Set<RouteDelegate> routes = new LinkedHashSet<>();
 
+    /**
+     * Published as a service property, incremented once the routes have changed.
+     */
+    @ServiceProperty(name = Router.ROUTES_VERSION, value = "0")
+    private long routesVersion;
+
     /**
      * Binds a new controller.
      *
@@ -119,6 +126,7 @@ public class RequestRouter extends AbstractRouter {
             // remove all new routes as one has failed
             routes.removeAll(newRoutes);
         }
+        routesVersion++;
     }
 
     /**
@@ -135,6 +143,7 @@ public class RequestRouter extends AbstractRouter {
                 routes.remove(r);
             }
         }
+        routesVersion++;
     }
 
     private void ensureNoConflicts(List<Route> newRoutes) {
@@ -176,7 +185,9 @@ public class RequestRouter extends AbstractRouter {
     }
 
     /**
-     * Gets the {@link org.wisdom.api.router.Route} object handling the given request.
+     * Gets the {@link org.wisdom.api.router.Route} object handling the given request. {@literal HEAD} requests not
+     * handled by a specific action are routed to the action handling the {@literal GET} requests on the same URL,
+     * the engine sends the headers of the response without its body.
      *
      * @param method the method the request method
      * @param uri    the URL of the request
@@ -184,11 +195,19 @@ public class RequestRouter extends AbstractRouter {
      */
     @Override
     public Route getRouteFor(HttpMethod method, String uri) {
-        for (Route route : copy()) {
+        Set<Route> snapshot = copy();
+        for (Route route : snapshot) {
             if (route.matches(method, uri)) {
                 return route;
             }
         }
+        if (method == HttpMethod.HEAD) {
+            for (Route route : snapshot) {
+                if (route.matches(HttpMethod.GET, uri)) {
+                    return route;
+                }
+            }
+        }
         // Creates an unbound route.
         return new RouteDelegate(this, new Route(method, uri, null, null));
     }
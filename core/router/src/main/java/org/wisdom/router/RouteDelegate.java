@@ -33,9 +33,7 @@ import org.wisdom.api.router.Route;
 import org.wisdom.api.router.parameters.ActionParameter;
 import org.wisdom.router.parameter.Bindings;
 
-import javax.validation.Constraint;
 import javax.validation.ConstraintViolation;
-import javax.validation.Valid;
 import javax.validation.Validator;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
@@ -50,7 +48,7 @@ public class RouteDelegate extends Route {
 
     private final Route route;
     private final RequestRouter router;
-    private final boolean mustValidate;
+    private final ValidationPlan validation;
     private final Map<String, Object> interceptors;
 
     /**
@@ -63,10 +61,10 @@ public class RouteDelegate extends Route {
         this.route = route;
         this.router = router;
         if (!route.isUnbound()) {
-            this.mustValidate = detectValidationRequirement(route.getControllerMethod());
+            this.validation = ValidationPlan.create(route.getControllerMethod());
             this.interceptors = extractInterceptors();
         } else {
-            this.mustValidate = false;
+            this.validation = ValidationPlan.NONE;
             this.interceptors = Collections.emptyMap();
         }
 
@@ -93,31 +91,6 @@ public class RouteDelegate extends Route {
         return map;
     }
 
-    private static boolean detectValidationRequirement(Method method) {
-        Annotation[][] annotations = method.getParameterAnnotations();
-        for (Annotation[] array : annotations) {
-            for (Annotation annotation : array) {
-                if (isConstraint(annotation)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Determines whether the given annotation is a 'constraint' or not.
-     * It just checks if the annotation has the {@link Constraint} annotation on it or if the annotation is the {@link
-     * Valid} annotation.
-     *
-     * @param annotation the annotation to check
-     * @return {@code true} if the given annotation is a constraint
-     */
-    private static boolean isConstraint(Annotation annotation) {
-        return annotation.annotationType().isAnnotationPresent(Constraint.class)
-                || annotation.annotationType().equals(Valid.class);
-    }
-
     @Override
     public String getUrl() {
         return route.getUrl();
@@ -264,11 +237,11 @@ public class RouteDelegate extends Route {
                 }
 
                 // Validate if needed.
-                if (mustValidate) {
+                if (validation.isRequired()) {
                     Validator validator = router.getValidator();
                     if (validator != null) {
                         Set<ConstraintViolation<Controller>> violations =
-                                validator.forExecutables().validateParameters(getControllerObject(), getControllerMethod(),
+                                validation.validate(validator, getControllerObject(), getControllerMethod(),
                                         parameters);
 
                         if (!violations.isEmpty()) {
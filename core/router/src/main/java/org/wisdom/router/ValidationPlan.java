@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import com.google.common.primitives.Primitives;
+import org.wisdom.api.Controller;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import javax.validation.executable.ExecutableValidator;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The validation to apply on the parameters of an action method. The plan is computed once, when the route is
+ * bound, from the constraints set on the parameters:
+ * <ul>
+ * <li>constraints that cannot be violated ({@link NotNull} on a primitive, {@link Valid} on a primitive,
+ * a String, an enum...) are ignored,</li>
+ * <li>if the remaining constraints are {@link NotNull} constraints only, the parameters are checked against
+ * {@literal null}, and the validator is only called when one of them is {@literal null} (to build the violations),</li>
+ * <li>otherwise the validator is called on each invocation.</li>
+ * </ul>
+ * The executable validator is retrieved once per validator.
+ */
+final class ValidationPlan {
+
+    /**
+     * The plan of action methods without constraints.
+     */
+    static final ValidationPlan NONE = new ValidationPlan(false, new int[0]);
+
+    private final boolean full;
+
+    private final int[] nullChecks;
+
+    private volatile ExecutableValidatorHolder holder;
+
+    private ValidationPlan(boolean full, int[] nullChecks) {
+        this.full = full;
+        this.nullChecks = nullChecks;
+    }
+
+    /**
+     * Computes the validation plan of the given method.
+     *
+     * @param method the action method
+     * @return the plan, {@link #NONE} if the parameters don't need to be validated
+     */
+    static ValidationPlan create(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        Class<?>[] types = method.getParameterTypes();
+        boolean full = false;
+        List<Integer> nullChecks = new ArrayList<>();
+        for (int i = 0; i < annotations.length; i++) {
+            switch (analyze(types[i], annotations[i])) {
+                case FULL:
+                    full = true;
+                    break;
+                case NULL_CHECK:
+                    nullChecks.add(i);
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!full && nullChecks.isEmpty()) {
+            return NONE;
+        }
+        int[] indexes = new int[nullChecks.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = nullChecks.get(i);
+        }
+        return new ValidationPlan(full, indexes);
+    }
+
+    private static Requirement analyze(Class<?> type, Annotation[] annotations) {
+        boolean simple = type.isPrimitive() || Primitives.isWrapperType(type)
+                || CharSequence.class.isAssignableFrom(type) || type.isEnum();
+        Requirement requirement = Requirement.NONE;
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotationType.equals(Valid.class)) {
+                if (!simple) {
+                    return Requirement.FULL;
+                }
+                // Nothing to cascade to.
+            } else if (annotationType.equals(NotNull.class)) {
+                if (!type.isPrimitive()) {
+                    requirement = Requirement.NULL_CHECK;
+                }
+                // A primitive is never null.
+            } else if (annotationType.isAnnotationPresent(Constraint.class)) {
+                return Requirement.FULL;
+            }
+        }
+        return requirement;
+    }
+
+    /**
+     * @return whether or not the parameters may need to be validated.
+     */
+    boolean isRequired() {
+        return this != NONE;
+    }
+
+    /**
+     * @return whether or not the parameters are always validated by the validator.
+     */
+    boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Validates the parameters.
+     *
+     * @param validator  the validator
+     * @param controller the controller
+     * @param method     the action method
+     * @param parameters the parameters
+     * @return the set of violations, empty if the parameters are valid
+     */
+    Set<ConstraintViolation<Controller>> validate(Validator validator, Controller controller, Method method,
+                                                  Object[] parameters) {
+        if (!full && areNotNull(parameters)) {
+            return Collections.emptySet();
+        }
+        return getExecutableValidator(validator).validateParameters(controller, method, parameters);
+    }
+
+    private boolean areNotNull(Object[] parameters) {
+        for (int index : nullChecks) {
+            if (parameters[index] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ExecutableValidator getExecutableValidator(Validator validator) {
+        ExecutableValidatorHolder current = holder;
+        if (current == null || current.validator != validator) {
+            // The validator is a dynamic dependency, it may have changed.
+            current = new ExecutableValidatorHolder(validator);
+            holder = current;
+        }
+        return current.executable;
+    }
+
+    private enum Requirement {
+        NONE, NULL_CHECK, FULL
+    }
+
+    private static final class ExecutableValidatorHolder {
+        private final Validator validator;
+        private final ExecutableValidator executable;
+
+        private ExecutableValidatorHolder(Validator validator) {
+            this.validator = validator;
+            this.executable = validator.forExecutables();
+        }
+    }
+}
@@ -57,6 +57,28 @@ public class RouterTest {
         assertThat(router.getRouteFor(HttpMethod.GET, "/foo").getControllerObject()).isEqualTo(controller);
     }
 
+    @Test
+    public void headRequestsAreRoutedToGetActions() throws Exception {
+        FakeController controller = new FakeController();
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/foo").to(controller, "foo"),
+                new RouteBuilder().route(HttpMethod.GET).on("/bar").to(controller, "foo"),
+                new RouteBuilder().route(HttpMethod.HEAD).on("/bar").to(controller, "foo"),
+                new RouteBuilder().route(HttpMethod.POST).on("/baz").to(controller, "foo")
+        ));
+        router.bindController(controller);
+
+        Route route = router.getRouteFor(HttpMethod.HEAD, "/foo");
+        assertThat(route.isUnbound()).isFalse();
+        assertThat(route.getHttpMethod()).isEqualTo(HttpMethod.GET);
+
+        // A specific action wins.
+        assertThat(router.getRouteFor(HttpMethod.HEAD, "/bar").getHttpMethod()).isEqualTo(HttpMethod.HEAD);
+
+        assertThat(router.getRouteFor(HttpMethod.HEAD, "/baz").isUnbound()).isTrue();
+        assertThat(router.getRouteFor(HttpMethod.HEAD, "/missing").isUnbound()).isTrue();
+    }
+
     @Test
     public void missingRoute() throws Exception {
         FakeController controller = new FakeController();
@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import org.hibernate.validator.constraints.Email;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.executable.ExecutableValidator;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the computation and the execution of the validation plans.
+ */
+public class ValidationPlanTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @SuppressWarnings("unused")
+    public static class MyController extends FakeController {
+
+        public Result none(String name, int count) {
+            return ok();
+        }
+
+        public Result primitives(@NotNull int count, @Valid long id, @Valid HttpMethod method) {
+            return ok();
+        }
+
+        public Result nullChecks(@NotNull String name, @NotNull @Valid Integer count, String other) {
+            return ok();
+        }
+
+        public Result constraints(@NotNull String name, @Min(1) int count) {
+            return ok();
+        }
+
+        public Result cascade(@Valid Bean bean) {
+            return ok();
+        }
+    }
+
+    public static class Bean {
+        @Email
+        String email;
+
+        Bean(String email) {
+            this.email = email;
+        }
+    }
+
+    private static Method method(String name) {
+        for (Method method : MyController.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    public void testPlans() {
+        assertThat(ValidationPlan.create(method("none"))).isSameAs(ValidationPlan.NONE);
+        assertThat(ValidationPlan.create(method("primitives"))).isSameAs(ValidationPlan.NONE);
+        assertThat(ValidationPlan.NONE.isRequired()).isFalse();
+
+        ValidationPlan plan = ValidationPlan.create(method("nullChecks"));
+        assertThat(plan.isRequired()).isTrue();
+        assertThat(plan.isFull()).isFalse();
+
+        assertThat(ValidationPlan.create(method("constraints")).isFull()).isTrue();
+        assertThat(ValidationPlan.create(method("cascade")).isFull()).isTrue();
+    }
+
+    @Test
+    public void testNullChecksOnlyCallTheValidatorOnNullValues() {
+        Validator spy = spy(validator);
+        Controller controller = new MyController();
+        Method method = method("nullChecks");
+        ValidationPlan plan = ValidationPlan.create(method);
+
+        assertThat(plan.validate(spy, controller, method, new Object[]{"a", 1, null})).isEmpty();
+        verify(spy, never()).forExecutables();
+
+        Set<ConstraintViolation<Controller>> violations =
+                plan.validate(spy, controller, method, new Object[]{null, 1, null});
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getPropertyPath().toString()).contains("nullChecks");
+    }
+
+    @Test
+    public void testFullValidation() {
+        Controller controller = new MyController();
+        Method method = method("constraints");
+        ValidationPlan plan = ValidationPlan.create(method);
+        assertThat(plan.validate(validator, controller, method, new Object[]{"a", 1})).isEmpty();
+        assertThat(plan.validate(validator, controller, method, new Object[]{"a", 0})).hasSize(1);
+        assertThat(plan.validate(validator, controller, method, new Object[]{null, 0})).hasSize(2);
+
+        method = method("cascade");
+        plan = ValidationPlan.create(method);
+        assertThat(plan.validate(validator, controller, method, new Object[]{new Bean("me@wisdom.org")})).isEmpty();
+        assertThat(plan.validate(validator, controller, method, new Object[]{new Bean("not an email")})).hasSize(1);
+    }
+
+    @Test
+    public void testTheExecutableValidatorIsRetrievedOncePerValidator() {
+        Controller controller = new MyController();
+        Method method = method("constraints");
+        ValidationPlan plan = ValidationPlan.create(method);
+
+        Validator spy = spy(validator);
+        for (int i = 0; i < 5; i++) {
+            plan.validate(spy, controller, method, new Object[]{"a", 1});
+        }
+        verify(spy, times(1)).forExecutables();
+
+        // The validator has changed.
+        Validator other = mock(Validator.class);
+        ExecutableValidator executable = mock(ExecutableValidator.class);
+        when(other.forExecutables()).thenReturn(executable);
+        plan.validate(other, controller, method, new Object[]{"a", 1});
+        verify(executable).validateParameters(controller, method, new Object[]{"a", 1});
+    }
+}
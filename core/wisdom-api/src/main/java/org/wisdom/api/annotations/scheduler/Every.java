@@ -41,6 +41,13 @@ import java.util.concurrent.TimeUnit;
  * these values are ignored.
  *
  * You need to use one way or the other to configure the period.
+ *
+ * Alternatively, jobs can be triggered using a cron expression (see {@link #cron()}).
+ *
+ * By default, periodic jobs are executed at a fixed rate: if an execution overruns, the next ones are delayed and
+ * executed as soon as possible. Use {@link #policy()} to change this behavior. Instances running the same application
+ * can also spread their executions using {@link #jitter()}, and let only one of them execute each run using
+ * {@link #exclusive()}.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -68,6 +75,55 @@ public @interface Every {
      */
     TimeUnit unit() default TimeUnit.MINUTES;
 
+    /**
+     * Sets a cron expression triggering the job. The expression contains 5 fields (minutes, hours, day of month,
+     * month, day of week) or 6 fields (seconds first). Each field accepts {@literal *}, values, ranges
+     * ({@literal 1-5}), lists ({@literal 1,15}) and steps ({@literal *}{@literal /10}). Months and days of week can
+     * be given by name ({@literal JAN}, {@literal MON}...). The {@literal @hourly}, {@literal @daily},
+     * {@literal @weekly}, {@literal @monthly} and {@literal @yearly} shortcuts are also supported.
+     *
+     * If set, the period is ignored. Executions of a cron job never overlap: a trigger happening while the job is
+     * running is skipped.
+     */
+    String cron() default "";
+
+    /**
+     * Sets the policy used when the execution of a periodic job takes longer than its period.
+     */
+    Policy policy() default Policy.FIXED_RATE;
 
+    /**
+     * Sets the maximum random delay (using the period syntax, for example "30s") added to the start of the job.
+     * For periodic jobs, the delay is applied once, to the initial delay. For cron jobs, it is applied to each
+     * trigger.
+     */
+    String jitter() default "";
+
+    /**
+     * Sets whether each run of the job must be executed by only one instance of the application. This requires a
+     * {@link org.wisdom.api.scheduler.JobLease} service shared by the instances. Without such service, the job is
+     * executed by every instance.
+     */
+    boolean exclusive() default false;
+
+    /**
+     * The policies applied to periodic jobs.
+     */
+    public static enum Policy {
+        /**
+         * Runs are triggered at a fixed rate. Overrunning executions delay the next ones, which are then
+         * executed as soon as possible.
+         */
+        FIXED_RATE,
+        /**
+         * The period is the delay between the end of an execution and the beginning of the next one.
+         */
+        FIXED_DELAY,
+        /**
+         * Runs are triggered at a fixed rate, but the runs triggered while the previous execution is still running
+         * are skipped.
+         */
+        SKIP_IF_RUNNING
+    }
 
 }
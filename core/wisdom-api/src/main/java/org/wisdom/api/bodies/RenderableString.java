@@ -20,6 +20,7 @@
 package org.wisdom.api.bodies;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Utf8;
 import org.wisdom.api.http.*;
 
 import java.io.ByteArrayInputStream;
@@ -144,13 +145,19 @@ public class RenderableString implements Renderable<String> {
     }
 
     /**
-     * Gets the length of the contained String.
+     * Gets the length of the contained String, once encoded in UTF-8 (the default encoding). The String is not
+     * encoded to compute it.
      *
-     * @return the length of the contained String.
+     * @return the length of the UTF-8 form of the contained String.
      */
     @Override
     public long length() {
-        return rendered.length();
+        try {
+            return Utf8.encodedLength(rendered);
+        } catch (IllegalArgumentException e) { //NOSONAR
+            // Unpaired surrogates, replaced by the encoder.
+            return rendered.getBytes(Charsets.UTF_8).length;
+        }
     }
 
     /**
@@ -23,6 +23,8 @@ import org.joda.time.Duration;
 
 /**
  * Interface of the case service.
+ * <p>
+ * Regions, bulk operations and statistics are provided by cache services also implementing {@link ExtendedCache}.
  */
 public interface Cache {
 
@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.cache;
+
+/**
+ * A snapshot of the statistics of a cache region.
+ */
+public class CacheStatistics {
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long size;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param name      the region name
+     * @param hits      the number of cache hits
+     * @param misses    the number of cache misses
+     * @param evictions the number of entries evicted (because the cache was full)
+     * @param size      the number of entries currently stored
+     */
+    public CacheStatistics(String name, long hits, long misses, long evictions, long size) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * @return the region name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of entries evicted because the cache was full.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of entries currently stored.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the ratio of hits among the lookups, 0 if no lookup has been done.
+     */
+    public double getHitRatio() {
+        long total = hits + misses;
+        if (total == 0) {
+            return 0.0;
+        }
+        return (double) hits / total;
+    }
+}
@@ -42,4 +42,20 @@ public @interface Cached {
      * The duration the action should be cached for (in second).  Defaults to 0 corresponding to 365 days.
      */
     int duration() default 0;
+
+    /**
+     * The time (in second) during which an expired response can still be served while it is refreshed in the
+     * background. Defaults to 0, disabling the background refresh.
+     * <p>
+     * The background refresh only gets the data covered by the cache key (URI, parameters and {@link #vary()}
+     * headers): it has no session, flash scope, cookies or body. Actions (and their filters and interceptors) using
+     * the session must not enable it.
+     */
+    int staleWhileRevalidate() default 0;
+
+    /**
+     * The names of the request headers the cached response depends on. The response is cached per value of these
+     * headers. The {@literal Accept} header is always considered.
+     */
+    String[] vary() default {};
 }
\ No newline at end of file
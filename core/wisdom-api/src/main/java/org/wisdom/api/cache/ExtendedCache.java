@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.cache;
+
+import org.joda.time.Duration;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A cache service supporting regions, bulk operations and statistics.
+ * <p>
+ * It manages a default region, on which the methods of this interface operate, and named regions retrieved using
+ * {@link #region(String)}. Regions are independent: the same key can be used in two regions.
+ * <p>
+ * Implementations of {@link Cache} are not required to implement this interface. Components relying on these
+ * features require an {@link ExtendedCache} service.
+ */
+public interface ExtendedCache extends Cache {
+
+    /**
+     * Retrieves a set of values from the cache.
+     *
+     * @param keys the keys
+     * @param <T>  the expected type of values.
+     * @return the map of key -> cached value, keys not cached (or expired) are not contained in the returned map.
+     */
+    public <T> Map<String, T> getAll(Collection<String> keys);
+
+    /**
+     * Sets a set of values into the cache.
+     *
+     * @param values     the key -> value map
+     * @param expiration Expiration time, {@literal null} means eternity.
+     * @param <T>        the type of the values.
+     */
+    public <T> void setAll(Map<String, T> values, Duration expiration);
+
+    /**
+     * Retrieves a value from the cache, or computes and stores it if not cached. Concurrent invocations for the same
+     * key compute the value only once, the other callers get the computed value.
+     *
+     * @param key        Item key.
+     * @param loader     the callable computing the value, if it returns {@literal null}, nothing is stored.
+     * @param expiration Expiration time, {@literal null} means eternity.
+     * @param <T>        the type of the value.
+     * @return the cached or computed value.
+     * @throws java.lang.Exception if the loader has thrown an exception
+     */
+    public <T> T computeIfAbsent(String key, Callable<T> loader, Duration expiration) throws Exception;
+
+    /**
+     * Gets a named region of the cache. The region is created if it does not exist.
+     *
+     * @param name the name of the region
+     * @return the cache managing the region
+     */
+    public ExtendedCache region(String name);
+
+    /**
+     * @return the name of the region managed by this cache object.
+     */
+    public String name();
+
+    /**
+     * @return the names of the regions created on this cache service, including the default region.
+     */
+    public Collection<String> regions();
+
+    /**
+     * @return a snapshot of the statistics of the region managed by this cache object.
+     */
+    public CacheStatistics getStatistics();
+}
@@ -26,6 +26,8 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Executor Service exposed as a service to execute tasks. This interface
@@ -184,19 +186,48 @@ public interface ManagedExecutorService extends ListeningExecutorService {
     public long getTaskCount();
 
     /**
-     * @return the execution statistics.
+     * @return the execution statistics, in milliseconds.
      */
     public ExecutionStatistics getExecutionTimeStatistics();
 
+    /**
+     * @return the statistics of the time spent by the tasks in the queue before being executed, in milliseconds.
+     */
+    public ExecutionStatistics getQueueWaitTimeStatistics();
+
+    /**
+     * @return the number of tasks that have been rejected by the executor.
+     */
+    public long getRejectedTaskCount();
+
     /**
      * Represents execution statistics of a thread pool.
+     * <p>
+     * Recording a value is lock-free: the count and sum are striped across several cells (selected from the
+     * current thread) to avoid contention between the pool threads, and the values are recorded in a log-linear
+     * histogram to estimate percentiles. The histogram precision is 12.5% of the recorded value (values lower than
+     * 8 are exact). Reads are not atomic, so the values returned while tasks complete may be slightly inconsistent.
      */
     public static class ExecutionStatistics {
 
-        private long count;
-        private long sum;
-        private long min = Long.MAX_VALUE;
-        private long max = Long.MIN_VALUE;
+        /**
+         * The number of sub-buckets per power of 2 (as a number of bits).
+         */
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        /**
+         * Each cell uses a cache line (8 longs) to avoid false sharing: the count is stored at the first index, the
+         * sum at the second one.
+         */
+        private static final int CELL_SIZE = 8;
+        private static final int CELLS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+
+        private final AtomicLongArray cells = new AtomicLongArray(CELLS * CELL_SIZE);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
 
         /**
          * Construct an empty instance with zero count, zero sum,
@@ -220,11 +251,57 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @param value the input value
          */
-        public synchronized void accept(long value) {
-            ++count;
-            sum += value;
-            min = Math.min(min, value);
-            max = Math.max(max, value);
+        public void accept(long value) {
+            int cell = ((int) Thread.currentThread().getId() & (CELLS - 1)) * CELL_SIZE;
+            cells.incrementAndGet(cell);
+            cells.addAndGet(cell + 1, value);
+            histogram.incrementAndGet(bucket(value));
+            updateMin(value);
+            updateMax(value);
+        }
+
+        private void updateMin(long value) {
+            long current = min.get();
+            while (value < current && !min.compareAndSet(current, value)) {
+                current = min.get();
+            }
+        }
+
+        private void updateMax(long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        /**
+         * Computes the histogram bucket of the given value.
+         *
+         * @param value the value
+         * @return the bucket index
+         */
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return value < 0 ? 0 : (int) value;
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        /**
+         * Computes the highest value stored in the given bucket.
+         *
+         * @param bucket the bucket index
+         * @return the highest value of the bucket
+         */
+        static long highestValue(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowest + (1L << shift) - 1;
         }
 
         /**
@@ -234,11 +311,17 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          * @param other another {@code ExecutionStatistics}
          * @throws NullPointerException if {@code other} is null
          */
-        public synchronized void combine(final ExecutionStatistics other) {
-                count += other.getCount();
-                sum += other.getTotalExecutionTime();
-                min = Math.min(min, other.getMinimumExecutionTime());
-                max = Math.max(max, other.getMaximumExecutionTime());
+        public void combine(final ExecutionStatistics other) {
+            cells.addAndGet(0, other.getCount());
+            cells.addAndGet(1, other.getTotalExecutionTime());
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = other.histogram.get(i);
+                if (count != 0) {
+                    histogram.addAndGet(i, count);
+                }
+            }
+            updateMin(other.getMinimumExecutionTime());
+            updateMax(other.getMaximumExecutionTime());
         }
 
         /**
@@ -246,19 +329,27 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the copied object
          */
-        public synchronized ExecutionStatistics copy() {
+        public ExecutionStatistics copy() {
             ExecutionStatistics statistics = new ExecutionStatistics();
             statistics.combine(this);
             return statistics;
         }
 
+        private long sumOfCells(int offset) {
+            long sum = 0;
+            for (int i = offset; i < cells.length(); i += CELL_SIZE) {
+                sum += cells.get(i);
+            }
+            return sum;
+        }
+
         /**
          * Returns the count of values recorded.
          *
          * @return the count of values
          */
-        public synchronized final long getCount() {
-            return count;
+        public final long getCount() {
+            return sumOfCells(0);
         }
 
         /**
@@ -266,7 +357,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the number of tasks
          */
-        public synchronized final long getNumberOfTasks() {
+        public final long getNumberOfTasks() {
             return getCount();
         }
 
@@ -276,8 +367,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the sum of values, or zero if none
          */
-        public synchronized final long getTotalExecutionTime() {
-            return sum;
+        public final long getTotalExecutionTime() {
+            return sumOfCells(1);
         }
 
         /**
@@ -286,8 +377,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the minimum value, or {@code Long.MAX_VALUE} if none
          */
-        public synchronized final long getMinimumExecutionTime() {
-            return min;
+        public final long getMinimumExecutionTime() {
+            return min.get();
         }
 
         /**
@@ -296,8 +387,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the maximum value, or {@code Long.MIN_VALUE} if none
          */
-        public synchronized final long getMaximumExecutionTime() {
-            return max;
+        public final long getMaximumExecutionTime() {
+            return max.get();
         }
 
         /**
@@ -306,8 +397,36 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return The arithmetic mean of values, or zero if none
          */
-        public synchronized final double getAverageExecutionTime() {
-            return getCount() > 0 ? (double) getTotalExecutionTime() / getNumberOfTasks() : 0.0d;
+        public final double getAverageExecutionTime() {
+            long count = getCount();
+            return count > 0 ? (double) getTotalExecutionTime() / count : 0.0d;
+        }
+
+        /**
+         * Estimates the value at the given percentile, or zero if no values have been recorded.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the estimated value, never greater than the maximum value
+         */
+        public final long getPercentile(double percentile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = histogram.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * total));
+            long cumulated = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                cumulated += snapshot[i];
+                if (cumulated >= target) {
+                    return Math.min(highestValue(i), getMaximumExecutionTime());
+                }
+            }
+            return getMaximumExecutionTime();
         }
 
         @Override
@@ -318,14 +437,15 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          * debugging. The exact presentation format is unspecified and may vary
          * between implementations and versions.
          */
-        public synchronized String toString() {
+        public String toString() {
             return String.format(
-                    "%s{count=%d, sum=%d, min=%d, average=%f, max=%d}",
+                    "%s{count=%d, sum=%d, min=%d, average=%f, p99=%d, max=%d}",
                     this.getClass().getSimpleName(),
                     getCount(),
                     getTotalExecutionTime(),
                     getMinimumExecutionTime(),
                     getAverageExecutionTime(),
+                    getPercentile(99),
                     getMaximumExecutionTime());
         }
 
@@ -0,0 +1,37 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.engine;
+
+/**
+ * A service interface to receive the timing of each request handled by the engine.
+ * <p>
+ * Listeners are called on the engine threads once the response has been written. They must be fast and must not
+ * block. When no listeners are available, the engine does not measure anything.
+ */
+public interface RequestTimingListener {
+
+    /**
+     * Notifies the listener that a request has been handled.
+     *
+     * @param timings the time spent in each processing phase
+     */
+    void onRequestCompleted(RequestTimings timings);
+
+}
@@ -0,0 +1,240 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The time spent by the engine in the different phases of the processing of a request. Instances are created by
+ * the engine once the response has been written, and given to the {@link RequestTimingListener} services.
+ * <p>
+ * All durations are given in nanoseconds.
+ */
+public final class RequestTimings {
+
+    /**
+     * The processing phases of a request.
+     */
+    public enum Phase {
+        /**
+         * The read of the request (headers and body).
+         */
+        READ,
+        /**
+         * The route lookup.
+         */
+        ROUTING,
+        /**
+         * The invocation of the action method (including the filters and interceptors, and the execution of
+         * asynchronous results).
+         */
+        INVOCATION,
+        /**
+         * The serialization of the result (rendering of the body).
+         */
+        SERIALIZATION,
+        /**
+         * The compression of the body.
+         */
+        ENCODING,
+        /**
+         * The write of the response on the socket.
+         */
+        WRITE
+    }
+
+    /**
+     * A thread hop: the processing of the request continued on another thread (executor, event loop...).
+     */
+    public static final class Hop {
+
+        private final String name;
+
+        private final String thread;
+
+        private final long offset;
+
+        /**
+         * Creates a new hop.
+         *
+         * @param name   the name of the step executed on the thread, such as {@literal async-result}
+         * @param thread the name of the thread
+         * @param offset the time elapsed since the beginning of the request, in nanoseconds
+         */
+        public Hop(String name, String thread, long offset) {
+            this.name = name;
+            this.thread = thread;
+            this.offset = offset;
+        }
+
+        /**
+         * @return the name of the step executed on the thread.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the name of the thread.
+         */
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * @return the time elapsed since the beginning of the request, in nanoseconds.
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public String toString() {
+            return name + "@" + thread + "+" + offset + "ns";
+        }
+    }
+
+    private final String traceId;
+
+    private final String method;
+
+    private final String route;
+
+    private final int status;
+
+    private final long[] durations;
+
+    private final long total;
+
+    private final long responseSize;
+
+    private final List<Hop> hops;
+
+    /**
+     * Creates a new instance of {@link RequestTimings}.
+     *
+     * @param method    the HTTP method of the request
+     * @param route     the url template of the route that has handled the request, {@literal null} if no routes
+     *                  have handled the request
+     * @param status    the status of the response
+     * @param durations the time spent in each phase, indexed by {@link Phase#ordinal()}
+     * @param total     the total time spent to handle the request
+     */
+    public RequestTimings(String method, String route, int status, long[] durations, long total) {
+        this(null, method, route, status, durations, total, -1, Collections.<Hop>emptyList());
+    }
+
+    /**
+     * Creates a new instance of {@link RequestTimings}.
+     *
+     * @param traceId      the trace id of the request
+     * @param method       the HTTP method of the request
+     * @param route        the url template of the route that has handled the request, {@literal null} if no routes
+     *                     have handled the request
+     * @param status       the status of the response
+     * @param durations    the time spent in each phase, indexed by {@link Phase#ordinal()}
+     * @param total        the total time spent to handle the request
+     * @param responseSize the number of bytes of the response body, {@literal -1} if unknown
+     * @param hops         the thread hops
+     */
+    public RequestTimings(String traceId, String method, String route, int status, long[] durations, long total,
+                          long responseSize, List<Hop> hops) {
+        if (durations.length != Phase.values().length) {
+            throw new IllegalArgumentException("Expecting " + Phase.values().length + " durations, got "
+                    + durations.length);
+        }
+        this.traceId = traceId;
+        this.method = method;
+        this.route = route;
+        this.status = status;
+        this.durations = Arrays.copyOf(durations, durations.length);
+        this.total = total;
+        this.responseSize = responseSize;
+        this.hops = Collections.unmodifiableList(new ArrayList<>(hops));
+    }
+
+    /**
+     * @return the trace id of the request, {@literal null} if not traced.
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return the HTTP method of the request.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the url template of the route (such as {@code /items/{id}}), {@literal null} if the request was not
+     * handled by a route.
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * @return the status of the response.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the time spent in the given phase.
+     *
+     * @param phase the phase
+     * @return the duration in nanoseconds, {@literal 0} if the phase was skipped
+     */
+    public long getDuration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * @return the total time spent by the engine to handle the request, in nanoseconds.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the number of bytes of the response body, {@literal -1} if unknown.
+     */
+    public long getResponseSize() {
+        return responseSize;
+    }
+
+    /**
+     * @return the thread hops, in order.
+     */
+    public List<Hop> getHops() {
+        return hops;
+    }
+
+    @Override
+    public String toString() {
+        return traceId + " " + method + " " + route + " " + status + " " + total + "ns " + Arrays.toString(durations);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.engine;
+
+/**
+ * A service measuring the startup of the application and coordinating the start of the non-critical components.
+ * <p>
+ * The profiler records the start time of the bundles, the time spent by iPOJO to process them and the time needed by
+ * each component instance to become valid. The application is <em>ready</em> once the engine has bound its HTTP (or
+ * HTTPS) port. When {@link #DEFER} is enabled, tasks submitted using {@link #whenReady(String, Runnable)} are
+ * executed after this point, letting the application serve requests sooner.
+ */
+public interface StartupProfiler {
+
+    /**
+     * The configuration key enabling the deferral of the non-critical components until the application is ready.
+     * Disabled by default.
+     */
+    String DEFER = "application.startup.defer";
+
+    /**
+     * The configuration key setting the maximum amount of time the deferred tasks wait for the application to be
+     * ready. Once elapsed, they are executed anyway. Defaults to 30 seconds.
+     */
+    String DEFER_TIMEOUT = "application.startup.defer.timeout";
+
+    /**
+     * Notifies the profiler that the application is ready to serve requests. The recording stops and the deferred
+     * tasks are executed. Only the first call has an effect.
+     */
+    void ready();
+
+    /**
+     * @return whether or not the application is ready.
+     */
+    boolean isReady();
+
+    /**
+     * Executes the given task once the application is ready. If the deferral is disabled or if the application is
+     * already ready, the task is executed immediately in the caller thread. Otherwise, it is executed later in a
+     * dedicated thread.
+     *
+     * @param name the name of the task, used in the report
+     * @param task the task
+     */
+    void whenReady(String name, Runnable task);
+
+    /**
+     * @return a snapshot of the data recorded so far.
+     */
+    StartupReport getReport();
+
+}
@@ -0,0 +1,170 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A snapshot of the startup measures recorded by the {@link StartupProfiler}. All times are expressed in
+ * milliseconds since the start of the JVM.
+ */
+public class StartupReport {
+
+    private final long jvmStartTime;
+
+    private final long readyTime;
+
+    private final List<Entry> bundles;
+
+    private final List<Entry> jobs;
+
+    private final List<Entry> components;
+
+    private final List<Entry> deferred;
+
+    /**
+     * Creates a report.
+     *
+     * @param jvmStartTime the time at which the JVM has started (epoch in milliseconds)
+     * @param readyTime    the time at which the application became ready, -1 if not ready yet
+     * @param bundles      the bundle starts
+     * @param jobs         the iPOJO extender jobs
+     * @param components   the component instance validations
+     * @param deferred     the deferred tasks
+     */
+    public StartupReport(long jvmStartTime, long readyTime, List<Entry> bundles, List<Entry> jobs,
+                         List<Entry> components, List<Entry> deferred) {
+        this.jvmStartTime = jvmStartTime;
+        this.readyTime = readyTime;
+        this.bundles = Collections.unmodifiableList(new ArrayList<>(bundles));
+        this.jobs = Collections.unmodifiableList(new ArrayList<>(jobs));
+        this.components = Collections.unmodifiableList(new ArrayList<>(components));
+        this.deferred = Collections.unmodifiableList(new ArrayList<>(deferred));
+    }
+
+    /**
+     * @return the time at which the JVM has started (epoch in milliseconds).
+     */
+    public long getJvmStartTime() {
+        return jvmStartTime;
+    }
+
+    /**
+     * @return the time at which the application became ready, -1 if it is not ready yet.
+     */
+    public long getReadyTime() {
+        return readyTime;
+    }
+
+    /**
+     * @return the bundle starts, the detail contains the time at which the bundle has been resolved.
+     */
+    public List<Entry> getBundles() {
+        return bundles;
+    }
+
+    /**
+     * @return the jobs executed by the iPOJO extender (bundle processing, instance creation...).
+     */
+    public List<Entry> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * @return the time needed by each component instance to become valid, including its validate callback.
+     */
+    public List<Entry> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return the tasks deferred until the application was ready.
+     */
+    public List<Entry> getDeferred() {
+        return deferred;
+    }
+
+    /**
+     * A measure.
+     */
+    public static class Entry {
+
+        private final String name;
+
+        private final String detail;
+
+        private final long start;
+
+        private final long duration;
+
+        /**
+         * Creates an entry.
+         *
+         * @param name     the name of the measured item
+         * @param detail   additional information, may be {@code null}
+         * @param start    the start time, in milliseconds since the start of the JVM
+         * @param duration the duration in milliseconds
+         */
+        public Entry(String name, String detail, long start, long duration) {
+            this.name = name;
+            this.detail = detail;
+            this.start = start;
+            this.duration = duration;
+        }
+
+        /**
+         * @return the name of the measured item.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return additional information, may be {@code null}.
+         */
+        public String getDetail() {
+            return detail;
+        }
+
+        /**
+         * @return the start time, in milliseconds since the start of the JVM.
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * @return the duration in milliseconds.
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return a human readable form of the entry.
+         */
+        @Override
+        public String toString() {
+            return name + (detail != null ? " (" + detail + ")" : "") + " : " + duration + " ms";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.engine;
+
+/**
+ * Holds the trace id of the request being processed by the current thread. The engine sets it when a traced
+ * request is dispatched, and the execution context services propagate it to the threads executing tasks on behalf
+ * of the request.
+ */
+public final class TraceContext {
+
+    /**
+     * The trace id of the request handled by the current thread.
+     */
+    public static final ThreadLocal<String> TRACE_ID = new ThreadLocal<>();
+
+    private TraceContext() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * @return the trace id of the request handled by the current thread, {@literal null} if none.
+     */
+    public static String current() {
+        return TRACE_ID.get();
+    }
+}
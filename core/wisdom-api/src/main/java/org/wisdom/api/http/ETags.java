@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http;
+
+/**
+ * Utility methods to handle entity tags (ETag) and conditional requests ({@literal If-None-Match}).
+ * <p>
+ * Controllers can use these methods to avoid computing a response the client already has:
+ * <pre>
+ * String etag = ETags.quote(repository.getVersion(id));
+ * if (ETags.isNotModified(context(), etag)) {
+ *     return Results.notModified(etag);
+ * }
+ * return ok(repository.get(id)).json().withETag(etag);
+ * </pre>
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * Builds a strong entity tag from the given value, by surrounding it with quotes if not already done.
+     *
+     * @param value the value
+     * @return the entity tag
+     */
+    public static String quote(String value) {
+        if (value.startsWith(WEAK_PREFIX) || (value.length() > 1 && value.startsWith("\"") && value.endsWith("\""))) {
+            return value;
+        }
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Builds the weak form of the given entity tag.
+     *
+     * @param etag the entity tag
+     * @return the weak entity tag
+     */
+    public static String weak(String etag) {
+        if (etag.startsWith(WEAK_PREFIX)) {
+            return etag;
+        }
+        return WEAK_PREFIX + quote(etag);
+    }
+
+    /**
+     * Checks whether the given entity tag matches one of the tags listed in the {@literal If-None-Match} header.
+     * As required by the specification, the weak comparison is used, so {@code W/"1"} matches {@code "1"}.
+     *
+     * @param ifNoneMatch the value of the {@literal If-None-Match} header, may be {@literal null}
+     * @param etag        the entity tag of the current representation, may be {@literal null}
+     * @return {@literal true} if the tag matches, {@literal false} otherwise
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String value = opaque(etag);
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if ("*".equals(tag) || opaque(tag).equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the client sending the current request already holds the representation having the given
+     * entity tag. Controllers can use this method to return a {@link Status#NOT_MODIFIED} result without
+     * computing the response.
+     *
+     * @param context the current context
+     * @param etag    the entity tag of the representation
+     * @return {@literal true} if the client already holds the representation
+     */
+    public static boolean isNotModified(Context context, String etag) {
+        return matches(context.header(HeaderNames.IF_NONE_MATCH), etag);
+    }
+
+    /**
+     * Gets the opaque value of a tag, i.e. without the weak indicator and the quotes.
+     */
+    private static String opaque(String tag) {
+        String value = tag;
+        if (value.startsWith(WEAK_PREFIX)) {
+            value = value.substring(WEAK_PREFIX.length());
+        }
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
@@ -509,6 +509,18 @@ public class Result implements Status {
         return this;
     }
 
+    /**
+     * Sets the entity tag (ETag) of the result. The value is quoted if needed. When the entity tag of a response is
+     * set, the engine does not compute it from the response body, and can answer {@literal If-None-Match} requests
+     * with a {@link Status#NOT_MODIFIED} response without rendering the result.
+     *
+     * @param etag the entity tag
+     * @return the current result
+     */
+    public Result withETag(String etag) {
+        return with(HeaderNames.ETAG, ETags.quote(etag));
+    }
+
     /**
      * Sets the content of the current result to "No Content" if the result has no content set.
      *
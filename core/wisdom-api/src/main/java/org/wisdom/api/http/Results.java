@@ -300,6 +300,19 @@ public abstract class Results {
                 .render(NoHttpBody.INSTANCE);
     }
 
+    /**
+     * Generates a new result with the status set to {@literal 304 - NOT MODIFIED}, and the given entity tag.
+     *
+     * @param etag the entity tag of the representation held by the client
+     * @return the new result
+     * @see org.wisdom.api.http.ETags#isNotModified(Context, String)
+     */
+    public static Result notModified(String etag) {
+        return status(Result.NOT_MODIFIED)
+                .render(NoHttpBody.INSTANCE)
+                .withETag(etag);
+    }
+
     /**
      * Generates a new result with the status set to {@literal 500 - INTERNAL SERVER ERROR} and with an empty content.
      *
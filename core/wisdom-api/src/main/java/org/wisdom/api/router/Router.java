@@ -30,6 +30,13 @@ import java.util.Map;
  */
 public interface Router {
 
+    /**
+     * The service property published by the router, changed every time the set of routes changes (after the
+     * change). Components caching information computed from the routes can track the modifications of this
+     * property to discard it.
+     */
+    String ROUTES_VERSION = "routes.version";
+
     /**
      * Gets the route for the given method and uri.
      *
@@ -0,0 +1,40 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.scheduler;
+
+/**
+ * Service shared by several instances of an application to decide which one executes a run of an
+ * {@link org.wisdom.api.annotations.scheduler.Every#exclusive() exclusive} job.
+ *
+ * Each run is identified by a window, computed identically by all the instances: the nominal trigger time of cron
+ * jobs, or the beginning of the period (aligned on the epoch) for periodic jobs.
+ */
+public interface JobLease {
+
+    /**
+     * Tries to get the right to execute the given run of a job. Implementations must grant the lease to at most
+     * one caller for a given job and window.
+     *
+     * @param job    the job identifier, the same on all the instances
+     * @param window the window identifying the run, in milliseconds since the epoch
+     * @return {@literal true} if the caller can execute the job, {@literal false} otherwise
+     */
+    boolean tryAcquire(String job, long window);
+}
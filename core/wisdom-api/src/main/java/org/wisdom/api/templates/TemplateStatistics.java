@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.templates;
+
+/**
+ * A snapshot of the statistics of a template engine: number of templates, warm-up progress and cache sizes.
+ */
+public class TemplateStatistics {
+
+    private final String engine;
+    private final int templates;
+    private final int warmedUp;
+    private final int failures;
+    private final long warmUpTime;
+    private final long templateCacheSize;
+    private final long expressionCacheSize;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param engine              the name of the template engine
+     * @param templates           the number of registered templates
+     * @param warmedUp            the number of templates parsed and cached by the warm-up
+     * @param failures            the number of templates that could not be warmed up
+     * @param warmUpTime          the time spent warming up the templates, in milliseconds
+     * @param templateCacheSize   the number of parsed templates currently cached
+     * @param expressionCacheSize the number of parsed expressions currently cached
+     */
+    public TemplateStatistics(String engine, int templates, int warmedUp, int failures, long warmUpTime,
+                              long templateCacheSize, long expressionCacheSize) {
+        this.engine = engine;
+        this.templates = templates;
+        this.warmedUp = warmedUp;
+        this.failures = failures;
+        this.warmUpTime = warmUpTime;
+        this.templateCacheSize = templateCacheSize;
+        this.expressionCacheSize = expressionCacheSize;
+    }
+
+    /**
+     * @return the name of the template engine.
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return the number of registered templates.
+     */
+    public int getTemplates() {
+        return templates;
+    }
+
+    /**
+     * @return the number of templates parsed and cached by the warm-up.
+     */
+    public int getWarmedUp() {
+        return warmedUp;
+    }
+
+    /**
+     * @return the number of templates that could not be warmed up.
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the time spent warming up the templates, in milliseconds.
+     */
+    public long getWarmUpTime() {
+        return warmUpTime;
+    }
+
+    /**
+     * @return the number of parsed templates currently cached.
+     */
+    public long getTemplateCacheSize() {
+        return templateCacheSize;
+    }
+
+    /**
+     * @return the number of parsed expressions currently cached.
+     */
+    public long getExpressionCacheSize() {
+        return expressionCacheSize;
+    }
+}
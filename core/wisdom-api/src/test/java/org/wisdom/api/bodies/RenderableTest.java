@@ -59,6 +59,18 @@ public class RenderableTest {
         assertThat(bytes).isEmpty();
     }
 
+    @Test
+    public void testLengthOfRenderableStringIsTheEncodedLength() throws Exception {
+        RenderableString body = new RenderableString("h\u00e9llo \u20ac");
+        byte[] bytes = IOUtils.toByteArray(body.render(null, null));
+        assertThat(body.length()).isEqualTo(bytes.length).isEqualTo(10);
+
+        // Unpaired surrogate, replaced by the encoder.
+        body = new RenderableString("a\ud800b");
+        bytes = IOUtils.toByteArray(body.render(null, null));
+        assertThat(body.length()).isEqualTo(bytes.length);
+    }
+
     @Test
     public void testRenderableString() throws Exception {
         final String hello = "hello";
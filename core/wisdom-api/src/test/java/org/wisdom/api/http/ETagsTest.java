@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the entity tag utility methods.
+ */
+public class ETagsTest {
+
+    @Test
+    public void testQuoteAndWeak() {
+        assertThat(ETags.quote("abc")).isEqualTo("\"abc\"");
+        assertThat(ETags.quote("\"abc\"")).isEqualTo("\"abc\"");
+        assertThat(ETags.quote("W/\"abc\"")).isEqualTo("W/\"abc\"");
+        assertThat(ETags.weak("abc")).isEqualTo("W/\"abc\"");
+        assertThat(ETags.weak("\"abc\"")).isEqualTo("W/\"abc\"");
+        assertThat(ETags.weak("W/\"abc\"")).isEqualTo("W/\"abc\"");
+    }
+
+    @Test
+    public void testMatches() {
+        assertThat(ETags.matches(null, "\"abc\"")).isFalse();
+        assertThat(ETags.matches("\"abc\"", null)).isFalse();
+        assertThat(ETags.matches("\"abc\"", "\"abc\"")).isTrue();
+        assertThat(ETags.matches("\"abc\"", "\"abd\"")).isFalse();
+        // Weak comparison
+        assertThat(ETags.matches("W/\"abc\"", "\"abc\"")).isTrue();
+        assertThat(ETags.matches("\"abc\"", "W/\"abc\"")).isTrue();
+        // Lists and wildcard
+        assertThat(ETags.matches("\"x\", \"abc\"", "\"abc\"")).isTrue();
+        assertThat(ETags.matches("\"x\", \"y\"", "\"abc\"")).isFalse();
+        assertThat(ETags.matches("*", "\"abc\"")).isTrue();
+    }
+
+    @Test
+    public void testIsNotModifiedAndResults() {
+        Context context = mock(Context.class);
+        when(context.header(HeaderNames.IF_NONE_MATCH)).thenReturn("\"v1\"");
+        assertThat(ETags.isNotModified(context, "v1")).isTrue();
+        assertThat(ETags.isNotModified(context, "v2")).isFalse();
+
+        Result result = Results.notModified("v1");
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_MODIFIED);
+        assertThat(result.getHeaders().get(HeaderNames.ETAG)).isEqualTo("\"v1\"");
+
+        result = Results.ok("hello").withETag("v2");
+        assertThat(result.getHeaders().get(HeaderNames.ETAG)).isEqualTo("\"v2\"");
+    }
+}
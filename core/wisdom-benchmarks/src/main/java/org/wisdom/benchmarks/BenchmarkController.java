@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Interception;
+import org.wisdom.api.annotations.Parameter;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.router.Route;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The controller used by the benchmarks. Its routes are given by the benchmarks.
+ */
+public class BenchmarkController extends DefaultController {
+
+    private List<Route> routes = new ArrayList<>();
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    @Override
+    public List<Route> routes() {
+        return routes;
+    }
+
+    public Result index() {
+        return ok("hello");
+    }
+
+    public Result echo(@Parameter("id") int id) {
+        return ok(Integer.toString(id));
+    }
+
+    public Result required(@NotNull @Parameter("name") String name) {
+        return ok(name);
+    }
+
+    public Result bounded(@Min(1) @Parameter("id") int id, @Size(max = 16) @Parameter("name") String name) {
+        return ok(name + id);
+    }
+
+    @Traced
+    public Result traced() {
+        return ok("hello");
+    }
+
+    /**
+     * An annotation configuring the {@link TracingInterceptor}.
+     */
+    @Interception
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Traced {
+
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.api.content.ParameterConverter;
+import org.wisdom.api.content.ParameterFactory;
+import org.wisdom.api.router.parameters.ActionParameter;
+import org.wisdom.api.router.parameters.Source;
+import org.wisdom.content.converters.ParamConverterEngine;
+import org.wisdom.router.parameter.Bindings;
+import org.wisdom.test.parents.FakeContext;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of the action parameters ({@link Bindings#create}) and the conversion of the values
+ * ({@link ParamConverterEngine#convertValue(String, Class, java.lang.reflect.Type, String)}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindingsBenchmark {
+
+    /**
+     * Only used to retrieve the generic type {@code List<Integer>}.
+     */
+    @SuppressWarnings("unused")
+    private List<Integer> integers;
+
+    private ParamConverterEngine engine;
+
+    private FakeContext context;
+
+    private ActionParameter stringParameter;
+
+    private ActionParameter intParameter;
+
+    private ActionParameter listParameter;
+
+    private Type listType;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        engine = new ParamConverterEngine(
+                Collections.<ParameterConverter>emptyList(),
+                Collections.<ParameterFactory>emptyList());
+        context = new FakeContext()
+                .setParameter("name", "wisdom")
+                .setParameter("id", "42")
+                .setParameter("ids", Arrays.asList("1", "2", "3", "4", "5"));
+        listType = BindingsBenchmark.class.getDeclaredField("integers").getGenericType();
+        stringParameter = new ActionParameter("name", Source.PARAMETER, String.class);
+        intParameter = new ActionParameter("id", Source.QUERY, Integer.TYPE);
+        listParameter = new ActionParameter("ids", Source.QUERY, List.class, listType);
+    }
+
+    @Benchmark
+    public Object createStringParameter() {
+        return Bindings.create(stringParameter, context, engine);
+    }
+
+    @Benchmark
+    public Object createIntParameter() {
+        return Bindings.create(intParameter, context, engine);
+    }
+
+    @Benchmark
+    public Object createListParameter() {
+        return Bindings.create(listParameter, context, engine);
+    }
+
+    @Benchmark
+    public Integer convertInteger() {
+        return engine.convertValue("42", Integer.class, null, null);
+    }
+
+    @Benchmark
+    public Boolean convertBoolean() {
+        return engine.convertValue("yes", Boolean.TYPE, null, null);
+    }
+
+    @Benchmark
+    public Object convertList() {
+        return engine.convertValue("1,2,3,4,5", List.class, listType, null);
+    }
+
+    @Benchmark
+    public Integer convertDefaultValue() {
+        return engine.convertValue(null, Integer.class, null, "0");
+    }
+}
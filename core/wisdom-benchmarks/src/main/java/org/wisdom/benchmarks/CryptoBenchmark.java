@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.crypto.Hash;
+import org.wisdom.crypto.CryptoServiceSingleton;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the signature of messages ({@link CryptoServiceSingleton#sign(String)}), used for each session and flash
+ * cookie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CryptoBenchmark {
+
+    /**
+     * The length of the signed message.
+     */
+    @Param({"64", "4096"})
+    public int length;
+
+    private CryptoServiceSingleton crypto;
+
+    private String message;
+
+    @Setup
+    public void setUp() {
+        crypto = new CryptoServiceSingleton(SessionBenchmark.SECRET, Hash.MD5, 128, Crypto.AES_CBC_ALGORITHM, 20);
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append("%00___TS%3A1429712345678%00%00key%3Avalue%00");
+        }
+        message = builder.substring(0, length);
+    }
+
+    @Benchmark
+    public String sign() {
+        return crypto.sign(message);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import com.google.common.base.Defaults;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates an application configuration returning the default values. Mocks are not used here, as they record the
+ * invocations and would slow down (and fill up the memory of) the benchmarks reading the configuration.
+ */
+public final class DefaultConfiguration {
+
+    private DefaultConfiguration() {
+        // Avoid direct instantiation
+    }
+
+    /**
+     * @return an {@link ApplicationConfiguration} returning the default value given to the {@code
+     * getXWithDefault} methods, and {@literal null} (or an empty array or list, or zero for primitive types) for all other
+     * methods.
+     */
+    public static ApplicationConfiguration create() {
+        return create(Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * @param values the values returned for the given keys, they must have the type returned by the methods used to
+     *               read them
+     * @return an {@link ApplicationConfiguration} returning the given values, and for the missing keys the default
+     * value given to the {@code getXWithDefault} methods, and {@literal null} (or an empty array, or zero for
+     * primitive types) for all other methods.
+     */
+    public static ApplicationConfiguration create(final Map<String, ?> values) {
+        return (ApplicationConfiguration) Proxy.newProxyInstance(DefaultConfiguration.class.getClassLoader(),
+                new Class[]{ApplicationConfiguration.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (args != null && args.length > 0 && values.containsKey(args[0])) {
+                            return values.get(args[0]);
+                        }
+                        if (method.getName().endsWith("WithDefault")) {
+                            return args[args.length - 1];
+                        }
+                        Class<?> type = method.getReturnType();
+                        if (type.isArray()) {
+                            return Array.newInstance(type.getComponentType(), 0);
+                        }
+                        if (type == List.class) {
+                            return Collections.emptyList();
+                        }
+                        return Defaults.defaultValue(type);
+                    }
+                });
+    }
+}
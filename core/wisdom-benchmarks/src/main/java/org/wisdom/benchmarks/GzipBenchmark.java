@@ -0,0 +1,68 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.content.codecs.GzipCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the compression of the responses using {@link GzipCodec#encode(java.io.InputStream)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GzipBenchmark {
+
+    /**
+     * The size of the payload in bytes.
+     */
+    @Param({"1024", "65536"})
+    public int size;
+
+    private GzipCodec codec;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        codec = new GzipCodec();
+        // A text-like payload, so the compression ratio is realistic.
+        String[] words = {"wisdom", "router", "controller", "<div>", "</div>", "{\"name\":", "\"value\"}", " "};
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(size);
+        while (builder.length() < size) {
+            builder.append(words[random.nextInt(words.length)]);
+        }
+        payload = builder.substring(0, size).getBytes();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        InputStream stream = codec.encode(new ByteArrayInputStream(payload));
+        return IOUtils.toByteArray(stream);
+    }
+}
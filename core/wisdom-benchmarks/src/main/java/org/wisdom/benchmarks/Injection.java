@@ -0,0 +1,56 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets the fields injected by iPOJO when the components are used outside of the framework.
+ */
+public final class Injection {
+
+    private Injection() {
+        // Avoid direct instantiation
+    }
+
+    /**
+     * Sets the value of the given field.
+     *
+     * @param target the object
+     * @param name   the name of the field, declared by the class of the object or one of its parents
+     * @param value  the value
+     */
+    public static void inject(Object target, String name, Object value) {
+        Class<?> clazz = target.getClass();
+        while (clazz != null) {
+            try {
+                Field field = clazz.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) { //NOSONAR
+                clazz = clazz.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set the field " + name + " of " + target, e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " in " + target.getClass().getName());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.api.bodies.RenderableObject;
+import org.wisdom.content.jackson.JacksonSingleton;
+import org.wisdom.content.serializers.JSONSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON support: the {@link JacksonSingleton} service and the {@link JSONSerializer} used when an
+ * action returns an object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    /**
+     * The number of users in the serialized list.
+     */
+    @Param({"1", "100"})
+    public int size;
+
+    private JacksonSingleton json;
+
+    private JSONSerializer serializer;
+
+    private List<User> users;
+
+    private String serialized;
+
+    @Setup
+    public void setUp() {
+        json = new JacksonSingleton();
+        json.validate();
+        serializer = new JSONSerializer();
+        Injection.inject(serializer, "json", json);
+
+        users = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            users.add(new User("user-" + i, 20 + i % 50, Arrays.asList("a", "b", "c")));
+        }
+        serialized = json.toJson(users).toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        json.invalidate();
+    }
+
+    @Benchmark
+    public JsonNode toJson() {
+        return json.toJson(users);
+    }
+
+    @Benchmark
+    public String stringify() {
+        return json.toJson(users).toString();
+    }
+
+    @Benchmark
+    public JsonNode parse() {
+        return json.parse(serialized);
+    }
+
+    @Benchmark
+    public User[] fromJson() {
+        return json.fromJson(serialized, User[].class);
+    }
+
+    @Benchmark
+    public RenderableObject serialize() {
+        RenderableObject renderable = new RenderableObject(users);
+        serializer.serialize(renderable);
+        return renderable;
+    }
+
+    /**
+     * The serialized object.
+     */
+    public static class User {
+        public String name;
+        public int age;
+        public List<String> tags;
+
+        public User() {
+            // Used by Jackson
+        }
+
+        public User(String name, int age, List<String> tags) {
+            this.name = name;
+            this.age = age;
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.api.content.ParameterConverter;
+import org.wisdom.api.content.ParameterFactory;
+import org.wisdom.api.http.Context;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.interception.Filter;
+import org.wisdom.api.interception.Interceptor;
+import org.wisdom.api.interception.RequestContext;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.content.converters.ParamConverterEngine;
+import org.wisdom.router.RequestRouter;
+import org.wisdom.test.parents.FakeContext;
+
+import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the invocation of an action ({@link org.wisdom.router.RouteDelegate#invoke()}): building the filter and
+ * interceptor chain, creating the parameters, validating them and calling the action method.
+ * <p>
+ * The validation cases use the Hibernate validator, so they measure the validation plan of the route: no validation
+ * for an unconstrained action, the null-check fast path for a {@code @NotNull}-only action, and the executable
+ * validator for other constraints.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouteInvocationBenchmark {
+
+    /**
+     * <ul>
+     * <li>plain: an action without parameter, filter and interceptor</li>
+     * <li>filters: the same action with 3 filters, 2 of them matching the route</li>
+     * <li>interceptor: an action intercepted by an interceptor</li>
+     * <li>parameter: an action with a parameter</li>
+     * <li>unconstrained: an action with a parameter, without constraint, the router having a validator</li>
+     * <li>notnull: an action with a {@code @NotNull} parameter</li>
+     * <li>constraint: an action with {@code @Min} and {@code @Size} parameters</li>
+     * </ul>
+     */
+    @Param({"plain", "filters", "interceptor", "parameter", "unconstrained", "notnull", "constraint"})
+    public String kind;
+
+    private static final List<String> VALIDATED = Arrays.asList("unconstrained", "notnull", "constraint");
+
+    private Route route;
+
+    private FakeContext context;
+
+    @Setup
+    public void setUp() {
+        BenchmarkController controller = new BenchmarkController();
+        List<Route> list = new ArrayList<>();
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/plain").to(controller, "index"));
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/filters").to(controller, "index"));
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/interceptor").to(controller, "traced"));
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/parameter").to(controller, "echo"));
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/unconstrained").to(controller, "echo"));
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/notnull").to(controller, "required"));
+        list.add(new RouteBuilder().route(HttpMethod.GET).on("/constraint").to(controller, "bounded"));
+        controller.setRoutes(list);
+
+        RequestRouter router = new RequestRouter();
+        router.setParameterConverterEngine(new ParamConverterEngine(
+                Collections.<ParameterConverter>emptyList(),
+                Collections.<ParameterFactory>emptyList()));
+        Injection.inject(router, "interceptors", Collections.<Interceptor<?>>singletonList(new TracingInterceptor()));
+        if (VALIDATED.contains(kind)) {
+            router.setValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        }
+        router.bindController(controller);
+        if ("filters".equals(kind)) {
+            router.bindFilter(new HeaderFilter("/filters", 1));
+            router.bindFilter(new HeaderFilter("/f.*", 2));
+            router.bindFilter(new HeaderFilter("/assets/.*", 3));
+        }
+
+        route = router.getRouteFor(HttpMethod.GET, "/" + kind);
+        context = new FakeContext().setParameter("id", "42").setParameter("name", "wisdom");
+        context.route(route);
+    }
+
+    @Benchmark
+    public Result invoke() throws Exception {
+        Context.CONTEXT.set(context);
+        try {
+            return route.invoke();
+        } finally {
+            Context.CONTEXT.remove();
+        }
+    }
+
+    /**
+     * A filter adding a header to the result.
+     */
+    private static class HeaderFilter implements Filter {
+
+        private final Pattern pattern;
+
+        private final int priority;
+
+        HeaderFilter(String regex, int priority) {
+            this.pattern = Pattern.compile(regex);
+            this.priority = priority;
+        }
+
+        @Override
+        public Result call(Route route, RequestContext context) throws Exception {
+            return context.proceed().with("X-Filter-" + priority, "true");
+        }
+
+        @Override
+        public Pattern uri() {
+            return pattern;
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+    }
+}
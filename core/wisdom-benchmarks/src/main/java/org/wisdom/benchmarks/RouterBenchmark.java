@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.router.RequestRouter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the route lookup ({@link RequestRouter#getRouteFor(HttpMethod, String)}) depending on the number of
+ * routes. Half of the routes are static, the other half contains a path parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routes;
+
+    private RequestRouter router;
+
+    private String first;
+
+    private String last;
+
+    @Setup
+    public void setUp() {
+        BenchmarkController controller = new BenchmarkController();
+        List<Route> list = new ArrayList<>();
+        for (int i = 0; i < routes / 2; i++) {
+            list.add(new RouteBuilder().route(HttpMethod.GET).on("/static/" + i).to(controller, "index"));
+            list.add(new RouteBuilder().route(HttpMethod.GET).on("/items/" + i + "/{id}").to(controller, "index"));
+        }
+        controller.setRoutes(list);
+
+        router = new RequestRouter();
+        router.bindController(controller);
+
+        first = "/static/0";
+        last = "/items/" + (routes / 2 - 1) + "/42";
+    }
+
+    @Benchmark
+    public Route firstRoute() {
+        return router.getRouteFor(HttpMethod.GET, first);
+    }
+
+    @Benchmark
+    public Route lastRoute() {
+        return router.getRouteFor(HttpMethod.GET, last);
+    }
+
+    @Benchmark
+    public Route missingRoute() {
+        return router.getRouteFor(HttpMethod.GET, "/missing");
+    }
+
+    @Benchmark
+    public Route headOnGetRoute() {
+        return router.getRouteFor(HttpMethod.HEAD, last);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.crypto.Hash;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
+import org.wisdom.crypto.CryptoServiceSingleton;
+import org.wisdom.framework.vertx.cookies.SessionCookieImpl;
+import org.wisdom.test.parents.FakeContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the session cookie handling executed for each request: reading and checking the signature of the
+ * incoming cookie ({@link SessionCookieImpl#init(org.wisdom.api.http.Context)}) and writing the updated cookie
+ * ({@link SessionCookieImpl#save(org.wisdom.api.http.Context, Result)}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionBenchmark {
+
+    public static final String SECRET = "JYFVq6:^jrh:KIy:yM5Xb<sH58WW80OLL4_gCL4Ne[PnAJ9QC/Z?LG2dbwoSkiBL";
+
+    private Crypto crypto;
+
+    private ApplicationConfiguration configuration;
+
+    private FakeContext withSession;
+
+    private FakeContext withoutSession;
+
+    @Setup
+    public void setUp() {
+        crypto = new CryptoServiceSingleton(SECRET, Hash.MD5, 128, Crypto.AES_CBC_ALGORITHM, 20);
+        configuration = DefaultConfiguration.create();
+
+        // Creates a valid session cookie.
+        withoutSession = new FakeContext();
+        SessionCookieImpl session = new SessionCookieImpl(crypto, configuration);
+        session.init(withoutSession);
+        session.put("user", "wisdom");
+        session.put("role", "admin");
+        session.put("locale", "fr");
+        Result result = Results.ok();
+        session.save(withoutSession, result);
+        withSession = new FakeContext().setCookie(result.getCookie("wisdom" + SessionCookieImpl.SESSION_SUFFIX));
+    }
+
+    @Benchmark
+    public SessionCookie initEmpty() {
+        SessionCookieImpl session = new SessionCookieImpl(crypto, configuration);
+        session.init(withoutSession);
+        return session;
+    }
+
+    @Benchmark
+    public SessionCookie init() {
+        SessionCookieImpl session = new SessionCookieImpl(crypto, configuration);
+        session.init(withSession);
+        return session;
+    }
+
+    @Benchmark
+    public Result initAndSave() {
+        SessionCookieImpl session = new SessionCookieImpl(crypto, configuration);
+        session.init(withSession);
+        session.put("last", "benchmark");
+        Result result = Results.ok();
+        session.save(withSession, result);
+        return result;
+    }
+}
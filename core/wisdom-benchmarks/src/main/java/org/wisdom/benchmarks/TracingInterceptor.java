@@ -0,0 +1,40 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks;
+
+import org.wisdom.api.http.Result;
+import org.wisdom.api.interception.Interceptor;
+import org.wisdom.api.interception.RequestContext;
+
+/**
+ * A trivial interceptor, adding a header to the result.
+ */
+public class TracingInterceptor extends Interceptor<BenchmarkController.Traced> {
+
+    @Override
+    public Result call(BenchmarkController.Traced configuration, RequestContext context) throws Exception {
+        return context.proceed().with("X-Traced", "true");
+    }
+
+    @Override
+    public Class<BenchmarkController.Traced> annotation() {
+        return BenchmarkController.Traced.class;
+    }
+}
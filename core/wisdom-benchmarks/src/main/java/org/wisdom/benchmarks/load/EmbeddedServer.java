@@ -0,0 +1,221 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks.load;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.FileUtils;
+import org.thymeleaf.dialect.IDialect;
+import org.thymeleaf.resourceresolver.UrlResourceResolver;
+import org.thymeleaf.templateresolver.TemplateResolver;
+import org.vertx.java.core.Vertx;
+import org.vertx.java.core.impl.DefaultVertxFactory;
+import org.wisdom.api.concurrent.ExecutionContextService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.content.BodyParser;
+import org.wisdom.api.content.ContentCodec;
+import org.wisdom.api.content.ContentSerializer;
+import org.wisdom.api.content.ParameterConverter;
+import org.wisdom.api.content.ParameterFactory;
+import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.crypto.Hash;
+import org.wisdom.api.http.websockets.WebSocketDispatcher;
+import org.wisdom.benchmarks.DefaultConfiguration;
+import org.wisdom.benchmarks.Injection;
+import org.wisdom.benchmarks.SessionBenchmark;
+import org.wisdom.content.bodyparsers.BodyParserJson;
+import org.wisdom.content.codecs.GzipCodec;
+import org.wisdom.content.converters.ParamConverterEngine;
+import org.wisdom.content.encoding.ContentEncodingHelperImpl;
+import org.wisdom.content.engines.Engine;
+import org.wisdom.content.jackson.JacksonSingleton;
+import org.wisdom.content.serializers.JSONSerializer;
+import org.wisdom.crypto.CryptoServiceSingleton;
+import org.wisdom.executors.ManagedExecutorServiceImpl;
+import org.wisdom.executors.context.HttpExecutionContextService;
+import org.wisdom.framework.vertx.ServiceAccessor;
+import org.wisdom.framework.vertx.WisdomVertxServer;
+import org.wisdom.router.RequestRouter;
+import org.wisdom.router.WebSocketRouter;
+import org.wisdom.template.thymeleaf.impl.ThymeLeafTemplateImplementation;
+import org.wisdom.template.thymeleaf.impl.WisdomTemplateEngine;
+import org.wisdom.test.parents.FakeConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Boots the HTTP stack of Wisdom in-process (vert.x server, router, content engine, template engine,
+ * executors...) without the OSGi container. The services are wired by hand, as iPOJO would do.
+ * The server listens on an ephemeral port on the loopback interface.
+ */
+public class EmbeddedServer {
+
+    private static final String TEMPLATE = "<!DOCTYPE html>\n"
+            + "<html xmlns:th=\"http://www.thymeleaf.org\">\n"
+            + "<head><title>Items</title></head>\n"
+            + "<body>\n"
+            + "<table>\n"
+            + "<tr th:each=\"item : ${items}\"><td th:text=\"${item.id}\">0</td><td th:text=\"${item.name}\">name</td>"
+            + "<td th:text=\"${item.price}\">0.0</td></tr>\n"
+            + "</table>\n"
+            + "</body>\n"
+            + "</html>\n";
+
+    private final File root;
+
+    private Vertx vertx;
+
+    private JacksonSingleton json;
+
+    private ManagedExecutorServiceImpl executor;
+
+    private WisdomVertxServer server;
+
+    /**
+     * Creates the server.
+     *
+     * @param root the directory where the asset and template files are written
+     */
+    public EmbeddedServer(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Starts the server and waits until it listens.
+     *
+     * @throws IOException          if the asset or the template cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the server
+     */
+    public void start() throws IOException, InterruptedException {
+        ApplicationConfiguration configuration = DefaultConfiguration.create(ImmutableMap.of(
+                "vertx.http.port", 0,
+                "vertx.https.port", -1));
+
+        json = new JacksonSingleton();
+        json.validate();
+        JSONSerializer serializer = new JSONSerializer();
+        Injection.inject(serializer, "json", json);
+        BodyParserJson parser = new BodyParserJson();
+        Injection.inject(parser, "json", json);
+        ContentEncodingHelperImpl encoding = new ContentEncodingHelperImpl();
+        Injection.inject(encoding, "configuration", configuration);
+        Engine engine = new Engine();
+        Injection.inject(engine, "parsers", ImmutableList.<BodyParser>of(parser));
+        Injection.inject(engine, "serializers", ImmutableList.<ContentSerializer>of(serializer));
+        Injection.inject(engine, "encoders", ImmutableList.<ContentCodec>of(new GzipCodec()));
+        Injection.inject(engine, "encodingHelper", encoding);
+
+        ParamConverterEngine converters = new ParamConverterEngine(
+                Collections.<ParameterConverter>emptyList(),
+                Collections.<ParameterFactory>emptyList());
+        Crypto crypto = new CryptoServiceSingleton(SessionBenchmark.SECRET, Hash.MD5, 128,
+                Crypto.AES_CBC_ALGORITHM, 20);
+        executor = new ManagedExecutorServiceImpl("system",
+                new FakeConfiguration(Collections.<String, Object>emptyMap()),
+                ImmutableList.<ExecutionContextService>of(new HttpExecutionContextService()));
+
+        RequestRouter router = new RequestRouter();
+        router.setParameterConverterEngine(converters);
+
+        vertx = new DefaultVertxFactory().createVertx();
+        server = new WisdomVertxServer();
+        Injection.inject(server, "vertx", vertx);
+        Injection.inject(server, "configuration", configuration);
+        Injection.inject(server, "accessor",
+                new ServiceAccessor(crypto, configuration, router, engine, executor, server));
+
+        WebSocketRouter sockets = new WebSocketRouter();
+        Injection.inject(sockets, "dispatchers", new WebSocketDispatcher[]{server});
+        Injection.inject(sockets, "contentEngine", engine);
+        Injection.inject(sockets, "converter", converters);
+        Injection.inject(sockets, "executor", executor);
+        sockets.bindDispatcher(server);
+
+        LoadTestController controller = new LoadTestController(createAsset(), createTemplate(router));
+        controller.setPublisher(sockets);
+        router.bindController(controller);
+        sockets.bindController(controller);
+
+        server.start();
+        int attempt = 0;
+        while (server.httpPort() == 0 && attempt < 100) {
+            Thread.sleep(100);
+            attempt++;
+        }
+        if (server.httpPort() == 0) {
+            throw new IllegalStateException("Server not started after " + attempt + " attempts");
+        }
+    }
+
+    /**
+     * @return the port on which the server listens.
+     */
+    public int port() {
+        return server.httpPort();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop();
+        }
+        if (vertx != null) {
+            vertx.stop();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (json != null) {
+            json.invalidate();
+        }
+    }
+
+    private File createAsset() throws IOException {
+        // A 16KB script.
+        StringBuilder builder = new StringBuilder();
+        int line = 0;
+        while (builder.length() < 16 * 1024) {
+            builder.append("function f").append(line).append("(a, b) { return a + b * ").append(line)
+                    .append("; }\n");
+            line++;
+        }
+        File file = new File(root, "assets/app.js");
+        FileUtils.write(file, builder.toString());
+        return file;
+    }
+
+    private ThymeLeafTemplateImplementation createTemplate(RequestRouter router) throws IOException {
+        File file = new File(root, "templates/items.thl.html");
+        FileUtils.write(file, TEMPLATE);
+
+        WisdomTemplateEngine engine = new WisdomTemplateEngine(Collections.<IDialect>emptySet());
+        TemplateResolver resolver = new TemplateResolver();
+        resolver.setResourceResolver(new UrlResourceResolver());
+        resolver.setTemplateMode("HTML5");
+        resolver.setCacheTTLMs(60 * 1000L);
+        engine.setTemplateResolver(resolver);
+        engine.initialize();
+        return new ThymeLeafTemplateImplementation(engine, file, router, null, null);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks.load;
+
+import org.vertx.java.core.Handler;
+import org.vertx.java.core.Vertx;
+import org.vertx.java.core.buffer.Buffer;
+import org.vertx.java.core.http.HttpClient;
+import org.vertx.java.core.http.HttpClientRequest;
+import org.vertx.java.core.http.HttpClientResponse;
+import org.vertx.java.core.http.WebSocket;
+import org.vertx.java.core.impl.DefaultVertxFactory;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.MimeTypes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An open-model load generator: requests are sent at a constant rate, whatever the response time of the server.
+ * The latency of a request is computed from the time it <em>should</em> have been sent, so a stalled server (or a
+ * stalled generator) is accounted for, and not hidden by the generator waiting for the responses before sending
+ * new requests (coordinated omission).
+ * <p>
+ * The generator uses its own vert.x instance. All the requests of a run are sent, and their responses handled, by
+ * a single event loop thread.
+ */
+public class LoadGenerator {
+
+    /**
+     * The time given to the server to complete the pending requests once all requests are sent.
+     */
+    private static final long COMPLETION_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private final Vertx vertx;
+
+    private final int port;
+
+    private final int connections;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param port        the port of the server, on the loopback interface
+     * @param connections the number of HTTP connections or web sockets opened to the server
+     */
+    public LoadGenerator(int port, int connections) {
+        this.vertx = new DefaultVertxFactory().createVertx();
+        this.port = port;
+        this.connections = connections;
+    }
+
+    /**
+     * Executes the given scenario.
+     *
+     * @param scenario the scenario
+     * @param rate     the number of requests per second
+     * @param duration the duration in milliseconds
+     * @return the measure
+     * @throws InterruptedException if the thread is interrupted while waiting for the end of the run
+     */
+    public Measure run(Scenario scenario, int rate, long duration) throws InterruptedException {
+        final long total = Math.max(1, rate * duration / 1000);
+        final Measure measure = new Measure(scenario.name(), rate, total);
+        final Run run = new Run(scenario, measure, total, TimeUnit.SECONDS.toNanos(1) / rate);
+        vertx.runOnContext(new Handler<Void>() {
+            @Override
+            public void handle(Void event) {
+                run.connect();
+            }
+        });
+        final boolean finished = run.done.await(duration + COMPLETION_TIMEOUT, TimeUnit.MILLISECONDS);
+        final CountDownLatch closed = new CountDownLatch(1);
+        vertx.runOnContext(new Handler<Void>() {
+            @Override
+            public void handle(Void event) {
+                run.close(finished);
+                closed.countDown();
+            }
+        });
+        closed.await();
+        return measure;
+    }
+
+    /**
+     * Stops the generator.
+     */
+    public void stop() {
+        vertx.stop();
+    }
+
+    /**
+     * The execution of a scenario, all methods are called from the same event loop thread.
+     */
+    private class Run {
+
+        private final Scenario scenario;
+
+        private final Measure measure;
+
+        private final long total;
+
+        private final long interval;
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private HttpClient client;
+
+        private final List<Socket> sockets = new ArrayList<>();
+
+        private long start;
+
+        private long timer;
+
+        private long sent;
+
+        private long completed;
+
+        Run(Scenario scenario, Measure measure, long total, long interval) {
+            this.scenario = scenario;
+            this.measure = measure;
+            this.total = total;
+            this.interval = interval;
+        }
+
+        void connect() {
+            client = vertx.createHttpClient()
+                    .setHost("localhost")
+                    .setPort(port)
+                    .setKeepAlive(true)
+                    // Like browsers, do not pipeline the requests.
+                    .setPipelining(false)
+                    .setMaxPoolSize(connections);
+            if (!scenario.isWebSocket()) {
+                begin();
+                return;
+            }
+            for (int i = 0; i < connections; i++) {
+                client.connectWebsocket(scenario.uri(0), new Handler<WebSocket>() {
+                    @Override
+                    public void handle(WebSocket socket) {
+                        sockets.add(new Socket(socket));
+                        if (sockets.size() == connections) {
+                            begin();
+                        }
+                    }
+                });
+            }
+        }
+
+        private void begin() {
+            measure.begin();
+            start = System.nanoTime();
+            timer = vertx.setPeriodic(1, new Handler<Long>() {
+                @Override
+                public void handle(Long event) {
+                    tick();
+                }
+            });
+        }
+
+        /**
+         * Sends the requests that should have been sent since the last tick.
+         */
+        private void tick() {
+            long now = System.nanoTime();
+            long intended = start + sent * interval;
+            while (sent < total && intended <= now) {
+                send(sent, intended);
+                sent++;
+                intended = start + sent * interval;
+            }
+            if (sent == total) {
+                vertx.cancelTimer(timer);
+            }
+        }
+
+        private void send(long i, final long intended) {
+            if (scenario.isWebSocket()) {
+                sockets.get((int) (i % sockets.size())).send(scenario.body(i), intended);
+                return;
+            }
+            HttpClientRequest request = client.request(scenario.method(i), scenario.uri(i),
+                    new Handler<HttpClientResponse>() {
+                        @Override
+                        public void handle(HttpClientResponse response) {
+                            final boolean success = response.statusCode() < 400;
+                            response.bodyHandler(new Handler<Buffer>() {
+                                @Override
+                                public void handle(Buffer body) {
+                                    complete(intended, success);
+                                }
+                            });
+                        }
+                    });
+            request.exceptionHandler(new Handler<Throwable>() {
+                @Override
+                public void handle(Throwable event) {
+                    complete(intended, false);
+                }
+            });
+            String body = scenario.body(i);
+            if (body == null) {
+                request.end();
+            } else {
+                request.putHeader(HeaderNames.CONTENT_TYPE, MimeTypes.JSON);
+                request.end(body);
+            }
+        }
+
+        private void complete(long intended, boolean success) {
+            measure.record(System.nanoTime() - intended, success);
+            completed++;
+            if (completed == total) {
+                done.countDown();
+            }
+        }
+
+        void close(boolean finished) {
+            vertx.cancelTimer(timer);
+            measure.end(finished);
+            for (Socket socket : sockets) {
+                socket.socket.close();
+            }
+            client.close();
+        }
+
+        /**
+         * A web socket. The server may not echo the messages in order (they are handled by a thread pool),
+         * so the answers are matched by content.
+         */
+        private class Socket {
+
+            private final WebSocket socket;
+
+            private final Map<String, Long> pending = new HashMap<>();
+
+            Socket(WebSocket socket) {
+                this.socket = socket;
+                socket.dataHandler(new Handler<Buffer>() {
+                    @Override
+                    public void handle(Buffer event) {
+                        Long intended = pending.remove(event.toString());
+                        if (intended != null) {
+                            complete(intended, true);
+                        }
+                    }
+                });
+            }
+
+            void send(String message, long intended) {
+                pending.put(message, intended);
+                socket.writeTextFrame(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Splitter;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the load test scenarios against an {@link EmbeddedServer} and reports the latency percentiles, the
+ * throughput and the allocations per request. It can be used as a performance gate: the process exits with {@code
+ * 1} if a request failed or if the 99th percentile of a scenario is above {@code load.max-p99}.
+ * <p>
+ * Configured using system properties:
+ * <ul>
+ * <li>{@code load.scenarios}: the comma-separated list of scenarios, all by default</li>
+ * <li>{@code load.rate}: the number of requests per second, 500 by default</li>
+ * <li>{@code load.duration}: the duration of each scenario in seconds, 30 by default</li>
+ * <li>{@code load.warmup}: the duration of the warm-up of each scenario in seconds, 10 by default</li>
+ * <li>{@code load.connections}: the number of connections (or web sockets), 16 by default</li>
+ * <li>{@code load.max-p99}: the maximum 99th percentile in milliseconds, 0 (disabled) by default</li>
+ * <li>{@code load.result}: the JSON report, {@code target/load.json} by default. The HdrHistogram percentile
+ * distribution of each scenario is written next to it.</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private final List<String> scenarios;
+
+    private final int rate;
+
+    private final long duration;
+
+    private final long warmup;
+
+    private final int connections;
+
+    private final double maxP99;
+
+    private final File result;
+
+    public LoadTest(Properties properties) {
+        scenarios = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(
+                properties.getProperty("load.scenarios", "asset,json,template,async,websocket"));
+        rate = Integer.parseInt(properties.getProperty("load.rate", "500"));
+        duration = TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty("load.duration", "30")));
+        warmup = TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty("load.warmup", "10")));
+        connections = Integer.parseInt(properties.getProperty("load.connections", "16"));
+        maxP99 = Double.parseDouble(properties.getProperty("load.max-p99", "0"));
+        result = new File(properties.getProperty("load.result", "target/load.json"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTest(System.getProperties()).execute());
+    }
+
+    /**
+     * Executes the scenarios.
+     *
+     * @return the exit code, {@code 0} if the performance gate passed, {@code 1} otherwise
+     * @throws Exception if the server cannot be started, or the report written
+     */
+    public int execute() throws Exception {
+        List<Scenario> list = new ArrayList<>();
+        for (String name : scenarios) {
+            list.add(Scenario.forName(name));
+        }
+
+        File root = Files.createTempDirectory("wisdom-load").toFile();
+        EmbeddedServer server = new EmbeddedServer(root);
+        LoadGenerator generator = null;
+        List<Measure> measures = new ArrayList<>();
+        try {
+            server.start();
+            generator = new LoadGenerator(server.port(), connections);
+            System.out.println(String.format(Locale.ENGLISH, "%-10s %9s %7s %10s %9s %9s %9s %9s %9s %10s",
+                    "Scenario", "Requests", "Errors", "Req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)",
+                    "max(ms)", "Alloc/req"));
+            for (Scenario scenario : list) {
+                if (warmup > 0) {
+                    generator.run(scenario, rate, warmup);
+                }
+                Measure measure = generator.run(scenario, rate, duration);
+                measures.add(measure);
+                System.out.println(String.format(Locale.ENGLISH,
+                        "%-10s %9d %7d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %10s",
+                        measure.getScenario(), measure.getCompleted(), measure.getErrors(),
+                        measure.getThroughput(), measure.getLatency(50), measure.getLatency(90),
+                        measure.getLatency(99), measure.getLatency(99.9), measure.getMaxLatency(),
+                        allocations(measure)));
+            }
+        } finally {
+            if (generator != null) {
+                generator.stop();
+            }
+            server.stop();
+            FileUtils.deleteQuietly(root);
+        }
+
+        write(measures);
+        return check(measures);
+    }
+
+    private static String allocations(Measure measure) {
+        long bytes = measure.getAllocatedBytesPerRequest();
+        return bytes < 0 ? "n/a" : FileUtils.byteCountToDisplaySize(bytes);
+    }
+
+    private void write(List<Measure> measures) throws IOException {
+        FileUtils.forceMkdir(result.getAbsoluteFile().getParentFile());
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report = mapper.createObjectNode();
+        report.put("rate", rate);
+        report.put("duration", duration);
+        report.put("connections", connections);
+        ObjectNode nodes = report.putObject("scenarios");
+        for (Measure measure : measures) {
+            ObjectNode node = nodes.putObject(measure.getScenario());
+            node.put("requests", measure.getCompleted());
+            node.put("expected", measure.getExpected());
+            node.put("errors", measure.getErrors());
+            node.put("throughput", measure.getThroughput());
+            node.put("allocatedBytesPerRequest", measure.getAllocatedBytesPerRequest());
+            ObjectNode latency = node.putObject("latency");
+            latency.put("mean", measure.getMeanLatency());
+            latency.put("p50", measure.getLatency(50));
+            latency.put("p90", measure.getLatency(90));
+            latency.put("p99", measure.getLatency(99));
+            latency.put("p99.9", measure.getLatency(99.9));
+            latency.put("p99.99", measure.getLatency(99.99));
+            latency.put("max", measure.getMaxLatency());
+
+            File distribution = new File(result.getAbsoluteFile().getParentFile(),
+                    "load-" + measure.getScenario() + ".hgrm");
+            try (PrintStream stream = new PrintStream(new FileOutputStream(distribution))) {
+                // Microseconds to milliseconds.
+                measure.getHistogram().outputPercentileDistribution(stream, 1000.0);
+            }
+        }
+        mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(result, report);
+        System.out.println("Load test report written to " + result.getAbsolutePath());
+    }
+
+    private int check(List<Measure> measures) {
+        List<String> failures = new ArrayList<>();
+        for (Measure measure : measures) {
+            if (!measure.isFinished()) {
+                failures.add(measure.getScenario() + ": only " + measure.getCompleted() + " of "
+                        + measure.getExpected() + " requests completed");
+            }
+            if (measure.getErrors() > 0) {
+                failures.add(measure.getScenario() + ": " + measure.getErrors() + " requests failed");
+            }
+            if (maxP99 > 0 && measure.getLatency(99) > maxP99) {
+                failures.add(measure.getScenario() + ": the 99th percentile (" + measure.getLatency(99)
+                        + " ms) is above " + maxP99 + " ms");
+            }
+        }
+        for (String failure : failures) {
+            System.err.println("[FAILED] " + failure);
+        }
+        return failures.isEmpty() ? 0 : 1;
+    }
+}
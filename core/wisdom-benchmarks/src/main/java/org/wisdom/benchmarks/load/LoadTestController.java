@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks.load;
+
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Body;
+import org.wisdom.api.annotations.OnMessage;
+import org.wisdom.api.annotations.Parameter;
+import org.wisdom.api.annotations.Route;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.websockets.Publisher;
+import org.wisdom.api.templates.Template;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The application used by the load tests, one action (or web socket) per scenario.
+ */
+public class LoadTestController extends DefaultController {
+
+    /**
+     * The number of items created on startup. They are read and updated, but never deleted.
+     */
+    public static final int INITIAL_ITEMS = 100;
+
+    private final ConcurrentMap<Integer, Item> items = new ConcurrentHashMap<>();
+
+    private final File asset;
+
+    private final Template template;
+
+    private Publisher publisher;
+
+    public LoadTestController(File asset, Template template) {
+        this.asset = asset;
+        this.template = template;
+        for (int i = 0; i < INITIAL_ITEMS; i++) {
+            items.put(i, new Item(i, "item-" + i, i * 1.5));
+        }
+    }
+
+    public void setPublisher(Publisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Route(method = HttpMethod.GET, uri = "/assets/app.js")
+    public Result asset() {
+        return ok(asset);
+    }
+
+    @Route(method = HttpMethod.GET, uri = "/items")
+    public Result list() {
+        return ok(firstItems()).json();
+    }
+
+    @Route(method = HttpMethod.GET, uri = "/items/{id}")
+    public Result get(@Parameter("id") int id) {
+        Item item = items.get(id);
+        if (item == null) {
+            return notFound();
+        }
+        return ok(item).json();
+    }
+
+    @Route(method = HttpMethod.POST, uri = "/items")
+    public Result create(@Body Item item) {
+        items.put(item.getId(), item);
+        return status(CREATED).render(item).json();
+    }
+
+    @Route(method = HttpMethod.PUT, uri = "/items/{id}")
+    public Result update(@Parameter("id") int id, @Body Item item) {
+        item.setId(id);
+        items.put(id, item);
+        return ok(item).json();
+    }
+
+    @Route(method = HttpMethod.DELETE, uri = "/items/{id}")
+    public Result delete(@Parameter("id") int id) {
+        // Idempotent, deleting a missing item is not an error.
+        items.remove(id);
+        return noContent();
+    }
+
+    @Route(method = HttpMethod.GET, uri = "/page")
+    public Result page() {
+        return ok(render(template, "items", firstItems()));
+    }
+
+    @Route(method = HttpMethod.GET, uri = "/async")
+    public Result asynchronous() {
+        return async(new Callable<Result>() {
+            @Override
+            public Result call() throws Exception {
+                return ok(items.get(0)).json();
+            }
+        });
+    }
+
+    @OnMessage("/ws")
+    public void echo(@Parameter("client") String client, @Body String message) {
+        publisher.send("/ws", client, message);
+    }
+
+    private Collection<Item> firstItems() {
+        List<Item> list = new ArrayList<>(INITIAL_ITEMS);
+        for (int i = 0; i < INITIAL_ITEMS; i++) {
+            Item item = items.get(i);
+            if (item != null) {
+                list.add(item);
+            }
+        }
+        return list;
+    }
+}
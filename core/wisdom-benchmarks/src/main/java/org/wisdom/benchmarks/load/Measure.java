@@ -0,0 +1,209 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result of the execution of a scenario. The latencies are recorded in an HdrHistogram, in microseconds.
+ * <p>
+ * The recording methods are called from the load generator thread only.
+ */
+public class Measure {
+
+    private final String scenario;
+
+    private final int rate;
+
+    private final long expected;
+
+    private final Histogram histogram = new Histogram(3);
+
+    private long completed;
+
+    private long errors;
+
+    private long begin;
+
+    private long end;
+
+    private long generatorThread = -1;
+
+    private Map<Long, Long> allocationsAtBegin;
+
+    private long allocated = -1;
+
+    private boolean finished;
+
+    public Measure(String scenario, int rate, long expected) {
+        this.scenario = scenario;
+        this.rate = rate;
+        this.expected = expected;
+    }
+
+    /**
+     * Starts the measure. Must be called from the load generator thread, as its allocations are not counted.
+     */
+    void begin() {
+        generatorThread = Thread.currentThread().getId();
+        allocationsAtBegin = allocations();
+        begin = System.nanoTime();
+    }
+
+    /**
+     * Records the completion of a request.
+     *
+     * @param latency the latency in nanoseconds, computed from the time the request should have been sent
+     * @param success whether the request succeeded
+     */
+    void record(long latency, boolean success) {
+        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+        completed++;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    /**
+     * Ends the measure. Must be called from the load generator thread.
+     *
+     * @param finished whether all the requests have completed
+     */
+    void end(boolean finished) {
+        end = System.nanoTime();
+        this.finished = finished;
+        Map<Long, Long> allocations = allocations();
+        if (allocations != null && allocationsAtBegin != null) {
+            allocated = 0;
+            for (Map.Entry<Long, Long> entry : allocations.entrySet()) {
+                if (entry.getKey() != generatorThread) {
+                    Long before = allocationsAtBegin.get(entry.getKey());
+                    allocated += entry.getValue() - (before == null ? 0 : before);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes allocated by each thread. Threads terminated during the measure are not counted.
+     *
+     * @return the allocated bytes per thread id, {@literal null} if the JVM does not support it
+     */
+    private static Map<Long, Long> allocations() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> map = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                map.put(ids[i], bytes[i]);
+            }
+        }
+        return map;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public long getExpected() {
+        return expected;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return whether all the requests have completed before the timeout.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return the number of completed requests per second.
+     */
+    public double getThroughput() {
+        double seconds = (end - begin) / 1e9;
+        return seconds == 0 ? 0 : completed / seconds;
+    }
+
+    /**
+     * @return the number of bytes allocated by the server per request, -1 if the JVM cannot count them. It
+     * includes the allocations of all threads but the load generator one.
+     */
+    public long getAllocatedBytesPerRequest() {
+        if (allocated < 0 || completed == 0) {
+            return -1;
+        }
+        return allocated / completed;
+    }
+
+    /**
+     * @param percentile the percentile (between 0 and 100)
+     * @return the latency at the given percentile in milliseconds
+     */
+    public double getLatency(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * @return the maximum latency in milliseconds.
+     */
+    public double getMaxLatency() {
+        return histogram.getMaxValue() / 1000.0;
+    }
+
+    /**
+     * @return the mean latency in milliseconds.
+     */
+    public double getMeanLatency() {
+        return histogram.getMean() / 1000.0;
+    }
+
+    /**
+     * @return the histogram of the latencies, in microseconds.
+     */
+    public Histogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.benchmarks.load;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * A load test scenario: the sequence of requests (or web socket messages) sent to the server.
+ */
+public abstract class Scenario {
+
+    /**
+     * The name of the available scenarios.
+     */
+    public static final List<String> NAMES = ImmutableList.of("asset", "json", "template", "async", "websocket");
+
+    private final String name;
+
+    protected Scenario(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name of the scenario.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return whether the scenario sends messages on web sockets instead of HTTP requests.
+     */
+    public boolean isWebSocket() {
+        return false;
+    }
+
+    /**
+     * @param i the index of the request
+     * @return the HTTP method of the i-th request
+     */
+    public String method(long i) {
+        return "GET";
+    }
+
+    /**
+     * @param i the index of the request
+     * @return the uri of the i-th request, or of the web socket
+     */
+    public abstract String uri(long i);
+
+    /**
+     * @param i the index of the request
+     * @return the JSON body of the i-th request (or the i-th web socket message), {@literal null} if none
+     */
+    public String body(long i) {
+        return null;
+    }
+
+    /**
+     * Gets the scenario having the given name.
+     *
+     * @param name the name
+     * @return the scenario
+     * @throws IllegalArgumentException if there are no scenario with this name
+     */
+    public static Scenario forName(String name) {
+        switch (name) {
+            case "asset":
+                return new Get(name, "/assets/app.js");
+            case "json":
+                return new JsonCrud();
+            case "template":
+                return new Get(name, "/page");
+            case "async":
+                return new Get(name, "/async");
+            case "websocket":
+                return new Echo();
+            default:
+                throw new IllegalArgumentException("Unknown scenario '" + name + "', available scenarios: " + NAMES);
+        }
+    }
+
+    /**
+     * Always the same GET request.
+     */
+    private static class Get extends Scenario {
+
+        private final String uri;
+
+        Get(String name, String uri) {
+            super(name);
+            this.uri = uri;
+        }
+
+        @Override
+        public String uri(long i) {
+            return uri;
+        }
+    }
+
+    /**
+     * A mix of reads and writes: get an item, list the items, create an item, update an item, delete the item
+     * created two requests before.
+     */
+    private static class JsonCrud extends Scenario {
+
+        JsonCrud() {
+            super("json");
+        }
+
+        @Override
+        public String method(long i) {
+            switch ((int) (i % 5)) {
+                case 2:
+                    return "POST";
+                case 3:
+                    return "PUT";
+                case 4:
+                    return "DELETE";
+                default:
+                    return "GET";
+            }
+        }
+
+        @Override
+        public String uri(long i) {
+            switch ((int) (i % 5)) {
+                case 0:
+                    return "/items/" + i % LoadTestController.INITIAL_ITEMS;
+                case 3:
+                    return "/items/" + i % LoadTestController.INITIAL_ITEMS;
+                case 4:
+                    return "/items/" + created(i - 2);
+                default:
+                    return "/items";
+            }
+        }
+
+        @Override
+        public String body(long i) {
+            switch ((int) (i % 5)) {
+                case 2:
+                    return item(created(i), i);
+                case 3:
+                    return item(i % LoadTestController.INITIAL_ITEMS, i);
+                default:
+                    return null;
+            }
+        }
+
+        private static long created(long i) {
+            return LoadTestController.INITIAL_ITEMS + i;
+        }
+
+        private static String item(long id, long i) {
+            return "{\"id\":" + id + ",\"name\":\"item-" + i + "\",\"price\":" + (i % 1000) + ".5}";
+        }
+    }
+
+    /**
+     * Messages sent on a web socket, and echoed by the server.
+     */
+    private static class Echo extends Scenario {
+
+        Echo() {
+            super("websocket");
+        }
+
+        @Override
+        public boolean isWebSocket() {
+            return true;
+        }
+
+        @Override
+        public String uri(long i) {
+            return "/ws";
+        }
+
+        @Override
+        public String body(long i) {
+            return "message-" + i;
+        }
+    }
+}
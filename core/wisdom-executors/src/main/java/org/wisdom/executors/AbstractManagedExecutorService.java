@@ -28,6 +28,7 @@ import org.wisdom.api.concurrent.*;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Common methods used in the different
@@ -41,10 +42,12 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     protected ListeningExecutorService executor;
     protected ThreadPoolExecutor internalPool;
 
-    protected final Set<Task<?>> tasks = new LinkedHashSet<>();
+    protected final TaskTracker tasks;
     protected final Logger logger;
 
     protected ExecutionStatistics statistics = new ExecutionStatistics();
+    protected ExecutionStatistics waitStatistics = new ExecutionStatistics();
+    protected final AtomicLong rejected = new AtomicLong();
 
     protected List<ExecutionContextService> ecs;
 
@@ -53,10 +56,19 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
         this.name = name;
         this.logger = LoggerFactory.getLogger("executor-" + name);
         this.hungTime = hungTime;
+        this.tasks = new TaskTracker(hungTime);
         this.ecs = ecs;
     }
 
     protected AbstractManagedExecutorService setInternalPool(ThreadPoolExecutor executor) {
+        final RejectedExecutionHandler handler = executor.getRejectedExecutionHandler();
+        executor.setRejectedExecutionHandler(new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor pool) {
+                rejected.incrementAndGet();
+                handler.rejectedExecution(r, pool);
+            }
+        });
         this.internalPool = executor;
         this.executor = MoreExecutors.listeningDecorator(this.internalPool);
         return this;
@@ -79,15 +91,19 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
         return statistics.copy();
     }
 
+    @Override
+    public ExecutionStatistics getQueueWaitTimeStatistics() {
+        return waitStatistics.copy();
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejected.get();
+    }
+
     @Override
     public Collection<ManagedFutureTask> getHungTasks() {
-        List<ManagedFutureTask> hung = new ArrayList<>();
-        for (ManagedFutureTask task : tasks) {
-            if (task.isTaskHang()) {
-                hung.add(task);
-            }
-        }
-        return hung;
+        return tasks.getHungTasks();
     }
 
     @Override
@@ -98,7 +114,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
 
     @Override
     public List<Runnable> shutdownNow() {
-        for (Task task : tasks) {
+        for (Task task : tasks.getTasks()) {
             task.cancel(true);
         }
         return executor.shutdownNow();
@@ -153,7 +169,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
         return manageable;
     }
 
-    protected abstract <T> Task getNewTaskFor(Callable<T> callable);
+    protected abstract <T> Task<T> getNewTaskFor(Callable<T> callable);
 
     protected abstract <V> Task<V> getNewTaskFor(Runnable task, V result);
 
@@ -189,7 +205,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     @Override
     public void execute(Runnable command) {
         Task<Void> task = getNewTaskFor(command, null);
-        task.execute();
+        tasks.track(task.execute());
     }
 
 
@@ -339,7 +355,9 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
         if (task == null) {
             throw new NullPointerException();
         }
-        return getNewTaskFor(task).execute();
+        Task<T> t = getNewTaskFor(task).execute();
+        tasks.track(t);
+        return t;
     }
 
     @Override
@@ -347,14 +365,8 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
         if (task == null) {
             throw new NullPointerException();
         }
-        final Task t = getNewTaskFor(task, result).execute();
-        t.addListener(new Runnable() {
-            @Override
-            public void run() {
-                tasks.remove(t);
-            }
-        });
-        tasks.add(t);
+        Task<T> t = getNewTaskFor(task, result).execute();
+        tasks.track(t);
         return t;
     }
 
@@ -365,11 +377,16 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     /**
-     * Computes the execution time of the completed task (given), and add it to the statistics.
+     * Computes the execution time and the queue wait time of the completed task (given), and add them to the
+     * statistics.
      *
      * @param task the completed task
      */
     protected void addToStatistics(Task task) {
         statistics.accept(task.getTaskCompletionTime() - task.getTaskStartTime());
+        long wait = task.getTaskWaitTime();
+        if (wait >= 0) {
+            waitStatistics.accept(wait);
+        }
     }
 }
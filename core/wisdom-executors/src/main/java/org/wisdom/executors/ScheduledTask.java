@@ -19,12 +19,12 @@
  */
 package org.wisdom.executors;
 
-import com.google.common.util.concurrent.JdkFutureAdapters;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import org.wisdom.api.concurrent.ManagedScheduledFutureTask;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.Delayed;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -53,7 +53,7 @@ public class ScheduledTask<V> extends Task<V> implements ManagedScheduledFutureT
     protected ScheduledTask<V> submittedScheduledTask(ScheduledFuture delegate) {
         this.submissionDate = System.currentTimeMillis();
         this.scheduledFuture = delegate;
-        this.future = JdkFutureAdapters.listenInPoolThread(delegate);
+        this.future = listenable((Future<V>) delegate);
         return this;
     }
 
@@ -39,6 +39,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     private final AbstractManagedExecutorService parent;
 
     protected long submissionDate;
+    private long queuedDate;
     private long startDate;
     private long completionDate;
     private long hungTime;
@@ -73,6 +74,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     }
 
     protected Task<V> execute() {
+        queuedDate = System.currentTimeMillis();
         ListenableFuture<V> future = executor.submit(callable);
         submitted(future);
         return this;
@@ -80,10 +82,25 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
 
     protected Task<V> submitted(Future<V> future) {
         this.submissionDate = System.currentTimeMillis();
-        this.future = JdkFutureAdapters.listenInPoolThread(future);
+        this.future = listenable(future);
         return this;
     }
 
+    /**
+     * Gets a listenable version of the given future. The futures returned by the listening executors are used
+     * directly, others are adapted, which costs a thread waiting for their completion.
+     *
+     * @param future the future
+     * @param <T>    the type of result
+     * @return the listenable future
+     */
+    protected static <T> ListenableFuture<T> listenable(Future<T> future) {
+        if (future instanceof ListenableFuture) {
+            return (ListenableFuture<T>) future;
+        }
+        return JdkFutureAdapters.listenInPoolThread(future);
+    }
+
     public void addListener(Runnable listener) {
         addListener(listener, executor);
     }
@@ -190,6 +207,20 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
         return completionDate;
     }
 
+    /**
+     * Gets the time spent by the task in the executor queue. It is only known for tasks submitted for immediate
+     * execution that have started.
+     *
+     * @return the time between the submission of the task and the beginning of its execution, {@literal -1} if
+     * unknown.
+     */
+    public long getTaskWaitTime() {
+        if (queuedDate == 0 || startDate == 0) {
+            return -1;
+        }
+        return Math.max(0, startDate - queuedDate);
+    }
+
     @Override
     public long getTaskRunTime() {
         if (startDate == 0) {
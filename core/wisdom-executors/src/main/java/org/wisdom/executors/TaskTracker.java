@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.wisdom.api.concurrent.ManagedFutureTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the in-flight tasks of an executor to detect the hung ones.
+ * <p>
+ * Tasks are stored in time buckets (in the manner of a timing wheel) according to their submission date. Each bucket
+ * covers a fraction of the hung time threshold, so detecting the hung tasks only inspects the buckets older than the
+ * threshold, and not all the in-flight tasks. Tasks leave their bucket as soon as they complete, and a bucket is
+ * discarded when its last task completes. The detection does not modify the buckets.
+ */
+public class TaskTracker {
+
+    /**
+     * The number of buckets covering the hung time threshold.
+     */
+    private static final int BUCKETS_PER_THRESHOLD = 16;
+
+    private final long hungTime;
+
+    private final long tick;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates a new tracker.
+     *
+     * @param hungTime the time (in milliseconds) after which a task that has not completed is considered as hung
+     */
+    public TaskTracker(long hungTime) {
+        this.hungTime = hungTime;
+        this.tick = Math.max(1, hungTime / BUCKETS_PER_THRESHOLD);
+    }
+
+    /**
+     * Tracks the given task until its completion. The task must have been submitted.
+     *
+     * @param task the task
+     */
+    public void track(final Task<?> task) {
+        final Long slot = task.submissionDate / tick;
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || !bucket.add(task)) {
+            if (bucket != null) {
+                // The bucket has been discarded by the completion of its last task, replace it.
+                buckets.remove(slot, bucket);
+            }
+            Bucket created = new Bucket();
+            bucket = buckets.putIfAbsent(slot, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        final Bucket owner = bucket;
+        task.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (owner.remove(task)) {
+                    buckets.remove(slot, owner);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Gets the hung tasks.
+     *
+     * @return the list of tasks that have not completed within the hung time threshold
+     */
+    public List<ManagedFutureTask> getHungTasks() {
+        List<ManagedFutureTask> hung = new ArrayList<>();
+        long limit = (System.currentTimeMillis() - hungTime) / tick;
+        for (Bucket bucket : buckets.headMap(limit, true).values()) {
+            for (Task<?> task : bucket.tasks) {
+                if (task.isTaskHang()) {
+                    hung.add(task);
+                }
+            }
+        }
+        return hung;
+    }
+
+    /**
+     * @return all the in-flight tasks.
+     */
+    public List<Task<?>> getTasks() {
+        List<Task<?>> list = new ArrayList<>();
+        for (Bucket bucket : buckets.values()) {
+            list.addAll(bucket.tasks);
+        }
+        return list;
+    }
+
+    /**
+     * The tasks submitted during a tick. Once the last task has completed, the bucket is discarded and cannot
+     * receive new tasks.
+     */
+    private static final class Bucket {
+
+        private final Set<Task<?>> tasks = Collections.newSetFromMap(new ConcurrentHashMap<Task<?>, Boolean>());
+
+        /**
+         * The number of tasks, -1 once discarded.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Adds a task.
+         *
+         * @return {@code false} if the bucket has been discarded
+         */
+        private boolean add(Task<?> task) {
+            int current;
+            do {
+                current = count.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!count.compareAndSet(current, current + 1));
+            tasks.add(task);
+            return true;
+        }
+
+        /**
+         * Removes a completed task.
+         *
+         * @return {@code true} if the bucket has been discarded
+         */
+        private boolean remove(Task<?> task) {
+            tasks.remove(task);
+            // If a task is added concurrently, the bucket is not discarded.
+            return count.decrementAndGet() == 0 && count.compareAndSet(0, -1);
+        }
+    }
+
+    /**
+     * @return the number of time buckets currently held.
+     */
+    int buckets() {
+        return buckets.size();
+    }
+}
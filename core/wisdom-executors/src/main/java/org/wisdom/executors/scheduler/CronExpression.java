@@ -0,0 +1,234 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A parsed cron expression. The expression contains 5 fields (minutes, hours, day of month, month, day of week) or 6
+ * fields (seconds first). Each field accepts {@literal *} (or {@literal ?}), values, ranges ({@literal 1-5}), lists
+ * ({@literal 1,15}) and steps ({@literal *}{@literal /10}, {@literal 0-30/5}). Months and days of week can be given by
+ * name. Days of week go from 0 (Sunday) to 7 (Sunday again).
+ * <p>
+ * As in the usual cron implementations, when both the day of month and the day of week are restricted, a day
+ * matching either of them matches.
+ */
+public final class CronExpression {
+
+    private static final Map<String, String> SHORTCUTS = ImmutableMap.<String, String>builder()
+            .put("@yearly", "0 0 1 1 *")
+            .put("@annually", "0 0 1 1 *")
+            .put("@monthly", "0 0 1 * *")
+            .put("@weekly", "0 0 * * 0")
+            .put("@daily", "0 0 * * *")
+            .put("@midnight", "0 0 * * *")
+            .put("@hourly", "0 * * * *")
+            .build();
+
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT",
+            "NOV", "DEC"};
+
+    private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    /**
+     * The number of years searched for the next trigger, to detect expressions never matching (such as the 30th of
+     * February).
+     */
+    private static final int MAX_YEARS = 5;
+
+    private final String expression;
+    private final DateTimeZone zone;
+    private final BitSet seconds;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean restrictedDaysOfMonth;
+    private final boolean restrictedDaysOfWeek;
+
+    private CronExpression(String expression, DateTimeZone zone) {
+        this.expression = expression;
+        this.zone = zone;
+        String normalized = expression.trim();
+        String shortcut = SHORTCUTS.get(normalized.toLowerCase(Locale.ENGLISH));
+        if (shortcut != null) {
+            normalized = shortcut;
+        }
+        List<String> fields = Splitter.on(' ').trimResults().omitEmptyStrings().splitToList(normalized);
+        if (fields.size() == 5) {
+            seconds = parse("0", 0, 59, null);
+        } else if (fields.size() == 6) {
+            seconds = parse(fields.get(0), 0, 59, null);
+            fields = fields.subList(1, 6);
+        } else {
+            throw new IllegalArgumentException("Invalid cron expression '" + expression + "' - expecting 5 or 6 " +
+                    "fields");
+        }
+        minutes = parse(fields.get(0), 0, 59, null);
+        hours = parse(fields.get(1), 0, 23, null);
+        daysOfMonth = parse(fields.get(2), 1, 31, null);
+        months = parse(fields.get(3), 1, 12, MONTHS);
+        daysOfWeek = parse(fields.get(4), 0, 7, DAYS);
+        // 7 is Sunday too.
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+            daysOfWeek.clear(7);
+        }
+        restrictedDaysOfMonth = !isWildcard(fields.get(2));
+        restrictedDaysOfWeek = !isWildcard(fields.get(4));
+    }
+
+    /**
+     * Parses the given expression using the default time zone.
+     *
+     * @param expression the expression
+     * @return the parsed expression
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static CronExpression parse(String expression) {
+        return parse(expression, DateTimeZone.getDefault());
+    }
+
+    /**
+     * Parses the given expression.
+     *
+     * @param expression the expression
+     * @param zone       the time zone in which the expression is evaluated
+     * @return the parsed expression
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static CronExpression parse(String expression, DateTimeZone zone) {
+        return new CronExpression(expression, zone);
+    }
+
+    private static boolean isWildcard(String field) {
+        return "*".equals(field) || "?".equals(field);
+    }
+
+    private BitSet parse(String field, int min, int max, String[] names) {
+        BitSet set = new BitSet(max + 1);
+        for (String part : Splitter.on(',').trimResults().split(field)) {
+            int step = 1;
+            String range = part;
+            int slash = part.indexOf('/');
+            if (slash != -1) {
+                step = value(part.substring(slash + 1), 1, max, null);
+                range = part.substring(0, slash);
+            }
+            int from;
+            int to;
+            if (isWildcard(range)) {
+                from = min;
+                to = max;
+            } else if (range.indexOf('-') > 0) {
+                int dash = range.indexOf('-');
+                from = value(range.substring(0, dash), min, max, names);
+                to = value(range.substring(dash + 1), min, max, names);
+            } else {
+                from = value(range, min, max, names);
+                // "5/10" means from 5 to the end, every 10.
+                to = slash == -1 ? from : max;
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("Invalid range '" + part + "' in cron expression '"
+                        + expression + "'");
+            }
+            for (int i = from; i <= to; i += step) {
+                set.set(i);
+            }
+        }
+        return set;
+    }
+
+    private int value(String text, int min, int max, String[] names) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(text)) {
+                    // Months start at 1, days of week at 0.
+                    return i + min;
+                }
+            }
+        }
+        int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + text + "' in cron expression '"
+                    + expression + "'", e);
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("Value '" + text + "' out of range [" + min + ", " + max + "] in cron " +
+                    "expression '" + expression + "'");
+        }
+        return value;
+    }
+
+    private boolean matchesDay(DateTime time) {
+        boolean dom = daysOfMonth.get(time.getDayOfMonth());
+        // Joda uses 1 (Monday) to 7 (Sunday).
+        boolean dow = daysOfWeek.get(time.getDayOfWeek() % 7);
+        if (restrictedDaysOfMonth && restrictedDaysOfWeek) {
+            return dom || dow;
+        }
+        return dom && dow;
+    }
+
+    /**
+     * Computes the next trigger time strictly after the given time.
+     *
+     * @param after the time, in milliseconds since the epoch
+     * @return the next time matching the expression, in milliseconds since the epoch
+     * @throws IllegalArgumentException if the expression does not match any date
+     */
+    public long next(long after) {
+        DateTime time = new DateTime(after, zone).withMillisOfSecond(0).plusSeconds(1);
+        int limit = time.getYear() + MAX_YEARS;
+        while (time.getYear() <= limit) {
+            if (!months.get(time.getMonthOfYear())) {
+                time = time.plusMonths(1).withDayOfMonth(1).withTimeAtStartOfDay();
+            } else if (!matchesDay(time)) {
+                time = time.plusDays(1).withTimeAtStartOfDay();
+            } else if (!hours.get(time.getHourOfDay())) {
+                time = time.plusHours(1).withMinuteOfHour(0).withSecondOfMinute(0);
+            } else if (!minutes.get(time.getMinuteOfHour())) {
+                time = time.plusMinutes(1).withSecondOfMinute(0);
+            } else if (!seconds.get(time.getSecondOfMinute())) {
+                time = time.plusSeconds(1);
+            } else {
+                return time.getMillis();
+            }
+        }
+        throw new IllegalArgumentException("The cron expression '" + expression + "' does not match any date");
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
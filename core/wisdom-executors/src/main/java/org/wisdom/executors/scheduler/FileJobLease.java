@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.scheduler.JobLease;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+
+/**
+ * A {@link org.wisdom.api.scheduler.JobLease} storing the last granted window of each job in a file of a shared
+ * directory. Files are locked while being read and updated, so the instances sharing the directory (on the same
+ * host, or on a file system supporting locks) never get the lease for the same window.
+ */
+public class FileJobLease implements JobLease {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileJobLease.class);
+
+    private final File directory;
+
+    /**
+     * Creates a new lease service.
+     *
+     * @param directory the shared directory, created if it does not exist
+     */
+    public FileJobLease(File directory) {
+        this.directory = directory;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create the lease directory " + directory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Grants the lease if the lease file of the job does not contain the same or a later window. Errors are logged
+     * and the lease is not granted.
+     *
+     * @param job    the job identifier
+     * @param window the window identifying the run
+     * @return {@literal true} if the lease is granted
+     */
+    @Override
+    public synchronized boolean tryAcquire(String job, long window) {
+        File file = new File(directory, job.replaceAll("[^A-Za-z0-9._-]", "_") + ".lease");
+        try (RandomAccessFile content = new RandomAccessFile(file, "rw");
+             FileLock ignored = content.getChannel().lock()) {
+            if (content.length() >= 8 && content.readLong() >= window) {
+                return false;
+            }
+            content.seek(0);
+            content.writeLong(window);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Cannot acquire the lease of {} from {}", job, file.getAbsolutePath(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.wisdom.api.scheduler.JobLease;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link org.wisdom.api.scheduler.JobLease} granting the leases within the current JVM. It is only useful when
+ * several schedulers run in the same JVM, such as in tests.
+ */
+public class InMemoryJobLease implements JobLease {
+
+    private final ConcurrentMap<String, Long> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Grants the lease if no lease has been granted for the same or a later window.
+     *
+     * @param job    the job identifier
+     * @param window the window identifying the run
+     * @return {@literal true} if the lease is granted
+     */
+    @Override
+    public boolean tryAcquire(String job, long window) {
+        while (true) {
+            Long last = windows.putIfAbsent(job, window);
+            if (last == null) {
+                return true;
+            }
+            if (last >= window) {
+                return false;
+            }
+            if (windows.replace(job, last, window)) {
+                return true;
+            }
+        }
+    }
+}
@@ -56,6 +56,10 @@ public class Job {
     private final Method method;
     private final Scheduled scheduled;
     private final TimeUnit unit;
+    private final CronExpression cron;
+    private final Every.Policy policy;
+    private final long jitter;
+    private final boolean exclusive;
     private ManagedScheduledFutureTask task;
     private long period;
 
@@ -69,6 +73,17 @@ public class Job {
     public Job(Scheduled scheduled, Method method, Every every) {
         this.method = method;
         this.scheduled = scheduled;
+        this.policy = every.policy() == null ? Every.Policy.FIXED_RATE : every.policy();
+        this.exclusive = every.exclusive();
+        this.jitter = Strings.isNullOrEmpty(every.jitter()) ? 0 :
+                TimeUnit.SECONDS.toMillis(toDuration(PERIOD_FORMATTER.parsePeriod(every.jitter())));
+        if (!Strings.isNullOrEmpty(every.cron())) {
+            this.cron = CronExpression.parse(every.cron());
+            this.period = -1;
+            this.unit = TimeUnit.SECONDS;
+            return;
+        }
+        this.cron = null;
         if (every.period() > 0) {
             this.period = every.period();
             this.unit = every.unit();
@@ -110,6 +125,14 @@ public class Job {
         return method;
     }
 
+    /**
+     * @return the identifier of the job, made of the class name of the scheduled object and the method name. It is
+     * the same for all the instances of the application.
+     */
+    public String id() {
+        return scheduled.getClass().getName() + "#" + method.getName();
+    }
+
     /**
      * Gets the runnable invoking the scheduled method.
      *
@@ -168,4 +191,32 @@ public class Job {
     public TimeUnit unit() {
         return unit;
     }
+
+    /**
+     * @return the cron expression, {@literal null} if the job is periodic.
+     */
+    public CronExpression cron() {
+        return cron;
+    }
+
+    /**
+     * @return the policy applied to periodic jobs.
+     */
+    public Every.Policy policy() {
+        return policy;
+    }
+
+    /**
+     * @return the maximum random delay added to the start of the job, in milliseconds.
+     */
+    public long jitter() {
+        return jitter;
+    }
+
+    /**
+     * @return whether each run must be executed by only one instance of the application.
+     */
+    public boolean exclusive() {
+        return exclusive;
+    }
 }
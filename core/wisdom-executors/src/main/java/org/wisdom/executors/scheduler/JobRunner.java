@@ -0,0 +1,166 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.wisdom.api.annotations.scheduler.Every;
+import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
+import org.wisdom.api.scheduler.JobLease;
+
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Submits a {@link Job} to the scheduler according to its trigger (period or cron expression), its policy and its
+ * jitter, and checks the lease of exclusive jobs before each execution.
+ * <p>
+ * Cron jobs are rescheduled after each execution, so the executions never overlap and triggers happening while the
+ * job runs are skipped.
+ */
+class JobRunner implements Runnable {
+
+    private static final Random RANDOM = new Random();
+
+    private final Job job;
+    private final ManagedScheduledExecutorService scheduler;
+    private final WisdomTaskScheduler owner;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * The jitter applied to the current execution (cron jobs) or the initial delay (periodic jobs).
+     */
+    private volatile long jitter;
+
+    /**
+     * The nominal trigger time of the pending execution of a cron job.
+     */
+    private volatile long nominal;
+
+    // Guarded by this.
+    private boolean cancelled;
+
+    JobRunner(Job job, ManagedScheduledExecutorService scheduler, WisdomTaskScheduler owner) {
+        this.job = job;
+        this.scheduler = scheduler;
+        this.owner = owner;
+    }
+
+    private static long random(long bound) {
+        if (bound <= 0) {
+            return 0;
+        }
+        return (long) (RANDOM.nextDouble() * bound);
+    }
+
+    /**
+     * Submits the job.
+     */
+    synchronized void start() {
+        if (job.cron() != null) {
+            scheduleNextExecution();
+            return;
+        }
+        long period = job.unit().toMillis(job.period());
+        jitter = random(job.jitter());
+        long delay = period + jitter;
+        if (job.policy() == Every.Policy.FIXED_DELAY) {
+            job.submitted(scheduler.scheduleWithFixedDelay(this, delay, period, TimeUnit.MILLISECONDS));
+        } else {
+            job.submitted(scheduler.scheduleAtFixedRate(this, delay, period, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Cancels the job. Pending executions are cancelled, and cron jobs are not rescheduled anymore.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        if (job.task() != null) {
+            job.task().cancel(true);
+            job.submitted(null);
+        }
+    }
+
+    private synchronized void scheduleNextExecution() {
+        if (cancelled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        nominal = job.cron().next(now);
+        jitter = random(job.jitter());
+        job.submitted(scheduler.schedule(this, nominal - now + jitter, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Called by the scheduler when the job is triggered.
+     */
+    @Override
+    public void run() {
+        if (job.cron() != null) {
+            try {
+                execute(nominal);
+            } finally {
+                scheduleNextExecution();
+            }
+            return;
+        }
+
+        long period = job.unit().toMillis(job.period());
+        final long window = (System.currentTimeMillis() - jitter) / period * period;
+        if (job.policy() != Every.Policy.SKIP_IF_RUNNING) {
+            execute(window);
+            return;
+        }
+        // The trigger only submits the execution, so it is never delayed by an overrunning execution.
+        if (!running.compareAndSet(false, true)) {
+            WisdomTaskScheduler.getLogger().debug("Skipping execution of {}, the previous one is still running",
+                    job.id());
+            return;
+        }
+        try {
+            scheduler.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        execute(window);
+                    } finally {
+                        running.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            WisdomTaskScheduler.getLogger().error("Cannot submit the execution of {}", job.id(), e);
+        }
+    }
+
+    private void execute(long window) {
+        if (job.exclusive()) {
+            JobLease lease = owner.lease();
+            if (lease != null && !lease.tryAcquire(job.id(), window)) {
+                WisdomTaskScheduler.getLogger().debug("Skipping execution of {} for window {}, executed by " +
+                        "another instance", job.id(), window);
+                return;
+            }
+        }
+        job.function().run();
+    }
+}
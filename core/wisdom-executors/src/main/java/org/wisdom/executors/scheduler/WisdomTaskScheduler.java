@@ -24,15 +24,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.annotations.scheduler.Every;
 import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
-import org.wisdom.api.concurrent.ManagedScheduledFutureTask;
+import org.wisdom.api.scheduler.JobLease;
 import org.wisdom.api.scheduler.Scheduled;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manage scheduled job using the system scheduler.
+ * <p>
+ * Jobs are either periodic or triggered by a cron expression (see {@link Every}). When a
+ * {@link org.wisdom.api.scheduler.JobLease} service is available, each run of an exclusive job is only executed by
+ * the instance acquiring the lease.
  */
 @Component(immediate = true)
 @Instantiate
@@ -45,6 +51,10 @@ public class WisdomTaskScheduler {
 
     List<Job> jobs = new ArrayList<>();
 
+    Map<Job, JobRunner> runners = new HashMap<>();
+
+    private volatile JobLease lease;
+
     /**
      * @return the logger.
      */
@@ -52,6 +62,48 @@ public class WisdomTaskScheduler {
         return LOGGER;
     }
 
+    /**
+     * Binds the lease service used by exclusive jobs.
+     *
+     * @param lease the lease service
+     */
+    @Bind(optional = true)
+    public void bindLease(JobLease lease) {
+        this.lease = lease;
+    }
+
+    /**
+     * Unbinds the lease service. Exclusive jobs are executed by all instances until another lease service arrives.
+     *
+     * @param lease the lease service
+     */
+    @Unbind
+    public void unbindLease(JobLease lease) {
+        if (this.lease == lease) {
+            this.lease = null;
+        }
+    }
+
+    /**
+     * @return the lease service, {@literal null} if none.
+     */
+    JobLease lease() {
+        return lease;
+    }
+
+    private void submit(Job job) {
+        JobRunner runner = new JobRunner(job, scheduler, this);
+        runners.put(job, runner);
+        runner.start();
+    }
+
+    private void cancel(Job job) {
+        JobRunner runner = runners.remove(job);
+        if (runner != null) {
+            runner.cancel();
+        }
+    }
+
     /**
      * Binds a new {@link Scheduled} object. All jobs defined in this objects are submitted to the system scheduler.
      *
@@ -63,9 +115,7 @@ public class WisdomTaskScheduler {
         List<Job> extracted = extractJobsFromScheduled(scheduled);
         for (Job job : extracted) {
             LOGGER.info("Job extracted from {} : {}", scheduled, job.method().getName());
-            ManagedScheduledFutureTask task = scheduler.scheduleAtFixedRate(job.function(),
-                    job.period(), job.period(), job.unit());
-            job.submitted(task);
+            submit(job);
             jobs.add(job);
         }
     }
@@ -79,8 +129,7 @@ public class WisdomTaskScheduler {
         for (Job job : jobs) {
             LOGGER.info("Cancelling periodic task {}#{} on invalidation", job.scheduled().getClass().getName(),
                     job.method().getName());
-            job.task().cancel(true);
-            job.submitted(null);
+            cancel(job);
         }
     }
 
@@ -92,9 +141,7 @@ public class WisdomTaskScheduler {
     public synchronized void validate() {
         for (Job job : jobs) {
             if (job.task() == null) {
-                ManagedScheduledFutureTask task = scheduler.scheduleAtFixedRate(job.function(),
-                        job.period(), job.period(), job.unit());
-                job.submitted(task);
+                submit(job);
             }
         }
     }
@@ -110,7 +157,7 @@ public class WisdomTaskScheduler {
             if (job.scheduled().equals(scheduled)) {
                 LOGGER.info("Cancelling periodic task {}#{}", job.scheduled().getClass().getName(),
                         job.method().getName());
-                job.task().cancel(true);
+                cancel(job);
                 jobs.remove(job);
             }
         }
@@ -132,7 +179,8 @@ public class WisdomTaskScheduler {
                 try {
                     listOfJobs.add(new Job(scheduled, method, every));
                 } catch (IllegalArgumentException e) {
-                    LOGGER.error("Cannot parse the period '{}' from scheduled method {}.{}", every.value(),
+                    LOGGER.error("Cannot parse the period '{}' or cron expression '{}' from scheduled method {}.{}",
+                            every.value(), every.cron(),
                             scheduled.getClass().getName(), method.getName(), e);
                 }
             }
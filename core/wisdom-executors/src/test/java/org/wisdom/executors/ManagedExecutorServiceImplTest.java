@@ -36,6 +36,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 public class ManagedExecutorServiceImplTest {
 
@@ -349,6 +350,81 @@ public class ManagedExecutorServiceImplTest {
         assertThat(service.getQueue()).isInstanceOf(LinkedBlockingQueue.class);
     }
 
+    @Test
+    public void testExecutionStatistics() throws InterruptedException {
+        final ManagedExecutorService.ExecutionStatistics statistics = new ManagedExecutorService.ExecutionStatistics();
+        assertThat(statistics.getPercentile(99)).isEqualTo(0);
+        assertThat(statistics.getMinimumExecutionTime()).isEqualTo(Long.MAX_VALUE);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= 1000; i++) {
+                        statistics.accept(i);
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(statistics.getCount()).isEqualTo(4000);
+        assertThat(statistics.getTotalExecutionTime()).isEqualTo(4 * 500500);
+        assertThat(statistics.getMinimumExecutionTime()).isEqualTo(1);
+        assertThat(statistics.getMaximumExecutionTime()).isEqualTo(1000);
+        assertThat(statistics.getAverageExecutionTime()).isEqualTo(500.5);
+        // The histogram precision is 12.5%.
+        assertThat(statistics.getPercentile(50)).isBetween(500L, 563L);
+        assertThat(statistics.getPercentile(99)).isBetween(990L, 1000L);
+        assertThat(statistics.getPercentile(100)).isEqualTo(1000);
+
+        ManagedExecutorService.ExecutionStatistics copy = statistics.copy();
+        copy.accept(5000);
+        assertThat(copy.getCount()).isEqualTo(4001);
+        assertThat(copy.getMaximumExecutionTime()).isEqualTo(5000);
+        assertThat(statistics.getCount()).isEqualTo(4000);
+    }
+
+    @Test
+    public void testQueueWaitTimeAndRejection() throws ExecutionException, InterruptedException {
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("single",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                1, Thread.NORM_PRIORITY, null);
+        final CountDownLatch latch = new CountDownLatch(1);
+        Future<String> first = service.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await();
+                return "first";
+            }
+        });
+        // Queued behind the first task.
+        Future<String> second = service.submit(new MyCallable());
+        try {
+            service.submit(new MyCallable());
+            fail("The third task should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // Expected.
+        }
+        assertThat(service.getRejectedTaskCount()).isEqualTo(1);
+
+        Thread.sleep(50);
+        latch.countDown();
+        assertThat(first.get()).isEqualTo("first");
+        assertThat(second.get()).isEqualTo("hello");
+
+        ManagedExecutorService.ExecutionStatistics wait = service.getQueueWaitTimeStatistics();
+        assertThat(wait.getCount()).isEqualTo(2);
+        assertThat(wait.getMaximumExecutionTime()).isGreaterThanOrEqualTo(50);
+        assertThat(service.getExecutionTimeStatistics().getCount()).isEqualTo(2);
+        service.shutdownNow();
+    }
+
     private class MyCallable implements Callable<String> {
 
         @Override
@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.concurrent.ManagedFutureTask;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskTrackerTest {
+
+    ManagedExecutorServiceImpl executor = new ManagedExecutorServiceImpl(
+            "test",
+            ManagedExecutorService.ThreadType.POOLED,
+            50,
+            10,
+            25,
+            1000,
+            20,
+            Thread.NORM_PRIORITY,
+            null);
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testThatCompletedTasksAreNotTracked() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // Do nothing.
+                }
+            }).get();
+        }
+        // The buckets are discarded when their last task completes (the completion listeners may be called after
+        // get() has returned).
+        Thread.sleep(10);
+        assertThat(executor.tasks.buckets()).isEqualTo(0);
+        assertThat(executor.tasks.getTasks()).isEmpty();
+        assertThat(executor.getHungTasks()).isEmpty();
+    }
+
+    @Test
+    public void testHungTaskDetection() throws ExecutionException, InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        ManagedFutureTask<?> hung = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    // Ignore it.
+                }
+            }
+        });
+        assertThat(executor.tasks.getTasks()).containsExactly((Task<?>) hung);
+        // Not hung yet.
+        assertThat(executor.getHungTasks()).isEmpty();
+
+        Thread.sleep(100);
+        ManagedFutureTask<?> recent = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    // Ignore it.
+                }
+            }
+        });
+        assertThat(executor.getHungTasks()).containsExactly(hung);
+        assertThat(recent.isTaskHang()).isFalse();
+        // The detection does not modify the buckets.
+        assertThat(executor.tasks.buckets()).isEqualTo(2);
+        assertThat(executor.getHungTasks()).containsExactly(hung);
+
+        latch.countDown();
+        hung.get();
+        recent.get();
+        // The completion listeners may be called after get() has returned.
+        Thread.sleep(10);
+        assertThat(executor.getHungTasks()).isEmpty();
+        assertThat(executor.tasks.getTasks()).isEmpty();
+        assertThat(executor.tasks.buckets()).isEqualTo(0);
+    }
+}
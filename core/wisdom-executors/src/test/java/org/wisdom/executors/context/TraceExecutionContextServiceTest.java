@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.context;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wisdom.api.concurrent.ExecutionContextService;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.engine.TraceContext;
+import org.wisdom.executors.ManagedExecutorServiceImpl;
+import org.wisdom.test.parents.FakeConfiguration;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceExecutionContextServiceTest {
+
+    private ManagedExecutorService service;
+
+    @Before
+    public void setUp() {
+        TraceContext.TRACE_ID.remove();
+        service = new ManagedExecutorServiceImpl("test",
+                new FakeConfiguration(Collections.<String, Object>emptyMap()),
+                ImmutableList.<ExecutionContextService>of(new TraceExecutionContextService()));
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        service.shutdown();
+        service.awaitTermination(100, TimeUnit.MICROSECONDS);
+        TraceContext.TRACE_ID.remove();
+    }
+
+    @Test
+    public void testThatTheTraceIdIsCorrectlyMigrated() throws ExecutionException, InterruptedException {
+        Callable<String> computation = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return TraceContext.current();
+            }
+        };
+
+        TraceContext.TRACE_ID.set("abc-1");
+        Future<String> future = service.submit(computation);
+        assertThat(future.get()).isEqualTo("abc-1");
+
+        TraceContext.TRACE_ID.remove();
+        future = service.submit(computation);
+        assertThat(future.get()).isNull();
+    }
+
+}
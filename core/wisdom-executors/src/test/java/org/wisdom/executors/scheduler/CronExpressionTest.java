@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the cron expression parsing and the computation of the trigger times.
+ */
+public class CronExpressionTest {
+
+    private static final DateTimeZone UTC = DateTimeZone.UTC;
+
+    private static DateTime next(String expression, DateTime from) {
+        return new DateTime(CronExpression.parse(expression, UTC).next(from.getMillis()), UTC);
+    }
+
+    private static DateTime date(int year, int month, int day, int hour, int minute, int second) {
+        return new DateTime(year, month, day, hour, minute, second, UTC);
+    }
+
+    @Test
+    public void testEveryMinute() {
+        assertThat(next("* * * * *", date(2015, 3, 10, 12, 30, 15))).isEqualTo(date(2015, 3, 10, 12, 31, 0));
+        // Strictly after.
+        assertThat(next("* * * * *", date(2015, 3, 10, 12, 30, 0))).isEqualTo(date(2015, 3, 10, 12, 31, 0));
+        assertThat(next("* * * * *", date(2015, 12, 31, 23, 59, 30))).isEqualTo(date(2016, 1, 1, 0, 0, 0));
+    }
+
+    @Test
+    public void testSeconds() {
+        assertThat(next("*/15 * * * * *", date(2015, 3, 10, 12, 30, 16))).isEqualTo(date(2015, 3, 10, 12, 30, 30));
+        assertThat(next("* * * * * *", date(2015, 3, 10, 12, 30, 16))).isEqualTo(date(2015, 3, 10, 12, 30, 17));
+    }
+
+    @Test
+    public void testRangesListsAndSteps() {
+        // Every 10 minutes between 9 and 17 on weekdays.
+        String expression = "*/10 9-17 * * MON-FRI";
+        // Saturday.
+        assertThat(next(expression, date(2015, 3, 14, 10, 0, 0))).isEqualTo(date(2015, 3, 16, 9, 0, 0));
+        assertThat(next(expression, date(2015, 3, 16, 9, 5, 0))).isEqualTo(date(2015, 3, 16, 9, 10, 0));
+        assertThat(next(expression, date(2015, 3, 16, 17, 50, 0))).isEqualTo(date(2015, 3, 17, 9, 0, 0));
+
+        assertThat(next("0 8,20 * * *", date(2015, 3, 16, 9, 0, 0))).isEqualTo(date(2015, 3, 16, 20, 0, 0));
+        assertThat(next("5/20 * * * *", date(2015, 3, 16, 9, 30, 0))).isEqualTo(date(2015, 3, 16, 9, 45, 0));
+    }
+
+    @Test
+    public void testDaysOfMonthAndWeek() {
+        // The 13th or any Friday.
+        String expression = "0 0 13 * FRI";
+        assertThat(next(expression, date(2015, 3, 1, 0, 0, 0))).isEqualTo(date(2015, 3, 6, 0, 0, 0));
+        assertThat(next(expression, date(2015, 3, 11, 0, 0, 0))).isEqualTo(date(2015, 3, 13, 0, 0, 0));
+        // 7 is Sunday.
+        assertThat(next("0 0 * * 7", date(2015, 3, 10, 0, 0, 0))).isEqualTo(date(2015, 3, 15, 0, 0, 0));
+        // Only on leap years.
+        assertThat(next("0 0 29 FEB *", date(2015, 3, 1, 0, 0, 0))).isEqualTo(date(2016, 2, 29, 0, 0, 0));
+    }
+
+    @Test
+    public void testShortcuts() {
+        assertThat(next("@daily", date(2015, 3, 10, 12, 0, 0))).isEqualTo(date(2015, 3, 11, 0, 0, 0));
+        assertThat(next("@hourly", date(2015, 3, 10, 12, 10, 0))).isEqualTo(date(2015, 3, 10, 13, 0, 0));
+        assertThat(next("@monthly", date(2015, 3, 10, 12, 10, 0))).isEqualTo(date(2015, 4, 1, 0, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfFields() {
+        CronExpression.parse("* * *");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOutOfRange() {
+        CronExpression.parse("0 25 * * *");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        CronExpression.parse("0 0 * FOO *");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNeverMatching() {
+        CronExpression.parse("0 0 30 2 *").next(System.currentTimeMillis());
+    }
+}
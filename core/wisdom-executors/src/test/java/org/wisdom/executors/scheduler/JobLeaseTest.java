@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the lease implementations.
+ */
+public class JobLeaseTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testInMemoryLease() {
+        InMemoryJobLease lease = new InMemoryJobLease();
+        assertThat(lease.tryAcquire("job", 1000)).isTrue();
+        assertThat(lease.tryAcquire("job", 1000)).isFalse();
+        assertThat(lease.tryAcquire("other", 1000)).isTrue();
+        assertThat(lease.tryAcquire("job", 2000)).isTrue();
+        // Older windows are not granted anymore.
+        assertThat(lease.tryAcquire("job", 1000)).isFalse();
+    }
+
+    @Test
+    public void testFileLeaseSharedByInstances() throws IOException {
+        FileJobLease lease1 = new FileJobLease(folder.newFolder("leases"));
+        FileJobLease lease2 = new FileJobLease(folder.getRoot().toPath().resolve("leases").toFile());
+        String job = "org.acme.Jobs#cleanup";
+        assertThat(lease1.tryAcquire(job, 1000)).isTrue();
+        assertThat(lease2.tryAcquire(job, 1000)).isFalse();
+        assertThat(lease2.tryAcquire(job, 2000)).isTrue();
+        assertThat(lease1.tryAcquire(job, 2000)).isFalse();
+        assertThat(lease1.tryAcquire("org.acme.Jobs#other", 2000)).isTrue();
+    }
+}
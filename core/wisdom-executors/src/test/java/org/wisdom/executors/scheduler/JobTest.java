@@ -85,6 +85,38 @@ public class JobTest {
         assertThat(job.unit()).isEqualTo(TimeUnit.HOURS);
     }
 
+    @Test
+    public void testCronPolicyAndJitter() throws NoSuchMethodException {
+        Every every = create("");
+        when(every.cron()).thenReturn("0 */5 * * *");
+        when(every.jitter()).thenReturn("30s");
+        when(every.policy()).thenReturn(Every.Policy.SKIP_IF_RUNNING);
+        when(every.exclusive()).thenReturn(true);
+        MyScheduled scheduled = new MyScheduled();
+        Job job = new Job(scheduled, MyScheduled.class.getMethod("operation"), every);
+        assertThat(job.cron()).isNotNull();
+        assertThat(job.cron().toString()).isEqualTo("0 */5 * * *");
+        assertThat(job.period()).isEqualTo(-1);
+        assertThat(job.jitter()).isEqualTo(30000);
+        assertThat(job.policy()).isEqualTo(Every.Policy.SKIP_IF_RUNNING);
+        assertThat(job.exclusive()).isTrue();
+        assertThat(job.id()).isEqualTo(MyScheduled.class.getName() + "#operation");
+
+        // Defaults.
+        job = new Job(scheduled, MyScheduled.class.getMethod("operation"), create("60s"));
+        assertThat(job.cron()).isNull();
+        assertThat(job.jitter()).isEqualTo(0);
+        assertThat(job.policy()).isEqualTo(Every.Policy.FIXED_RATE);
+        assertThat(job.exclusive()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCron() throws NoSuchMethodException {
+        Every every = create("");
+        when(every.cron()).thenReturn("not a cron");
+        new Job(new MyScheduled(), MyScheduled.class.getMethod("operation"), every);
+    }
+
     @Test
     public void testGetFunction() throws NoSuchMethodException {
         MyScheduled scheduled = new MyScheduled();
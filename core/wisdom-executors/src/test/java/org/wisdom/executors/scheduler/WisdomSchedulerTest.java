@@ -33,6 +33,7 @@ import org.wisdom.test.parents.FakeConfiguration;
 
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -92,6 +93,55 @@ public class WisdomSchedulerTest {
         assertThat(scheduler.jobs).hasSize(0);
     }
 
+    @Test
+    public void testCronJob() throws InterruptedException {
+        MyCronScheduled scheduled = new MyCronScheduled();
+        scheduler.bindScheduled(scheduled);
+        assertThat(scheduler.jobs).hasSize(1);
+        Thread.sleep(2500);
+        assertThat(scheduled.counter.get()).isGreaterThan(0);
+        scheduler.unbindScheduled(scheduled);
+        assertThat(scheduler.jobs).hasSize(0);
+        int count = scheduled.counter.get();
+        Thread.sleep(1500);
+        // Not rescheduled once cancelled.
+        assertThat(scheduled.counter.get()).isEqualTo(count);
+    }
+
+    @Test
+    public void testSkipIfRunning() throws InterruptedException {
+        MySlowScheduled scheduled = new MySlowScheduled();
+        scheduler.bindScheduled(scheduled);
+        Thread.sleep(3800);
+        scheduler.unbindScheduled(scheduled);
+        // Triggered every 200ms but each execution lasts 1s, so the triggers during executions are skipped.
+        assertThat(scheduled.counter.get()).isBetween(2, 4);
+        assertThat(scheduled.concurrent.get()).isFalse();
+    }
+
+    @Test
+    public void testExclusiveJobsWithLease() throws InterruptedException {
+        WisdomTaskScheduler other = new WisdomTaskScheduler();
+        other.scheduler = new ManagedScheduledExecutorServiceImpl("other",
+                new FakeConfiguration(Collections.<String, Object>emptyMap()), null);
+        InMemoryJobLease lease = new InMemoryJobLease();
+        scheduler.bindLease(lease);
+        other.bindLease(lease);
+
+        MyExclusiveScheduled scheduled1 = new MyExclusiveScheduled();
+        MyExclusiveScheduled scheduled2 = new MyExclusiveScheduled();
+        scheduler.bindScheduled(scheduled1);
+        other.bindScheduled(scheduled2);
+        Thread.sleep(3500);
+        scheduler.unbindScheduled(scheduled1);
+        other.unbindScheduled(scheduled2);
+        other.scheduler.shutdown();
+
+        // Both instances are triggered every second, but only one executes each run.
+        int total = scheduled1.counter.get() + scheduled2.counter.get();
+        assertThat(total).isBetween(2, 4);
+    }
+
     private class MyScheduled implements Scheduled {
 
         AtomicInteger counter = new AtomicInteger();
@@ -104,6 +154,45 @@ public class WisdomSchedulerTest {
         }
     }
 
+    private class MyCronScheduled implements Scheduled {
+
+        AtomicInteger counter = new AtomicInteger();
+
+        @Every(cron = "* * * * * *")
+        public void operation() {
+            counter.incrementAndGet();
+        }
+    }
+
+    private class MySlowScheduled implements Scheduled {
+
+        AtomicInteger counter = new AtomicInteger();
+
+        AtomicBoolean running = new AtomicBoolean();
+
+        AtomicBoolean concurrent = new AtomicBoolean();
+
+        @Every(period = 200, unit = TimeUnit.MILLISECONDS, policy = Every.Policy.SKIP_IF_RUNNING)
+        public void operation() throws InterruptedException {
+            if (!running.compareAndSet(false, true)) {
+                concurrent.set(true);
+            }
+            counter.incrementAndGet();
+            Thread.sleep(1000);
+            running.set(false);
+        }
+    }
+
+    private class MyExclusiveScheduled implements Scheduled {
+
+        AtomicInteger counter = new AtomicInteger();
+
+        @Every(period = 1, unit = TimeUnit.SECONDS, exclusive = true)
+        public void operation() {
+            counter.incrementAndGet();
+        }
+    }
+
     private class MySecondScheduled implements Scheduled {
 
         AtomicInteger counter = new AtomicInteger();
@@ -0,0 +1,48 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * A {@link Watcher} notified once for all the changes of a burst (such as a {@literal git checkout}), instead of once
+ * per changed file. Watchers doing the same work whatever the changed file is (compiling all the sources,
+ * packaging the bundle...) should implement this interface.
+ * <p>
+ * As watchers are not loaded by the class loader of the pipeline, the {@code filesChanged} method is looked up by
+ * reflection. Watchers not providing it are notified file by file.
+ */
+public interface BatchWatcher extends Watcher {
+
+    /**
+     * Notifies the watcher of a set of changes. Only the files accepted by the watcher are given.
+     *
+     * @param created the created files, potentially empty
+     * @param updated the updated files, potentially empty
+     * @param deleted the deleted files, potentially empty
+     * @return {@literal false} if the pipeline processing must be interrupted for this burst. Most watchers should
+     * return {@literal true} to let other watchers be notified.
+     * @throws WatchingException if the watcher failed to process the changes.
+     */
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException;
+
+}
@@ -20,9 +20,13 @@
 package org.wisdom.maven.mojos;
 
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.wisdom.maven.BatchWatcher;
 import org.wisdom.maven.MavenWatcher;
+import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.pipeline.Watchers;
+import org.wisdom.maven.utils.BuildStepEngine;
 import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
@@ -33,7 +37,20 @@ import java.util.List;
 /**
  * Common part.
  */
-public abstract class AbstractWisdomWatcherMojo extends AbstractWisdomMojo implements MavenWatcher {
+public abstract class AbstractWisdomWatcherMojo extends AbstractWisdomMojo implements MavenWatcher, BatchWatcher {
+
+    /**
+     * The maximum number of assets processed concurrently. When not set, it uses the number of available processors.
+     */
+    @Parameter(property = "assetThreads", defaultValue = "0")
+    public int assetThreads;
+
+    /**
+     * Processes all the assets and re-creates the application bundle, even if they have not changed since the last
+     * build.
+     */
+    @Parameter(property = "forceAssetProcessing", defaultValue = "false")
+    public boolean forceAssetProcessing;
 
     /**
      * Sets the Maven Session and registers the current mojo to the watcher list (stored in the session).
@@ -62,8 +79,44 @@ public abstract class AbstractWisdomWatcherMojo extends AbstractWisdomMojo imple
         return project;
     }
 
+    /**
+     * Notifies the current mojo of a burst of changes. By default, the changes are processed file by file. Mojos
+     * whose processing does not depend on the changed file override this method to process the burst once.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal false} if the pipeline processing must be interrupted for this burst
+     * @throws WatchingException if the processing failed
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        return WatcherUtils.notify(this, created, updated, deleted);
+    }
+
+    /**
+     * Notifies the current mojo that the watch mode has stopped, so it can release the resources kept across the
+     * pipeline runs. Called by the pipeline on shutdown. Does nothing by default.
+     */
+    public void watchStopped() {
+        // Nothing to release by default.
+    }
+
     // A set of utility methods
 
+    /**
+     * Creates the engine executing the build steps of this mojo. The fingerprints of the executed steps are kept in
+     * {@literal target/wisdom-build/name.manifest}.
+     *
+     * @param name the name of the engine, unique per mojo
+     * @return the engine
+     */
+    public BuildStepEngine newBuildStepEngine(String name) {
+        return new BuildStepEngine(name, new File(buildDirectory, "wisdom-build/" + name + ".manifest"),
+                assetThreads, !forceAssetProcessing, this);
+    }
+
     /**
      * Finds all resources from internal and external assets directories having one of the specified extensions.
      *
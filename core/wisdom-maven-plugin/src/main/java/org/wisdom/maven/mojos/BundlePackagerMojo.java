@@ -33,13 +33,20 @@ import org.wisdom.maven.ApplicationDistributionExtensions;
 import org.wisdom.maven.Constants;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.osgi.BundlePackager;
+import org.wisdom.maven.osgi.Classpath;
 import org.wisdom.maven.osgi.Reporter;
+import org.wisdom.maven.utils.BuildStep;
+import org.wisdom.maven.utils.ClassDataSharing;
 import org.wisdom.maven.utils.DefaultMaven2OsgiConverter;
 import org.wisdom.maven.utils.PlexusLoggerWrapper;
 import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This mojo is responsible for the creation of the Wisdom application packages.
@@ -54,6 +61,9 @@ import java.io.IOException;
  * The zip file contains a distributable zip file containing the whole server (including your application).
  * <p>
  * In watch mode, only the jar files is re-created.
+ * <p>
+ * The jar file is not re-created if the classes, resources, instructions and dependencies have not changed since
+ * its last creation. In watch mode, the dependencies are read once and reused by the next packagings.
  */
 @Mojo(name = "package", threadSafe = false,
         requiresDependencyResolution = ResolutionScope.COMPILE,
@@ -88,6 +98,17 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
     @Parameter(defaultValue = "zip")
     private ApplicationDistributionExtensions fileExtension;
 
+    /**
+     * If set to {@literal true}, a training run of the server generates a class data sharing archive before the
+     * creation of the distribution, and the archive is included in the distribution. The launcher scripts do not
+     * enable it, the JVM options must be passed in {@literal JVM_ARGS}. The archive is only used when the
+     * application is launched with the same JVM as the one used for the build. See the 'cds-archive' goal.
+     * <p>
+     * If {@link #disableDistributionPackaging} is set to {@literal true}, this parameter is meaningless.
+     */
+    @Parameter(defaultValue = "false", property = "wisdom.cds")
+    private boolean generateClassDataSharingArchive;
+
     /**
      * Execute method creates application bundle. Also creates the application distribution if the
      * {@link #wisdomDirectory} parameter is not set and if {@link #disableDistributionPackaging}
@@ -99,13 +120,17 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
     @Override
     public void execute() throws MojoExecutionException {
         try {
-            createApplicationBundle();
+            createApplicationBundle(false);
             if (!disableDistributionPackaging) {
                 if (wisdomDirectory != null) {
                     getLog().warn("Cannot create the distribution of " + project.getArtifactId()
                             + " because it is using a remote Wisdom server (" + wisdomDirectory
                             .getAbsolutePath() + ").");
                 } else {
+                    if (generateClassDataSharingArchive) {
+                        new ClassDataSharing(this).generate(0, Collections.singletonList("/"),
+                                ClassDataSharing.DEFAULT_TIMEOUT);
+                    }
                     createApplicationDistribution();
                 }
             } else {
@@ -137,20 +162,45 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
         }
     }
 
-    private void createApplicationBundle() throws Exception {
-        File finalFile = new File(this.buildDirectory, this.project.getArtifactId() + "-" + this.project
+    private void createApplicationBundle(final boolean watch) throws Exception {
+        final File finalFile = new File(this.buildDirectory, this.project.getArtifactId() + "-" + this.project
                 .getVersion() + ".jar");
-        BundlePackager.bundle(this.basedir, finalFile, new Reporter() {
-            @Override
-            public void error(String msg) {
-                getLog().error(msg);
-            }
+        int executed = newBuildStepEngine("bundle").execute(Collections.singletonList(
+                new BuildStep(finalFile.getAbsolutePath()) {
+                    @Override
+                    public Collection<File> getInputs() {
+                        return getBundleInputs();
+                    }
 
-            @Override
-            public void warn(String msg) {
-                getLog().warn(msg);
-            }
-        });
+                    @Override
+                    public Collection<File> getOutputs() {
+                        return Collections.singletonList(finalFile);
+                    }
+
+                    @Override
+                    public String getConfiguration() {
+                        return getClassesFingerprint() + getDependencyFingerprint();
+                    }
+
+                    @Override
+                    public void execute() throws WatchingException {
+                        try {
+                            BundlePackager.bundle(basedir, finalFile, new Reporter() {
+                                @Override
+                                public void error(String msg) {
+                                    getLog().error(msg);
+                                }
+
+                                @Override
+                                public void warn(String msg) {
+                                    getLog().warn(msg);
+                                }
+                            }, watch);
+                        } catch (IOException e) {
+                            throw new WatchingException(e.getMessage(), e);
+                        }
+                    }
+                }));
 
         // Declare the bundle as main project artifact.
         Artifact mainArtifact = project.getArtifact();
@@ -162,11 +212,86 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
         File applicationBundle = new File(new File(getWisdomRootDirectory(), "application"),
                 DefaultMaven2OsgiConverter.getBundleFileName(this.project));
 
+        // An unchanged bundle is not copied, to avoid its re-deployment by the running server. The copy preserves the
+        // modification date, so the application bundle differs from the built one if it has been replaced.
+        if (executed == 0 && applicationBundle.isFile() && applicationBundle.length() == finalFile.length()
+                && applicationBundle.lastModified() == finalFile.lastModified()) {
+            getLog().info(finalFile.getName() + " is up to date");
+            return;
+        }
+
         // Write a small notice about the copy
         getLog().info("Copying " + finalFile.getName() + " to " + applicationBundle.getAbsolutePath());
         FileUtils.copyFile(finalFile, applicationBundle, true);
     }
 
+    /**
+     * Closes the jars of the dependencies kept open across the pipeline runs.
+     */
+    @Override
+    public void watchStopped() {
+        Classpath.releaseSharedJars();
+    }
+
+    /**
+     * Gets the files read to build the bundle, and whose content is hashed: the BND instructions, the metadata
+     * inherited from Maven, and the iPOJO metadata. The compiled classes and resources are described by {@link
+     * #getClassesFingerprint()}.
+     *
+     * @return the files
+     */
+    private List<File> getBundleInputs() {
+        List<File> inputs = new ArrayList<>();
+        inputs.add(new File(basedir, INSTRUCTIONS_FILE));
+        inputs.add(new File(basedir, OSGI_PROPERTIES));
+        inputs.add(new File(basedir, EXTRA_HEADERS_FILE));
+        inputs.add(new File(basedir, DEPENDENCIES_FILE));
+        inputs.add(new File(basedir, "src/main/resources/metadata.xml"));
+        return inputs;
+    }
+
+    /**
+     * The content of the compiled classes and resources is not hashed, as hashing the whole output directory on
+     * each change in watch mode would be too long. Like the dependencies, the files are identified by their path,
+     * size and last modification date.
+     *
+     * @return the description of the files of the output directory
+     */
+    private String getClassesFingerprint() {
+        StringBuilder builder = new StringBuilder();
+        File classes = new File(buildDirectory, "classes");
+        if (classes.isDirectory()) {
+            List<File> files = new ArrayList<>(FileUtils.listFiles(classes, null, true));
+            Collections.sort(files);
+            for (File file : files) {
+                appendFingerprint(builder, file);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The content of the dependencies is not hashed (it would be too long), the dependencies are identified by
+     * their path, size and last modification date.
+     *
+     * @return the description of the dependencies
+     */
+    private String getDependencyFingerprint() {
+        StringBuilder builder = new StringBuilder();
+        for (Artifact artifact : project.getArtifacts()) {
+            File file = artifact.getFile();
+            if (file != null) {
+                appendFingerprint(builder, file);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendFingerprint(StringBuilder builder, File file) {
+        builder.append(file.getAbsolutePath()).append(':').append(file.length()).append(':')
+                .append(file.lastModified()).append('\n');
+    }
+
     private void createApplicationDistribution() throws IOException {
         File distFile = new File(this.buildDirectory, this.project.getArtifactId() + "-" + this.project
                 .getVersion() + "." + fileExtension.extensionName);
@@ -183,7 +308,9 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
         archiver.addDirectory(getWisdomRootDirectory(), new String[0], new String[]{
                 // Drop regular and test cache.
                 "*-cache/**",
-                "logs/**"});
+                "logs/**",
+                // Drop the output of the class data sharing training.
+                ClassDataSharing.DIRECTORY + "/" + ClassDataSharing.LOG});
         archiver.setDestFile(distFile);
         archiver.createArchive();
 
@@ -216,7 +343,7 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
     @Override
     public boolean fileCreated(File file) throws WatchingException {
         try {
-            createApplicationBundle();
+            createApplicationBundle(true);
         } catch (Exception e) {
             throw new WatchingException(e.getMessage(), file, e);
         }
@@ -246,4 +373,24 @@ public class BundlePackagerMojo extends AbstractWisdomWatcherMojo implements Con
     public boolean fileDeleted(File file) throws WatchingException {
         return fileCreated(file);
     }
+
+    /**
+     * On any set of changes, we just repackage the bundle, once.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true} as the pipeline must continue its execution.
+     * @throws WatchingException if the bundle creation failed
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        try {
+            createApplicationBundle(true);
+        } catch (Exception e) {
+            throw new WatchingException(e.getMessage(), e);
+        }
+        return true;
+    }
 }
@@ -28,10 +28,13 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.node.NPM;
+import org.wisdom.maven.utils.BuildStep;
 import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -40,6 +43,9 @@ import java.util.List;
  * src/main/resources/assets, and src/main/assets) and minifies them.
  *
  * To configure aggregation, use the {@code <stylesheets></stylesheets>} element.
+ *
+ * Files are minified in parallel, and only the files (or aggregations) whose content has changed since the last
+ * build are processed.
  */
 
 @Mojo(name = "minify-css", threadSafe = false,
@@ -95,12 +101,14 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
         // Check whether or not we have a custom configuration
         if (stylesheets == null) {
             getLog().info("No 'stylesheets' processing configuration, minifying all '.css' files individually");
+            List<BuildStep> steps = new ArrayList<>();
             for (File file : getResources(ImmutableList.of("css"))) {
-                try {
-                    process(file);
-                } catch (WatchingException e) {
-                    throw new MojoExecutionException(e.getMessage(), e);
-                }
+                steps.add(getMinificationStep(file));
+            }
+            try {
+                newBuildStepEngine("css").execute(steps);
+            } catch (WatchingException e) {
+                throw new MojoExecutionException(e.getMessage(), e);
             }
         } else {
             process(stylesheets);
@@ -114,18 +122,31 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
             return;
         }
 
+        List<BuildStep> steps = new ArrayList<>();
         for (Aggregation aggregation : stylesheets.getAggregations()) {
-            process(aggregation);
+            steps.add(getAggregationStep(aggregation));
+        }
+        try {
+            newBuildStepEngine("css-aggregations").execute(steps);
+        } catch (WatchingException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         }
     }
 
-    private void process(Aggregation aggregation) throws MojoExecutionException {
-        File output;
+    /**
+     * Creates the step computing the given aggregation. The aggregation is only recomputed if one of its members
+     * has changed.
+     *
+     * @param aggregation the aggregation
+     * @return the step
+     * @throws MojoExecutionException if one of the aggregated file does not exist
+     */
+    private BuildStep getAggregationStep(Aggregation aggregation) throws MojoExecutionException {
+        final File output;
         if (aggregation.getOutput() == null) {
             output = getDefaultOutputFile(aggregation);
         } else {
-            output = new File(aggregation.getOutput());
-            output = fixPath(output);
+            output = fixPath(new File(aggregation.getOutput()));
         }
 
         if (! output.getParentFile().isDirectory()) {
@@ -133,7 +154,7 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
                     + output.getParentFile().mkdirs());
         }
 
-        List<String> arguments = new ArrayList<>();
+        final List<String> arguments = new ArrayList<>();
         arguments.add("-o");
         arguments.add(output.getAbsolutePath());
         arguments.add("-r");
@@ -145,10 +166,12 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
             arguments.add("--keep-line-breaks");
         }
 
+        final String configuration = CLEANCSS_NPM_VERSION + " " + arguments;
+        final List<File> members = new ArrayList<>();
         for (String file : aggregation.getFiles()) {
             File theFile = new File(file);
             if (theFile.exists()) {
-                arguments.add(theFile.getAbsolutePath());
+                members.add(theFile);
             } else {
                 File f = new File(getInternalAssetOutputDirectory(), file);
                 if (! f.exists()  && ! f.getName().endsWith("css")) {
@@ -161,12 +184,38 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
                             " file does not exist");
                 }
 
-                arguments.add(f.getAbsolutePath());
+                members.add(f);
             }
         }
+        for (File member : members) {
+            arguments.add(member.getAbsolutePath());
+        }
+
+        return new BuildStep(output.getAbsolutePath()) {
+            @Override
+            public Collection<File> getInputs() {
+                return members;
+            }
+
+            @Override
+            public Collection<File> getOutputs() {
+                return Collections.singletonList(output);
+            }
 
-        cleancss.execute("cleancss", arguments.toArray(new String[arguments.size()]));
+            @Override
+            public String getConfiguration() {
+                return configuration;
+            }
 
+            @Override
+            public void execute() throws WatchingException {
+                try {
+                    cleancss.execute("cleancss", arguments.toArray(new String[arguments.size()]));
+                } catch (MojoExecutionException e) {
+                    throw new WatchingException("Error while aggregating " + output.getName(), e);
+                }
+            }
+        };
     }
 
     private File fixPath(File output) {
@@ -272,32 +321,59 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
     }
 
     /**
-     * Minifies the CSS file using Clean CSS.
+     * Minifies the CSS file using Clean CSS, unless it has not changed since its last minification.
      *
      * @param file that we wish to minify.
      * @throws WatchingException if errors occur during minification.
      */
     private void process(File file) throws WatchingException {
-        getLog().info("Minifying CSS files from " + file.getName() + " using Clean CSS");
+        newBuildStepEngine("css").execute(Collections.singletonList(getMinificationStep(file)));
+    }
 
-        File filtered = getFilteredVersion(file);
-        if (filtered == null) {
-            filtered = file;
-        }
+    /**
+     * Creates the step minifying the given CSS file.
+     *
+     * @param file the file to minify
+     * @return the step
+     */
+    private BuildStep getMinificationStep(File file) {
+        File version = getFilteredVersion(file);
+        final File filtered = version == null ? file : version;
+        final File output = getMinifiedFile(file);
+
+        return new BuildStep(output.getAbsolutePath()) {
+            @Override
+            public Collection<File> getInputs() {
+                return Collections.singletonList(filtered);
+            }
 
-        File output = getMinifiedFile(file);
-        if (output.exists()) {
-            FileUtils.deleteQuietly(output);
-        }
+            @Override
+            public Collection<File> getOutputs() {
+                return Collections.singletonList(output);
+            }
 
-        getLog().info("Minifying " + filtered.getAbsolutePath() + " to " + output.getAbsolutePath());
-        try {
-            int exit = cleancss.execute("cleancss", "-o", output.getAbsolutePath(),
-                    filtered.getAbsolutePath());
-            getLog().debug("CSS minification execution exiting with " + exit + " status");
-        } catch (MojoExecutionException e) {
-            throw new WatchingException("Error during the minification of " + filtered.getName(), e);
-        }
+            @Override
+            public String getConfiguration() {
+                return CLEANCSS_NPM_VERSION;
+            }
+
+            @Override
+            public void execute() throws WatchingException {
+                if (output.exists()) {
+                    FileUtils.deleteQuietly(output);
+                }
+
+                getLog().info("Minifying " + filtered.getAbsolutePath() + " to " + output.getAbsolutePath()
+                        + " using Clean CSS");
+                try {
+                    int exit = cleancss.execute("cleancss", "-o", output.getAbsolutePath(),
+                            filtered.getAbsolutePath());
+                    getLog().debug("CSS minification execution exiting with " + exit + " status");
+                } catch (MojoExecutionException e) {
+                    throw new WatchingException("Error during the minification of " + filtered.getName(), e);
+                }
+            }
+        };
     }
 
     /**
@@ -311,5 +387,32 @@ public class CSSMinifierMojo extends AbstractWisdomWatcherMojo {
         return new File(output.getParentFile().getAbsoluteFile(),
                 output.getName().replace(".css", cssMinifierSuffix + ".css"));
     }
-}
 
+    /**
+     * Cleans the output files of the deleted files, and minifies the created and updated files. Aggregations are
+     * computed once for the whole set of changes.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true}
+     * @throws WatchingException if the minification or the aggregation failed
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        for (File file : deleted) {
+            fileDeleted(file);
+        }
+        List<File> changed = new ArrayList<>(created);
+        changed.addAll(updated);
+        if (stylesheets != null && !changed.isEmpty()) {
+            return fileCreated(changed.get(0));
+        }
+        for (File file : changed) {
+            fileCreated(file);
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.mojos;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.wisdom.maven.utils.ClassDataSharing;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates a class data sharing (CDS) archive for the Wisdom server. It launches a training run of the packaged
+ * server, records the loaded classes, and dumps them into {@literal cds/wisdom.jsa}. The archive is then used by
+ * the 'run' goal. It reduces the memory consumed by JVMs running on the same host, as they share the archived
+ * classes.
+ * <p>
+ * On Java 8, only the JDK classes loaded by the boot class loader are archived, neither the application classes nor
+ * the bundle classes. The archive is bound to the JVM used to generate it. To include it in the distribution, enable
+ * the {@literal generateClassDataSharingArchive} parameter of the 'package' goal instead.
+ */
+@Mojo(name = "cds-archive", threadSafe = false,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresProject = true
+)
+@Execute(phase = LifecyclePhase.PACKAGE)
+public class ClassDataSharingMojo extends AbstractWisdomMojo {
+
+    /**
+     * The HTTP port used by the training server, 0 to pick a free port.
+     */
+    @Parameter(defaultValue = "0", property = "wisdom.cds.port")
+    int trainingPort;
+
+    /**
+     * The paths requested once the training server is up. Classes loaded to serve these requests are archived.
+     * Defaults to {@literal /}.
+     */
+    @Parameter
+    List<String> trainingUrls;
+
+    /**
+     * The maximum time in seconds to wait for the training server to answer.
+     */
+    @Parameter(defaultValue = "" + ClassDataSharing.DEFAULT_TIMEOUT, property = "wisdom.cds.timeout")
+    int trainingTimeout;
+
+    /**
+     * Generates the archive.
+     *
+     * @throws MojoExecutionException if the training or the dump failed
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        List<String> urls = trainingUrls;
+        if (urls == null || urls.isEmpty()) {
+            urls = Collections.singletonList("/");
+        }
+        new ClassDataSharing(this).generate(trainingPort, urls, trainingTimeout);
+    }
+}
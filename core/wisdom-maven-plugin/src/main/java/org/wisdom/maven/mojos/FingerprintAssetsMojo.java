@@ -0,0 +1,376 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.mojos;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.wisdom.maven.Constants;
+import org.wisdom.maven.WatchingException;
+import org.wisdom.maven.utils.WatcherUtils;
+
+import java.io.*;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Creates a copy of the assets whose name contains a hash of their content (for instance {@code app.js} is copied to
+ * {@code app.0a1b2c3d4e.js}), and writes the {@code asset-manifest.properties} file associating the logical path of
+ * each asset with its fingerprinted path. As the URL of a fingerprinted asset changes when its content changes,
+ * the asset controller serves them with a far-future, immutable, cache policy.
+ * <p>
+ * This mojo runs on the asset output directories, after the other asset processing mojos. The original files are
+ * kept, so assets can still be requested using their logical path. In watch mode, only the changed assets are hashed
+ * again, and their entries updated in the existing manifest.
+ */
+@Mojo(name = "fingerprint-assets", threadSafe = false,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresProject = true,
+        defaultPhase = LifecyclePhase.COMPILE)
+public class FingerprintAssetsMojo extends AbstractWisdomWatcherMojo implements Constants {
+
+    /**
+     * The name of the manifest file, written at the root of the asset output directories.
+     */
+    public static final String MANIFEST = "asset-manifest.properties";
+
+    /**
+     * The number of hexadecimal characters of the hash inserted in the file names.
+     */
+    public static final int HASH_LENGTH = 10;
+
+    /**
+     * Pattern matching the name of fingerprinted copies.
+     */
+    public static final Pattern FINGERPRINTED = Pattern.compile(".+\\.[0-9a-f]{" + HASH_LENGTH + "}\\.[^.]+");
+
+    /**
+     * Skips the asset fingerprinting.
+     */
+    @Parameter(defaultValue = "${skipAssetFingerprinting}", required = false)
+    public boolean skipAssetFingerprinting;
+
+    /**
+     * The extensions of the fingerprinted files.
+     */
+    @Parameter(defaultValue = "js,css,png,jpg,jpeg,gif,svg,woff,woff2,ttf,eot")
+    public String fingerprintedExtensions;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skipAssetFingerprinting) {
+            getLog().info("Asset fingerprinting skipped");
+            removeFromWatching();
+            return;
+        }
+
+        try {
+            fingerprint(getInternalAssetOutputDirectory());
+            fingerprint(getExternalAssetsOutputDirectory());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot fingerprint the assets", e);
+        }
+    }
+
+    /**
+     * Checks whether the given file is a fingerprinted copy.
+     *
+     * @param file the file
+     * @return {@code true} if the file name contains a content hash.
+     */
+    public static boolean isFingerprinted(File file) {
+        return FINGERPRINTED.matcher(file.getName()).matches();
+    }
+
+    /**
+     * Fingerprints the assets from the given directory. Copies are only created for the files that have changed,
+     * and the copies of the previous versions are deleted.
+     *
+     * @param directory the asset output directory
+     * @return the manifest, empty if the directory does not exist
+     * @throws IOException if the assets cannot be read or copied
+     */
+    public Map<String, String> fingerprint(File directory) throws IOException {
+        Map<String, String> manifest = new TreeMap<>();
+        if (!directory.isDirectory()) {
+            return manifest;
+        }
+        Properties previous = load(new File(directory, MANIFEST));
+        for (File file : FileUtils.listFiles(directory, getExtensions(), true)) {
+            if (isFingerprinted(file)) {
+                continue;
+            }
+            manifest.put(getRelativePath(directory, file), getRelativePath(directory, copy(file)));
+        }
+
+        // Cleanup the copies from previous builds.
+        for (String path : previous.stringPropertyNames()) {
+            String old = previous.getProperty(path);
+            if (!old.equals(manifest.get(path))) {
+                FileUtils.deleteQuietly(new File(directory, old));
+            }
+        }
+
+        store(manifest, new File(directory, MANIFEST));
+        getLog().info(manifest.size() + " asset(s) fingerprinted in " + directory.getAbsolutePath());
+        return manifest;
+    }
+
+    /**
+     * Updates the manifest of the given directory after a change. Unlike {@link #fingerprint(File)}, the directory is
+     * not scanned, and only the following files are hashed again:
+     * <ul>
+     * <li>the given output files, and the files derived from them in the same directory (compiled or minified
+     * versions, whose name starts with the name of the output file),</li>
+     * <li>the assets already listed in the manifest that have been modified or deleted since the manifest was
+     * written (such as aggregations).</li>
+     * </ul>
+     * The whole directory is fingerprinted if there is no manifest yet.
+     *
+     * @param directory the asset output directory
+     * @param outputs   the output files of the changed assets, may not exist anymore
+     * @return the manifest
+     * @throws IOException if the assets cannot be read or copied
+     */
+    public Map<String, String> update(File directory, Collection<File> outputs) throws IOException {
+        File file = new File(directory, MANIFEST);
+        if (!file.isFile()) {
+            return fingerprint(directory);
+        }
+        long written = file.lastModified();
+        Map<String, String> manifest = new TreeMap<>();
+        Properties previous = load(file);
+        for (String path : previous.stringPropertyNames()) {
+            manifest.put(path, previous.getProperty(path));
+        }
+
+        Set<File> candidates = new LinkedHashSet<>();
+        for (File output : outputs) {
+            candidates.add(output);
+            String prefix = FilenameUtils.getBaseName(output.getName());
+            File[] siblings = output.getParentFile().listFiles();
+            if (siblings != null) {
+                for (File sibling : siblings) {
+                    if (sibling.getName().startsWith(prefix + ".") || sibling.getName().startsWith(prefix + "-")) {
+                        candidates.add(sibling);
+                    }
+                }
+            }
+        }
+        for (String path : previous.stringPropertyNames()) {
+            File asset = new File(directory, path);
+            // Timestamps may be coarse, so files written in the same second as the manifest are hashed again.
+            if (!asset.isFile() || asset.lastModified() >= written) {
+                candidates.add(asset);
+            }
+        }
+
+        boolean changed = false;
+        for (File candidate : candidates) {
+            changed = update(directory, candidate, manifest) || changed;
+        }
+        if (changed) {
+            store(manifest, file);
+            getLog().info("Asset manifest updated in " + directory.getAbsolutePath());
+        }
+        return manifest;
+    }
+
+    /**
+     * Updates the entry of the given file in the manifest, and deletes the copy of its previous version.
+     *
+     * @return {@code true} if the manifest has changed.
+     */
+    private boolean update(File directory, File file, Map<String, String> manifest) throws IOException {
+        if (!WatcherUtils.isInDirectory(file, directory) || isFingerprinted(file)
+                || !WatcherUtils.hasExtension(file, getExtensions())) {
+            return false;
+        }
+        String path = getRelativePath(directory, file);
+        String previous = manifest.get(path);
+        String current = null;
+        if (file.isFile()) {
+            current = getRelativePath(directory, copy(file));
+            manifest.put(path, current);
+        } else {
+            manifest.remove(path);
+        }
+        if (previous != null && !previous.equals(current)) {
+            FileUtils.deleteQuietly(new File(directory, previous));
+        }
+        return previous == null ? current != null : !previous.equals(current);
+    }
+
+    /**
+     * Hashes the given file and creates its fingerprinted copy, unless it already exists.
+     *
+     * @param file the file
+     * @return the copy
+     * @throws IOException if the file cannot be read or copied
+     */
+    private static File copy(File file) throws IOException {
+        String hash = Files.hash(file, Hashing.sha1()).toString().substring(0, HASH_LENGTH);
+        File copy = new File(file.getParentFile(), getFingerprintedName(file.getName(), hash));
+        if (!copy.isFile()) {
+            FileUtils.copyFile(file, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Computes the name of the fingerprinted copy.
+     *
+     * @param name the file name
+     * @param hash the hash of the content
+     * @return the name with the hash inserted before the extension
+     */
+    public static String getFingerprintedName(String name, String hash) {
+        int index = name.lastIndexOf('.');
+        if (index <= 0) {
+            return name + "." + hash;
+        }
+        return name.substring(0, index) + "." + hash + name.substring(index);
+    }
+
+    private String[] getExtensions() {
+        List<String> list = new ArrayList<>();
+        for (String extension : fingerprintedExtensions.split(",")) {
+            if (!extension.trim().isEmpty()) {
+                list.add(extension.trim());
+            }
+        }
+        return list.toArray(new String[list.size()]);
+    }
+
+    private static String getRelativePath(File directory, File file) {
+        return directory.toURI().relativize(file.toURI()).getPath();
+    }
+
+    private static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        if (file.isFile()) {
+            try (InputStream stream = new FileInputStream(file)) {
+                properties.load(stream);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Writes the manifest. Entries are sorted and no timestamp is written, so the output only changes when the
+     * assets change.
+     */
+    private static void store(Map<String, String> manifest, File file) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : manifest.entrySet()) {
+            builder.append(escape(entry.getKey())).append('=').append(escape(entry.getValue())).append('\n');
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "ISO-8859-1")) {
+            IOUtils.write(builder.toString(), writer);
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == '\\' || c == '=' || c == ':' || c == ' ' || c == '#' || c == '!') {
+                builder.append('\\').append(c);
+            } else if (c > 0x7e) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean accept(File file) {
+        return (WatcherUtils.isInDirectory(file, WatcherUtils.getExternalAssetsSource(basedir))
+                || WatcherUtils.isInDirectory(file, getInternalAssetsDirectory()));
+    }
+
+    /**
+     * Updates the manifest entries of the assets generated from the created file.
+     *
+     * @param file the file
+     * @return {@literal true}
+     * @throws WatchingException if the assets cannot be fingerprinted
+     */
+    @Override
+    public boolean fileCreated(File file) throws WatchingException {
+        return filesChanged(Collections.singletonList(file), Collections.<File>emptyList(),
+                Collections.<File>emptyList());
+    }
+
+    @Override
+    public boolean fileUpdated(File file) throws WatchingException {
+        return fileCreated(file);
+    }
+
+    @Override
+    public boolean fileDeleted(File file) throws WatchingException {
+        return fileCreated(file);
+    }
+
+    /**
+     * Updates the manifest entries of the assets generated from the changed files. Each manifest is written once.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true}
+     * @throws WatchingException if the assets cannot be fingerprinted
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        List<File> internals = new ArrayList<>();
+        List<File> externals = new ArrayList<>();
+        List<File> files = new ArrayList<>(created);
+        files.addAll(updated);
+        files.addAll(deleted);
+        for (File file : files) {
+            if (WatcherUtils.isInDirectory(file, WatcherUtils.getExternalAssetsSource(basedir))) {
+                externals.add(getOutputFile(file));
+            } else {
+                internals.add(getOutputFile(file));
+            }
+        }
+        try {
+            if (!externals.isEmpty()) {
+                update(getExternalAssetsOutputDirectory(), externals);
+            }
+            if (!internals.isEmpty()) {
+                update(getInternalAssetOutputDirectory(), internals);
+            }
+        } catch (IOException e) {
+            throw new WatchingException("Cannot fingerprint the assets", files.size() == 1 ? files.get(0) : null, e);
+        }
+        return true;
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.wisdom.maven.Constants;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.node.LoggedOutputStream;
+import org.wisdom.maven.utils.BuildStep;
 import org.wisdom.maven.utils.ExecUtils;
 import org.wisdom.maven.utils.WatcherUtils;
 
@@ -52,6 +53,9 @@ import java.util.*;
  * <p>
  * The plugin looks from png and jpeg files from the destination folder directly,
  * but listens for changes in the source folders.
+ * <p>
+ * Images are optimized in parallel, and only the images that have changed since their last optimization are
+ * processed.
  */
 @Mojo(name = "optimize-images", threadSafe = false,
         requiresDependencyResolution = ResolutionScope.COMPILE,
@@ -125,8 +129,8 @@ public class ImageOptimizationMojo extends AbstractWisdomWatcherMojo implements
         list.addAll(JPEG_EXTENSIONS);
         this.extensions = list.toArray(new String[list.size()]);
 
-        optimizeAllImagesFromDirectory(new File(buildDirectory, "classes"));
-        optimizeAllImagesFromDirectory(new File(getWisdomRootDirectory(), ASSETS_DIR));
+        optimizeAllImagesFromDirectories(new File(buildDirectory, "classes"),
+                new File(getWisdomRootDirectory(), ASSETS_DIR));
     }
 
     private File installOptiPNGIfNeeded() throws MojoExecutionException {
@@ -256,44 +260,86 @@ public class ImageOptimizationMojo extends AbstractWisdomWatcherMojo implements
         }
     }
 
-    private void optimizeAllImagesFromDirectory(File directory) throws MojoExecutionException {
-        if (directory.isDirectory()) {
-            IOFileFilter filter = new AbstractFileFilter() {
-                @Override
-                public boolean accept(File file) {
-                    return WatcherUtils.hasExtension(file, extensions);
-                }
-            };
-            for (File file : FileUtils.listFiles(directory, filter, TrueFileFilter.INSTANCE)) {
-                if (WatcherUtils.hasExtension(file, OPTIPNG_EXTENSIONS)) {
-                    optimizePng(file);
-                } else {
-                    optimizeJpeg(file);
+    private void optimizeAllImagesFromDirectories(File... directories) throws MojoExecutionException {
+        IOFileFilter filter = new AbstractFileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return WatcherUtils.hasExtension(file, extensions) && !FingerprintAssetsMojo.isFingerprinted(file);
+            }
+        };
+        List<BuildStep> steps = new ArrayList<>();
+        for (File directory : directories) {
+            if (directory.isDirectory()) {
+                for (File file : FileUtils.listFiles(directory, filter, TrueFileFilter.INSTANCE)) {
+                    BuildStep step = getOptimizationStep(file);
+                    if (step != null) {
+                        steps.add(step);
+                    }
                 }
             }
         }
+        optimize(steps);
     }
 
-    private void optimizePng(File file) throws MojoExecutionException {
-        if (file == null || !file.isFile() || optipng == null) {
-            return;
+    /**
+     * Optimizes the images. Images are optimized concurrently, and the images that have not changed since their
+     * last optimization are skipped (they are optimized in place, so their fingerprint is the one of the optimized
+     * image).
+     *
+     * @param steps the optimization steps
+     * @throws MojoExecutionException if an optimization has failed and {@link #failOnBrokenAsset} is set
+     */
+    private void optimize(List<BuildStep> steps) throws MojoExecutionException {
+        try {
+            newBuildStepEngine("images").execute(steps);
+        } catch (WatchingException e) {
+            getLog().error(e.getMessage(), e);
+            if (failOnBrokenAsset) {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
         }
-
-        getLog().info("Optimizing " + file.getAbsolutePath());
-        execute(optipng, file.getAbsolutePath());
     }
 
-    private void optimizeJpeg(File file) throws MojoExecutionException {
-        if (file == null || !file.isFile() || jpegtran == null) {
-            return;
+    private BuildStep getOptimizationStep(final File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final boolean png = WatcherUtils.hasExtension(file, OPTIPNG_EXTENSIONS);
+        final File executable = png ? optipng : jpegtran;
+        if (executable == null) {
+            return null;
         }
 
-        getLog().info("Optimizing " + file.getAbsolutePath());
-        execute(jpegtran, "-optimize", "-progressive", "-outfile",
-                file.getAbsolutePath(), file.getAbsolutePath());
+        return new BuildStep(file.getAbsolutePath()) {
+            @Override
+            public Collection<File> getInputs() {
+                return Collections.singletonList(file);
+            }
+
+            @Override
+            public String getConfiguration() {
+                return executable.getAbsolutePath();
+            }
+
+            @Override
+            public boolean modifiesInputs() {
+                return true;
+            }
+
+            @Override
+            public void execute() throws WatchingException {
+                getLog().info("Optimizing " + file.getAbsolutePath());
+                if (png) {
+                    ImageOptimizationMojo.this.execute(executable, file.getAbsolutePath());
+                } else {
+                    ImageOptimizationMojo.this.execute(executable, "-optimize", "-progressive", "-outfile",
+                            file.getAbsolutePath(), file.getAbsolutePath());
+                }
+            }
+        };
     }
 
-    private void execute(File executable, String... args) throws MojoExecutionException {
+    private void execute(File executable, String... args) throws WatchingException {
         CommandLine line = new CommandLine(executable);
         line.addArguments(args, false);
         DefaultExecutor executor = new DefaultExecutor();
@@ -310,10 +356,7 @@ public class ImageOptimizationMojo extends AbstractWisdomWatcherMojo implements
         try {
             executor.execute(line);
         } catch (IOException e) {
-            getLog().error("Error while executing " + executable.getName(), e);
-            if (failOnBrokenAsset) {
-                throw new MojoExecutionException("Error while executing " + executable.getName(), e);
-            }
+            throw new WatchingException("Error while executing " + executable.getName(), e);
         }
     }
 
@@ -328,12 +371,12 @@ public class ImageOptimizationMojo extends AbstractWisdomWatcherMojo implements
 
     @Override
     public boolean fileCreated(File file) throws WatchingException {
+        BuildStep step = getOptimizationStep(getOutputFile(file));
+        if (step == null) {
+            return true;
+        }
         try {
-            if (WatcherUtils.hasExtension(file, OPTIPNG_EXTENSIONS)) {
-                optimizePng(getOutputFile(file));
-            } else {
-                optimizeJpeg(getOutputFile(file));
-            }
+            optimize(Collections.singletonList(step));
         } catch (MojoExecutionException e) {
             getLog().error("Error while optimizing " + file.getAbsolutePath(), e);
         }
@@ -119,6 +119,32 @@ public class JavaCompilerMojo extends AbstractWisdomWatcherMojo implements Const
      */
     @Override
     public boolean fileDeleted(final File file) throws WatchingException {
+        deleteClasses(file);
+        compile();
+        return true;
+    }
+
+    /**
+     * A set of (accepted) files was created, updated or deleted. The class files of the deleted files are deleted,
+     * and the Java compilation is triggered once for the whole set.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true}
+     * @throws WatchingException thrown on compilation error.
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        for (File file : deleted) {
+            deleteClasses(file);
+        }
+        compile();
+        return true;
+    }
+
+    private void deleteClasses(final File file) {
         // Delete the associated class file.
         // We delete more than required... but the inner class case is very tricky.
         Collection<File> files = FileUtils.listFiles(classes, new IOFileFilter() {
@@ -138,8 +164,5 @@ public class JavaCompilerMojo extends AbstractWisdomWatcherMojo implements Const
         for (File clazz : files) {
             getLog().debug("Deleting " + clazz.getAbsolutePath() + " : " + clazz.delete());
         }
-
-        compile();
-        return true;
     }
 }
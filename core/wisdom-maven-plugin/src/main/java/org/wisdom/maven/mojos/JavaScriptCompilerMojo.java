@@ -30,6 +30,7 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.wisdom.maven.Constants;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.node.LoggedOutputStream;
+import org.wisdom.maven.utils.BuildStep;
 import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
@@ -37,7 +38,10 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Compiles and minifies JavaScript files.
@@ -49,6 +53,9 @@ import java.util.List;
  * <p>
  * This mojo makes the assumption that the files are already copied/generated to their destination directory,
  * when it is executed.
+ * <p>
+ * Unless the {@literal ADVANCED_OPTIMIZATIONS} level is used, files are minified in parallel. Only the files (or
+ * aggregations) whose content has changed since the last build are processed.
  */
 @Mojo(name = "compile-javascript", threadSafe = false,
         requiresDependencyResolution = ResolutionScope.COMPILE,
@@ -133,18 +140,27 @@ public class JavaScriptCompilerMojo extends AbstractWisdomWatcherMojo implements
                     "exist");
         }
 
+        List<BuildStep> steps = new ArrayList<>();
         for (Aggregation aggregation : javaScript.getAggregations()) {
-            compile(aggregation);
+            steps.add(getAggregationStep(aggregation));
         }
+        newBuildStepEngine("javascript-aggregations").execute(steps);
     }
 
-    private void compile(Aggregation aggregation) throws WatchingException {
-        File output;
+    /**
+     * Creates the step computing the given aggregation. The aggregation is only recomputed if one of its members
+     * (or the extern file) has changed.
+     *
+     * @param aggregation the aggregation
+     * @return the step
+     * @throws WatchingException if one of the aggregated file does not exist
+     */
+    private BuildStep getAggregationStep(final Aggregation aggregation) throws WatchingException {
+        final File output;
         if (aggregation.getOutput() == null) {
             output = getDefaultOutputFile(aggregation);
         } else {
-            output = new File(aggregation.getOutput());
-            output = fixPath(output);
+            output = fixPath(new File(aggregation.getOutput()));
         }
 
         if (!output.getParentFile().isDirectory()) {
@@ -152,6 +168,57 @@ public class JavaScriptCompilerMojo extends AbstractWisdomWatcherMojo implements
                     + output.getParentFile().mkdirs());
         }
 
+        final List<File> members = new ArrayList<>();
+        for (String file : aggregation.getFiles()) {
+            File theFile = new File(file);
+            if (theFile.exists()) {
+                members.add(theFile);
+            } else {
+                File f = new File(getInternalAssetOutputDirectory(), file);
+                if (!f.exists() && !f.getName().endsWith("js")) {
+                    // Append the extension
+                    f = new File(getInternalAssetOutputDirectory(), file + ".js");
+                }
+
+                if (!f.exists()) {
+                    throw new WatchingException("Cannot compute aggregated JavaScript - the '"
+                            + f.getAbsolutePath() + "' file does not exist");
+                }
+
+                members.add(f);
+            }
+        }
+
+        final List<File> inputs = new ArrayList<>(members);
+        if (javascript.getExtern() != null) {
+            inputs.add(javascript.getExtern());
+        }
+
+        return new BuildStep(output.getAbsolutePath()) {
+            @Override
+            public Collection<File> getInputs() {
+                return inputs;
+            }
+
+            @Override
+            public Collection<File> getOutputs() {
+                return Collections.singletonList(output);
+            }
+
+            @Override
+            public String getConfiguration() {
+                return aggregation.isMinification() + " " + googleClosureCompilationLevel + " "
+                        + googleClosurePrettyPrint;
+            }
+
+            @Override
+            public void execute() throws WatchingException {
+                compile(aggregation, members, output);
+            }
+        };
+    }
+
+    private void compile(Aggregation aggregation, List<File> members, File output) throws WatchingException {
         getLog().info("Compressing JavaScript files from aggregation " + aggregation.getFiles() + " using Google Closure");
         PrintStream out = new PrintStream(new LoggedOutputStream(getLog(), true), true);
         com.google.javascript.jscomp.Compiler compiler = new com.google.javascript.jscomp.Compiler(out);
@@ -183,24 +250,8 @@ public class JavaScriptCompilerMojo extends AbstractWisdomWatcherMojo implements
          */
 
         List<SourceFile> inputs = new ArrayList<>();
-        for (String file : aggregation.getFiles()) {
-            File theFile = new File(file);
-            if (theFile.exists()) {
-                inputs.add(SourceFile.fromFile(theFile));
-            } else {
-                File f = new File(getInternalAssetOutputDirectory(), file);
-                if (!f.exists() && !f.getName().endsWith("js")) {
-                    // Append the extension
-                    f = new File(getInternalAssetOutputDirectory(), file + ".js");
-                }
-
-                if (!f.exists()) {
-                    throw new WatchingException("Cannot compute aggregated JavaScript - the '"
-                            + f.getAbsolutePath() + "' file does not exist");
-                }
-
-                inputs.add(SourceFile.fromFile(f));
-            }
+        for (File member : members) {
+            inputs.add(SourceFile.fromFile(member));
         }
 
 
@@ -296,6 +347,44 @@ public class JavaScriptCompilerMojo extends AbstractWisdomWatcherMojo implements
         return fileCreated(file);
     }
 
+    /**
+     * Deletes the minified version of the deleted files, and compiles each impacted set of files once, whatever the
+     * number of changed files.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true}
+     * @throws WatchingException if the compilation failed
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        for (File file : deleted) {
+            fileDeleted(file);
+        }
+        List<File> changed = new ArrayList<>(created);
+        changed.addAll(updated);
+        boolean aggregations = false;
+        Set<File> directories = new LinkedHashSet<>();
+        for (File file : changed) {
+            if (javascript != null && WatcherUtils.isInDirectory(file, WatcherUtils.getResources(basedir))) {
+                aggregations = true;
+            } else if (WatcherUtils.isInDirectory(file, WatcherUtils.getExternalAssetsSource(basedir))) {
+                directories.add(destinationForExternals);
+            } else if (WatcherUtils.isInDirectory(file, WatcherUtils.getResources(basedir))) {
+                directories.add(destinationForInternals);
+            }
+        }
+        if (aggregations) {
+            compile(javascript);
+        }
+        for (File directory : directories) {
+            compile(directory);
+        }
+        return true;
+    }
+
     @Override
     public boolean fileDeleted(File file) {
         if (isNotMinified(file)) {
@@ -307,24 +396,76 @@ public class JavaScriptCompilerMojo extends AbstractWisdomWatcherMojo implements
 
     private void compile(File base) throws WatchingException {
         getLog().info("Compressing JavaScript files from " + base.getName() + " using Google Closure");
+        Collection<File> files = FileUtils.listFiles(base, new String[]{"js"}, true);
+        List<File> store = new ArrayList<>();
+        for (File file : files) {
+            if (file.isFile() && isNotMinified(file) && isNotInLibs(file)
+                    && !FingerprintAssetsMojo.isFingerprinted(file)) {
+                store.add(file);
+            }
+        }
+
+        List<BuildStep> steps = new ArrayList<>();
+        if (googleClosureCompilationLevel == CompilationLevel.ADVANCED_OPTIMIZATIONS) {
+            // Advanced optimizations rename symbols across files, so the files must be compiled together.
+            steps.add(getCompilationStep(base.getAbsolutePath(), store));
+        } else {
+            for (File file : store) {
+                steps.add(getCompilationStep(getMinifiedFile(file).getAbsolutePath(),
+                        Collections.singletonList(file)));
+            }
+        }
+        newBuildStepEngine("javascript").execute(steps);
+    }
+
+    /**
+     * Creates the step minifying the given files.
+     *
+     * @param id    the step identifier
+     * @param files the files compiled together
+     * @return the step
+     */
+    private BuildStep getCompilationStep(String id, final List<File> files) {
+        final List<File> outputs = new ArrayList<>();
+        for (File file : files) {
+            outputs.add(getMinifiedFile(file));
+        }
+        return new BuildStep(id) {
+            @Override
+            public Collection<File> getInputs() {
+                return files;
+            }
+
+            @Override
+            public Collection<File> getOutputs() {
+                return outputs;
+            }
+
+            @Override
+            public String getConfiguration() {
+                return googleClosureCompilationLevel + " " + googleClosurePrettyPrint;
+            }
+
+            @Override
+            public void execute() throws WatchingException {
+                compile(files);
+            }
+        };
+    }
+
+    private void compile(List<File> files) throws WatchingException {
         PrintStream out = new PrintStream(new LoggedOutputStream(getLog(), true), true);
         com.google.javascript.jscomp.Compiler compiler = new com.google.javascript.jscomp.Compiler(out);
         CompilerOptions options = newCompilerOptions();
-        getLog().info("Compilation Level set to " + googleClosureCompilationLevel);
+        getLog().debug("Compilation Level set to " + googleClosureCompilationLevel);
         googleClosureCompilationLevel.setOptionsForCompilationLevel(options);
         options.setPrettyPrint(googleClosurePrettyPrint);
         options.setPrintInputDelimiter(googleClosurePrettyPrint);
 
-        Collection<File> files = FileUtils.listFiles(base, new String[]{"js"}, true);
-        List<File> store = new ArrayList<>();
         List<SourceFile> inputs = new ArrayList<>();
         List<SourceFile> externs = new ArrayList<>();
-
         for (File file : files) {
-            if (file.isFile() && isNotMinified(file) && isNotInLibs(file)) {
-                store.add(file);
-                inputs.add(SourceFile.fromFile(file));
-            }
+            inputs.add(SourceFile.fromFile(file));
         }
 
         compiler.initOptions(options);
@@ -336,11 +477,11 @@ public class JavaScriptCompilerMojo extends AbstractWisdomWatcherMojo implements
         }
 
         String[] outputs = compiler.toSourceArray();
-        for (int i = 0; i < store.size(); i++) {
+        for (int i = 0; i < files.size(); i++) {
             try {
-                FileUtils.write(getMinifiedFile(store.get(i)), outputs[i]);
+                FileUtils.write(getMinifiedFile(files.get(i)), outputs[i]);
             } catch (IOException e) {
-                throw new WatchingException("Cannot write minified JavaScript file : " + getMinifiedFile(store.get(i)), e);
+                throw new WatchingException("Cannot write minified JavaScript file : " + getMinifiedFile(files.get(i)), e);
             }
         }
 
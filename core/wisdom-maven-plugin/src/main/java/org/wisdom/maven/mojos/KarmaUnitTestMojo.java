@@ -30,6 +30,9 @@ import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
@@ -256,11 +259,37 @@ public class KarmaUnitTestMojo extends AbstractWisdomWatcherMojo {
      */
     @Override
     public boolean fileCreated(File file) throws WatchingException {
-        if (file.getAbsolutePath().equals(getConfiguration().getAbsolutePath())) {
-            try {
-                applyFilteringOnConfiguration();
-            } catch (IOException e) {
-                throw new WatchingException("Karma error", "Cannot copy the Karma configuration", file, e);
+        return runTests(Collections.singletonList(file));
+    }
+
+    /**
+     * Method called when a set of files is created, updated or deleted. It executes the Karma tests once.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@code true}
+     * @throws WatchingException if the tests failed.
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        List<File> files = new ArrayList<>(created);
+        files.addAll(updated);
+        files.addAll(deleted);
+        return runTests(files);
+    }
+
+    private boolean runTests(List<File> files) throws WatchingException {
+        // The reported file, only set when a single file has changed.
+        File file = files.size() == 1 ? files.get(0) : null;
+        for (File changed : files) {
+            if (changed.getAbsolutePath().equals(getConfiguration().getAbsolutePath())) {
+                try {
+                    applyFilteringOnConfiguration();
+                } catch (IOException e) {
+                    throw new WatchingException("Karma error", "Cannot copy the Karma configuration", changed, e);
+                }
             }
         }
         try {
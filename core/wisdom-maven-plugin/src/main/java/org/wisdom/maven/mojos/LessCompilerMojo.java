@@ -30,12 +30,18 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.wisdom.maven.Constants;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.node.NPM;
+import org.wisdom.maven.utils.BuildStep;
 import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +49,9 @@ import static org.wisdom.maven.node.NPM.npm;
 
 /**
  * Compiles less files.
+ * <p>
+ * Files are compiled in parallel. A file is only compiled if its content, or the content of the files it imports,
+ * has changed since the last build.
  */
 @Mojo(name = "compile-less", threadSafe = false,
         requiresDependencyResolution = ResolutionScope.COMPILE,
@@ -58,6 +67,9 @@ public class LessCompilerMojo extends AbstractWisdomWatcherMojo implements Const
     private static final Pattern LESS_ERROR_PATTERN =
             Pattern.compile("\\[31m(.*)\\[39m\\[31m in .* on line ([0-9]*), column ([0-9]*):.*");
 
+    private static final Pattern LESS_IMPORT_PATTERN =
+            Pattern.compile("@import\\s*(?:\\([^)]*\\)\\s*)?(?:url\\(\\s*)?[\"']([^\"']+)[\"']");
+
     /**
      * The Less version.
      * It must be a version available from the NPM registry
@@ -80,14 +92,84 @@ public class LessCompilerMojo extends AbstractWisdomWatcherMojo implements Const
         less = npm(this, LESS_NPM_NAME, lessVersion);
 
         try {
-            for (File file : getResources(ImmutableList.of("less"))) {
-                compile(file);
-            }
+            compileAll();
         } catch (WatchingException e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Compiles the less files in parallel. A file is only compiled if its content, or the content of one of the
+     * files it imports, has changed since its last compilation.
+     *
+     * @throws WatchingException if the compilation of a file has failed
+     */
+    private void compileAll() throws WatchingException {
+        List<BuildStep> steps = new ArrayList<>();
+        for (final File file : getResources(ImmutableList.of("less"))) {
+            final File out = getOutputFile(file, "css");
+            steps.add(new BuildStep(out.getAbsolutePath()) {
+                @Override
+                public Collection<File> getInputs() {
+                    return getImports(file);
+                }
+
+                @Override
+                public Collection<File> getOutputs() {
+                    return Collections.singletonList(out);
+                }
+
+                @Override
+                public String getConfiguration() {
+                    return lessVersion + " " + lessArguments;
+                }
+
+                @Override
+                public void execute() throws WatchingException {
+                    compile(file);
+                }
+            });
+        }
+        newBuildStepEngine("less").execute(steps);
+    }
+
+    /**
+     * Computes the set of files read when compiling the given file, i.e. the file itself and the files it
+     * imports (transitively). Imports are resolved relatively to the importing file, imports that cannot be
+     * resolved (such as remote URLs or CSS files from the include paths) are ignored.
+     *
+     * @param file the less file
+     * @return the file and the files it imports
+     */
+    static Set<File> getImports(File file) {
+        Set<File> files = new LinkedHashSet<>();
+        collectImports(file.getAbsoluteFile(), files);
+        return files;
+    }
+
+    private static void collectImports(File file, Set<File> files) {
+        if (!files.add(file) || !file.isFile()) {
+            return;
+        }
+        String content;
+        try {
+            content = FileUtils.readFileToString(file);
+        } catch (IOException e) { //NOSONAR
+            // The file is going to be recompiled anyway as its fingerprint cannot be computed.
+            return;
+        }
+        Matcher matcher = LESS_IMPORT_PATTERN.matcher(content);
+        while (matcher.find()) {
+            File imported = new File(file.getParentFile(), matcher.group(1));
+            if (!imported.isFile() && !imported.getName().contains(".")) {
+                imported = new File(file.getParentFile(), matcher.group(1) + ".less");
+            }
+            if (imported.isFile()) {
+                collectImports(imported.getAbsoluteFile(), files);
+            }
+        }
+    }
+
     @Override
     public boolean accept(File file) {
         return
@@ -143,15 +225,29 @@ public class LessCompilerMojo extends AbstractWisdomWatcherMojo implements Const
         }
     }
 
+    /**
+     * Recompiles the files impacted by the change: the file itself and the files importing it.
+     *
+     * @param file the file
+     * @return {@literal true}
+     * @throws WatchingException if the compilation has failed
+     */
     @Override
     public boolean fileCreated(File file) throws WatchingException {
-        compile(file);
+        compileAll();
         return true;
     }
 
+    /**
+     * Recompiles the files impacted by the change: the file itself and the files importing it.
+     *
+     * @param file the file
+     * @return {@literal true}
+     * @throws WatchingException if the compilation has failed
+     */
     @Override
     public boolean fileUpdated(File file) throws WatchingException {
-        compile(file);
+        compileAll();
         return true;
     }
 
@@ -162,4 +258,25 @@ public class LessCompilerMojo extends AbstractWisdomWatcherMojo implements Const
         return true;
     }
 
+    /**
+     * Deletes the output of the deleted files, and recompiles the stylesheets once for the whole set of changes.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true}
+     * @throws WatchingException if the compilation has failed
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        for (File file : deleted) {
+            fileDeleted(file);
+        }
+        if (!created.isEmpty() || !updated.isEmpty()) {
+            compileAll();
+        }
+        return true;
+    }
+
 }
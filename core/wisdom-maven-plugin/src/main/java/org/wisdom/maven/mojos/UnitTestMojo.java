@@ -36,6 +36,9 @@ import org.wisdom.maven.utils.PluginExtractor;
 import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -198,21 +201,42 @@ public class UnitTestMojo extends AbstractWisdomWatcherMojo {
      */
     @Override
     public boolean fileCreated(File file) throws WatchingException {
+        return runTests(Collections.singletonList(file));
+    }
+
+    /**
+     * Notifies the watcher that a set of files has been created, updated or deleted. It selects the tests related
+     * to all these files and executes them at once.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return return {@code true}
+     * @throws org.wisdom.maven.WatchingException if the test execution failed.
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        List<File> files = new ArrayList<>(created);
+        files.addAll(updated);
+        files.addAll(deleted);
+        return runTests(files);
+    }
+
+    private boolean runTests(List<File> files) throws WatchingException {
+        // The reported file, only set when a single file has changed.
+        File file = files.size() == 1 ? files.get(0) : null;
         // Check selection policy
         String testParameter = null;
         if (testSelectionPolicy == TestSelectionPolicy.SELECTIVE) {
-            // The test selection is done using the -Dtest parameter from surefire
-            // We should also take care that the changed file is not a 'test', in that case, we run only this one.
-            final String filename = file.getName().substring(0, file.getName().lastIndexOf("."));
-            if (filename.startsWith("Test")  || filename.endsWith("Test")  || filename.endsWith("TestCase")) {
-                testParameter = filename;
-            } else {
-                // It's a business class
-                // Be aware of #365, the selection must select only unit tests, so the expression should be
-                // TestFileName*,*FileNameTest*
-                // The *FileNameTestCase case can be ignored (included by the second expression)
-                testParameter = "Test" + filename + "*,*" + filename + "Test*";
+            StringBuilder selection = new StringBuilder();
+            for (File changed : files) {
+                if (selection.length() > 0) {
+                    selection.append(",");
+                }
+                selection.append(getTestSelection(changed));
             }
+            testParameter = selection.toString();
         }
 
         try {
@@ -232,6 +256,27 @@ public class UnitTestMojo extends AbstractWisdomWatcherMojo {
             }}
     }
 
+    /**
+     * Computes the surefire test selection for the given file.
+     *
+     * @param file the changed file
+     * @return the selection expression
+     */
+    private static String getTestSelection(File file) {
+        // The test selection is done using the -Dtest parameter from surefire
+        // We should also take care that the changed file is not a 'test', in that case, we run only this one.
+        final String filename = file.getName().substring(0, file.getName().lastIndexOf("."));
+        if (filename.startsWith("Test")  || filename.endsWith("Test")  || filename.endsWith("TestCase")) {
+            return filename;
+        } else {
+            // It's a business class
+            // Be aware of #365, the selection must select only unit tests, so the expression should be
+            // TestFileName*,*FileNameTest*
+            // The *FileNameTestCase case can be ignored (included by the second expression)
+            return "Test" + filename + "*,*" + filename + "Test*";
+        }
+    }
+
     private static void computeTestFailureMessageFromReports(StringBuilder message, SurefireReportParser parser)
             throws MavenReportException {
         List<ReportTestSuite> suites = parser.parseXMLReportFiles();
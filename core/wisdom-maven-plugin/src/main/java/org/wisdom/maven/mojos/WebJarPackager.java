@@ -218,4 +218,24 @@ public class WebJarPackager extends AbstractWisdomWatcherMojo {
         return fileCreated(file);
     }
 
+    /**
+     * Notifies the watcher of a set of changes. The webjar is built once for the whole set.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal true}
+     * @throws org.wisdom.maven.WatchingException if the webjar cannot be built.
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        try {
+            process();
+        } catch (Exception e) {
+            throw new WatchingException("Failure while building the webjar", e);
+        }
+        return true;
+    }
+
 }
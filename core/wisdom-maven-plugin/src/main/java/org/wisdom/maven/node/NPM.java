@@ -52,8 +52,11 @@ public final class NPM {
     private final String[] installArguments;
 
     private boolean handleQuoting = true;
-    private LoggedOutputStream errorStreamFromLastExecution;
-    private LoggedOutputStream outputStreamFromLastExecution;
+    /**
+     * The streams of the last execution, per thread, as the same NPM may be executed concurrently.
+     */
+    private final ThreadLocal<LoggedOutputStream> errorStreamFromLastExecution = new ThreadLocal<>();
+    private final ThreadLocal<LoggedOutputStream> outputStreamFromLastExecution = new ThreadLocal<>();
     private boolean registerOutputStream = false;
 
 
@@ -145,11 +148,13 @@ public final class NPM {
 
         executor.setExitValue(0);
 
-        errorStreamFromLastExecution = new LoggedOutputStream(log, true, true);
-        outputStreamFromLastExecution = new LoggedOutputStream(log, false, registerOutputStream);
+        LoggedOutputStream errorStream = new LoggedOutputStream(log, true, true);
+        LoggedOutputStream outputStream = new LoggedOutputStream(log, false, registerOutputStream);
+        errorStreamFromLastExecution.set(errorStream);
+        outputStreamFromLastExecution.set(outputStream);
         PumpStreamHandler streamHandler = new PumpStreamHandler(
-                outputStreamFromLastExecution,
-                errorStreamFromLastExecution);
+                outputStream,
+                errorStream);
 
         executor.setStreamHandler(streamHandler);
         executor.setWorkingDirectory(node.getWorkDir());
@@ -198,12 +203,14 @@ public final class NPM {
 
         executor.setExitValue(0);
 
-        errorStreamFromLastExecution = new LoggedOutputStream(log, true, true);
-        outputStreamFromLastExecution = new LoggedOutputStream(log, false, registerOutputStream);
+        LoggedOutputStream errorStream = new LoggedOutputStream(log, true, true);
+        LoggedOutputStream outputStream = new LoggedOutputStream(log, false, registerOutputStream);
+        errorStreamFromLastExecution.set(errorStream);
+        outputStreamFromLastExecution.set(outputStream);
 
         PumpStreamHandler streamHandler = new PumpStreamHandler(
-                outputStreamFromLastExecution,
-                errorStreamFromLastExecution);
+                outputStream,
+                errorStream);
 
         executor.setStreamHandler(streamHandler);
         executor.setWorkingDirectory(node.getWorkDir());
@@ -218,27 +225,29 @@ public final class NPM {
     }
 
     /**
-     * Gets the error stream from the last NPM execution.
+     * Gets the error stream from the last NPM execution made by the current thread.
      *
      * @return the error stream.
      */
     public String getLastErrorStream() {
-        if (errorStreamFromLastExecution != null) {
-            return errorStreamFromLastExecution.getOutput();
+        LoggedOutputStream stream = errorStreamFromLastExecution.get();
+        if (stream != null) {
+            return stream.getOutput();
         } else {
             return null;
         }
     }
 
     /**
-     * Gets the output stream from the last NPM execution. The output stream must have been explicitly recorded
-     * using {@link #registerOutputStream(boolean)}.
+     * Gets the output stream from the last NPM execution made by the current thread. The output stream must have
+     * been explicitly recorded using {@link #registerOutputStream(boolean)}.
      *
      * @return the output stream.
      */
     public String getLastOutputStream() {
-        if (outputStreamFromLastExecution != null) {
-            return outputStreamFromLastExecution.getOutput();
+        LoggedOutputStream stream = outputStreamFromLastExecution.get();
+        if (stream != null) {
+            return stream.getOutput();
         } else {
             return null;
         }
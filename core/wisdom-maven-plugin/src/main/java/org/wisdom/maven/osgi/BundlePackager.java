@@ -52,6 +52,21 @@ public final class BundlePackager implements org.wisdom.maven.Constants {
      * @throws IOException occurs when the bundle cannot be built correctly.
      */
     public static void bundle(File basedir, File output, Reporter reporter) throws IOException {
+        bundle(basedir, output, reporter, false);
+    }
+
+    /**
+     * Creates the bundle.
+     *
+     * @param basedir           the project's base directory
+     * @param output            the output file
+     * @param reuseDependencies whether or not the dependencies read to build the bundle are kept and reused by the
+     *                          next builds. It avoids reading them again when the bundle is rebuilt by the same
+     *                          JVM (watch mode).
+     * @throws IOException occurs when the bundle cannot be built correctly.
+     */
+    public static void bundle(File basedir, File output, Reporter reporter, boolean reuseDependencies)
+            throws IOException {
         ProjectScanner scanner = new ProjectScanner(basedir);
 
         // Loads the properties inherited from Maven.
@@ -98,7 +113,7 @@ public final class BundlePackager implements org.wisdom.maven.Constants {
         }
 
         // Instructions loaded, start the build sequence.
-        final Jar[] jars = org.wisdom.maven.osgi.Classpath.computeClassPath(basedir);
+        final Jar[] jars = org.wisdom.maven.osgi.Classpath.computeClassPath(basedir, reuseDependencies);
 
         File bnd;
         File ipojo;
@@ -117,6 +132,13 @@ public final class BundlePackager implements org.wisdom.maven.Constants {
             throw new IOException("Cannot build the OSGi bundle", e);
         }  finally {
             if (builder != null) {
+                // Closing the builder closes its classpath, except the shared jars.
+                Iterator<Jar> iterator = builder.getClasspath().iterator();
+                while (iterator.hasNext()) {
+                    if (org.wisdom.maven.osgi.Classpath.isShared(iterator.next())) {
+                        iterator.remove();
+                    }
+                }
                 builder.close();
             }
         }
@@ -33,8 +33,10 @@ import org.wisdom.maven.Constants;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -45,6 +47,11 @@ public class Classpath {
 
     static ObjectMapper mapper;
 
+    /**
+     * The jars of the dependencies kept across the builds executed by the same JVM (watch mode), indexed by file.
+     */
+    private static final Map<File, SharedJar> SHARED_JARS = new HashMap<>();
+
     static {
         mapper = new ObjectMapper();
         mapper
@@ -95,6 +102,20 @@ public class Classpath {
     }
 
     static Jar[] computeClassPath(File basedir) throws IOException {
+        return computeClassPath(basedir, false);
+    }
+
+    /**
+     * Computes the classpath used by BND to build the bundle.
+     *
+     * @param basedir the base directory
+     * @param reuse   whether or not the jars of the dependencies are reused across calls. Reading a jar requires to
+     *                read its table of content, reusing them avoids reading all the dependencies each time the
+     *                bundle is rebuilt. Shared jars must not be closed (see {@link #isShared(aQute.bnd.osgi.Jar)}).
+     * @return the classpath
+     * @throws IOException if the dependencies cannot be read.
+     */
+    static Jar[] computeClassPath(File basedir, boolean reuse) throws IOException {
         List<Jar> list = new ArrayList<>();
         File classes = new File(basedir, "target/classes");
 
@@ -109,7 +130,11 @@ public class Classpath {
                     && artifact.getArtifactHandler().isAddedToClasspath()) {
                 File file = artifact.getFile();
                 if (file.getName().endsWith(".jar") && file.isFile()) {
-                    list.add(new Jar(artifact.getArtifactId(), file));
+                    if (reuse) {
+                        list.add(getSharedJar(artifact.getArtifactId(), file));
+                    } else {
+                        list.add(new Jar(artifact.getArtifactId(), file));
+                    }
                 }
             }
         }
@@ -142,4 +167,70 @@ public class Classpath {
 
         return list;
     }
+
+    /**
+     * Gets the shared jar for the given file. The jar is read again if the file has been modified since the last
+     * call (for instance a SNAPSHOT dependency re-installed in the local repository).
+     *
+     * @param name the name of the jar
+     * @param file the file
+     * @return the jar
+     * @throws IOException if the file cannot be read
+     */
+    static synchronized Jar getSharedJar(String name, File file) throws IOException {
+        SharedJar shared = SHARED_JARS.get(file);
+        if (shared != null) {
+            if (shared.isUpToDate()) {
+                return shared.jar;
+            }
+            shared.jar.close();
+        }
+        shared = new SharedJar(new Jar(name, file), file);
+        SHARED_JARS.put(file, shared);
+        return shared.jar;
+    }
+
+    /**
+     * Closes the shared jars and forgets them. It is called when the watch mode stops, as the jars keep the files of
+     * the dependencies open.
+     */
+    public static synchronized void releaseSharedJars() {
+        for (SharedJar shared : SHARED_JARS.values()) {
+            shared.jar.close();
+        }
+        SHARED_JARS.clear();
+    }
+
+    /**
+     * Checks whether the given jar is shared across builds, and so must not be closed.
+     *
+     * @param jar the jar
+     * @return {@code true} if the jar is shared
+     */
+    static synchronized boolean isShared(Jar jar) {
+        for (SharedJar shared : SHARED_JARS.values()) {
+            if (shared.jar == jar) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class SharedJar {
+        private final Jar jar;
+        private final File file;
+        private final long lastModified;
+        private final long length;
+
+        private SharedJar(Jar jar, File file) {
+            this.jar = jar;
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        private boolean isUpToDate() {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
 }
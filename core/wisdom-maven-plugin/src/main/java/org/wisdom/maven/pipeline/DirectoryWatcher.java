@@ -0,0 +1,367 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.pipeline;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.logging.Log;
+import org.wisdom.maven.utils.DefensiveThreadFactory;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches directories using the native file system events ({@link java.nio.file.WatchService}).
+ * <p>
+ * Directories are registered recursively, and directories created while watching are registered too. Events are
+ * coalesced: once an event is received, the watcher waits until no event has been received during the
+ * <em>debounce</em> period, and notifies the pipeline of all the changes in one batch. So, a burst of changes, such as
+ * a {@literal git checkout}, triggers a single pipeline run, and a file created and modified (or created and deleted)
+ * during the burst is reported once (or not at all).
+ * <p>
+ * This watcher is not used when the file system does not emit native events (the JDK then uses a polling watch
+ * service), or when one of the watched directories cannot be registered (missing directory, too many watches...).
+ * The pipeline falls back to the polling monitor in these cases.
+ */
+public class DirectoryWatcher implements Runnable {
+
+    /**
+     * The kind of changes reported to the pipeline.
+     */
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * The maximum time spent collecting a burst of events before notifying the pipeline, in milliseconds.
+     */
+    public static final long MAX_BATCH_DURATION = 10000;
+
+    private final Pipeline pipeline;
+    private final Mojo mojo;
+    private final Log log;
+    private final long debounce;
+    private final WatchService service;
+
+    private final List<Root> roots = new ArrayList<>();
+    private final Map<WatchKey, Registration> keys = new HashMap<>();
+
+    /**
+     * The known files and their last modification date. This map is used to detect deletions of directories (for
+     * which the content deletion is not notified) and to recover from overflows.
+     */
+    private final Map<File, Long> files = new HashMap<>();
+
+    /**
+     * The changes collected during the current burst.
+     */
+    private final Map<File, Change> pending = new LinkedHashMap<>();
+
+    private Thread thread;
+
+    /**
+     * Creates the watcher.
+     *
+     * @param mojo     the mojo
+     * @param pipeline the pipeline to notify
+     * @param debounce the quiet period closing a burst of events, in milliseconds
+     * @throws IOException if the file system does not support native events
+     */
+    public DirectoryWatcher(Mojo mojo, Pipeline pipeline, long debounce) throws IOException {
+        this.mojo = mojo;
+        this.log = mojo.getLog();
+        this.pipeline = pipeline;
+        this.debounce = debounce;
+        this.service = FileSystems.getDefault().newWatchService();
+        if (service.getClass().getName().contains("Polling")) {
+            service.close();
+            throw new IOException("The file system does not support native file events");
+        }
+    }
+
+    /**
+     * Registers a directory. This method must be called before {@link #start()}.
+     *
+     * @param directory the directory
+     * @param recursive whether or not the sub-directories are watched
+     * @param filter    the filter selecting the files to report
+     * @throws IOException if the directory cannot be registered
+     */
+    public void watch(File directory, boolean recursive, FileFilter filter) throws IOException {
+        Root root = new Root(directory.getAbsoluteFile(), recursive, filter);
+        roots.add(root);
+        register(root, root.directory, false);
+    }
+
+    /**
+     * Starts the watcher thread.
+     */
+    public void start() {
+        thread = new DefensiveThreadFactory("wisdom-pipeline-watcher", mojo).newThread(this);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the watcher thread.
+     */
+    public void stop() {
+        try {
+            service.close();
+        } catch (IOException e) { //NOSONAR
+            log.debug("Cannot close the watch service", e);
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * The watcher loop.
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                process(service.take());
+                long start = System.currentTimeMillis();
+                WatchKey key = service.poll(debounce, TimeUnit.MILLISECONDS);
+                while (key != null) {
+                    process(key);
+                    if (System.currentTimeMillis() - start > MAX_BATCH_DURATION) {
+                        break;
+                    }
+                    key = service.poll(debounce, TimeUnit.MILLISECONDS);
+                }
+                flush();
+            }
+        } catch (InterruptedException e) { //NOSONAR
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) { //NOSONAR
+            // Stopped.
+        }
+    }
+
+    private void process(WatchKey key) {
+        Registration registration = keys.get(key);
+        if (registration == null) {
+            key.cancel();
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                log.debug("Too many file events, rescanning the watched directories");
+                rescan();
+                continue;
+            }
+            File file = new File(registration.directory, event.context().toString());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                if (file.isDirectory()) {
+                    if (registration.root.recursive) {
+                        // The content may have been created before the registration, report it.
+                        registerQuietly(registration.root, file, true);
+                    }
+                } else if (registration.root.accept(file)) {
+                    record(file, Change.CREATED);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_MODIFY) {
+                if (file.isFile() && registration.root.accept(file)) {
+                    record(file, Change.UPDATED);
+                }
+            } else if (files.containsKey(file)) {
+                record(file, Change.DELETED);
+            } else {
+                // It may be a directory, its content is gone too.
+                String prefix = file.getAbsolutePath() + File.separator;
+                for (File known : new ArrayList<>(files.keySet())) {
+                    if (known.getAbsolutePath().startsWith(prefix)) {
+                        record(known, Change.DELETED);
+                    }
+                }
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * Records a change notified by the file system.
+     *
+     * @param file   the file
+     * @param change the change
+     */
+    private void record(File file, Change change) {
+        if (change == Change.CREATED && files.containsKey(file) && !pending.containsKey(file)) {
+            // Replaced by a move.
+            merge(file, Change.UPDATED);
+        } else {
+            merge(file, change);
+        }
+
+        if (change == Change.DELETED) {
+            files.remove(file);
+        } else {
+            files.put(file, file.lastModified());
+        }
+    }
+
+    /**
+     * Merges a change with the change already recorded for the same file during the current burst.
+     *
+     * @param file   the file
+     * @param change the change
+     */
+    private void merge(File file, Change change) {
+        Change previous = pending.remove(file);
+        Change merged = change;
+        if (previous == Change.CREATED) {
+            merged = change == Change.DELETED ? null : Change.CREATED;
+        } else if (previous == Change.DELETED) {
+            merged = change == Change.DELETED ? Change.DELETED : Change.UPDATED;
+        }
+        // The file is moved to the end, to keep the order of the events.
+        if (merged != null) {
+            pending.put(file, merged);
+        }
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<File, Change> changes = new LinkedHashMap<>(pending);
+        pending.clear();
+        pipeline.onChanges(changes);
+    }
+
+    /**
+     * Registers a directory and its sub-directories (if the root is recursive).
+     *
+     * @param root      the root
+     * @param directory the directory
+     * @param report    whether or not the files found in the directory are reported as created
+     * @throws IOException if the directory cannot be registered
+     */
+    private void register(final Root root, File directory, final boolean report) throws IOException {
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                // Only the root itself is watched when the root is not recursive.
+                if (!root.recursive && !dir.toFile().equals(root.directory)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                keys.put(key, new Registration(root, dir.toFile()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                File file = path.toFile();
+                if (root.accept(file)) {
+                    if (report) {
+                        record(file, Change.CREATED);
+                    } else {
+                        files.put(file, file.lastModified());
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Registers a directory while watching. Failures are logged, the other directories are still watched.
+     */
+    private void registerQuietly(Root root, File directory, boolean report) {
+        try {
+            register(root, directory, report);
+        } catch (IOException e) {
+            log.warn("Cannot watch " + directory.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compares the content of the watched directories with the known files. It is used when events have been lost.
+     */
+    private void rescan() {
+        Map<File, Long> before = new HashMap<>(files);
+        files.clear();
+        for (Root root : roots) {
+            registerQuietly(root, root.directory, false);
+        }
+        for (Map.Entry<File, Long> entry : files.entrySet()) {
+            Long previous = before.remove(entry.getKey());
+            if (previous == null) {
+                merge(entry.getKey(), Change.CREATED);
+            } else if (!previous.equals(entry.getValue())) {
+                merge(entry.getKey(), Change.UPDATED);
+            }
+        }
+        for (File file : before.keySet()) {
+            merge(file, Change.DELETED);
+        }
+    }
+
+    private static class Root {
+        final File directory;
+        final boolean recursive;
+        final FileFilter filter;
+
+        Root(File directory, boolean recursive, FileFilter filter) {
+            this.directory = directory;
+            this.recursive = recursive;
+            this.filter = filter;
+        }
+
+        boolean accept(File file) {
+            return filter.accept(file);
+        }
+    }
+
+    private static class Registration {
+        final Root root;
+        final File directory;
+
+        Registration(Root root, File directory) {
+            this.root = root;
+            this.directory = directory;
+        }
+    }
+}
@@ -25,15 +25,19 @@ import org.apache.commons.io.monitor.FileAlterationMonitor;
 import org.apache.commons.io.monitor.FileAlterationObserver;
 import org.apache.maven.plugin.Mojo;
 import org.json.simple.JSONObject;
+import org.wisdom.maven.BatchWatcher;
 import org.wisdom.maven.Watcher;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.utils.DefensiveThreadFactory;
+import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The pipeline is the spine of the watching system of Wisdom.
@@ -41,7 +45,8 @@ import java.util.List;
  * using org.wisdom.maven.pipeline.Watchers#add(org.apache.maven.execution.MavenSession, org.wisdom.maven.Watcher).
  * <p>
  * The pipeline is an internal class and should not be used directly. It just delegates the file events to the
- * watchers. So this class holds the file alteration monitor that triggers the reactions of the different mojos.
+ * watchers. So this class holds the directory watcher (or the file alteration monitor when native file events are
+ * not supported) that triggers the reactions of the different mojos.
  */
 public class Pipeline {
 
@@ -50,6 +55,7 @@ public class Pipeline {
     private List<Watcher> watchers = new ArrayList<>();
     private final Mojo mojo;
     private FileAlterationMonitor watcher;
+    private DirectoryWatcher directoryWatcher;
     private final File baseDir;
 
     /**
@@ -79,19 +85,36 @@ public class Pipeline {
     }
 
     /**
-     * Shuts down the pipeline. This methods stops the FAM.
+     * Shuts down the pipeline. This methods stops the directory watcher or the FAM, and notifies the watchers so
+     * they release the resources kept across the pipeline runs.
      */
     public void shutdown() {
-        try {
-            watcher.stop();
-        } catch (Exception e) { //NOSONAR
-            mojo.getLog().debug("Something went terribly wrong when we try to stopped the FAM of the pipeline", e);
-            // ignore it.
+        if (directoryWatcher != null) {
+            directoryWatcher.stop();
+            directoryWatcher = null;
+        } else {
+            try {
+                watcher.stop();
+            } catch (Exception e) { //NOSONAR
+                mojo.getLog().debug("Something went terribly wrong when we try to stopped the FAM of the pipeline", e);
+                // ignore it.
+            }
+        }
+        for (Watcher w : watchers) {
+            if (w instanceof WatcherDelegate) {
+                try {
+                    ((WatcherDelegate) w).watchStopped();
+                } catch (RuntimeException e) { //NOSONAR
+                    mojo.getLog().debug("Cannot notify " + w + " of the end of the watch mode", e);
+                }
+            }
         }
     }
 
     /**
-     * Starts the watching.
+     * Starts the watching. The native file system events are used, unless the file system does not support them or
+     * the {@literal watch.polling} system property is set to {@literal true}. In these cases, the directories are
+     * polled every {@literal watch.period} seconds (2 by default).
      *
      * @return the current pipeline.
      */
@@ -101,7 +124,35 @@ public class Pipeline {
         FileUtils.deleteQuietly(error);
         mojo.getLog().debug("Creating the target/pipeline directory : " + error.mkdirs());
 
-        // Start the watching process.
+        final File pom = new File(baseDir, "pom.xml");
+        FileFilter pomFilter = new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.equals(pom);
+            }
+        };
+
+        if (!Boolean.getBoolean("watch.polling")) {
+            try {
+                directoryWatcher = new DirectoryWatcher(mojo, this, Integer.getInteger("watch.debounce", 200));
+                directoryWatcher.watch(new File(baseDir, "src"), true, TrueFileFilter.INSTANCE);
+                if (pomFileMonitoring) {
+                    directoryWatcher.watch(baseDir, false, pomFilter);
+                }
+                mojo.getLog().info("Start watching " + baseDir.getAbsolutePath());
+                directoryWatcher.start();
+                return this;
+            } catch (IOException e) {
+                mojo.getLog().info("Cannot use the native file system events (" + e.getMessage() + "), " +
+                        "the directories are going to be polled");
+                if (directoryWatcher != null) {
+                    directoryWatcher.stop();
+                    directoryWatcher = null;
+                }
+            }
+        }
+
+        // Start the polling process.
         watcher = new FileAlterationMonitor(Integer.getInteger("watch.period", 2) * 1000);
         watcher.setThreadFactory(new DefensiveThreadFactory("wisdom-pipeline-watcher", mojo));
         FileAlterationObserver srcObserver = new FileAlterationObserver(new File(baseDir, "src"),
@@ -111,12 +162,7 @@ public class Pipeline {
         watcher.addObserver(srcObserver);
 
         if (pomFileMonitoring) {
-            FileAlterationObserver pomObserver = new FileAlterationObserver(baseDir, new FileFilter() {
-                @Override
-                public boolean accept(File file) {
-                    return file.equals(new File(baseDir, "pom.xml"));
-                }
-            });
+            FileAlterationObserver pomObserver = new FileAlterationObserver(baseDir, pomFilter);
             pomObserver.addListener(listener);
             watcher.addObserver(pomObserver);
         }
@@ -130,38 +176,108 @@ public class Pipeline {
         return this;
     }
 
+    /**
+     * @return {@code true} if the pipeline is notified using the native file system events, {@code false} if the
+     * directories are polled.
+     */
+    boolean usesNativeEvents() {
+        return directoryWatcher != null;
+    }
+
     /**
      * The FAM has detected a new file. It dispatches this event to the watchers plugged on the current pipeline.
      *
      * @param file the created file
      */
     public void onFileCreate(File file) {
+        onChanges(Collections.singletonMap(file, DirectoryWatcher.Change.CREATED));
+    }
+
+    /**
+     * The watcher has detected a set of changes. The changes are dispatched to the watchers plugged on the current
+     * pipeline, in the notification order. Each watcher is notified once with all the changes it accepts (see
+     * {@link BatchWatcher}), so a burst of changes triggers a single compilation or packaging.
+     *
+     * @param changes the changed files, with the kind of change
+     */
+    public synchronized void onChanges(Map<File, DirectoryWatcher.Change> changes) {
         mojo.getLog().info(EMPTY_STRING);
-        mojo.getLog().info("The watcher has detected a new file: " + file.getAbsolutePath());
+        if (changes.size() == 1) {
+            Map.Entry<File, DirectoryWatcher.Change> change = changes.entrySet().iterator().next();
+            mojo.getLog().info(describe(change.getKey(), change.getValue()));
+        } else {
+            mojo.getLog().info("The watcher has detected " + changes.size() + " changes:");
+            for (Map.Entry<File, DirectoryWatcher.Change> change : changes.entrySet()) {
+                mojo.getLog().info("    " + change.getValue().name().toLowerCase() + " "
+                        + change.getKey().getAbsolutePath());
+            }
+        }
         mojo.getLog().info(EMPTY_STRING);
         for (Watcher watcher : watchers) {
-            if (watcher.accept(file)) {
-                // This flag will be set to false if the processing must be interrupted.
-                boolean continueProcessing;
-                try {
-                    cleanupErrorFile(watcher);
-                    continueProcessing = watcher.fileCreated(file);
-                } catch (WatchingException e) { //NOSONAR
-                    mojo.getLog().debug(watcher + " has thrown an exception while handling the " + file.getName() + EMPTY_STRING +
-                            " creation", e);
-                    mojo.getLog().error(String.format(WATCHING_EXCEPTION_MESSAGE, e.getMessage()));
-                    createErrorFile(watcher, e);
-                    continueProcessing = false;
-                }
-                if (!continueProcessing) {
-                    break;
-                }
+            if (!dispatch(watcher, changes)) {
+                break;
             }
         }
         mojo.getLog().info(EMPTY_STRING);
         mojo.getLog().info(EMPTY_STRING);
     }
 
+    private static String describe(File file, DirectoryWatcher.Change change) {
+        switch (change) {
+            case CREATED:
+                return "The watcher has detected a new file: " + file.getAbsolutePath();
+            case DELETED:
+                return "The watcher has detected a deleted file: " + file.getAbsolutePath();
+            default:
+                return "The watcher has detected a change in " + file.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Notifies the given watcher of the changes it accepts.
+     *
+     * @param watcher the watcher
+     * @param changes the changes
+     * @return {@literal false} if the processing must be interrupted, {@literal true} otherwise
+     */
+    private boolean dispatch(Watcher watcher, Map<File, DirectoryWatcher.Change> changes) {
+        List<File> created = new ArrayList<>();
+        List<File> updated = new ArrayList<>();
+        List<File> deleted = new ArrayList<>();
+        for (Map.Entry<File, DirectoryWatcher.Change> change : changes.entrySet()) {
+            if (!watcher.accept(change.getKey())) {
+                continue;
+            }
+            switch (change.getValue()) {
+                case CREATED:
+                    created.add(change.getKey());
+                    break;
+                case DELETED:
+                    deleted.add(change.getKey());
+                    break;
+                default:
+                    updated.add(change.getKey());
+            }
+        }
+        if (created.isEmpty() && updated.isEmpty() && deleted.isEmpty()) {
+            return true;
+        }
+
+        cleanupErrorFile(watcher);
+        try {
+            if (watcher instanceof BatchWatcher) {
+                return ((BatchWatcher) watcher).filesChanged(created, updated, deleted);
+            }
+            return WatcherUtils.notify(watcher, created, updated, deleted);
+        } catch (WatchingException e) { //NOSONAR
+            mojo.getLog().debug(watcher + " has thrown an exception while handling the changes " + changes.keySet(),
+                    e);
+            mojo.getLog().error(String.format(WATCHING_EXCEPTION_MESSAGE, e.getMessage()));
+            createErrorFile(watcher, e);
+            return false;
+        }
+    }
+
     /**
      * Creates the error file storing the information from the given exception in JSON. This file is consumed by the
      * Wisdom server to generate an error page reporting the watching exception.
@@ -227,30 +343,7 @@ public class Pipeline {
      * @param file the updated file
      */
     public void onFileChange(File file) {
-        mojo.getLog().info(EMPTY_STRING);
-        mojo.getLog().info("The watcher has detected a change in " + file.getAbsolutePath());
-        mojo.getLog().info(EMPTY_STRING);
-        for (Watcher watcher : watchers) {
-            if (watcher.accept(file)) {
-                cleanupErrorFile(watcher);
-                // This flag will be set to false if the processing must be interrupted.
-                boolean continueProcessing;
-                try {
-                    continueProcessing = watcher.fileUpdated(file);
-                } catch (WatchingException e) { //NOSONAR
-                    mojo.getLog().debug(watcher + " has thrown an exception while handling the " + file.getName() + EMPTY_STRING +
-                            " update", e);
-                    mojo.getLog().error(String.format(WATCHING_EXCEPTION_MESSAGE, e.getMessage()));
-                    createErrorFile(watcher, e);
-                    continueProcessing = false;
-                }
-                if (!continueProcessing) {
-                    break;
-                }
-            }
-        }
-        mojo.getLog().info(EMPTY_STRING);
-        mojo.getLog().info(EMPTY_STRING);
+        onChanges(Collections.singletonMap(file, DirectoryWatcher.Change.UPDATED));
     }
 
     /**
@@ -260,29 +353,6 @@ public class Pipeline {
      * @param file the deleted file
      */
     public void onFileDelete(File file) {
-        mojo.getLog().info(EMPTY_STRING);
-        mojo.getLog().info("The watcher has detected a deleted file: " + file.getAbsolutePath());
-        mojo.getLog().info(EMPTY_STRING);
-        for (Watcher watcher : watchers) {
-            if (watcher.accept(file)) {
-                cleanupErrorFile(watcher);
-                // This flag will be set to false if the processing must be interrupted.
-                boolean continueProcessing;
-                try {
-                    continueProcessing = watcher.fileDeleted(file);
-                } catch (WatchingException e) { //NOSONAR
-                    mojo.getLog().debug(watcher + " has thrown an exception while handling the " + file.getName() + EMPTY_STRING +
-                            " deletion", e);
-                    mojo.getLog().error(String.format(WATCHING_EXCEPTION_MESSAGE, e.getMessage()));
-                    createErrorFile(watcher, e);
-                    continueProcessing = false;
-                }
-                if (!continueProcessing) {
-                    break;
-                }
-            }
-        }
-        mojo.getLog().info(EMPTY_STRING);
-        mojo.getLog().info(EMPTY_STRING);
+        onChanges(Collections.singletonMap(file, DirectoryWatcher.Change.DELETED));
     }
 }
@@ -19,25 +19,35 @@
  */
 package org.wisdom.maven.pipeline;
 
-import org.wisdom.maven.Watcher;
+import org.wisdom.maven.BatchWatcher;
 import org.wisdom.maven.WatchingException;
+import org.wisdom.maven.utils.WatcherUtils;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collection;
 
 /**
  * An implementation of watcher using delegation.
  * The invocation are delegate on an object by reflection. This is necessary because the retrieve watchers are not
  * loaded with the same classloader as the run mojo. This comes from the forked lifecycle done by the run mojo.
  */
-public class WatcherDelegate implements Watcher {
+public class WatcherDelegate implements BatchWatcher {
 
     private final Object delegate;
     private final Method fileDeleted;
     private final Method fileCreated;
     private final Method fileUpdated;
     private final Method accept;
+    /**
+     * The {@code filesChanged} method, {@code null} if the delegate is not a batch watcher.
+     */
+    private final Method filesChanged;
+    /**
+     * The {@code watchStopped} method, {@code null} if the delegate does not provide it.
+     */
+    private final Method watchStopped;
 
     public WatcherDelegate(Object delegate) {
         this.delegate = delegate;
@@ -54,6 +64,19 @@ public class WatcherDelegate implements Watcher {
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
+        this.filesChanged = getOptionalMethod(delegate, "filesChanged", Collection.class, Collection.class,
+                Collection.class);
+        this.watchStopped = getOptionalMethod(delegate, "watchStopped");
+    }
+
+    private static Method getOptionalMethod(Object delegate, String name, Class<?>... parameters) {
+        try {
+            Method method = delegate.getClass().getMethod(name, parameters);
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException e) { //NOSONAR
+            return null;
+        }
     }
 
     /**
@@ -95,7 +118,8 @@ public class WatcherDelegate implements Watcher {
      * .WatchingException} from the given exception's cause.
      *
      * @param exception the invocation target exception caught by the delegate
-     * @param file      the file having thrown the exception (the processed file).
+     * @param file      the file having thrown the exception (the processed file), {@code null} if a set of changes
+     *                  was processed.
      * @return a Watching Exception containing the content from the given exception if possible or a new exception
      * from the {@literal exception}'s cause.
      */
@@ -144,4 +168,46 @@ public class WatcherDelegate implements Watcher {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Notifies the delegate of a set of changes. If the delegate does not provide the {@code filesChanged} method,
+     * it is notified file by file.
+     *
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal false} if the pipeline processing must be interrupted for this burst
+     * @throws WatchingException if the delegate failed to process the changes
+     */
+    @Override
+    public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+            throws WatchingException {
+        if (filesChanged == null) {
+            return WatcherUtils.notify(this, created, updated, deleted);
+        }
+        try {
+            return (Boolean) filesChanged.invoke(delegate, created, updated, deleted);
+        } catch (InvocationTargetException e) { //NOSONAR
+            throw createWatchingException(e, null);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Notifies the delegate that the watch mode has stopped, if it provides the {@code watchStopped} method (see
+     * {@link org.wisdom.maven.mojos.AbstractWisdomWatcherMojo#watchStopped()}).
+     */
+    public void watchStopped() {
+        if (watchStopped == null) {
+            return;
+        }
+        try {
+            watchStopped.invoke(delegate);
+        } catch (InvocationTargetException e) { //NOSONAR
+            throw new RuntimeException(e.getTargetException());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
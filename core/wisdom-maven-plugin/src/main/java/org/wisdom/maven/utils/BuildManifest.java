@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.utils;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Properties;
+
+/**
+ * Stores the fingerprint of the build steps that have been executed successfully. The fingerprint is a SHA-1 hash
+ * computed from the step configuration and from the path and content of its inputs. The manifest is a properties
+ * file, generally stored in the {@literal target} directory, so it survives across builds but not across
+ * {@literal mvn clean}.
+ */
+public class BuildManifest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+
+    private final Properties fingerprints = new Properties();
+
+    /**
+     * Creates the manifest and loads its content if the file exists.
+     *
+     * @param file the file storing the manifest
+     */
+    public BuildManifest(File file) {
+        this.file = file;
+        if (file.isFile()) {
+            InputStream stream = null;
+            try {
+                stream = new FileInputStream(file);
+                fingerprints.load(stream);
+            } catch (IOException e) { //NOSONAR
+                // Corrupted manifest, everything is going to be rebuilt.
+                fingerprints.clear();
+            } finally {
+                IOUtils.closeQuietly(stream);
+            }
+        }
+    }
+
+    /**
+     * Computes the current fingerprint of the given step.
+     *
+     * @param step the step
+     * @return the fingerprint
+     * @throws IOException if an input cannot be read
+     */
+    public static String fingerprint(BuildStep step) throws IOException {
+        Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putString(step.getConfiguration(), UTF_8);
+        for (File input : step.getInputs()) {
+            hasher.putString(input.getAbsolutePath(), UTF_8);
+            if (input.isFile()) {
+                hasher.putBytes(com.google.common.io.Files.hash(input, Hashing.sha1()).asBytes());
+            } else {
+                hasher.putBoolean(false);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Checks whether the given step has already been executed with the given fingerprint and whether its outputs
+     * are still there.
+     *
+     * @param step        the step
+     * @param fingerprint the current fingerprint of the step
+     * @return {@code true} if the step does not need to be executed
+     */
+    public boolean isUpToDate(BuildStep step, String fingerprint) {
+        if (!fingerprint.equals(get(step.getId()))) {
+            return false;
+        }
+        for (File output : step.getOutputs()) {
+            if (!output.isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param id the step identifier
+     * @return the recorded fingerprint, {@code null} if none
+     */
+    public synchronized String get(String id) {
+        return fingerprints.getProperty(id);
+    }
+
+    /**
+     * Records the fingerprint of a successful execution.
+     *
+     * @param id          the step identifier
+     * @param fingerprint the fingerprint
+     */
+    public synchronized void put(String id, String fingerprint) {
+        fingerprints.setProperty(id, fingerprint);
+    }
+
+    /**
+     * Forgets a step, so it will be executed by the next build.
+     *
+     * @param id the step identifier
+     */
+    public synchronized void remove(String id) {
+        fingerprints.remove(id);
+    }
+
+    /**
+     * Writes the manifest to its file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void store() throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs(); //NOSONAR
+        }
+        OutputStream stream = null;
+        try {
+            stream = new FileOutputStream(file);
+            fingerprints.store(stream, "Wisdom build manifest - do not edit");
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+}
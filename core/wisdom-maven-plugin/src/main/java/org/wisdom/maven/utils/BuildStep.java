@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.utils;
+
+import org.wisdom.maven.WatchingException;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * A unit of work executed by the {@link BuildStepEngine}, such as the minification of a file or the computation of
+ * an aggregation. A step is skipped when its inputs, its configuration and its outputs have not changed since its
+ * last successful execution.
+ * <p>
+ * Steps submitted together must be independent, as they may be executed concurrently.
+ */
+public abstract class BuildStep {
+
+    private final String id;
+
+    /**
+     * Creates a build step.
+     *
+     * @param id the identifier of the step, must be unique among the steps of a mojo. The output file path is
+     *           generally a good candidate.
+     */
+    protected BuildStep(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the identifier of the step.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the files read by this step. The step is executed again as soon as the content of one of these files
+     * changes, or if a file is added or removed from the list.
+     *
+     * @return the input files, must not be {@code null}
+     */
+    public abstract Collection<File> getInputs();
+
+    /**
+     * Gets the files generated by this step. The step is executed again if one of them is missing. Steps
+     * modifying their input in place do not need to declare it here (see {@link #modifiesInputs()}).
+     *
+     * @return the output files, empty by default
+     */
+    public Collection<File> getOutputs() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets a description of the settings influencing the result of this step (tool version, options...). The step
+     * is executed again when it changes.
+     *
+     * @return the configuration, empty by default
+     */
+    public String getConfiguration() {
+        return "";
+    }
+
+    /**
+     * Checks whether this step rewrites its inputs in place (such as an image optimization). The fingerprint of
+     * the inputs is taken before the execution, so a change made to an input while the step runs triggers a new
+     * execution. For steps rewriting their inputs, the fingerprint is computed again once executed, otherwise the
+     * step would never be considered up to date.
+     *
+     * @return {@code true} if the step modifies its inputs, {@code false} by default
+     */
+    public boolean modifiesInputs() {
+        return false;
+    }
+
+    /**
+     * Executes the step.
+     *
+     * @throws WatchingException if the step has failed
+     */
+    public abstract void execute() throws WatchingException;
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
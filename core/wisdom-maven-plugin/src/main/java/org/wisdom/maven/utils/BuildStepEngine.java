@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.utils;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.logging.Log;
+import org.wisdom.maven.WatchingException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes sets of independent {@link BuildStep}s. Steps are executed on a bounded pool of threads,
+ * and the steps whose fingerprint has not changed since their last successful execution are skipped. The
+ * fingerprints are kept in a {@link BuildManifest}.
+ * <p>
+ * When a step fails, the other steps are still executed (and recorded if they succeed), and the first failure is
+ * rethrown, the other ones being attached as suppressed exceptions.
+ */
+public class BuildStepEngine {
+
+    private final String name;
+    private final Mojo mojo;
+    private final Log log;
+    private final BuildManifest manifest;
+    private final int threads;
+    private final boolean incremental;
+
+    /**
+     * Creates the engine.
+     *
+     * @param name        the name of the engine, used to name the threads
+     * @param manifest    the file storing the manifest
+     * @param threads     the maximum number of steps executed concurrently, the number of available processors
+     *                    is used when lower or equal to 0
+     * @param incremental whether or not the unchanged steps are skipped
+     * @param mojo        the mojo using the engine
+     */
+    public BuildStepEngine(String name, File manifest, int threads, boolean incremental, Mojo mojo) {
+        this.name = name;
+        this.mojo = mojo;
+        this.log = mojo.getLog();
+        this.manifest = new BuildManifest(manifest);
+        if (threads <= 0) {
+            this.threads = Runtime.getRuntime().availableProcessors();
+        } else {
+            this.threads = threads;
+        }
+        this.incremental = incremental;
+    }
+
+    /**
+     * Executes the given steps.
+     *
+     * @param steps the steps
+     * @return the number of executed steps, i.e. the steps that were not up to date
+     * @throws WatchingException if at least one step has failed
+     */
+    public int execute(Collection<? extends BuildStep> steps) throws WatchingException {
+        final AtomicInteger executed = new AtomicInteger();
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            if (steps.size() <= 1 || threads == 1) {
+                for (BuildStep step : steps) {
+                    try {
+                        run(step, executed);
+                    } catch (WatchingException | IOException | RuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+            } else {
+                executeConcurrently(steps, executed, failures);
+            }
+        } finally {
+            try {
+                manifest.store();
+            } catch (IOException e) {
+                log.warn("Cannot write the build manifest, the next build is not going to be incremental", e);
+            }
+        }
+
+        if (steps.size() > executed.get()) {
+            log.info(executed.get() + " processed, " + (steps.size() - executed.get())
+                    + " unchanged since the last build");
+        }
+        if (!failures.isEmpty()) {
+            throw toWatchingException(failures);
+        }
+        return executed.get();
+    }
+
+    private void executeConcurrently(Collection<? extends BuildStep> steps, final AtomicInteger executed,
+                                     List<Throwable> failures) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, steps.size()),
+                new DefensiveThreadFactory("wisdom-" + name, mojo));
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (final BuildStep step : steps) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        run(step, executed);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.add(e);
+                    return;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(BuildStep step, AtomicInteger executed) throws WatchingException, IOException {
+        // The fingerprint is taken before the execution, so an input modified while the step runs is processed
+        // again by the next build.
+        String fingerprint = BuildManifest.fingerprint(step);
+        if (incremental && manifest.isUpToDate(step, fingerprint)) {
+            log.debug(step.getId() + " is up to date");
+            return;
+        }
+        manifest.remove(step.getId());
+        executed.incrementAndGet();
+        step.execute();
+        if (step.modifiesInputs()) {
+            fingerprint = BuildManifest.fingerprint(step);
+        }
+        manifest.put(step.getId(), fingerprint);
+    }
+
+    private static WatchingException toWatchingException(List<Throwable> failures) {
+        Throwable first = failures.get(0);
+        WatchingException exception;
+        if (first instanceof WatchingException) {
+            exception = (WatchingException) first;
+        } else {
+            exception = new WatchingException(first.getMessage(), first);
+        }
+        for (Throwable failure : failures.subList(1, failures.size())) {
+            exception.addSuppressed(failure);
+        }
+        return exception;
+    }
+}
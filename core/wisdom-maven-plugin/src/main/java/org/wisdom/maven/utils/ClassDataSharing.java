@@ -0,0 +1,292 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.wisdom.maven.mojos.AbstractWisdomMojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates and locates the class data sharing (CDS) archive of a Wisdom server.
+ * <p>
+ * The archive is built in two steps. First, a training run of the server is launched with the
+ * {@literal -XX:DumpLoadedClassList} option, and stopped once the server has answered to a set of requests. Then,
+ * the list of loaded classes is dumped into the archive using {@literal -Xshare:dump}. On Java 8, only the classes
+ * loaded by the boot class loader (the JDK classes) are archived: neither the launcher, loaded from the class path,
+ * nor the classes loaded from the bundles are part of the archive.
+ * <p>
+ * The archive is bound to the JVM used to generate it. It is ignored (without error) by other JVMs.
+ */
+public class ClassDataSharing {
+
+    /**
+     * The directory, relative to the Wisdom root, containing the archive and the training files.
+     */
+    public static final String DIRECTORY = "cds";
+
+    /**
+     * The name of the archive file.
+     */
+    public static final String ARCHIVE = "wisdom.jsa";
+
+    /**
+     * The name of the file containing the list of classes loaded during the training run.
+     */
+    public static final String CLASS_LIST = "classes.lst";
+
+    /**
+     * The name of the file receiving the output of the training run and of the dump.
+     */
+    public static final String LOG = "training.log";
+
+    /**
+     * The default maximum time to wait for the training server to answer, in seconds.
+     */
+    public static final int DEFAULT_TIMEOUT = 120;
+
+    private final AbstractWisdomMojo mojo;
+
+    private final File root;
+
+    private final File directory;
+
+    /**
+     * Creates an instance generating the archive of the Wisdom server of the given mojo.
+     *
+     * @param mojo the mojo
+     */
+    public ClassDataSharing(AbstractWisdomMojo mojo) {
+        this.mojo = mojo;
+        this.root = mojo.getWisdomRootDirectory();
+        this.directory = new File(root, DIRECTORY);
+    }
+
+    /**
+     * Gets the archive of the given Wisdom server.
+     *
+     * @param root the root of the Wisdom server
+     * @return the archive file, {@code null} if the server does not have an archive
+     */
+    public static File getArchive(File root) {
+        File archive = new File(new File(root, DIRECTORY), ARCHIVE);
+        if (archive.isFile()) {
+            return archive;
+        }
+        return null;
+    }
+
+    /**
+     * Computes the JVM arguments enabling the archive of the given Wisdom server. The archive is used in
+     * {@literal auto} mode: if the JVM cannot map it, it is ignored.
+     *
+     * @param root the root of the Wisdom server
+     * @return the arguments, empty if the server does not have an archive
+     */
+    public static List<String> getJvmArguments(File root) {
+        File archive = getArchive(root);
+        if (archive == null) {
+            return Collections.emptyList();
+        }
+        List<String> arguments = new ArrayList<>();
+        // SharedArchiveFile is a diagnostic option on Java 8.
+        arguments.add("-XX:+UnlockDiagnosticVMOptions");
+        arguments.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        arguments.add("-Xshare:auto");
+        return arguments;
+    }
+
+    /**
+     * Runs the training and generates the archive. Any previous archive is deleted.
+     *
+     * @param port    the HTTP port used by the training server, 0 to pick a free port
+     * @param urls    the paths requested once the training server is up, to load the classes involved in the
+     *                request processing
+     * @param timeout the maximum time to wait for the training server to answer, in seconds
+     * @return the archive
+     * @throws MojoExecutionException if the training or the dump failed
+     */
+    public File generate(int port, List<String> urls, int timeout) throws MojoExecutionException {
+        File java = ExecUtils.find("java", new File(mojo.javaHome, "bin"));
+        if (java == null) {
+            throw new MojoExecutionException("Cannot find the java executable");
+        }
+        File launcher = new File(root, "bin/chameleon-core-" + WisdomExecutor.CHAMELEON_VERSION + ".jar");
+        if (!launcher.isFile()) {
+            throw new MojoExecutionException("Cannot generate the class data sharing archive, " + launcher
+                    .getAbsolutePath() + " does not exist");
+        }
+
+        FileUtils.deleteQuietly(directory);
+        if (!directory.mkdirs()) {
+            throw new MojoExecutionException("Cannot create " + directory.getAbsolutePath());
+        }
+        File list = new File(directory, CLASS_LIST);
+        File archive = new File(directory, ARCHIVE);
+        File log = new File(directory, LOG);
+
+        int thePort = port == 0 ? findFreePort() : port;
+        train(java, launcher, list, log, thePort, urls, timeout);
+        if (!list.isFile() || list.length() == 0) {
+            throw new MojoExecutionException("The training run did not produce the list of loaded classes - check "
+                    + log.getAbsolutePath());
+        }
+
+        mojo.getLog().info("Dumping the class data sharing archive");
+        int status = waitFor(launch(log,
+                java.getAbsolutePath(),
+                "-XX:+UnlockDiagnosticVMOptions",
+                "-Xshare:dump",
+                "-XX:SharedClassListFile=" + list.getAbsolutePath(),
+                "-XX:SharedArchiveFile=" + archive.getAbsolutePath(),
+                "-cp", launcher.getAbsolutePath()));
+        if (status != 0 || !archive.isFile()) {
+            throw new MojoExecutionException("Cannot dump the class data sharing archive (exit code " + status
+                    + ") - check " + log.getAbsolutePath());
+        }
+        mojo.getLog().info("Class data sharing archive created: " + archive.getAbsolutePath() + " ("
+                + FileUtils.byteCountToDisplaySize(archive.length()) + ")");
+        return archive;
+    }
+
+    private void train(File java, File launcher, File list, File log, int port, List<String> urls, int timeout)
+            throws MojoExecutionException {
+        mojo.getLog().info("Launching the class data sharing training run on port " + port);
+        Process process = launch(log,
+                java.getAbsolutePath(),
+                "-XX:DumpLoadedClassList=" + list.getAbsolutePath(),
+                "-Dapplication.mode=PROD",
+                "-Dhttp.port=" + port,
+                "-Dhttps.port=-1",
+                "-jar", launcher.getAbsolutePath());
+        try {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+            boolean ready = false;
+            while (!ready) {
+                if (!isRunning(process)) {
+                    throw new MojoExecutionException("The training server has stopped unexpectedly - check "
+                            + log.getAbsolutePath());
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    throw new MojoExecutionException("The training server did not answer within " + timeout
+                            + " seconds - check " + log.getAbsolutePath());
+                }
+                ready = request(port, "/") != -1;
+                if (!ready) {
+                    sleep(200);
+                }
+            }
+            for (String url : urls) {
+                mojo.getLog().info("Training request " + url + " : " + request(port, url));
+            }
+        } finally {
+            // The list of classes is complete once the JVM has exited.
+            process.destroy();
+            waitFor(process);
+        }
+    }
+
+    /**
+     * Sends a GET request to the training server.
+     *
+     * @param port the port
+     * @param path the path
+     * @return the status code, -1 if the server cannot be reached
+     */
+    private static int request(int port, String path) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL("http", "localhost", port, path).openConnection();
+            connection.setConnectTimeout(1000);
+            connection.setReadTimeout(10000);
+            int status = connection.getResponseCode();
+            IOUtils.closeQuietly(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            return status;
+        } catch (IOException e) { //NOSONAR
+            return -1;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private Process launch(File log, String... command) throws MojoExecutionException {
+        mojo.getLog().debug("Command Line: " + Arrays.toString(command));
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(root)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log));
+        try {
+            return builder.start();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot launch " + command[0], e);
+        }
+    }
+
+    private static boolean isRunning(Process process) {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) { //NOSONAR
+            return true;
+        }
+    }
+
+    private static int waitFor(Process process) throws MojoExecutionException {
+        try {
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the end of a process", e);
+        }
+    }
+
+    private static void sleep(long time) {
+        try {
+            Thread.sleep(time);
+        } catch (InterruptedException e) { //NOSONAR
+            // Ignore it.
+        }
+    }
+
+    private static int findFreePort() throws MojoExecutionException {
+        ServerSocket socket = null;
+        try {
+            socket = new ServerSocket(0);
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot find a free port for the training run", e);
+        } finally {
+            IOUtils.closeQuietly(socket);
+        }
+    }
+}
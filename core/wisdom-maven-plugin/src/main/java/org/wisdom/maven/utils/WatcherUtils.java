@@ -22,6 +22,8 @@ package org.wisdom.maven.utils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.wisdom.maven.Constants;
+import org.wisdom.maven.Watcher;
+import org.wisdom.maven.WatchingException;
 
 import java.io.File;
 import java.io.IOException;
@@ -199,4 +201,35 @@ public class WatcherUtils implements Constants {
         }
         return Collections.emptyList();
     }
+
+    /**
+     * Notifies the given watcher of a set of changes, file by file. The deleted files are notified first, then the
+     * created and the updated ones. The notification stops as soon as the watcher returns {@literal false}.
+     *
+     * @param watcher the watcher
+     * @param created the created files
+     * @param updated the updated files
+     * @param deleted the deleted files
+     * @return {@literal false} if the watcher has interrupted the processing, {@literal true} otherwise
+     * @throws WatchingException if the watcher failed to process one of the files
+     */
+    public static boolean notify(Watcher watcher, Collection<File> created, Collection<File> updated,
+                                 Collection<File> deleted) throws WatchingException {
+        for (File file : deleted) {
+            if (!watcher.fileDeleted(file)) {
+                return false;
+            }
+        }
+        for (File file : created) {
+            if (!watcher.fileCreated(file)) {
+                return false;
+            }
+        }
+        for (File file : updated) {
+            if (!watcher.fileUpdated(file)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
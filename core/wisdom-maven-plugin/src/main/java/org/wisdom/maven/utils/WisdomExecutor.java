@@ -106,6 +106,11 @@ public class WisdomExecutor {
                     false);
         }
 
+        // Use the class data sharing archive if generated (see the 'cds-archive' goal).
+        for (String argument : ClassDataSharing.getJvmArguments(mojo.getWisdomRootDirectory())) {
+            cmdLine.addArgument(argument, false);
+        }
+
         if (!Strings.isNullOrEmpty(jvmArgs)) {
             cmdLine.addArguments(jvmArgs, false);
         }
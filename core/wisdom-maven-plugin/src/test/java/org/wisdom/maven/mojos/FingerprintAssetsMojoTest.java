@@ -0,0 +1,146 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.mojos;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FingerprintAssetsMojoTest {
+
+    private FingerprintAssetsMojo mojo;
+    private File assets;
+
+    @Before
+    public void setUp() throws IOException {
+        mojo = new FingerprintAssetsMojo();
+        mojo.basedir = new File("target/junk/fingerprint");
+        FileUtils.deleteQuietly(mojo.basedir);
+        mojo.buildDirectory = new File(mojo.basedir, "target");
+        mojo.fingerprintedExtensions = "js, css";
+        assets = mojo.getInternalAssetOutputDirectory();
+        FileUtils.write(new File(assets, "app.js"), "var a = 1;");
+        FileUtils.write(new File(assets, "css/style.css"), "body {}");
+        FileUtils.write(new File(assets, "index.html"), "<html></html>");
+    }
+
+    @Test
+    public void testFingerprinting() throws Exception {
+        mojo.execute();
+
+        Properties manifest = load();
+        assertThat(manifest.stringPropertyNames()).containsOnly("app.js", "css/style.css");
+        assertThat(manifest.getProperty("app.js")).matches("app\\.[0-9a-f]{10}\\.js");
+        assertThat(manifest.getProperty("css/style.css")).matches("css/style\\.[0-9a-f]{10}\\.css");
+
+        File copy = new File(assets, manifest.getProperty("app.js"));
+        assertThat(FileUtils.readFileToString(copy)).isEqualTo("var a = 1;");
+        assertThat(FingerprintAssetsMojo.isFingerprinted(copy)).isTrue();
+        assertThat(FingerprintAssetsMojo.isFingerprinted(new File(assets, "app.js"))).isFalse();
+
+        // Running again does not fingerprint the copies.
+        mojo.execute();
+        assertThat(load()).isEqualTo(manifest);
+    }
+
+    @Test
+    public void testStaleCopiesAreDeleted() throws Exception {
+        Map<String, String> manifest = mojo.fingerprint(assets);
+        File old = new File(assets, manifest.get("app.js"));
+        assertThat(old).isFile();
+
+        FileUtils.write(new File(assets, "app.js"), "var a = 2;");
+        FileUtils.deleteQuietly(new File(assets, "css/style.css"));
+        Map<String, String> updated = mojo.fingerprint(assets);
+
+        assertThat(updated).containsOnlyKeys("app.js");
+        assertThat(updated.get("app.js")).isNotEqualTo(manifest.get("app.js"));
+        assertThat(old).doesNotExist();
+        assertThat(new File(assets, manifest.get("css/style.css"))).doesNotExist();
+        assertThat(new File(assets, updated.get("app.js"))).isFile();
+    }
+
+    @Test
+    public void testWatchModeOnlyUpdatesTheChangedAssets() throws Exception {
+        Map<String, String> manifest = mojo.fingerprint(assets);
+        File source = new File(mojo.getInternalAssetsDirectory(), "app.js");
+        File style = new File(assets, manifest.get("css/style.css"));
+        // Detects a rehash of the stylesheet, as its copy would be re-created.
+        FileUtils.deleteQuietly(style);
+        new File(assets, "css/style.css").setLastModified(
+                new File(assets, FingerprintAssetsMojo.MANIFEST).lastModified() - 10000);
+
+        FileUtils.write(new File(assets, "app.js"), "var a = 2;");
+        FileUtils.write(new File(assets, "app-min.js"), "var a=2;");
+        mojo.fileUpdated(source);
+        Properties updated = load();
+        assertThat(updated.stringPropertyNames()).containsOnly("app.js", "app-min.js", "css/style.css");
+        assertThat(updated.getProperty("app.js")).isNotEqualTo(manifest.get("app.js"));
+        assertThat(updated.getProperty("css/style.css")).isEqualTo(manifest.get("css/style.css"));
+        assertThat(new File(assets, manifest.get("app.js"))).doesNotExist();
+        assertThat(new File(assets, updated.getProperty("app.js"))).isFile();
+        assertThat(style).doesNotExist();
+
+        FileUtils.deleteQuietly(new File(assets, "app.js"));
+        FileUtils.deleteQuietly(new File(assets, "app-min.js"));
+        mojo.fileDeleted(source);
+        assertThat(load().stringPropertyNames()).containsOnly("css/style.css");
+        assertThat(new File(assets, updated.getProperty("app.js"))).doesNotExist();
+    }
+
+    @Test
+    public void testWatchModeRehashesAssetsModifiedSinceTheManifest() throws Exception {
+        Map<String, String> manifest = mojo.fingerprint(assets);
+        File style = new File(assets, "css/style.css");
+        FileUtils.write(style, "body { color: red; }");
+        // An aggregation, not derived from the changed file.
+        style.setLastModified(new File(assets, FingerprintAssetsMojo.MANIFEST).lastModified() + 2000);
+
+        mojo.fileUpdated(new File(mojo.getInternalAssetsDirectory(), "app.js"));
+        Properties updated = load();
+        assertThat(updated.getProperty("css/style.css")).isNotEqualTo(manifest.get("css/style.css"));
+        assertThat(updated.getProperty("app.js")).isEqualTo(manifest.get("app.js"));
+    }
+
+    @Test
+    public void testGetFingerprintedName() {
+        assertThat(FingerprintAssetsMojo.getFingerprintedName("app.min.js", "0123456789"))
+                .isEqualTo("app.min.0123456789.js");
+        assertThat(FingerprintAssetsMojo.getFingerprintedName("LICENSE", "0123456789"))
+                .isEqualTo("LICENSE.0123456789");
+    }
+
+    private Properties load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream stream = new FileInputStream(new File(assets, FingerprintAssetsMojo.MANIFEST))) {
+            properties.load(stream);
+        }
+        return properties;
+    }
+}
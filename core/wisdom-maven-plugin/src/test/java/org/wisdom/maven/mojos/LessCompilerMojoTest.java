@@ -159,5 +159,20 @@ public class LessCompilerMojoTest {
         FileUtils.deleteQuietly(mojo.buildDirectory);
     }
 
-
+    @Test
+    public void testImportsAreTracked() throws IOException {
+        File root = new File("target/workbench/less-imports");
+        FileUtils.deleteQuietly(root);
+        File main = new File(root, "main.less");
+        FileUtils.write(main, "@import \"mixins\";\n@import (reference) 'partials/colors.less';\n" +
+                "@import url(\"http://fonts.example.com/font.css\");\n.a { color: @red; }");
+        File mixins = new File(root, "mixins.less");
+        FileUtils.write(mixins, "@import \"main\";\n.m() {}");
+        File colors = new File(root, "partials/colors.less");
+        FileUtils.write(colors, "@red: #f00;");
+
+        assertThat(LessCompilerMojo.getImports(main)).containsExactly(main.getAbsoluteFile(),
+                mixins.getAbsoluteFile(), colors.getAbsoluteFile());
+        assertThat(LessCompilerMojo.getImports(colors)).containsExactly(colors.getAbsoluteFile());
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.osgi;
+
+import aQute.bnd.osgi.Jar;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the jars shared across bundle packagings.
+ */
+public class ClasspathTest {
+
+    @Test
+    public void testSharedJars() throws IOException {
+        File file = new File("target/junk/shared/dependency.jar");
+        FileUtils.deleteQuietly(file);
+        createJar(file, "org/acme/Foo.class");
+
+        Jar jar = Classpath.getSharedJar("dependency", file);
+        assertThat(jar.getResource("org/acme/Foo.class")).isNotNull();
+        assertThat(Classpath.isShared(jar)).isTrue();
+        assertThat(Classpath.getSharedJar("dependency", file)).isSameAs(jar);
+
+        // The dependency is modified, the jar is read again
+        createJar(file, "org/acme/Bar.class");
+        assertThat(file.setLastModified(file.lastModified() - 10000)).isTrue();
+        Jar updated = Classpath.getSharedJar("dependency", file);
+        assertThat(updated).isNotSameAs(jar);
+        assertThat(updated.getResource("org/acme/Bar.class")).isNotNull();
+        assertThat(Classpath.isShared(updated)).isTrue();
+        assertThat(Classpath.isShared(jar)).isFalse();
+    }
+
+    @Test
+    public void testReleaseOfTheSharedJars() throws IOException {
+        File file = new File("target/junk/shared/released.jar");
+        FileUtils.deleteQuietly(file);
+        createJar(file, "org/acme/Foo.class");
+
+        Jar jar = Classpath.getSharedJar("released", file);
+        assertThat(Classpath.isShared(jar)).isTrue();
+
+        // Once released, the jar is not shared anymore, and is read again on the next build
+        Classpath.releaseSharedJars();
+        assertThat(Classpath.isShared(jar)).isFalse();
+        Jar reloaded = Classpath.getSharedJar("released", file);
+        assertThat(reloaded).isNotSameAs(jar);
+        assertThat(reloaded.getResource("org/acme/Foo.class")).isNotNull();
+    }
+
+    private static void createJar(File file, String entry) throws IOException {
+        file.getParentFile().mkdirs();
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+        try {
+            out.putNextEntry(new ZipEntry(entry));
+            out.write(new byte[]{1, 2, 3});
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.maven.plugin.logging.Log;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.wisdom.maven.BatchWatcher;
 import org.wisdom.maven.Watcher;
 import org.wisdom.maven.WatchingException;
 import org.wisdom.maven.utils.WatcherUtils;
@@ -33,10 +34,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -51,6 +55,7 @@ public class PipelineTest {
     private SpyWatcher textWatcher;
     private SpyWatcher mdWatcher;
     private Mojo mojo;
+    private Log log;
 
     @Before
     public void setUp() throws IOException {
@@ -58,7 +63,7 @@ public class PipelineTest {
         textWatcher = new SpyWatcher(SOURCES, "txt");
         mdWatcher = new SpyWatcher(SOURCES, "md");
         mojo = mock(Mojo.class);
-        Log log = mock(Log.class);
+        log = mock(Log.class);
         when(mojo.getLog()).thenReturn(log);
         pipeline = new Pipeline(mojo, FAKE, Arrays.asList(textWatcher, mdWatcher), false);
         pipeline.watch();
@@ -135,6 +140,108 @@ public class PipelineTest {
                 ("bad");
     }
 
+    @Test
+    public void testBurstsAreCoalesced() throws IOException {
+        File dir = new File(SOURCES, "burst");
+        for (int i = 0; i < 50; i++) {
+            File file = new File(dir, "file-" + i + ".txt");
+            FileUtils.write(file, "content");
+            FileUtils.write(file, "new content");
+        }
+        File temporary = new File(dir, "temporary.txt");
+        FileUtils.write(temporary, "temporary");
+        FileUtils.deleteQuietly(temporary);
+        waitPullPeriod();
+
+        assertThat(textWatcher.added).hasSize(50).doesNotContain("temporary.txt");
+        assertThat(textWatcher.updated).isEmpty();
+        assertThat(textWatcher.deleted).isEmpty();
+        if (pipeline.usesNativeEvents()) {
+            // A single pipeline run.
+            verify(log, times(1)).info("The watcher has detected 50 changes:");
+        }
+    }
+
+    @Test
+    public void testBurstsAreDispatchedOnceToBatchWatchers() throws IOException {
+        pipeline.shutdown();
+        BatchSpyWatcher batch = new BatchSpyWatcher(SOURCES, "txt");
+        pipeline = new Pipeline(mojo, FAKE, Arrays.asList(batch, mdWatcher), false);
+        pipeline.watch();
+
+        File dir = new File(SOURCES, "burst");
+        for (int i = 0; i < 20; i++) {
+            FileUtils.write(new File(dir, "file-" + i + ".txt"), "content");
+        }
+        FileUtils.write(new File(dir, "file.md"), "content");
+        waitPullPeriod();
+
+        assertThat(batch.added).hasSize(20);
+        assertThat(mdWatcher.added).containsExactly("file.md");
+        if (pipeline.usesNativeEvents()) {
+            assertThat(batch.notifications).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testFallbackWhenADirectoryCannotBeWatched() throws IOException {
+        pipeline.shutdown();
+        File missing = new File("target/fake-missing-source");
+        FileUtils.deleteQuietly(missing);
+        missing.mkdirs();
+        try {
+            // There is no 'src' directory, the pipeline polls it.
+            SpyWatcher watcher = new SpyWatcher(new File(missing, "src"), "txt");
+            pipeline = new Pipeline(mojo, missing, Arrays.asList(watcher), false);
+            pipeline.watch();
+            assertThat(pipeline.usesNativeEvents()).isFalse();
+
+            FileUtils.write(new File(missing, "src/touch.txt"), "content");
+            waitPullPeriod();
+            assertThat(watcher.added).containsExactly("touch.txt");
+        } finally {
+            FileUtils.deleteQuietly(missing);
+        }
+    }
+
+    @Test
+    public void testMoveOfADirectory() throws IOException {
+        File dir = new File(SOURCES, "foo");
+        FileUtils.write(new File(dir, "a.txt"), "a");
+        FileUtils.write(new File(dir, "nested/b.txt"), "b");
+        waitPullPeriod();
+        assertThat(textWatcher.added).containsOnly("a.txt", "b.txt");
+
+        FileUtils.moveDirectory(dir, new File(SOURCES, "bar"));
+        waitPullPeriod();
+        assertThat(textWatcher.deleted).containsOnly("a.txt", "b.txt");
+        assertThat(textWatcher.added).hasSize(4);
+        assertThat(textWatcher.updated).isEmpty();
+
+        // The moved directory is watched.
+        FileUtils.write(new File(SOURCES, "bar/nested/c.txt"), "c");
+        waitPullPeriod();
+        assertThat(textWatcher.added).hasSize(5).contains("c.txt");
+    }
+
+    @Test
+    public void testPollingFallback() throws IOException {
+        pipeline.shutdown();
+        System.setProperty("watch.polling", "true");
+        try {
+            pipeline = new Pipeline(mojo, FAKE, Arrays.asList(textWatcher, mdWatcher), false);
+            pipeline.watch();
+            assertThat(pipeline.usesNativeEvents()).isFalse();
+
+            File txt = new File(SOURCES, "touch.txt");
+            txt.createNewFile();
+            waitPullPeriod();
+            assertThat(textWatcher.added).containsExactly("touch.txt");
+        } finally {
+            System.clearProperty("watch.polling");
+        }
+    }
+
     private void waitPullPeriod() {
         try {
             Thread.sleep(2500);
@@ -180,6 +287,31 @@ public class PipelineTest {
         }
     }
 
+    private class BatchSpyWatcher extends SpyWatcher implements BatchWatcher {
+
+        int notifications;
+
+        public BatchSpyWatcher(File root, String extension) {
+            super(root, extension);
+        }
+
+        @Override
+        public boolean filesChanged(Collection<File> created, Collection<File> updated, Collection<File> deleted)
+                throws WatchingException {
+            notifications++;
+            for (File file : created) {
+                fileCreated(file);
+            }
+            for (File file : updated) {
+                fileUpdated(file);
+            }
+            for (File file : deleted) {
+                fileDeleted(file);
+            }
+            return true;
+        }
+    }
+
     private class BadWatcher extends SpyWatcher {
 
         public BadWatcher(File root, String extension) {
@@ -0,0 +1,294 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.testing.SilentLog;
+import org.junit.Before;
+import org.junit.Test;
+import org.wisdom.maven.WatchingException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the incremental and parallel execution of build steps.
+ */
+public class BuildStepEngineTest {
+
+    private File root = new File("target/workbench/build-steps");
+    private File manifest = new File(root, "manifest");
+    private Mojo mojo;
+
+    @Before
+    public void setUp() throws IOException {
+        FileUtils.deleteQuietly(root);
+        root.mkdirs();
+        mojo = mock(Mojo.class);
+        when(mojo.getLog()).thenReturn(new SilentLog());
+    }
+
+    @Test
+    public void testUnchangedStepsAreSkipped() throws IOException, WatchingException {
+        File a = write("a.txt", "a");
+        File b = write("b.txt", "b");
+        CopyStep stepA = new CopyStep(a);
+        CopyStep stepB = new CopyStep(b);
+        List<CopyStep> steps = Arrays.asList(stepA, stepB);
+
+        assertThat(engine(true).execute(steps)).isEqualTo(2);
+        assertThat(FileUtils.readFileToString(stepA.output)).isEqualTo("a");
+
+        // Nothing has changed, even with a new engine (the manifest is persisted).
+        assertThat(engine(true).execute(steps)).isEqualTo(0);
+        assertThat(stepA.executions.get()).isEqualTo(1);
+
+        // Touching a file without changing its content does not trigger the step.
+        write("a.txt", "a");
+        assertThat(engine(true).execute(steps)).isEqualTo(0);
+
+        write("a.txt", "a2");
+        assertThat(engine(true).execute(steps)).isEqualTo(1);
+        assertThat(stepA.executions.get()).isEqualTo(2);
+        assertThat(stepB.executions.get()).isEqualTo(1);
+        assertThat(FileUtils.readFileToString(stepA.output)).isEqualTo("a2");
+
+        // Missing output.
+        FileUtils.deleteQuietly(stepB.output);
+        assertThat(engine(true).execute(steps)).isEqualTo(1);
+        assertThat(stepB.output).isFile();
+
+        // Not incremental.
+        assertThat(engine(false).execute(steps)).isEqualTo(2);
+    }
+
+    @Test
+    public void testAggregationIsRecomputedWhenAMemberChanges() throws IOException, WatchingException {
+        File a = write("a.txt", "a");
+        File b = write("b.txt", "b");
+        CopyStep aggregation = new CopyStep(a, b);
+
+        assertThat(engine(true).execute(Collections.singletonList(aggregation))).isEqualTo(1);
+        assertThat(FileUtils.readFileToString(aggregation.output)).isEqualTo("ab");
+        assertThat(engine(true).execute(Collections.singletonList(aggregation))).isEqualTo(0);
+
+        write("b.txt", "b2");
+        assertThat(engine(true).execute(Collections.singletonList(aggregation))).isEqualTo(1);
+        assertThat(FileUtils.readFileToString(aggregation.output)).isEqualTo("ab2");
+
+        // Changing the configuration triggers the step too.
+        aggregation.configuration = "v2";
+        assertThat(engine(true).execute(Collections.singletonList(aggregation))).isEqualTo(1);
+    }
+
+    @Test
+    public void testInPlaceModification() throws IOException, WatchingException {
+        final File file = write("image.txt", "raw");
+        final AtomicInteger executions = new AtomicInteger();
+        BuildStep step = new BuildStep(file.getAbsolutePath()) {
+            @Override
+            public Collection<File> getInputs() {
+                return Collections.singletonList(file);
+            }
+
+            @Override
+            public boolean modifiesInputs() {
+                return true;
+            }
+
+            @Override
+            public void execute() throws WatchingException {
+                executions.incrementAndGet();
+                try {
+                    FileUtils.write(file, "optimized");
+                } catch (IOException e) {
+                    throw new WatchingException(e.getMessage(), e);
+                }
+            }
+        };
+
+        engine(true).execute(Collections.singletonList(step));
+        engine(true).execute(Collections.singletonList(step));
+        assertThat(executions.get()).isEqualTo(1);
+
+        // The file is replaced by a new raw version.
+        write("image.txt", "raw");
+        engine(true).execute(Collections.singletonList(step));
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInputModifiedDuringTheExecution() throws IOException, WatchingException {
+        final File a = write("a.txt", "a");
+        CopyStep step = new CopyStep(a) {
+            @Override
+            public void execute() throws WatchingException {
+                super.execute();
+                if (executions.get() == 1) {
+                    // The file is saved again while the step is running.
+                    try {
+                        FileUtils.write(a, "a2");
+                    } catch (IOException e) {
+                        throw new WatchingException(e.getMessage(), e);
+                    }
+                }
+            }
+        };
+
+        assertThat(engine(true).execute(Collections.singletonList(step))).isEqualTo(1);
+        assertThat(FileUtils.readFileToString(step.output)).isEqualTo("a");
+
+        // The fingerprint was taken before the modification, so the step is executed again.
+        assertThat(engine(true).execute(Collections.singletonList(step))).isEqualTo(1);
+        assertThat(FileUtils.readFileToString(step.output)).isEqualTo("a2");
+        assertThat(engine(true).execute(Collections.singletonList(step))).isEqualTo(0);
+    }
+
+    @Test
+    public void testFailures() throws IOException {
+        List<CopyStep> steps = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            steps.add(new CopyStep(write(i + ".txt", "content-" + i)));
+        }
+        steps.get(2).failing = true;
+        steps.get(7).failing = true;
+
+        try {
+            engine(true).execute(steps);
+            fail("Exception expected");
+        } catch (WatchingException e) {
+            assertThat(e.getMessage()).contains("2.txt");
+            assertThat(e.getSuppressed()).hasSize(1);
+        }
+        // The other steps have been executed and recorded.
+        assertThat(steps.get(9).output).isFile();
+
+        steps.get(2).failing = false;
+        steps.get(7).failing = false;
+        try {
+            assertThat(engine(true).execute(steps)).isEqualTo(2);
+        } catch (WatchingException e) {
+            fail("Unexpected failure", e);
+        }
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() throws IOException, WatchingException {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        List<CopyStep> steps = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            steps.add(new CopyStep(write(i + ".txt", "content-" + i)) {
+                @Override
+                public void execute() throws WatchingException {
+                    int current = running.incrementAndGet();
+                    synchronized (max) {
+                        max.set(Math.max(max.get(), current));
+                    }
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    super.execute();
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        new BuildStepEngine("test", manifest, 3, true, mojo).execute(steps);
+        assertThat(max.get()).isGreaterThan(1).isLessThanOrEqualTo(3);
+        for (CopyStep step : steps) {
+            assertThat(step.output).isFile();
+        }
+    }
+
+    private BuildStepEngine engine(boolean incremental) {
+        return new BuildStepEngine("test", manifest, 4, incremental, mojo);
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(root, name);
+        FileUtils.write(file, content);
+        return file;
+    }
+
+    /**
+     * Concatenates its inputs into an output file.
+     */
+    private class CopyStep extends BuildStep {
+
+        final List<File> inputs;
+        final File output;
+        final AtomicInteger executions = new AtomicInteger();
+        String configuration = "v1";
+        boolean failing;
+
+        CopyStep(File... inputs) {
+            super(new File(root, "out/" + inputs[0].getName()).getAbsolutePath());
+            this.inputs = Arrays.asList(inputs);
+            this.output = new File(getId());
+        }
+
+        @Override
+        public Collection<File> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public Collection<File> getOutputs() {
+            return Collections.singletonList(output);
+        }
+
+        @Override
+        public String getConfiguration() {
+            return configuration;
+        }
+
+        @Override
+        public void execute() throws WatchingException {
+            executions.incrementAndGet();
+            if (failing) {
+                throw new WatchingException("Cannot process " + inputs.get(0).getName());
+            }
+            StringBuilder content = new StringBuilder();
+            try {
+                for (File input : inputs) {
+                    content.append(FileUtils.readFileToString(input));
+                }
+                FileUtils.write(output, content.toString());
+            } catch (IOException e) {
+                throw new WatchingException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.maven.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.maven.mojos.AbstractWisdomMojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Checks the location of the class data sharing archive.
+ */
+public class ClassDataSharingTest {
+
+    private final File root = new File("target/junk/cds");
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(root);
+    }
+
+    @Test
+    public void testNoArgumentsWithoutArchive() {
+        assertThat(ClassDataSharing.getArchive(root)).isNull();
+        assertThat(ClassDataSharing.getJvmArguments(root)).isEmpty();
+    }
+
+    @Test
+    public void testArgumentsWithArchive() throws IOException {
+        File archive = new File(root, ClassDataSharing.DIRECTORY + "/" + ClassDataSharing.ARCHIVE);
+        FileUtils.write(archive, "archive");
+
+        assertThat(ClassDataSharing.getArchive(root)).isEqualTo(archive);
+        List<String> arguments = ClassDataSharing.getJvmArguments(root);
+        assertThat(arguments).contains("-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-Xshare:auto");
+        // The unlock option must come first.
+        assertThat(arguments.get(0)).isEqualTo("-XX:+UnlockDiagnosticVMOptions");
+    }
+
+    @Test
+    public void testGenerationFailsWithoutServer() {
+        AbstractWisdomMojo mojo = new AbstractWisdomMojo() {
+            @Override
+            public void execute() {
+                // Do nothing.
+            }
+        };
+        mojo.wisdomDirectory = root;
+        mojo.javaHome = new File(System.getProperty("java.home"));
+        try {
+            new ClassDataSharing(mojo).generate(0, Collections.singletonList("/"), 1);
+            fail("The generation should fail without the Chameleon launcher");
+        } catch (MojoExecutionException e) {
+            assertThat(e.getMessage()).contains("does not exist");
+        }
+        assertThat(ClassDataSharing.getArchive(root)).isNull();
+    }
+}
@@ -178,11 +178,13 @@ public final class ChameleonExecutor {
      * <p>
      * Initially, this method was returning {@code null}. In the 0.7 version, it changes to {@code Bundle}. The
      * returned object is the installed bundle.
+     * <p>
+     * This method is synchronized as test classes can be initialized concurrently (parallel execution).
      *
      * @return the probe bundle.
      * @throws BundleException if the probe bundle cannot be started.
      */
-    public Bundle deployProbe() throws BundleException {
+    public synchronized Bundle deployProbe() throws BundleException {
         for (Bundle bundle : ChameleonInstanceHolder.get().context().getBundles()) {
             if (bundle.getSymbolicName().equals(ProbeBundleMaker.BUNDLE_NAME)) {
                 return bundle;
@@ -200,8 +202,10 @@ public final class ChameleonExecutor {
     /**
      * Builds and deploy the application bundle.
      * This method is called the application bundle is not in the runtime or application directories.
+     * <p>
+     * This method is synchronized as test classes can be initialized concurrently (parallel execution).
      */
-    public void deployApplication() throws BundleException {
+    public synchronized void deployApplication() throws BundleException {
         File application = new File(APPLICATION_BUNDLE);
         File base = new File(".");
         if (!application.isFile()) {
@@ -20,6 +20,9 @@
 package org.wisdom.test.internals;
 
 import aQute.bnd.osgi.*;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.reflect.ClassPath;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -58,6 +61,12 @@ public class ProbeBundleMaker {
      */
     public static final String PROBE_FILE = "target/osgi/probe.jar";
 
+    /**
+     * The path of the file storing the fingerprint of the test classes, resources and project metadata used to
+     * build the probe bundle.
+     */
+    public static final String PROBE_FINGERPRINT_FILE = "target/osgi/probe.fingerprint";
+
     /**
      * The test classes path.
      */
@@ -66,10 +75,15 @@ public class ProbeBundleMaker {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProbeBundleMaker.class);
 
     static {
-        // At initialization, delete the probe bundle if exist
+        // At initialization, delete the probe bundle if the test classes or resources have changed since it was built
         File probe = new File(PROBE_FILE);
         if (probe.isFile()) {
-            FileUtils.deleteQuietly(probe);
+            if (isUpToDate(new File(PROBE_FINGERPRINT_FILE), fingerprint())) {
+                LOGGER.info("Reusing the probe bundle " + probe.getAbsolutePath() + ", the test classes have not " +
+                        "changed since it was built");
+            } else {
+                FileUtils.deleteQuietly(probe);
+            }
         }
     }
 
@@ -83,6 +97,9 @@ public class ProbeBundleMaker {
             return new FileInputStream(probe);
         }
 
+        // Computed before building the probe, so a change made during the build invalidates it.
+        String fingerprint = fingerprint();
+
         Properties maven = BundlePackager.readMavenProperties(new File("."));
 
         Properties instructions = new Properties();
@@ -99,11 +116,111 @@ public class ProbeBundleMaker {
         classLoader.addURL(tests.toURI().toURL());
         Pojoization pojoization = new Pojoization();
         pojoization.pojoization(bnd, probe, new File("src/test/resources"), classLoader);
-        reportErrors("iPOJO ~> ", pojoization.getWarnings(), pojoization.getErrors());
+        if (!reportErrors("iPOJO ~> ", pojoization.getWarnings(), pojoization.getErrors())) {
+            FileUtils.writeStringToFile(new File(PROBE_FINGERPRINT_FILE), fingerprint, Charsets.UTF_8);
+        }
 
         return new FileInputStream(probe);
     }
 
+    /**
+     * Computes the fingerprint of the inputs of the probe bundle, i.e. the test classes, the test resources, the
+     * Wisdom Test classes, the Maven metadata ({@literal target/osgi/osgi.properties}) and the resolved
+     * dependencies ({@literal target/osgi/dependencies.json}).
+     *
+     * @return the fingerprint
+     */
+    static String fingerprint() {
+        List<File> roots = new ArrayList<>();
+        roots.add(new File(TEST_CLASSES));
+        roots.add(new File("src/test/resources"));
+        try {
+            roots.add(new File(ProbeBundleMaker.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        } catch (Exception e) { // NOSONAR
+            // Cannot locate the Wisdom Test classes, ignore them.
+        }
+        return fingerprint(roots, Arrays.asList(new File(org.wisdom.maven.Constants.OSGI_PROPERTIES),
+                new File(org.wisdom.maven.Constants.DEPENDENCIES_FILE)));
+    }
+
+    /**
+     * Computes a fingerprint from the path, size and last modification date of the given files and of the files
+     * they contain (for directories).
+     *
+     * @param roots the files and directories
+     * @return the fingerprint, changed when a file is added, removed or modified
+     */
+    static String fingerprint(List<File> roots) {
+        return fingerprint(roots, Collections.<File>emptyList());
+    }
+
+    /**
+     * Computes a fingerprint from the path, size and last modification date of the given roots and of the files
+     * they contain (for directories), and from the content of the given metadata files. These files are written by
+     * each build, so their content is used instead of their modification date. Comment lines are ignored, as
+     * properties files start with the date they were written.
+     *
+     * @param roots    the files and directories
+     * @param metadata the metadata files, missing files are ignored
+     * @return the fingerprint, changed when a file is added, removed or modified
+     */
+    static String fingerprint(List<File> roots, List<File> metadata) {
+        Hasher hasher = Hashing.sha1().newHasher();
+        for (File file : metadata) {
+            hasher.putString(file.getAbsolutePath(), Charsets.UTF_8);
+            if (!file.isFile()) {
+                continue;
+            }
+            try {
+                for (String line : FileUtils.readLines(file, Charsets.UTF_8)) {
+                    if (!line.startsWith("#")) {
+                        hasher.putString(line, Charsets.UTF_8);
+                    }
+                }
+            } catch (IOException e) { // NOSONAR
+                // Cannot be read, so the probe cannot be reused.
+                hasher.putLong(System.nanoTime());
+            }
+        }
+        for (File root : roots) {
+            hasher.putString(root.getAbsolutePath(), Charsets.UTF_8);
+            if (root.isDirectory()) {
+                List<File> files = new ArrayList<>(FileUtils.listFiles(root, null, true));
+                Collections.sort(files);
+                for (File file : files) {
+                    hash(hasher, file);
+                }
+            } else if (root.isFile()) {
+                hash(hasher, root);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void hash(Hasher hasher, File file) {
+        hasher.putString(file.getAbsolutePath(), Charsets.UTF_8)
+                .putLong(file.length())
+                .putLong(file.lastModified());
+    }
+
+    /**
+     * Checks whether the fingerprint stored in the given file is the given one.
+     *
+     * @param file        the file storing the fingerprint of the last built probe
+     * @param fingerprint the current fingerprint
+     * @return {@code true} if the fingerprints are equal, {@code false} otherwise or if the file cannot be read
+     */
+    static boolean isUpToDate(File file, String fingerprint) {
+        if (!file.isFile()) {
+            return false;
+        }
+        try {
+            return fingerprint.equals(FileUtils.readFileToString(file, Charsets.UTF_8).trim());
+        } catch (IOException e) { // NOSONAR
+            return false;
+        }
+    }
+
     private static void getProbeInstructions(Properties instructions, Properties maven) throws IOException {
         List<String> privates = new ArrayList<>();
         List<String> exports = new ArrayList<>();
@@ -21,11 +21,14 @@ package org.wisdom.test.shared;
 
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
 import org.osgi.framework.BundleContext;
 import org.ow2.chameleon.testing.helpers.OSGiHelper;
 import org.ow2.chameleon.testing.helpers.Stability;
 import org.ow2.chameleon.testing.helpers.TimeUtils;
+import org.wisdom.api.http.Context;
 import org.wisdom.test.parents.DependencyInjector;
 
 /**
@@ -52,6 +55,31 @@ public class InVivoRunner extends BlockJUnit4ClassRunner {
         return object;
     }
 
+    /**
+     * Isolates the HTTP context of each test method. As test classes may be executed concurrently by a pool of
+     * threads, the context set by a test must not leak to the next test executed by the same thread. The isolation
+     * wraps the whole method block, so the {@code @Before} and {@code @After} methods share the context of the
+     * test.
+     *
+     * @param method the test method
+     * @return the statement executing the befores, the method and the afters
+     */
+    @Override
+    protected Statement methodBlock(FrameworkMethod method) {
+        final Statement statement = super.methodBlock(method);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                Context.CONTEXT.remove();
+                try {
+                    statement.evaluate();
+                } finally {
+                    Context.CONTEXT.remove();
+                }
+            }
+        };
+    }
+
     @Override
     public void run(RunNotifier notifier) {
         super.run(notifier);
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.test.internals;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the fingerprint used to reuse the probe bundle.
+ */
+public class ProbeBundleMakerTest {
+
+    @Test
+    public void testFingerprint() throws Exception {
+        File root = new File("target/junk/probe-fingerprint");
+        FileUtils.deleteQuietly(root);
+        File classes = new File(root, "classes");
+        File clazz = new File(classes, "org/acme/MyTest.class");
+        FileUtils.writeStringToFile(clazz, "hello", Charsets.UTF_8);
+        List<File> roots = ImmutableList.of(classes, new File(root, "missing"));
+
+        String fingerprint = ProbeBundleMaker.fingerprint(roots);
+        assertThat(ProbeBundleMaker.fingerprint(roots)).isEqualTo(fingerprint);
+
+        // Modified file
+        FileUtils.writeStringToFile(clazz, "hello world", Charsets.UTF_8);
+        String modified = ProbeBundleMaker.fingerprint(roots);
+        assertThat(modified).isNotEqualTo(fingerprint);
+
+        // Added file
+        FileUtils.writeStringToFile(new File(classes, "org/acme/OtherTest.class"), "hello", Charsets.UTF_8);
+        assertThat(ProbeBundleMaker.fingerprint(roots)).isNotEqualTo(modified);
+    }
+
+    @Test
+    public void testFingerprintOfTheMetadata() throws Exception {
+        File root = new File("target/junk/probe-fingerprint");
+        FileUtils.deleteQuietly(root);
+        File properties = new File(root, "osgi.properties");
+        File dependencies = new File(root, "dependencies.json");
+        FileUtils.writeStringToFile(properties, "#Mon Oct 19 10:00:00 CEST 2026\nproject.version=1.0\n",
+                Charsets.UTF_8);
+        FileUtils.writeStringToFile(dependencies, "{ \"direct\" : [ \"a:b:1.0\" ] }", Charsets.UTF_8);
+        List<File> roots = ImmutableList.of(new File(root, "classes"));
+        List<File> metadata = ImmutableList.of(properties, dependencies);
+
+        String fingerprint = ProbeBundleMaker.fingerprint(roots, metadata);
+
+        // Written again by the next build, with another date.
+        FileUtils.writeStringToFile(properties, "#Mon Oct 19 11:00:00 CEST 2026\nproject.version=1.0\n",
+                Charsets.UTF_8);
+        properties.setLastModified(properties.lastModified() + 10000);
+        assertThat(ProbeBundleMaker.fingerprint(roots, metadata)).isEqualTo(fingerprint);
+
+        // Modified metadata
+        FileUtils.writeStringToFile(properties, "project.version=1.1\n", Charsets.UTF_8);
+        String modified = ProbeBundleMaker.fingerprint(roots, metadata);
+        assertThat(modified).isNotEqualTo(fingerprint);
+
+        // Modified dependencies
+        FileUtils.writeStringToFile(dependencies, "{ \"direct\" : [ \"a:b:2.0\" ] }", Charsets.UTF_8);
+        assertThat(ProbeBundleMaker.fingerprint(roots, metadata)).isNotEqualTo(modified);
+    }
+
+    @Test
+    public void testIsUpToDate() throws Exception {
+        File file = new File("target/junk/probe-fingerprint/probe.fingerprint");
+        FileUtils.deleteQuietly(file);
+        assertThat(ProbeBundleMaker.isUpToDate(file, "abc")).isFalse();
+
+        FileUtils.writeStringToFile(file, "abc", Charsets.UTF_8);
+        assertThat(ProbeBundleMaker.isUpToDate(file, "abc")).isTrue();
+        assertThat(ProbeBundleMaker.isUpToDate(file, "def")).isFalse();
+    }
+}
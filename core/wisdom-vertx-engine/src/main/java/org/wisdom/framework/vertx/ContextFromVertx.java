@@ -66,6 +66,11 @@ public class ContextFromVertx implements Context {
     private RequestFromVertx request;
     private org.vertx.java.core.Context vertxContext;
 
+    /**
+     * The timer measuring the processing phases, {@literal null} if the request is not measured.
+     */
+    private RequestTimer timer;
+
 
     /**
      * Creates a new context.
@@ -524,6 +529,22 @@ public class ContextFromVertx implements Context {
         this.route = route;
     }
 
+    /**
+     * @return the timer measuring the processing of the request, {@literal null} if the request is not measured.
+     */
+    RequestTimer timer() {
+        return timer;
+    }
+
+    /**
+     * Sets the timer measuring the processing of the request.
+     *
+     * @param timer the timer
+     */
+    void timer(RequestTimer timer) {
+        this.timer = timer;
+    }
+
     /**
      * Check if request is of type multipart. Important when you want to process
      * uploads for instance.
@@ -19,6 +19,8 @@
  */
 package org.wisdom.framework.vertx;
 
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -34,8 +36,13 @@ import org.vertx.java.core.http.HttpServerRequest;
 import org.vertx.java.core.http.HttpServerResponse;
 import org.vertx.java.core.streams.Pump;
 import org.wisdom.api.bodies.NoHttpBody;
+import org.wisdom.api.bodies.RenderableString;
 import org.wisdom.api.concurrent.ManagedFutureTask;
 import org.wisdom.api.content.ContentCodec;
+import org.wisdom.api.engine.RequestTimingListener;
+import org.wisdom.api.engine.RequestTimings;
+import org.wisdom.api.engine.RequestTimings.Phase;
+import org.wisdom.api.engine.TraceContext;
 import org.wisdom.api.http.*;
 import org.wisdom.api.router.Route;
 import org.wisdom.framework.vertx.cookies.CookieHelper;
@@ -56,9 +63,16 @@ public class HttpHandler implements Handler<HttpServerRequest> {
     private static final String SERVER_NAME = "Wisdom-Framework/" + BuildConstants.WISDOM_VERSION + " VertX/" +
             BuildConstants.VERTX_VERSION;
 
+    /**
+     * The configuration key enabling the computation of the entity tags of the dynamic responses. As the response
+     * must be buffered and hashed before being written, entity tags are not computed by default.
+     */
+    public static final String HTTP_COMPUTE_ETAG = "http.computeETag";
+
     private final static Logger LOGGER = LoggerFactory.getLogger(HttpHandler.class);
     private final ServiceAccessor accessor;
     private final Vertx vertx;
+    private final boolean computeETags;
 
 
     /**
@@ -70,6 +84,9 @@ public class HttpHandler implements Handler<HttpServerRequest> {
     public HttpHandler(Vertx vertx, ServiceAccessor accessor) {
         this.accessor = accessor;
         this.vertx = vertx;
+        Boolean computeETag = accessor.getConfiguration() != null ?
+                accessor.getConfiguration().getBooleanWithDefault(HTTP_COMPUTE_ETAG, false) : null;
+        this.computeETags = computeETag != null && computeETag;
     }
 
     /**
@@ -84,8 +101,12 @@ public class HttpHandler implements Handler<HttpServerRequest> {
     public void handle(final HttpServerRequest request) {
         LOGGER.debug("A request has arrived on the server : {} {}", request.method(), request.path());
         final ContextFromVertx context = new ContextFromVertx(vertx, accessor, request);
+        if (!accessor.getTimingListeners().isEmpty()) {
+            context.timer(new RequestTimer());
+        }
         request.endHandler(new VoidHandler() {
             public void handle() {
+                mark(context, Phase.READ);
                 // Notifies the context that the request has been read, we start the dispatching.
                 if (context.ready()) {
                     // Dispatch.
@@ -110,15 +131,73 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             context.cleanup();
         }
         Context.CONTEXT.remove();
+        TraceContext.TRACE_ID.remove();
     }
 
 
+    /**
+     * Ends the given processing phase, if the request is measured.
+     *
+     * @param context the context
+     * @param phase   the phase
+     */
+    private static void mark(ContextFromVertx context, Phase phase) {
+        RequestTimer timer = context.timer();
+        if (timer != null) {
+            timer.mark(phase);
+        }
+    }
+
+    /**
+     * Records that the processing of the request continues on the current thread, if the request is measured.
+     *
+     * @param context the context
+     * @param name    the name of the step
+     */
+    private static void hop(ContextFromVertx context, String name) {
+        RequestTimer timer = context.timer();
+        if (timer != null) {
+            timer.hop(name);
+        }
+    }
+
+    /**
+     * The response has been written, notifies the timing listeners if the request is measured.
+     *
+     * @param context the context
+     * @param status  the response status
+     * @param size    the size of the response body, {@literal -1} if unknown
+     */
+    private void completed(ContextFromVertx context, int status, long size) {
+        RequestTimer timer = context.timer();
+        if (timer == null) {
+            return;
+        }
+        Route route = context.route();
+        String template = route == null || route.isUnbound() ? null : route.getUrl();
+        RequestTimings timings = timer.stop(context.request().method(), template, status, size);
+        if (timings == null) {
+            return;
+        }
+        for (RequestTimingListener listener : accessor.getTimingListeners()) {
+            try {
+                listener.onRequestCompleted(timings);
+            } catch (RuntimeException e) {
+                LOGGER.error("The request timing listener {} has thrown an exception", listener, e);
+            }
+        }
+    }
+
     private void dispatch(ContextFromVertx context, RequestFromVertx request) {
         LOGGER.debug("Dispatching {} {}", context.request().method(), context.path());
         // 2 Register context
         Context.CONTEXT.set(context);
+        if (context.timer() != null) {
+            TraceContext.TRACE_ID.set(context.timer().traceId());
+        }
         // 3 Get route for context
         Route route = accessor.getRouter().getRouteFor(context.request().method(), context.path());
+        mark(context, Phase.ROUTING);
         Result result;
 
         if (route == null) {
@@ -136,6 +215,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 handleAsyncResult(context, request, (AsyncResult) result);
                 return;
             }
+            mark(context, Phase.INVOCATION);
         }
 
         // Synchronous processing or not found.
@@ -174,10 +254,13 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             final RequestFromVertx request,
             final AsyncResult asyncResult) {
 
+        hop(context, "async-submit");
         ManagedFutureTask<Result> future = accessor.getExecutor().submit(asyncResult.callable());
         Futures.addCallback(future, new FutureCallback<Result>() {
             @Override
             public void onSuccess(Result result) {
+                mark(context, Phase.INVOCATION);
+                hop(context, "async-result");
                 // We got a result, write it here.
                 // Merge the headers of the initial result and the async results.
                 final Map<String, String> headers = result.getHeaders();
@@ -192,6 +275,8 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             @Override
             public void onFailure(Throwable t) {
                 //We got a failure, handle it here
+                mark(context, Phase.INVOCATION);
+                hop(context, "async-result");
                 writeResponse(context, request, Results.internalServerError(t), false, true);
             }
         }/*, MoreExecutors.directExecutor()*/);
@@ -212,6 +297,21 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             renderable = NoHttpBody.INSTANCE;
         }
 
+        // Conditional request, if the result has an entity tag, check it before rendering.
+        boolean conditional = isConditional(context, result);
+        if (conditional && ETags.isNotModified(context, result.getHeaders().get(HeaderNames.ETAG))) {
+            writeNotModified(context, request, result, handleFlashAndSessionCookie, fromAsync);
+            return;
+        }
+
+        // The response to a HEAD request carries the validator of the GET response, so it is only written without
+        // rendering if the tag does not have to be computed from the body.
+        if (HttpUtils.isHead(context.request().method())
+                && !shouldComputeETag(context, result, renderable)
+                && writeHeadResponse(context, request, result, renderable, handleFlashAndSessionCookie, fromAsync)) {
+            return;
+        }
+
         InputStream stream;
         boolean success = true;
         try {
@@ -223,31 +323,153 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             success = false;
         }
 
-        if (accessor.getContentEngines().getContentEncodingHelper().shouldEncode(context, result, renderable)) {
-            ContentCodec codec = null;
-
-            for (String encoding :
-                    accessor.getContentEngines().getContentEncodingHelper()
-                            .parseAcceptEncodingHeader(context.request().getHeader(HeaderNames.ACCEPT_ENCODING))) {
-                codec = accessor.getContentEngines().getContentCodecForEncodingType(encoding);
-                if (codec != null) break;
+        // Compute the entity tag from the serialized body, before the compression.
+        if (success && shouldComputeETag(context, result, renderable)) {
+            byte[] body;
+            try {
+                body = IOUtils.toByteArray(stream);
+            } catch (IOException e) {
+                LOGGER.error("Cannot read the response to {}", request.uri(), e);
+                body = NoHttpBody.EMPTY;
+                success = false;
             }
-
-            // We found a codec.
-            if (codec != null) {
-                result.with(HeaderNames.CONTENT_ENCODING, codec.getEncodingType());
-                proceedAsyncEncoding(context, request, codec, stream, result, success,
-                        handleFlashAndSessionCookie,
-                        fromAsync);
-                return;
+            stream = new ByteArrayInputStream(body);
+            if (success) {
+                String etag = HttpUtils.computeETag(body);
+                result.with(HeaderNames.ETAG, etag);
+                if (conditional && ETags.isNotModified(context, etag)) {
+                    writeNotModified(context, request, result, handleFlashAndSessionCookie, fromAsync);
+                    return;
+                }
             }
-            //No encoding possible, do the finalize
         }
 
+        mark(context, Phase.SERIALIZATION);
+
+        ContentCodec codec = getCodec(context, result, renderable);
+        // We found a codec.
+        if (codec != null) {
+            result.with(HeaderNames.CONTENT_ENCODING, codec.getEncodingType());
+            weakenETag(result);
+            proceedAsyncEncoding(context, request, codec, stream, result, success,
+                    handleFlashAndSessionCookie,
+                    fromAsync);
+            return;
+        }
+        //No encoding possible, do the finalize
+
         finalizeWriteReponse(context, request.getVertxRequest(),
                 result, stream, success, handleFlashAndSessionCookie, fromAsync);
     }
 
+    /**
+     * Gets the codec used to encode the response, according to the {@literal Accept-Encoding} header of the request.
+     *
+     * @return the codec, {@code null} if the response must not be encoded
+     */
+    private ContentCodec getCodec(ContextFromVertx context, Result result, Renderable<?> renderable) {
+        if (!accessor.getContentEngines().getContentEncodingHelper().shouldEncode(context, result, renderable)) {
+            return null;
+        }
+        for (String encoding :
+                accessor.getContentEngines().getContentEncodingHelper()
+                        .parseAcceptEncodingHeader(context.request().getHeader(HeaderNames.ACCEPT_ENCODING))) {
+            ContentCodec codec = accessor.getContentEngines().getContentCodecForEncodingType(encoding);
+            if (codec != null) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The encoded representation is not byte-identical to the tagged one, so the tag of the result becomes weak.
+     */
+    private static void weakenETag(Result result) {
+        String etag = result.getHeaders().get(HeaderNames.ETAG);
+        if (etag != null) {
+            result.with(HeaderNames.ETAG, ETags.weak(etag));
+        }
+    }
+
+    /**
+     * Checks whether the request is a conditional request that can be answered with a {@literal 304 - NOT
+     * MODIFIED} response: a GET or HEAD request, with the {@literal If-None-Match} header, for a successful result.
+     */
+    private static boolean isConditional(ContextFromVertx context, Result result) {
+        return result.getStatusCode() == Status.OK
+                && HttpUtils.isGetOrHead(context.request().method())
+                && context.header(HeaderNames.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * Checks whether the entity tag of the response must be computed from the serialized body. Chunked
+     * responses, error responses, and responses that must not be stored are not tagged.
+     */
+    private boolean shouldComputeETag(ContextFromVertx context, Result result, Renderable<?> renderable) {
+        if (!computeETags
+                || result.getStatusCode() != Status.OK
+                || renderable.mustBeChunked()
+                || result.getHeaders().containsKey(HeaderNames.ETAG)
+                || !HttpUtils.isGetOrHead(context.request().method())) {
+            return false;
+        }
+        String cacheControl = result.getHeaders().get(HeaderNames.CACHE_CONTROL);
+        return cacheControl == null || !cacheControl.contains("no-store");
+    }
+
+    /**
+     * Writes a {@literal 304 - NOT MODIFIED} response. The headers (entity tag, cache control...) and cookies of
+     * the result are kept, but the body is not sent.
+     */
+    private void writeNotModified(ContextFromVertx context, RequestFromVertx request, Result result,
+                                  boolean handleFlashAndSessionCookie, boolean fromAsync) {
+        LOGGER.debug("Not modified response for {}", request.uri());
+        result.status(Status.NOT_MODIFIED).render(NoHttpBody.INSTANCE);
+        result.getHeaders().remove(HeaderNames.CONTENT_LENGTH);
+        finalizeWriteReponse(context, request.getVertxRequest(), result, new ByteArrayInputStream(NoHttpBody.EMPTY),
+                true, handleFlashAndSessionCookie, fromAsync);
+    }
+
+    /**
+     * Writes the response to a {@literal HEAD} request: the headers of the response to the {@literal GET} request,
+     * without rendering the body. This is only possible if the renderable object knows its length (objects
+     * requiring a serializer don't) and the response is not encoded, as Vert.x always announces a length (an empty
+     * body by default). Otherwise, the response is rendered (and encoded) as for a {@literal GET} request to compute
+     * the {@literal Content-Length}, and the body is not sent.
+     *
+     * @return {@code true} if the response has been written, {@code false} if the length is unknown
+     */
+    private boolean writeHeadResponse(ContextFromVertx context, RequestFromVertx request, Result result,
+                                      Renderable<?> renderable, boolean handleFlashAndSessionCookie,
+                                      boolean fromAsync) {
+        if (renderable instanceof RenderableString && result.getCharset() == null) {
+            // Rendering a String sets the charset, keep the content type of the GET response.
+            result.with(Charsets.UTF_8);
+        }
+        if (getCodec(context, result, renderable) != null) {
+            // The length of the encoded representation is only known once encoded.
+            return false;
+        }
+        if (!result.getHeaders().containsKey(HeaderNames.CONTENT_LENGTH)) {
+            long length = renderable.requireSerializer()
+                    || renderable instanceof RenderableString && !Charsets.UTF_8.equals(result.getCharset())
+                    ? -1 : renderable.length();
+            if (length < 0) {
+                return false;
+            }
+            result.with(HeaderNames.CONTENT_LENGTH, Long.toString(length));
+        }
+        if (result.getContentType() == null && renderable.mimetype() != null) {
+            result.as(renderable.mimetype());
+        }
+        result.render(NoHttpBody.INSTANCE);
+        mark(context, Phase.SERIALIZATION);
+        finalizeWriteReponse(context, request.getVertxRequest(), result, new ByteArrayInputStream(NoHttpBody.EMPTY),
+                true, handleFlashAndSessionCookie, fromAsync);
+        return true;
+    }
+
     private void proceedAsyncEncoding(
             final ContextFromVertx httpContext,
             final RequestFromVertx request,
@@ -262,8 +484,10 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             @Override
             public void handle(Void event) {
                 InputStream is = null;
+                hop(httpContext, "encoding");
                 try {
                     is = codec.encode(stream);
+                    mark(httpContext, Phase.ENCODING);
                     finalizeWriteReponse(httpContext, request.getVertxRequest(),
                             result, is, success, handleFlashAndSessionCookie, true);
                 } catch (IOException e) {
@@ -302,6 +526,8 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
         // Decide whether to close the connection or not.
         boolean keepAlive = HttpUtils.isKeepAlive(request);
+        // The response to a HEAD request is never chunked, the body is not sent.
+        boolean head = HttpUtils.isHead(request.method());
 
         // Build the response object.
         final HttpServerResponse response = request.response();
@@ -335,7 +561,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             response.headers().add(HeaderNames.SET_COOKIE, encoded);
         }
         response.setStatusCode(HttpUtils.getStatusFromResult(result, success));
-        if (renderable.mustBeChunked()) {
+        if (renderable.mustBeChunked() && !head) {
             LOGGER.debug("Building the chunked response for {} {} ({})", request.method(), request.uri(), context);
             if (renderable.length() > 0 && !response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
                 response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(renderable.length()));
@@ -365,6 +591,8 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                                                  request.uri(), pump.bytesPumped());
                                          response.end();
                                          response.close();
+                                         hop(context, "pump-end");
+                                         completed(context, response.getStatusCode(), pump.bytesPumped());
                                          cleanup(context);
                                      }
                                  });
@@ -379,6 +607,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                                            public void handle(Void event) {
                                                LOGGER.error("Cannot read the result stream", event);
                                                response.close();
+                                               completed(context, response.getStatusCode(), -1);
                                                cleanup(context);
                                            }
                                        });
@@ -388,22 +617,31 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             context.vertxContext().runOnContext(new Handler<Void>() {
                 @Override
                 public void handle(Void event) {
+                    hop(context, "pump-start");
                     pump.start();
                 }
             });
 
         } else {
-            byte[] cont = new byte[0];
+            byte[] cont = NoHttpBody.EMPTY;
+            long length = 0;
             try {
-                cont = IOUtils.toByteArray(stream);
+                if (head) {
+                    // Only the length of the body is needed.
+                    length = ByteStreams.copy(stream, ByteStreams.nullOutputStream());
+                } else {
+                    cont = IOUtils.toByteArray(stream);
+                    length = cont.length;
+                }
             } catch (IOException e) {
                 LOGGER.error("Cannot copy the response to {}", request.uri(), e);
             }
 
-            if (!response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
+            if (!response.headers().contains(HeaderNames.CONTENT_LENGTH)
+                    && result.getStatusCode() != Status.NOT_MODIFIED) {
                 // Because of the HEAD implementation, if the length is already set, do not update it.
-                // (HEAD would mean no content)
-                response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(cont.length));
+                // A 'not modified' response must not set a length different from the length of the full response.
+                response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(length));
             }
 
             if (keepAlive) {
@@ -411,13 +649,18 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 // - http://www.w3.org/Protocols/HTTP/1.1/draft-ietf-http-v11-spec-01.html#Connection
                 response.putHeader(HeaderNames.CONNECTION, "keep-alive");
             }
-            response.write(new Buffer(cont));
-            if (HttpUtils.isKeepAlive(request)) {
+            if (result.getStatusCode() != Status.NOT_MODIFIED && !head) {
+                // Vert.x rejects the write of an empty body without content length, 304 and HEAD responses have no
+                // body.
+                response.write(new Buffer(cont));
+            }
+            if (keepAlive) {
                 response.end();
             } else {
                 response.end();
                 response.close();
             }
+            completed(context, response.getStatusCode(), cont.length);
             cleanup(context);
         }
     }
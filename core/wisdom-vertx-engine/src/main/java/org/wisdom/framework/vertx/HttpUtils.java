@@ -19,6 +19,7 @@
  */
 package org.wisdom.framework.vertx;
 
+import com.google.common.hash.Hashing;
 import org.slf4j.LoggerFactory;
 import org.vertx.java.core.http.HttpServerRequest;
 import org.vertx.java.core.http.HttpVersion;
@@ -144,6 +145,39 @@ public class HttpUtils {
         }
     }
 
+    /**
+     * Computes a strong entity tag from the given (serialized) body. It uses a fast non-cryptographic hash function
+     * (murmur3 128 bits).
+     *
+     * @param body the body
+     * @return the quoted entity tag
+     */
+    public static String computeETag(byte[] body) {
+        return ETags.quote(Hashing.murmur3_128().hashBytes(body).toString());
+    }
+
+    /**
+     * Checks whether the current request is either using the "GET" or "HEAD" HTTP methods. Only these requests can
+     * be answered with a {@literal 304 - NOT MODIFIED} response.
+     *
+     * @param method the request method
+     * @return {@code true} if the request use either "GET" or "HEAD", {@code false} otherwise.
+     */
+    public static boolean isGetOrHead(String method) {
+        return HttpMethod.GET.name().equalsIgnoreCase(method) || HttpMethod.HEAD.name().equalsIgnoreCase(method);
+    }
+
+    /**
+     * Checks whether the current request is using the "HEAD" HTTP method. The response to these requests must not
+     * contain a body.
+     *
+     * @param method the request method
+     * @return {@code true} if the request use "HEAD", {@code false} otherwise.
+     */
+    public static boolean isHead(String method) {
+        return HttpMethod.HEAD.name().equalsIgnoreCase(method);
+    }
+
     /**
      * Checks whether the current request is either using the "POST" or "PUT" HTTP methods. This method let checks if
      * the request can except a {@literal multipart} body or not.
@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.wisdom.api.engine.RequestTimings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the time spent in the different processing phases of a request. The phases are sequential,
+ * so each call to {@link #mark(RequestTimings.Phase)} closes the current phase and starts the next one.
+ * <p>
+ * The phases may be executed by different threads (event loop, executor), but never concurrently. The thread
+ * changes are recorded as hops.
+ * <p>
+ * Each timer gets a trace id, made of a random prefix (per engine) and a counter.
+ */
+final class RequestTimer {
+
+    private static final String PREFIX = Long.toHexString(new Random().nextLong() & 0xFFFFFFL) + "-";
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private final String traceId = PREFIX + Long.toHexString(COUNTER.incrementAndGet());
+
+    private final List<RequestTimings.Hop> hops = new ArrayList<>(4);
+
+    private final long start;
+
+    private final long[] durations = new long[RequestTimings.Phase.values().length];
+
+    private long mark;
+
+    private boolean completed;
+
+    RequestTimer() {
+        start = System.nanoTime();
+        mark = start;
+    }
+
+    /**
+     * @return the trace id.
+     */
+    String traceId() {
+        return traceId;
+    }
+
+    /**
+     * Records a thread hop.
+     *
+     * @param name the name of the step executed by the current thread
+     */
+    void hop(String name) {
+        hops.add(new RequestTimings.Hop(name, Thread.currentThread().getName(), System.nanoTime() - start));
+    }
+
+    /**
+     * Ends the given phase.
+     *
+     * @param phase the phase
+     */
+    void mark(RequestTimings.Phase phase) {
+        long now = System.nanoTime();
+        durations[phase.ordinal()] += now - mark;
+        mark = now;
+    }
+
+    /**
+     * Stops the timer. The time elapsed since the last phase is attributed to the
+     * {@link org.wisdom.api.engine.RequestTimings.Phase#WRITE} phase.
+     *
+     * @param method the HTTP method
+     * @param route  the route url template, {@literal null} for unbound routes
+     * @param status the response status
+     * @param size   the size of the response body, {@literal -1} if unknown
+     * @return the timings, {@literal null} if the timer has already been stopped
+     */
+    RequestTimings stop(String method, String route, int status, long size) {
+        if (completed) {
+            return null;
+        }
+        completed = true;
+        mark(RequestTimings.Phase.WRITE);
+        return new RequestTimings(traceId, method, route, status, durations, mark - start, size, hops);
+    }
+}
@@ -23,8 +23,12 @@ import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.ContentEngine;
 import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.engine.RequestTimingListener;
 import org.wisdom.api.router.Router;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * A structure to access services.
  */
@@ -36,15 +40,24 @@ public class ServiceAccessor {
     private final ContentEngine contentEngines;
     private final ManagedExecutorService executor;
     private final WisdomVertxServer dispatcher;
+    private final List<RequestTimingListener> timingListeners;
 
     public ServiceAccessor(Crypto crypto, ApplicationConfiguration configuration, Router router,
                            ContentEngine engine, ManagedExecutorService executor, WisdomVertxServer dispatcher) {
+        this(crypto, configuration, router, engine, executor, dispatcher,
+                Collections.<RequestTimingListener>emptyList());
+    }
+
+    public ServiceAccessor(Crypto crypto, ApplicationConfiguration configuration, Router router,
+                           ContentEngine engine, ManagedExecutorService executor, WisdomVertxServer dispatcher,
+                           List<RequestTimingListener> timingListeners) {
         this.crypto = crypto;
         this.configuration = configuration;
         this.router = router;
         this.contentEngines = engine;
         this.executor = executor;
         this.dispatcher = dispatcher;
+        this.timingListeners = timingListeners;
     }
 
     public Crypto getCrypto() {
@@ -70,4 +83,11 @@ public class ServiceAccessor {
     public WisdomVertxServer getDispatcher() {
         return dispatcher;
     }
+
+    /**
+     * @return the listeners to notify with the request timings, the list is updated when listeners arrive and leave.
+     */
+    public List<RequestTimingListener> getTimingListeners() {
+        return timingListeners;
+    }
 }
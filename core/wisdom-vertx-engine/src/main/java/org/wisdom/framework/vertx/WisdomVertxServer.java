@@ -33,6 +33,8 @@ import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.ContentEngine;
 import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.engine.RequestTimingListener;
+import org.wisdom.api.engine.StartupProfiler;
 import org.wisdom.api.engine.WisdomEngine;
 import org.wisdom.api.http.websockets.WebSocketDispatcher;
 import org.wisdom.api.http.websockets.WebSocketListener;
@@ -41,6 +43,7 @@ import org.wisdom.framework.vertx.ssl.SSLServerContext;
 
 import java.net.InetAddress;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 
@@ -85,7 +88,19 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")")
     private ManagedExecutorService executor;
 
-    ServiceAccessor accessor = new ServiceAccessor(crypto, configuration, router, engine, executor, this);
+    /**
+     * The startup profiler notified once a port is bound, may be {@code null}.
+     */
+    @Requires(optional = true, nullable = false, proxy = false)
+    StartupProfiler profiler;
+
+    /**
+     * The listeners notified with the timing of each request. The engine does not measure anything when empty.
+     */
+    private final List<RequestTimingListener> timingListeners = new CopyOnWriteArrayList<>();
+
+    ServiceAccessor accessor = new ServiceAccessor(crypto, configuration, router, engine, executor, this,
+            timingListeners);
 
     private HttpServer http;
     private HttpServer https;
@@ -100,6 +115,26 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
 
     private List<SockJSServer> sockjs = new ArrayList<>();
 
+    /**
+     * A new request timing listener is available.
+     *
+     * @param listener the listener
+     */
+    @Bind(aggregate = true, optional = true)
+    public void bindTimingListener(RequestTimingListener listener) {
+        timingListeners.add(listener);
+    }
+
+    /**
+     * A request timing listener has left.
+     *
+     * @param listener the listener
+     */
+    @Unbind
+    public void unbindTimingListener(RequestTimingListener listener) {
+        timingListeners.remove(listener);
+    }
+
     /**
      * Starts the servers (HTTP and HTTPS).
      * The actual start is asynchronous.
@@ -161,6 +196,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
                 if (event.succeeded()) {
                     LOGGER.info("Wisdom is going to serve HTTP requests on port {}.", thePort);
                     httpPort = thePort;
+                    ready();
                 } else if (httpPort == 0) {
                     LOGGER.debug("Cannot bind on port {} (port already used probably)", thePort, event.cause());
                     bindHttp(0);
@@ -226,6 +262,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
                 if (event.succeeded()) {
                     httpsPort = thePort;
                     LOGGER.info("Wisdom is going to serve HTTPS requests on port {}.", httpsPort);
+                    ready();
                 } else if (httpsPort == 0) {
                     LOGGER.debug("Cannot bind on port {} (port already used probably)", thePort, event.cause());
                     bindHttps(0);
@@ -236,6 +273,12 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
         });
     }
 
+    private void ready() {
+        if (profiler != null) {
+            profiler.ready();
+        }
+    }
+
     private int pickAPort(int port) {
         if (port == 0) {
             if (random == null) {
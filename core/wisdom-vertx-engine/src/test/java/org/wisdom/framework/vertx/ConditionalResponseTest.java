@@ -0,0 +1,194 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.http.ETags;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the entity tag computation and the conditional requests.
+ */
+public class ConditionalResponseTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    private final AtomicInteger rendering = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    private void prepareServer(boolean useETag) throws InterruptedException, IOException {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+        when(configuration.getBooleanWithDefault(HttpHandler.HTTP_COMPUTE_ETAG, false)).thenReturn(useETag);
+
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                return ok("hello");
+            }
+
+            @SuppressWarnings("unused")
+            public Result asynchronous() {
+                return async(new Callable<Result>() {
+                    @Override
+                    public Result call() throws Exception {
+                        return ok("hello async");
+                    }
+                });
+            }
+
+            @SuppressWarnings("unused")
+            public Result tagged() {
+                if (ETags.isNotModified(context(), "v1")) {
+                    return notModified("v1");
+                }
+                rendering.incrementAndGet();
+                return ok("tagged").withETag("v1");
+            }
+
+            @SuppressWarnings("unused")
+            public Result error() {
+                return internalServerError("error");
+            }
+        };
+        Router router = mock(Router.class);
+        for (String action : new String[]{"index", "asynchronous", "tagged", "error"}) {
+            Route route = new RouteBuilder().route(HttpMethod.GET).on("/" + action).to(controller, action);
+            when(router.getRouteFor("GET", "/" + action)).thenReturn(route);
+        }
+
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(null, configuration, router, getMockContentEngine(), executor, null);
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    private HttpURLConnection get(String path, String ifNoneMatch) throws IOException {
+        URL url = new URL("http://localhost:" + server.httpPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty(HeaderNames.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return connection;
+    }
+
+    @Test
+    public void testETagComputation() throws InterruptedException, IOException {
+        prepareServer(true);
+
+        HttpURLConnection connection = get("/index", null);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        String etag = connection.getHeaderField(HeaderNames.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(IOUtils.toString(connection.getInputStream())).isEqualTo("hello");
+
+        // Same content, same tag.
+        connection = get("/index", null);
+        assertThat(connection.getHeaderField(HeaderNames.ETAG)).isEqualTo(etag);
+
+        connection = get("/index", etag);
+        assertThat(connection.getResponseCode()).isEqualTo(304);
+        assertThat(connection.getHeaderField(HeaderNames.ETAG)).isEqualTo(etag);
+
+        connection = get("/index", "\"other\"");
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(IOUtils.toString(connection.getInputStream())).isEqualTo("hello");
+    }
+
+    @Test
+    public void testETagComputationOnAsyncResults() throws InterruptedException, IOException {
+        prepareServer(true);
+
+        HttpURLConnection connection = get("/asynchronous", null);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        String etag = connection.getHeaderField(HeaderNames.ETAG);
+        assertThat(etag).isNotNull();
+
+        connection = get("/asynchronous", etag);
+        assertThat(connection.getResponseCode()).isEqualTo(304);
+    }
+
+    @Test
+    public void testETagSetByTheController() throws InterruptedException, IOException {
+        prepareServer(true);
+
+        HttpURLConnection connection = get("/tagged", null);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField(HeaderNames.ETAG)).isEqualTo("\"v1\"");
+        assertThat(rendering.get()).isEqualTo(1);
+
+        connection = get("/tagged", "\"v1\"");
+        assertThat(connection.getResponseCode()).isEqualTo(304);
+        assertThat(connection.getHeaderField(HeaderNames.ETAG)).isEqualTo("\"v1\"");
+        // The controller has short-circuited the computation.
+        assertThat(rendering.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNoETagOnErrorsOrWhenDisabled() throws InterruptedException, IOException {
+        prepareServer(false);
+
+        HttpURLConnection connection = get("/error", null);
+        assertThat(connection.getResponseCode()).isEqualTo(500);
+        assertThat(connection.getHeaderField(HeaderNames.ETAG)).isNull();
+
+        connection = get("/index", null);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField(HeaderNames.ETAG)).isNull();
+    }
+}
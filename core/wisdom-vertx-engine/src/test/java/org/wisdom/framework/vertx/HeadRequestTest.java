@@ -0,0 +1,277 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.bodies.RenderableStream;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.content.ContentCodec;
+import org.wisdom.api.content.ContentEncodingHelper;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.http.*;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that HEAD requests get the headers of the GET response without the body.
+ */
+public class HeadRequestTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    private final AtomicInteger rendering = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    private void prepareServer(boolean computeETag) throws InterruptedException, IOException {
+        prepareServer(computeETag, getMockContentEngine());
+    }
+
+    private void prepareServer(boolean computeETag, ContentEngine engine) throws InterruptedException, IOException {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+        when(configuration.getBooleanWithDefault(HttpHandler.HTTP_COMPUTE_ETAG, false)).thenReturn(computeETag);
+
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result page() {
+                return ok("héllo");
+            }
+
+            @SuppressWarnings("unused")
+            public Result stream() {
+                return ok(new RenderableStream(new ByteArrayInputStream("stream".getBytes())) {
+                    @Override
+                    public InputStream render(Context context, Result result) throws RenderableException {
+                        rendering.incrementAndGet();
+                        return super.render(context, result);
+                    }
+                }).as(MimeTypes.TEXT);
+            }
+        };
+        Router router = mock(Router.class);
+        for (String action : new String[]{"page", "stream"}) {
+            Route route = new RouteBuilder().route(HttpMethod.GET).on("/" + action).to(controller, action);
+            when(router.getRouteFor("GET", "/" + action)).thenReturn(route);
+            // The router routes HEAD requests to the GET action.
+            when(router.getRouteFor("HEAD", "/" + action)).thenReturn(route);
+        }
+
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(null, configuration, router, engine, executor, null);
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    private HttpURLConnection request(String method, String path) throws IOException {
+        URL url = new URL("http://localhost:" + server.httpPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    @Test
+    public void testHeadWithKnownLength() throws InterruptedException, IOException {
+        prepareServer(false);
+
+        HttpURLConnection get = request("GET", "/page");
+        assertThat(get.getResponseCode()).isEqualTo(200);
+        String body = IOUtils.toString(get.getInputStream(), "UTF-8");
+        assertThat(body).isEqualTo("héllo");
+
+        HttpURLConnection head = request("HEAD", "/page");
+        assertThat(head.getResponseCode()).isEqualTo(200);
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_LENGTH))
+                .isEqualTo(get.getHeaderField(HeaderNames.CONTENT_LENGTH)).isEqualTo("6");
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_TYPE))
+                .isEqualTo(get.getHeaderField(HeaderNames.CONTENT_TYPE));
+        assertThat(IOUtils.toByteArray(head.getInputStream())).isEmpty();
+
+        // The connection is still usable.
+        get = request("GET", "/page");
+        assertThat(IOUtils.toString(get.getInputStream(), "UTF-8")).isEqualTo("héllo");
+    }
+
+    @Test
+    public void testHeadWithUnknownLength() throws InterruptedException, IOException {
+        prepareServer(false);
+
+        // The length is unknown, the body is rendered to compute it, but not sent.
+        HttpURLConnection head = request("HEAD", "/stream");
+        assertThat(head.getResponseCode()).isEqualTo(200);
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_LENGTH)).isEqualTo("6");
+        assertThat(head.getHeaderField(HeaderNames.TRANSFER_ENCODING)).isNull();
+        assertThat(head.getHeaderField(HeaderNames.CONNECTION)).isEqualTo("keep-alive");
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_TYPE)).startsWith(MimeTypes.TEXT);
+        assertThat(IOUtils.toByteArray(head.getInputStream())).isEmpty();
+        assertThat(rendering.get()).isEqualTo(1);
+
+        HttpURLConnection get = request("GET", "/stream");
+        assertThat(IOUtils.toString(get.getInputStream())).isEqualTo("stream");
+        assertThat(get.getHeaderField(HeaderNames.CONTENT_LENGTH)).isNull();
+        assertThat(rendering.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testHeadAndGetHaveTheSameValidator() throws InterruptedException, IOException {
+        prepareServer(true);
+
+        HttpURLConnection get = request("GET", "/page");
+        assertThat(get.getResponseCode()).isEqualTo(200);
+        String etag = get.getHeaderField(HeaderNames.ETAG);
+        assertThat(etag).isNotNull();
+
+        HttpURLConnection head = request("HEAD", "/page");
+        assertThat(head.getResponseCode()).isEqualTo(200);
+        assertThat(head.getHeaderField(HeaderNames.ETAG)).isEqualTo(etag);
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_LENGTH)).isEqualTo("6");
+    }
+
+    @Test
+    public void testHeadWithEncoding() throws InterruptedException, IOException {
+        prepareServer(false, getGzipContentEngine());
+
+        HttpURLConnection get = request("GET", "/page");
+        get.setRequestProperty(HeaderNames.ACCEPT_ENCODING, "gzip");
+        assertThat(get.getResponseCode()).isEqualTo(200);
+        assertThat(get.getHeaderField(HeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        byte[] encoded = IOUtils.toByteArray(get.getInputStream());
+
+        // The length is the one of the encoded representation.
+        HttpURLConnection head = request("HEAD", "/page");
+        head.setRequestProperty(HeaderNames.ACCEPT_ENCODING, "gzip");
+        assertThat(head.getResponseCode()).isEqualTo(200);
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(head.getHeaderField(HeaderNames.CONTENT_LENGTH))
+                .isEqualTo(get.getHeaderField(HeaderNames.CONTENT_LENGTH))
+                .isEqualTo(Integer.toString(encoded.length));
+        assertThat(IOUtils.toByteArray(head.getInputStream())).isEmpty();
+    }
+
+    private static ContentEngine getGzipContentEngine() {
+        ContentEngine engine = getMockContentEngine();
+        ContentEncodingHelper helper = mock(ContentEncodingHelper.class);
+        when(helper.shouldEncode(any(Context.class), any(Result.class), any(Renderable.class))).thenReturn(true);
+        when(helper.parseAcceptEncodingHeader(anyString())).thenReturn(Collections.singletonList("gzip"));
+        when(engine.getContentEncodingHelper()).thenReturn(helper);
+        when(engine.getContentCodecForEncodingType("gzip")).thenReturn(new ContentCodec() {
+            @Override
+            public InputStream encode(InputStream toEncode) throws IOException {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    IOUtils.copy(toEncode, gzip);
+                }
+                return new ByteArrayInputStream(out.toByteArray());
+            }
+
+            @Override
+            public InputStream decode(InputStream toDecode) throws IOException {
+                return new GZIPInputStream(toDecode);
+            }
+
+            @Override
+            public String getEncodingType() {
+                return "gzip";
+            }
+
+            @Override
+            public String getContentEncodingHeaderValue() {
+                return "gzip";
+            }
+        });
+        return engine;
+    }
+
+    @Test
+    public void testHeadRequestsOnTheSameConnection() throws InterruptedException, IOException {
+        prepareServer(false);
+
+        try (Socket socket = new Socket("localhost", server.httpPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+            for (String path : new String[]{"/stream", "/page", "/stream"}) {
+                out.write(("HEAD " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(Charsets.US_ASCII));
+                out.flush();
+                // Each response only contains a status line and headers, so the next one starts right after.
+                String headers = readHeaders(in);
+                assertThat(headers).startsWith("HTTP/1.1 200 OK");
+                assertThat(headers).containsIgnoringCase("Content-Length: 6");
+                assertThat(headers).containsIgnoringCase("Connection: keep-alive");
+                assertThat(headers.toLowerCase()).doesNotContain("transfer-encoding");
+            }
+            assertThat(in.available()).isEqualTo(0);
+        }
+    }
+
+    private static String readHeaders(InputStream in) throws IOException {
+        StringBuilder headers = new StringBuilder();
+        while (!headers.toString().endsWith("\r\n\r\n")) {
+            int c = in.read();
+            if (c == -1) {
+                throw new IOException("Connection closed, received: " + headers);
+            }
+            headers.append((char) c);
+        }
+        return headers.toString();
+    }
+}
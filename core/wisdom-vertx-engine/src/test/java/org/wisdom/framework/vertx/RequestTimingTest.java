@@ -0,0 +1,193 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.engine.RequestTimingListener;
+import org.wisdom.api.engine.RequestTimings;
+import org.wisdom.api.engine.TraceContext;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the engine measures the processing phases of the requests.
+ */
+public class RequestTimingTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    private final List<RequestTimings> timings = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    private void prepareServer() throws InterruptedException, IOException {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                return ok("hello");
+            }
+
+            @SuppressWarnings("unused")
+            public Result asynchronous() {
+                final String trace = TraceContext.current();
+                return async(new Callable<Result>() {
+                    @Override
+                    public Result call() throws Exception {
+                        return ok(trace);
+                    }
+                });
+            }
+        };
+        Router router = mock(Router.class);
+        Route route = new RouteBuilder().route(HttpMethod.GET).on("/items/{id}").to(controller, "index");
+        when(router.getRouteFor("GET", "/items/1")).thenReturn(route);
+        when(router.getRouteFor("GET", "/async")).thenReturn(new RouteBuilder().route(HttpMethod.GET).on("/async")
+                .to(controller, "asynchronous"));
+        when(router.getRouteFor("POST", "/missing")).thenReturn(new Route(HttpMethod.POST, "/missing",
+                null, null));
+
+        List<RequestTimingListener> listeners = new CopyOnWriteArrayList<>();
+        listeners.add(new RequestTimingListener() {
+            @Override
+            public void onRequestCompleted(RequestTimings t) {
+                timings.add(t);
+            }
+        });
+
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(null, configuration, router, getMockContentEngine(), executor, null,
+                listeners);
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    private int send(String method, String path) throws IOException {
+        URL url = new URL("http://localhost:" + server.httpPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection.getResponseCode();
+    }
+
+    /**
+     * Waits for the timings of a request. The listener is notified once the response is written,
+     * so maybe after the client has received it.
+     */
+    private RequestTimings waitForTimings(String method, String route) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            for (RequestTimings t : timings) {
+                if (t.getMethod().equals(method) && Objects.equals(t.getRoute(), route)) {
+                    return t;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No timings for " + method + " " + route);
+    }
+
+    @Test
+    public void testTimingsOfBoundRoutes() throws InterruptedException, IOException {
+        prepareServer();
+        assertThat(send("GET", "/items/1")).isEqualTo(200);
+
+        RequestTimings t = waitForTimings("GET", "/items/{id}");
+        assertThat(t.getMethod()).isEqualTo("GET");
+        assertThat(t.getRoute()).isEqualTo("/items/{id}");
+        assertThat(t.getStatus()).isEqualTo(200);
+        assertThat(t.getTotal()).isGreaterThan(0);
+        long sum = 0;
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            assertThat(t.getDuration(phase)).isGreaterThanOrEqualTo(0);
+            sum += t.getDuration(phase);
+        }
+        assertThat(sum).isEqualTo(t.getTotal());
+        assertThat(t.getDuration(RequestTimings.Phase.INVOCATION)).isGreaterThan(0);
+    }
+
+    @Test
+    public void testTraceOfAsyncRoutes() throws InterruptedException, IOException {
+        prepareServer();
+        URL url = new URL("http://localhost:" + server.httpPort() + "/async");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        String body = IOUtils.toString(connection.getInputStream());
+
+        RequestTimings t = waitForTimings("GET", "/async");
+        // The trace id was available to the action.
+        assertThat(t.getTraceId()).isNotNull().isEqualTo(body);
+        assertThat(t.getResponseSize()).isEqualTo(body.length());
+        List<String> hops = new ArrayList<>();
+        for (RequestTimings.Hop hop : t.getHops()) {
+            hops.add(hop.getName());
+            assertThat(hop.getOffset()).isBetween(0L, t.getTotal());
+        }
+        assertThat(hops).containsSubsequence("async-submit", "async-result");
+    }
+
+    @Test
+    public void testTimingsOfUnboundRoutes() throws InterruptedException, IOException {
+        prepareServer();
+        assertThat(send("POST", "/missing")).isEqualTo(404);
+
+        RequestTimings t = waitForTimings("POST", null);
+        assertThat(t.getRoute()).isNull();
+        assertThat(t.getStatus()).isEqualTo(404);
+    }
+}
@@ -20,6 +20,8 @@
 package org.wisdom.framework.filters;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.http.Results;
@@ -28,9 +30,14 @@ import org.wisdom.api.interception.RequestContext;
 import org.wisdom.api.router.Route;
 import org.wisdom.api.router.Router;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static org.wisdom.api.http.HeaderNames.*;
@@ -40,18 +47,60 @@ import static org.wisdom.api.http.HeaderNames.*;
  * Wisdom provides a configuration based implementation, but you can extend this class directly to cusotmize the CORS
  * support.
  * CORS is defined by the W3C as a recommendation : http://www.w3.org/TR/cors/
+ * <p>
+ * When enabled by the subclass, the preflight answers are computed from an index of the routes, rebuilt when the
+ * subclass notifies a change of the routes (see {@link #routesChanged()}). Otherwise, the routes are collected on
+ * every preflight request. The header values are computed from {@link #getAllowedHosts()}, {@link #getExposedHeaders()},
+ * {@link #getAllowCredentials()} and {@link #getMaxAge()}, and recomputed when one of these methods returns a new
+ * value.
  */
 public abstract class AbstractCorsFilter implements Filter {
 
+    /**
+     * The maximum number of request URLs for which the preflight answer is memorized.
+     */
+    private static final int MAX_RESOLVED_URLS = 1024;
+
+    /**
+     * Marker used to memorize URLs not handled by any route.
+     */
+    private static final Preflight NO_ROUTE = new Preflight(null);
+
     private final Router router;
 
     /**
-     * Creates an {@link org.wisdom.framework.filters.AbstractCorsFilter} instance.
+     * The pre-joined header values, computed lazily from the configuration.
+     */
+    private volatile Headers headers;
+
+    /**
+     * The route index, replaced by an invalid index when routes change, and rebuilt lazily.
+     */
+    private final AtomicReference<RouteIndex> index = new AtomicReference<>(new RouteIndex(null));
+
+    private final boolean indexRoutes;
+
+    /**
+     * Creates an {@link org.wisdom.framework.filters.AbstractCorsFilter} instance. The routes are collected on every
+     * preflight request.
      *
      * @param router the router
      */
     public AbstractCorsFilter(Router router) {
+        this(router, false);
+    }
+
+    /**
+     * Creates an {@link org.wisdom.framework.filters.AbstractCorsFilter} instance. If {@code indexRoutes} is
+     * {@code true}, the subclass must call {@link #routesChanged()} when the routes of the router change, for
+     * instance when the {@link org.wisdom.api.router.Router#ROUTES_VERSION} property of the router is modified.
+     *
+     * @param router      the router
+     * @param indexRoutes whether the routes are indexed once, or collected on every preflight request
+     */
+    protected AbstractCorsFilter(Router router, boolean indexRoutes) {
         this.router = router;
+        this.indexRoutes = indexRoutes;
     }
 
     /**
@@ -85,16 +134,10 @@ public abstract class AbstractCorsFilter implements Filter {
         // Try "Preflight"
 
         // Find existing methods for other routes
-        Collection<Route> routes = router.getRoutes();
-        List<String> methods = new ArrayList<>(4); // expect POST PUT GET DELETE
-        for (Route r : routes) {
-            if (r.matches(r.getHttpMethod(), route.getUrl())) {
-                methods.add(r.getHttpMethod().name());
-            }
-        }
+        Preflight preflight = getIndex().getPreflight(route.getUrl());
 
         // If there's none, proceed to 404
-        if (methods.isEmpty()) {
+        if (preflight == NO_ROUTE) {
             return context.proceed();
         }
 
@@ -107,25 +150,20 @@ public abstract class AbstractCorsFilter implements Filter {
 
         Result res = Results.ok(); // setup result
 
-        if (!methods.contains(requestMethod.toUpperCase())) {
+        if (!preflight.methods.contains(requestMethod.toUpperCase())) {
             res = Results.unauthorized("No such method for this route");
         }
 
-        Integer maxAge = getMaxAge();
-        if (maxAge != null) {
-            res = res.with(ACCESS_CONTROL_MAX_AGE, String.valueOf(maxAge));
+        Headers values = getHeaders();
+        if (values.maxAge != null) {
+            res = res.with(ACCESS_CONTROL_MAX_AGE, values.maxAge);
         }
 
         // Otherwise we should be return OK with the appropriate headers.
-
-        String exposedHeaders = getExposedHeadersHeader();
-        String allowedHosts = getAllowedHostsHeader();
-
-        String allowedMethods = Joiner.on(", ").join(methods);
-
-        Result result = res.with(ACCESS_CONTROL_ALLOW_ORIGIN, allowedHosts)
-                .with(ACCESS_CONTROL_ALLOW_METHODS, allowedMethods).with(ACCESS_CONTROL_ALLOW_HEADERS, exposedHeaders);
-        if (getAllowCredentials()) {
+        Result result = res.with(ACCESS_CONTROL_ALLOW_ORIGIN, values.allowedHosts)
+                .with(ACCESS_CONTROL_ALLOW_METHODS, preflight.allowedMethods)
+                .with(ACCESS_CONTROL_ALLOW_HEADERS, values.exposedHeaders);
+        if (values.allowCredentials) {
             result = result.with(ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
         }
 
@@ -137,25 +175,186 @@ public abstract class AbstractCorsFilter implements Filter {
 
         // Is it actually a CORS request?
         if (originHeader != null) {
-            String allowedHosts = getAllowedHostsHeader();
-            result = result.with(ACCESS_CONTROL_ALLOW_ORIGIN, allowedHosts);
-            if (getAllowCredentials()) {
+            Headers values = getHeaders();
+            result = result.with(ACCESS_CONTROL_ALLOW_ORIGIN, values.allowedHosts);
+            if (values.allowCredentials) {
                 result = result.with(ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
             }
-            if (!getExposedHeaders().isEmpty()) {
-                result = result.with(ACCESS_CONTROL_EXPOSE_HEADERS, getExposedHeadersHeader());
+            if (!values.exposedHeaders.isEmpty()) {
+                result = result.with(ACCESS_CONTROL_EXPOSE_HEADERS, values.exposedHeaders);
             }
         }
 
         return result;
     }
 
-    private String getExposedHeadersHeader() {
-        return Joiner.on(", ").join(getExposedHeaders());
+    /**
+     * Notifies the filter that its configuration has changed. The header values are recomputed on the next request.
+     * Changes are detected when the configuration methods return new values, so this method is only required when
+     * the returned lists are modified in place.
+     */
+    protected void configurationChanged() {
+        headers = null;
+    }
+
+    /**
+     * Notifies the filter that the set of routes has changed. The route index is rebuilt on the next preflight
+     * request. This method must be called once the router has updated its routes.
+     */
+    protected void routesChanged() {
+        index.set(new RouteIndex(null));
+    }
+
+    private Headers getHeaders() {
+        Headers current = headers;
+        if (current == null || !current.isUpToDate(this)) {
+            current = new Headers(this);
+            headers = current;
+        }
+        return current;
+    }
+
+    private RouteIndex getIndex() {
+        RouteIndex current = index.get();
+        if (current.patterns != null) {
+            return current;
+        }
+        RouteIndex built = new RouteIndex(buildIndex());
+        // Not stored if the routes have changed during the computation, the next request rebuilds it.
+        if (indexRoutes) {
+            index.compareAndSet(current, built);
+        }
+        return built;
+    }
+
+    private Map<String, Preflight> buildIndex() {
+        Map<String, Preflight> map = new LinkedHashMap<>();
+        for (Route r : router.getRoutes()) {
+            Preflight preflight = map.get(r.getUrl());
+            if (preflight == null) {
+                preflight = new Preflight(r);
+                map.put(r.getUrl(), preflight);
+            }
+            preflight.add(r.getHttpMethod());
+        }
+        for (Preflight preflight : map.values()) {
+            preflight.compile();
+        }
+        return ImmutableMap.copyOf(map);
+    }
+
+    /**
+     * The route index: URL pattern to allowed methods. The answer for each request URL is memorized, avoiding the
+     * pattern matching on recurring preflight requests. Once built, an index is never modified, it is replaced.
+     */
+    private static final class RouteIndex {
+
+        /**
+         * The URL patterns, {@code null} if the index must be rebuilt.
+         */
+        private final Map<String, Preflight> patterns;
+
+        private final ConcurrentMap<String, Preflight> resolved = new ConcurrentHashMap<>();
+
+        private RouteIndex(Map<String, Preflight> patterns) {
+            this.patterns = patterns;
+        }
+
+        private Preflight getPreflight(String url) {
+            Preflight preflight = resolved.get(url);
+            if (preflight != null) {
+                return preflight;
+            }
+
+            // Several patterns may match the same URL, in this case the methods are merged.
+            preflight = NO_ROUTE;
+            for (Preflight candidate : patterns.values()) {
+                if (candidate.matches(url)) {
+                    if (preflight == NO_ROUTE) {
+                        preflight = candidate;
+                    } else {
+                        Preflight merged = new Preflight(null);
+                        merged.methods.addAll(preflight.methods);
+                        merged.methods.addAll(candidate.methods);
+                        merged.compile();
+                        preflight = merged;
+                    }
+                }
+            }
+
+            if (resolved.size() < MAX_RESOLVED_URLS) {
+                resolved.put(url, preflight);
+            }
+            return preflight;
+        }
+    }
+
+    /**
+     * The methods allowed on a URL pattern, and the corresponding pre-joined header value.
+     */
+    private static final class Preflight {
+
+        private final Route route;
+
+        private final Set<String> methods = new LinkedHashSet<>(4); // expect POST PUT GET DELETE
+
+        private String allowedMethods;
+
+        private Preflight(Route route) {
+            this.route = route;
+        }
+
+        private void add(HttpMethod method) {
+            methods.add(method.name());
+        }
+
+        private void compile() {
+            allowedMethods = Joiner.on(", ").join(methods);
+        }
+
+        private boolean matches(String url) {
+            return route.matches(route.getHttpMethod(), url);
+        }
     }
 
-    private String getAllowedHostsHeader() {
-        return Joiner.on(", ").join(getAllowedHosts());
+    /**
+     * The header values derived from the filter configuration.
+     */
+    private static final class Headers {
+
+        private final List<String> hosts;
+
+        private final List<String> exposed;
+
+        private final Integer age;
+
+        private final boolean allowCredentials;
+
+        private final String allowedHosts;
+
+        private final String exposedHeaders;
+
+        private final String maxAge;
+
+        private Headers(AbstractCorsFilter filter) {
+            hosts = filter.getAllowedHosts();
+            exposed = filter.getExposedHeaders();
+            age = filter.getMaxAge();
+            allowCredentials = filter.getAllowCredentials();
+            allowedHosts = Joiner.on(", ").join(hosts);
+            exposedHeaders = Joiner.on(", ").join(exposed);
+            maxAge = age == null ? null : String.valueOf(age);
+        }
+
+        /**
+         * Checks whether the configuration methods still return the values used to compute the headers.
+         */
+        private boolean isUpToDate(AbstractCorsFilter filter) {
+            return hosts == filter.getAllowedHosts()
+                    && exposed == filter.getExposedHeaders()
+                    && Objects.equal(age, filter.getMaxAge())
+                    && allowCredentials == filter.getAllowCredentials();
+        }
     }
 
     /**
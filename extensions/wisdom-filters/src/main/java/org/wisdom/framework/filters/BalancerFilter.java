@@ -21,10 +21,16 @@ package org.wisdom.framework.filters;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
 import org.wisdom.api.configuration.Configuration;
+import org.wisdom.api.http.AsyncResult;
 import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.Request;
 import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Status;
 import org.wisdom.api.interception.Filter;
 import org.wisdom.api.interception.RequestContext;
 import org.wisdom.api.router.Route;
@@ -35,7 +41,10 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A filter acting as a load balancer between {@link org.wisdom.framework.filters
@@ -47,6 +56,11 @@ import java.util.concurrent.atomic.AtomicLong;
  * To create an instance of {@link org.wisdom.framework.filters.BalancerFilter}, you need to override this class and
  * declare it as a {@link org.wisdom.api.annotations.Service}. You can override most of its behavior. You have to
  * manage the binding and unbinding of {@link org.wisdom.framework.filters.BalancerMember}.
+ * <p>
+ * The member handling a request is chosen by a {@link org.wisdom.framework.filters.BalancingStrategy} (round robin
+ * by default). Failures are detected passively: a member failing too many times in a row is ejected for a
+ * configurable amount of time. In addition, an active health check can be started with {@link
+ * #startHealthChecks(org.wisdom.api.concurrent.ManagedScheduledExecutorService)}.
  */
 public class BalancerFilter extends ProxyFilter implements Filter {
 
@@ -56,12 +70,22 @@ public class BalancerFilter extends ProxyFilter implements Filter {
             // URI ?
     );
 
-    private final List<BalancerMember> members = new ArrayList<>();
+    /**
+     * The member selected for the request being proxied by the current thread. The member is selected in {@link
+     * #rewriteURI(RequestContext)} and its statistics are updated once the response is received, both in the same
+     * thread.
+     */
+    private static final ThreadLocal<BalancerMemberStatistics> SELECTED = new ThreadLocal<>();
+
+    private final List<BalancerMemberStatistics> members = new CopyOnWriteArrayList<>();
     private final String name;
     private final boolean stickySession;
     private final boolean proxyPassReverse;
+    private final BalancingStrategy strategy;
+    private final int failureThreshold;
+    private final long ejectionTime;
 
-    private final AtomicLong counter = new AtomicLong();
+    private ScheduledFuture<?> healthCheck;
 
     /**
      * Creates a {@link org.wisdom.framework.filters.BalancerFilter} instance. This instance requires that the {@link
@@ -71,6 +95,9 @@ public class BalancerFilter extends ProxyFilter implements Filter {
         this.name = getName();
         this.stickySession = getStickySession();
         this.proxyPassReverse = getProxyPassReverse();
+        this.strategy = getBalancingStrategy();
+        this.failureThreshold = getFailureThreshold();
+        this.ejectionTime = getEjectionTime();
     }
 
     /**
@@ -85,6 +112,9 @@ public class BalancerFilter extends ProxyFilter implements Filter {
         this.prefix = getPrefix();
         this.stickySession = getStickySession();
         this.proxyPassReverse = getProxyPassReverse();
+        this.strategy = getBalancingStrategy();
+        this.failureThreshold = getFailureThreshold();
+        this.ejectionTime = getEjectionTime();
     }
 
     /**
@@ -101,7 +131,8 @@ public class BalancerFilter extends ProxyFilter implements Filter {
     /**
      * Methods called on incoming request. If there are no members attached to this balancer, the request is
      * processed using {@link org.wisdom.api.interception.RequestContext#proceed()}. Otherwise, a member is selected
-     * and the request is delegated.
+     * and the request is delegated. The outcome and the latency of the delegated request are recorded in the
+     * statistics of the selected member.
      *
      * @param route   the route
      * @param context the filter context
@@ -110,14 +141,62 @@ public class BalancerFilter extends ProxyFilter implements Filter {
      */
     @Override
     public Result call(Route route, RequestContext context) throws Exception {
-        if (getMembers().isEmpty()) {
+        if (members.isEmpty()) {
             return context.proceed();
         } else {
-            return super.call(route, context);
+            final Callable<Result> delegate = ((AsyncResult) super.call(route, context)).callable();
+            return new AsyncResult(new Callable<Result>() {
+                @Override
+                public Result call() throws Exception {
+                    long begin = System.nanoTime();
+                    boolean success = false;
+                    try {
+                        Result result = delegate.call();
+                        success = !isFailure(result);
+                        return result;
+                    } finally {
+                        onCompletion(System.nanoTime() - begin, success);
+                    }
+                }
+            });
+        }
+    }
+
+    private void onCompletion(long latency, boolean success) {
+        BalancerMemberStatistics statistics = SELECTED.get();
+        SELECTED.remove();
+        if (statistics != null
+                && statistics.onRequestEnd(latency, success, failureThreshold, ejectionTime)) {
+            logger.warn("Ejecting balancer member '{}' from balancer '{}' for {} ms after {} consecutive failures",
+                    statistics.getMember().getName(), name, ejectionTime, statistics.getConsecutiveFailures());
+        }
+    }
+
+    /**
+     * Checks whether the given result, received from a member, is a failure. By default, server errors (5xx) are
+     * considered as failures. Exceptions thrown while contacting the member are always failures.
+     *
+     * @param result the result
+     * @return {@code true} if the result denotes a failure of the member
+     */
+    protected boolean isFailure(Result result) {
+        return result.getStatusCode() >= Status.INTERNAL_SERVER_ERROR;
+    }
+
+    private List<BalancerMember> getMembers() {
+        List<BalancerMember> list = new ArrayList<>(members.size());
+        for (BalancerMemberStatistics statistics : members) {
+            list.add(statistics.getMember());
         }
+        return list;
     }
 
-    private synchronized List<BalancerMember> getMembers() {
+    /**
+     * Gets the statistics of the current members.
+     *
+     * @return the list of statistics, one per member
+     */
+    public List<BalancerMemberStatistics> getStatistics() {
         return new ArrayList<>(members);
     }
 
@@ -131,12 +210,17 @@ public class BalancerFilter extends ProxyFilter implements Filter {
     @Override
     public URI rewriteURI(RequestContext rc) throws URISyntaxException {
         Request request = rc.request();
-        BalancerMember member = selectBalancerMember(rc);
-        logger.debug("Selected {}", member.getName());
         String path = request.path();
         if (!path.startsWith(prefix)) {
             return null;
         }
+        BalancerMember member = selectBalancerMember(rc);
+        logger.debug("Selected {}", member.getName());
+        BalancerMemberStatistics statistics = findStatistics(member);
+        if (statistics != null) {
+            statistics.onRequestStart();
+            SELECTED.set(statistics);
+        }
 
         return computeDestinationURI(
                 request,
@@ -146,6 +230,15 @@ public class BalancerFilter extends ProxyFilter implements Filter {
         );
     }
 
+    /**
+     * Selects the member handling the request. If sticky session is enabled, it tries to reuse the member stored in
+     * the session or given in the `_balancer` parameter. Otherwise, the member is chosen by the balancing strategy
+     * among the available members. When no members are available (all ejected or unhealthy), all members are
+     * considered.
+     *
+     * @param request the request context
+     * @return the selected member
+     */
     protected BalancerMember selectBalancerMember(RequestContext request) {
         BalancerMember member;
         if (stickySession) {
@@ -167,14 +260,37 @@ public class BalancerFilter extends ProxyFilter implements Filter {
             logger.warn("Cannot enforce sticky session policy for {} - the member ({}) has left", request.request().uri(), balancer);
         }
 
-        synchronized (this) {
-            int index = (int) (counter.getAndIncrement() % members.size());
-            member = members.get(index);
-            if (stickySession) {
-                request.context().session().put("_balancer", member.getName());
+        member = strategy.select(getCandidates()).getMember();
+        if (stickySession) {
+            request.context().session().put("_balancer", member.getName());
+        }
+        return member;
+    }
+
+    private List<BalancerMemberStatistics> getCandidates() {
+        List<BalancerMemberStatistics> all = new ArrayList<>(members);
+        List<BalancerMemberStatistics> available = new ArrayList<>(all.size());
+        long now = System.nanoTime();
+        for (BalancerMemberStatistics statistics : all) {
+            if (statistics.isAvailable(now)) {
+                available.add(statistics);
+            }
+        }
+        if (available.isEmpty()) {
+            // Better trying a failing member than rejecting the request.
+            logger.warn("No available members in balancer '{}', using all members", name);
+            return all;
+        }
+        return available;
+    }
+
+    private BalancerMemberStatistics findStatistics(BalancerMember member) {
+        for (BalancerMemberStatistics statistics : members) {
+            if (statistics.getMember().equals(member)) {
+                return statistics;
             }
-            return member;
         }
+        return null;
     }
 
     /**
@@ -270,6 +386,139 @@ public class BalancerFilter extends ProxyFilter implements Filter {
         }
     }
 
+    /**
+     * Gets the strategy used to select members. By default, it uses the 'strategy' entry of the configuration
+     * object, which can be {@code round-robin} (the default), {@code least-outstanding-requests}, {@code
+     * power-of-two-choices} (latency aware) or {@code weighted-round-robin}. It can be overridden to return a custom
+     * strategy.
+     *
+     * @return the strategy
+     */
+    public BalancingStrategy getBalancingStrategy() {
+        String strategy = configuration == null ? null : configuration.get("strategy");
+        if (strategy == null || "round-robin".equalsIgnoreCase(strategy)) {
+            return new RoundRobinStrategy();
+        } else if ("least-outstanding-requests".equalsIgnoreCase(strategy)) {
+            return new LeastOutstandingRequestsStrategy();
+        } else if ("power-of-two-choices".equalsIgnoreCase(strategy)) {
+            return new PowerOfTwoChoicesStrategy();
+        } else if ("weighted-round-robin".equalsIgnoreCase(strategy)) {
+            return new WeightedRoundRobinStrategy();
+        }
+        throw new IllegalArgumentException("Unknown balancing strategy '" + strategy + "'");
+    }
+
+    /**
+     * Gets the number of consecutive failures ejecting a member (5 by default). 0 disables the ejection.
+     *
+     * @return the number of failures
+     */
+    public int getFailureThreshold() {
+        if (configuration == null) {
+            return 5;
+        } else {
+            Integer threshold = configuration.getIntegerWithDefault("failureThreshold", 5);
+            return threshold == null ? 5 : threshold;
+        }
+    }
+
+    /**
+     * Gets the time in milliseconds during which an ejected member does not receive requests (30 seconds by
+     * default).
+     *
+     * @return the ejection time
+     */
+    public long getEjectionTime() {
+        if (configuration == null) {
+            return 30000L;
+        } else {
+            Long time = configuration.getLongWithDefault("ejectionTime", 30000L);
+            return time == null ? 30000L : time;
+        }
+    }
+
+    /**
+     * Gets the path (appended to the member URL) invoked by the active health check. By default, it returns the
+     * 'healthCheck.path' entry of the configuration object. If {@code null}, the active health check is disabled.
+     *
+     * @return the health check path
+     */
+    public String getHealthCheckPath() {
+        if (configuration == null) {
+            return null;
+        } else {
+            return configuration.get("healthCheck.path");
+        }
+    }
+
+    /**
+     * Gets the period of the active health check in milliseconds (10 seconds by default).
+     *
+     * @return the period
+     */
+    public long getHealthCheckPeriod() {
+        if (configuration == null) {
+            return 10000L;
+        } else {
+            Long period = configuration.getLongWithDefault("healthCheck.period", 10000L);
+            return period == null ? 10000L : period;
+        }
+    }
+
+    /**
+     * Starts the active health check. Periodically, a {@code GET} request is sent to the health check path of each
+     * member. A member answering with a server error (or not answering) is marked as unhealthy and does not receive
+     * requests until a health check succeeds. This method does nothing if no health check path is set.
+     * <p>
+     * This method is generally called from the {@code Validate} callback of the balancer, and {@link
+     * #stopHealthChecks()} from the {@code Invalidate} callback.
+     *
+     * @param scheduler the scheduler used to run the health checks
+     */
+    public synchronized void startHealthChecks(ManagedScheduledExecutorService scheduler) {
+        final String path = getHealthCheckPath();
+        if (path == null || healthCheck != null) {
+            return;
+        }
+        long period = getHealthCheckPeriod();
+        healthCheck = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for (BalancerMemberStatistics statistics : members) {
+                    check(statistics, path);
+                }
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the active health check.
+     */
+    public synchronized void stopHealthChecks() {
+        if (healthCheck != null) {
+            healthCheck.cancel(true);
+            healthCheck = null;
+        }
+    }
+
+    private void check(BalancerMemberStatistics statistics, String path) {
+        BalancerMember member = statistics.getMember();
+        boolean healthy;
+        try {
+            HttpResponse response = getClient().execute(new HttpGet(URI.create(member.proxyTo() + path)));
+            EntityUtils.consumeQuietly(response.getEntity());
+            healthy = response.getStatusLine().getStatusCode() < Status.INTERNAL_SERVER_ERROR;
+        } catch (Exception e) {
+            logger.debug("Health check of balancer member '{}' failed", member.getName(), e);
+            healthy = false;
+        }
+        if (healthy != statistics.isHealthy()) {
+            logger.info("Balancer member '{}' of balancer '{}' is now {}", member.getName(), name,
+                    healthy ? "healthy" : "unhealthy");
+        }
+        statistics.setHealthy(healthy);
+    }
+
     /**
      * Adds a new member.
      *
@@ -278,7 +527,7 @@ public class BalancerFilter extends ProxyFilter implements Filter {
     public synchronized void addMember(BalancerMember member) {
         if (member.getBalancerName().equals(name)) {
             logger.info("Adding balancer member '{}' to balancer '{}'", member.getName(), name);
-            members.add(member);
+            members.add(new BalancerMemberStatistics(member));
         }
     }
 
@@ -288,7 +537,8 @@ public class BalancerFilter extends ProxyFilter implements Filter {
      * @param member the member.
      */
     public synchronized void removeMember(BalancerMember member) {
-        if (members.remove(member)) {
+        BalancerMemberStatistics statistics = findStatistics(member);
+        if (statistics != null && members.remove(statistics)) {
             logger.info("Removing balancer member '{}' from balancer '{}'", member.getName(), name);
         }
     }
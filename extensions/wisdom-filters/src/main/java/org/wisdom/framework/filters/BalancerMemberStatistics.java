@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the state of a {@link org.wisdom.framework.filters.BalancerMember} managed by a {@link
+ * org.wisdom.framework.filters.BalancerFilter}: the number of in-flight requests, the average latency, the number of
+ * consecutive failures and whether or not the member is currently ejected or unhealthy.
+ * <p>
+ * All methods are thread-safe and lock-free.
+ */
+public class BalancerMemberStatistics {
+
+    /**
+     * The smoothing factor of the latency average. The higher, the faster old measures are forgotten.
+     */
+    private static final double DECAY = 0.3;
+
+    private final BalancerMember member;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong latency = new AtomicLong(Double.doubleToLongBits(0.0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile long ejectedUntil;
+    private volatile boolean healthy = true;
+
+    /**
+     * The current weight used by the {@link org.wisdom.framework.filters.WeightedRoundRobinStrategy}. Guarded by the
+     * strategy.
+     */
+    int currentWeight;
+
+    /**
+     * Creates a new instance of {@link org.wisdom.framework.filters.BalancerMemberStatistics}.
+     *
+     * @param member the member
+     */
+    public BalancerMemberStatistics(BalancerMember member) {
+        this.member = member;
+    }
+
+    /**
+     * @return the member.
+     */
+    public BalancerMember getMember() {
+        return member;
+    }
+
+    /**
+     * @return the number of requests currently handled by the member.
+     */
+    public int getOutstandingRequests() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return the exponentially weighted moving average of the member latency in milliseconds, 0 if the member has
+     * not completed any request yet.
+     */
+    public double getLatencyAverage() {
+        return Double.longBitsToDouble(latency.get());
+    }
+
+    /**
+     * @return the number of failures observed since the last success.
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * @return the total number of requests sent to the member.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return the total number of failed requests.
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * @return whether or not the last health check has succeeded ({@code true} when health checks are not enabled).
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Checks whether or not the member is ejected because of too many consecutive failures.
+     *
+     * @param now the current time in nanoseconds (as returned by {@link System#nanoTime()})
+     * @return {@code true} if the member is ejected
+     */
+    public boolean isEjected(long now) {
+        return ejectedUntil != 0 && now - ejectedUntil < 0;
+    }
+
+    /**
+     * Checks whether or not the member can receive requests.
+     *
+     * @param now the current time in nanoseconds (as returned by {@link System#nanoTime()})
+     * @return {@code true} if the member is healthy and not ejected
+     */
+    public boolean isAvailable(long now) {
+        return healthy && !isEjected(now);
+    }
+
+    /**
+     * Notifies that a request is sent to the member.
+     */
+    public void onRequestStart() {
+        requests.incrementAndGet();
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Notifies that a request has been completed.
+     *
+     * @param latency the latency in nanoseconds
+     * @param success whether or not the request was successful
+     * @param threshold the number of consecutive failures ejecting the member, 0 to disable ejection
+     * @param ejection the ejection duration in milliseconds
+     * @return {@code true} if this completion has ejected the member, {@code false} otherwise
+     */
+    public boolean onRequestEnd(long latency, boolean success, int threshold, long ejection) {
+        outstanding.decrementAndGet();
+        updateLatency(TimeUnit.NANOSECONDS.toMicros(latency) / 1000.0);
+        if (success) {
+            consecutiveFailures.set(0);
+            return false;
+        }
+        failures.incrementAndGet();
+        int count = consecutiveFailures.incrementAndGet();
+        if (threshold > 0 && count >= threshold) {
+            // Once the ejection expires, the member gets requests again. A new failure ejects it immediately as
+            // the counter is only reset on success.
+            ejectedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ejection);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the health state of the member, as computed by the active health check.
+     *
+     * @param healthy the health state
+     */
+    public void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    private void updateLatency(double sample) {
+        while (true) {
+            long current = latency.get();
+            double average = Double.longBitsToDouble(current);
+            double updated = average == 0.0 ? sample : average + DECAY * (sample - average);
+            if (latency.compareAndSet(current, Double.doubleToLongBits(updated))) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+import java.util.List;
+
+/**
+ * The strategy used by a {@link org.wisdom.framework.filters.BalancerFilter} to pick the member handling a request.
+ * Strategies receive the statistics of the members that are currently available (i.e. neither ejected nor marked
+ * as unhealthy), and so can base their decision on the number of in-flight requests or on the observed latency.
+ * <p>
+ * Implementations must be thread-safe, as they are called concurrently.
+ */
+public interface BalancingStrategy {
+
+    /**
+     * Selects a member among the given candidates.
+     *
+     * @param candidates the available members, never empty
+     * @return the selected member, must be one of the candidates
+     */
+    BalancerMemberStatistics select(List<BalancerMemberStatistics> candidates);
+
+}
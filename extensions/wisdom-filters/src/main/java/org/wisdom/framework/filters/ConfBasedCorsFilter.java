@@ -21,7 +21,9 @@ package org.wisdom.framework.filters;
 
 import java.util.List;
 
+import org.apache.felix.ipojo.annotations.Bind;
 import org.apache.felix.ipojo.annotations.Controller;
+import org.apache.felix.ipojo.annotations.Modified;
 import org.apache.felix.ipojo.annotations.Requires;
 import org.apache.felix.ipojo.annotations.Validate;
 import org.wisdom.api.annotations.Service;
@@ -68,7 +70,27 @@ public class ConfBasedCorsFilter extends AbstractCorsFilter {
      * @param router the router.
      */
     public ConfBasedCorsFilter(@Requires Router router) {
-        super(router);
+        super(router, true);
+    }
+
+    /**
+     * Tracks the version of the routes published by the router.
+     *
+     * @param router the router
+     */
+    @Bind(id = "routes")
+    public void bindRouter(Router router) {
+        routesChanged();
+    }
+
+    /**
+     * The router has changed its routes, the route index is rebuilt on the next preflight request.
+     *
+     * @param router the router
+     */
+    @Modified(id = "routes")
+    public void routerModified(Router router) {
+        routesChanged();
     }
 
     /**
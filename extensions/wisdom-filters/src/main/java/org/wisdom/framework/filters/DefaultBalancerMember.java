@@ -22,28 +22,45 @@ package org.wisdom.framework.filters;
 import org.wisdom.api.configuration.Configuration;
 
 /**
- * An implementation of {@link org.wisdom.framework.filters.BalancerMember}.
+ * An implementation of {@link org.wisdom.framework.filters.BalancerMember}. The weight of the member is 1 unless set
+ * explicitly.
  */
-public class DefaultBalancerMember implements BalancerMember {
+public class DefaultBalancerMember implements WeightedBalancerMember {
 
     private final String name;
     private final String proxyTo;
     private final String balancerName;
+    private final int weight;
 
     public DefaultBalancerMember(String name, String proxyTo, String balancerName) {
+        this(name, proxyTo, balancerName, 1);
+    }
+
+    public DefaultBalancerMember(String name, String proxyTo, String balancerName, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("The weight of the balancer member '" + name + "' must be strictly " +
+                    "positive (found " + weight + ")");
+        }
         this.name = name;
         this.proxyTo = proxyTo;
         this.balancerName = balancerName;
+        this.weight = weight;
     }
 
     public DefaultBalancerMember(Configuration configuration) {
         this(
                 configuration.getOrDie("name"),
                 configuration.getOrDie("proxyTo"),
-                configuration.getOrDie("balancerName")
+                configuration.getOrDie("balancerName"),
+                weight(configuration)
         );
     }
 
+    private static int weight(Configuration configuration) {
+        // Invalid weights are rejected by the constructor.
+        return configuration.getIntegerWithDefault("weight", 1);
+    }
+
 
     /**
      * Gets the member name. Used to identify the member.
@@ -74,4 +91,14 @@ public class DefaultBalancerMember implements BalancerMember {
     public String getBalancerName() {
         return balancerName;
     }
+
+    /**
+     * Gets the weight of the member.
+     *
+     * @return the weight
+     */
+    @Override
+    public int getWeight() {
+        return weight;
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link org.wisdom.framework.filters.BalancingStrategy} picking the member having the smallest number of
+ * in-flight requests. Ties are broken in a round robin fashion, so idle members get the same share of the traffic.
+ */
+public class LeastOutstandingRequestsStrategy implements BalancingStrategy {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Selects the member having the smallest number of outstanding requests.
+     *
+     * @param candidates the available members, never empty
+     * @return the selected member
+     */
+    @Override
+    public BalancerMemberStatistics select(List<BalancerMemberStatistics> candidates) {
+        int size = candidates.size();
+        int start = (int) ((counter.getAndIncrement() & Long.MAX_VALUE) % size);
+        BalancerMemberStatistics selected = null;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            BalancerMemberStatistics candidate = candidates.get((start + i) % size);
+            int outstanding = candidate.getOutstandingRequests();
+            if (outstanding < min) {
+                min = outstanding;
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+}
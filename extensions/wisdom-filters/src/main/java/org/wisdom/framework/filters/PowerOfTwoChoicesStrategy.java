@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link org.wisdom.framework.filters.BalancingStrategy} picking two random members and selecting the one having
+ * the lowest cost. The cost is the exponentially weighted moving average (EWMA) of the member latency multiplied by
+ * its number of in-flight requests (plus one). A member without any latency measure yet is given the average latency
+ * of the members having one (or 1 ms if none has), so its in-flight requests are accounted for: a new member receives
+ * its fair share of the requests instead of all of them until it answers.
+ * <p>
+ * Comparing two random members rather than all of them avoids the herd effect where all the concurrent requests
+ * are sent to the same 'best' member.
+ */
+public class PowerOfTwoChoicesStrategy implements BalancingStrategy {
+
+    /**
+     * Selects the cheapest of two randomly picked members.
+     *
+     * @param candidates the available members, never empty
+     * @return the selected member
+     */
+    @Override
+    public BalancerMemberStatistics select(List<BalancerMemberStatistics> candidates) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // Pick a second index different from the first one.
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        BalancerMemberStatistics a = candidates.get(first);
+        BalancerMemberStatistics b = candidates.get(second);
+        double latencyA = a.getLatencyAverage();
+        double latencyB = b.getLatencyAverage();
+        if (latencyA == 0.0 || latencyB == 0.0) {
+            double seed = seed(candidates);
+            latencyA = latencyA == 0.0 ? seed : latencyA;
+            latencyB = latencyB == 0.0 ? seed : latencyB;
+        }
+        return cost(a, latencyA) <= cost(b, latencyB) ? a : b;
+    }
+
+    /**
+     * Computes the latency given to the members not having answered yet: the average latency of the members having
+     * a measure, 1 ms if none has.
+     *
+     * @param candidates the members
+     * @return the seed latency in milliseconds
+     */
+    private static double seed(List<BalancerMemberStatistics> candidates) {
+        double sum = 0.0;
+        int count = 0;
+        for (BalancerMemberStatistics candidate : candidates) {
+            double latency = candidate.getLatencyAverage();
+            if (latency > 0.0) {
+                sum += latency;
+                count++;
+            }
+        }
+        return count == 0 ? 1.0 : sum / count;
+    }
+
+    private static double cost(BalancerMemberStatistics statistics, double latency) {
+        return (statistics.getOutstandingRequests() + 1) * latency;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default {@link org.wisdom.framework.filters.BalancingStrategy} picking the members one after the other.
+ */
+public class RoundRobinStrategy implements BalancingStrategy {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Selects the next member.
+     *
+     * @param candidates the available members, never empty
+     * @return the selected member
+     */
+    @Override
+    public BalancerMemberStatistics select(List<BalancerMemberStatistics> candidates) {
+        int index = (int) ((counter.getAndIncrement() & Long.MAX_VALUE) % candidates.size());
+        return candidates.get(index);
+    }
+}
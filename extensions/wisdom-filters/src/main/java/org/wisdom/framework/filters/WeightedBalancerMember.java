@@ -0,0 +1,36 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+/**
+ * A {@link org.wisdom.framework.filters.BalancerMember} having a weight. The weight is used by the {@link
+ * org.wisdom.framework.filters.WeightedRoundRobinStrategy} to send proportionally more requests to the members
+ * having a higher weight. Members not implementing this interface have a weight of 1.
+ */
+public interface WeightedBalancerMember extends BalancerMember {
+
+    /**
+     * Gets the weight of the member. The weight must be strictly positive.
+     *
+     * @return the weight
+     */
+    int getWeight();
+
+}
@@ -0,0 +1,63 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters;
+
+import java.util.List;
+
+/**
+ * A {@link org.wisdom.framework.filters.BalancingStrategy} distributing requests proportionally to the member
+ * weights (see {@link org.wisdom.framework.filters.WeightedBalancerMember}). It uses the 'smooth' weighted round
+ * robin algorithm, so a member with a weight of 5 does not receive 5 consecutive requests, but requests interleaved
+ * with the ones sent to the other members.
+ */
+public class WeightedRoundRobinStrategy implements BalancingStrategy {
+
+    /**
+     * Selects the member having the highest current weight, and then decreases its current weight by the total
+     * weight.
+     *
+     * @param candidates the available members, never empty
+     * @return the selected member
+     */
+    @Override
+    public BalancerMemberStatistics select(List<BalancerMemberStatistics> candidates) {
+        int total = 0;
+        BalancerMemberStatistics selected = null;
+        synchronized (this) {
+            for (BalancerMemberStatistics candidate : candidates) {
+                int weight = weight(candidate.getMember());
+                total += weight;
+                candidate.currentWeight += weight;
+                if (selected == null || candidate.currentWeight > selected.currentWeight) {
+                    selected = candidate;
+                }
+            }
+            selected.currentWeight -= total;
+        }
+        return selected;
+    }
+
+    private static int weight(BalancerMember member) {
+        if (member instanceof WeightedBalancerMember) {
+            return Math.max(1, ((WeightedBalancerMember) member).getWeight());
+        }
+        return 1;
+    }
+}
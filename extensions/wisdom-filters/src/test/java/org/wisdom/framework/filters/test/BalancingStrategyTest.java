@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters.test;
+
+import org.junit.Test;
+import org.wisdom.framework.filters.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BalancingStrategyTest {
+
+    private BalancerMemberStatistics m1 = new BalancerMemberStatistics(
+            new DefaultBalancerMember("member-1", "http://localhost:9001", "balancer", 3));
+    private BalancerMemberStatistics m2 = new BalancerMemberStatistics(
+            new DefaultBalancerMember("member-2", "http://localhost:9002", "balancer", 1));
+
+    private List<BalancerMemberStatistics> members = Arrays.asList(m1, m2);
+
+    @Test
+    public void testRoundRobin() {
+        BalancingStrategy strategy = new RoundRobinStrategy();
+        assertThat(strategy.select(members)).isSameAs(m1);
+        assertThat(strategy.select(members)).isSameAs(m2);
+        assertThat(strategy.select(members)).isSameAs(m1);
+    }
+
+    @Test
+    public void testLeastOutstandingRequests() {
+        BalancingStrategy strategy = new LeastOutstandingRequestsStrategy();
+        m1.onRequestStart();
+        m1.onRequestStart();
+        m2.onRequestStart();
+        for (int i = 0; i < 10; i++) {
+            assertThat(strategy.select(members)).isSameAs(m2);
+        }
+        m1.onRequestEnd(TimeUnit.MILLISECONDS.toNanos(10), true, 0, 0);
+        m1.onRequestEnd(TimeUnit.MILLISECONDS.toNanos(10), true, 0, 0);
+        assertThat(strategy.select(members)).isSameAs(m1);
+    }
+
+    @Test
+    public void testPowerOfTwoChoices() {
+        BalancingStrategy strategy = new PowerOfTwoChoicesStrategy();
+        m1.onRequestStart();
+        m1.onRequestEnd(TimeUnit.MILLISECONDS.toNanos(500), true, 0, 0);
+        m2.onRequestStart();
+        m2.onRequestEnd(TimeUnit.MILLISECONDS.toNanos(5), true, 0, 0);
+        assertThat(m1.getLatencyAverage()).isEqualTo(500.0);
+        // With two members, both are compared, so the fastest is always selected.
+        for (int i = 0; i < 10; i++) {
+            assertThat(strategy.select(members)).isSameAs(m2);
+        }
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesWithoutLatencyMeasure() {
+        BalancingStrategy strategy = new PowerOfTwoChoicesStrategy();
+        m1.onRequestStart();
+        m1.onRequestEnd(TimeUnit.MILLISECONDS.toNanos(10), true, 0, 0);
+        // m2 has not answered yet, but already handles 3 requests: it costs 4 times the average latency.
+        m2.onRequestStart();
+        m2.onRequestStart();
+        m2.onRequestStart();
+        assertThat(m2.getLatencyAverage()).isEqualTo(0.0);
+        assertThat(strategy.select(members)).isSameAs(m1);
+
+        // Without any measure, the member with the fewest in-flight requests is selected.
+        BalancerMemberStatistics m3 = new BalancerMemberStatistics(
+                new DefaultBalancerMember("member-3", "http://localhost:9003", "balancer", 1));
+        assertThat(strategy.select(Arrays.asList(m2, m3))).isSameAs(m3);
+    }
+
+    @Test
+    public void testWeightedRoundRobin() {
+        BalancingStrategy strategy = new WeightedRoundRobinStrategy();
+        List<BalancerMemberStatistics> selected = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            selected.add(strategy.select(members));
+        }
+        // Smooth weighted round robin with weights 3 and 1.
+        assertThat(selected).containsExactly(m1, m1, m2, m1, m1, m1, m2, m1);
+    }
+
+    @Test
+    public void testEjection() {
+        long now = System.nanoTime();
+        assertThat(m1.isAvailable(now)).isTrue();
+        m1.onRequestStart();
+        assertThat(m1.onRequestEnd(1000, false, 2, 60000)).isFalse();
+        m1.onRequestStart();
+        assertThat(m1.onRequestEnd(1000, false, 2, 60000)).isTrue();
+        assertThat(m1.isAvailable(System.nanoTime())).isFalse();
+        assertThat(m1.getFailureCount()).isEqualTo(2);
+        assertThat(m1.getOutstandingRequests()).isEqualTo(0);
+
+        // Success resets the failure counter.
+        m2.onRequestStart();
+        m2.onRequestEnd(1000, false, 2, 60000);
+        m2.onRequestStart();
+        m2.onRequestEnd(1000, true, 2, 60000);
+        assertThat(m2.getConsecutiveFailures()).isEqualTo(0);
+        assertThat(m2.isAvailable(System.nanoTime())).isTrue();
+
+        m2.setHealthy(false);
+        assertThat(m2.isAvailable(System.nanoTime())).isFalse();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.filters.test;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
+import org.wisdom.api.http.Status;
+import org.wisdom.api.interception.RequestContext;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+import org.wisdom.framework.filters.AbstractCorsFilter;
+import org.wisdom.test.parents.FakeContext;
+import org.wisdom.test.parents.FakeRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the preflight answers computed by the {@link org.wisdom.framework.filters.AbstractCorsFilter}.
+ */
+public class CorsFilterTest {
+
+    private final CorsTestController controller = new CorsTestController();
+
+    private Router router;
+
+    private List<Route> routes;
+
+    private TestCorsFilter filter;
+
+    @Before
+    public void setUp() {
+        routes = new ArrayList<>();
+        routes.add(route(HttpMethod.GET, "/items/{id}"));
+        routes.add(route(HttpMethod.PUT, "/items/{id}"));
+        routes.add(route(HttpMethod.POST, "/items"));
+        routes.add(route(HttpMethod.DELETE, "/items/all"));
+
+        router = mock(Router.class);
+        when(router.getRoutes()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return new ArrayList<>(routes);
+            }
+        });
+        filter = new TestCorsFilter(router, true);
+    }
+
+    @Test
+    public void testPreflight() throws Exception {
+        Result result = filter.call(preflightRoute("/items/1"), context("http://perdu.com", "PUT"));
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_METHODS)).isEqualTo("GET, PUT");
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN))
+                .isEqualTo("http://perdu.com, http://wisdom.org");
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_HEADERS)).isEqualTo("X-Foo, X-Bar");
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_MAX_AGE)).isEqualTo("60");
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_CREDENTIALS)).isEqualTo("true");
+
+        result = filter.call(preflightRoute("/items/1"), context("http://perdu.com", "POST"));
+        assertThat(result.getStatusCode()).isEqualTo(Status.UNAUTHORIZED);
+
+        // Both patterns match, methods are merged.
+        result = filter.call(preflightRoute("/items/all"), context("http://perdu.com", "DELETE"));
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_METHODS)).isEqualTo("GET, PUT, DELETE");
+
+        // The routes are only collected once.
+        verify(router, times(1)).getRoutes();
+    }
+
+    @Test
+    public void testPreflightOnUnknownUrl() throws Exception {
+        Result result = filter.call(preflightRoute("/missing"), context("http://perdu.com", "GET"));
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_FOUND);
+        result = filter.call(preflightRoute("/missing"), context("http://perdu.com", "GET"));
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_FOUND);
+        verify(router, times(1)).getRoutes();
+    }
+
+    @Test
+    public void testIndexRebuiltWhenRoutesChange() throws Exception {
+        Result result = filter.call(preflightRoute("/items"), context("http://perdu.com", "POST"));
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_METHODS)).isEqualTo("POST");
+
+        // A controller arrives, the router notifies the change once its routes are updated.
+        routes.add(route(HttpMethod.GET, "/items"));
+        filter.changeRoutes();
+
+        result = filter.call(preflightRoute("/items"), context("http://perdu.com", "GET"));
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_METHODS)).isEqualTo("POST, GET");
+        verify(router, times(2)).getRoutes();
+    }
+
+    @Test
+    public void testRoutesCollectedOnEachPreflightWithoutIndex() throws Exception {
+        filter = new TestCorsFilter(router, false);
+        Result result = filter.call(preflightRoute("/items"), context("http://perdu.com", "POST"));
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_METHODS)).isEqualTo("POST");
+
+        // No notification, the routes are collected again.
+        routes.add(route(HttpMethod.GET, "/items"));
+        result = filter.call(preflightRoute("/items"), context("http://perdu.com", "GET"));
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_METHODS)).isEqualTo("POST, GET");
+        verify(router, times(2)).getRoutes();
+    }
+
+    @Test
+    public void testHeadersRecomputedWhenConfigurationChanges() throws Exception {
+        Route route = mock(Route.class);
+        when(route.getHttpMethod()).thenReturn(HttpMethod.GET);
+
+        Result result = filter.call(route, context("http://perdu.com", null));
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN))
+                .isEqualTo("http://perdu.com, http://wisdom.org");
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_EXPOSE_HEADERS)).isEqualTo("X-Foo, X-Bar");
+
+        // New values are detected.
+        filter.hosts = ImmutableList.of("*");
+        filter.headers = Collections.emptyList();
+
+        result = filter.call(route, context("http://perdu.com", null));
+        assertThat(result.getHeaders().get(HeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("*");
+        assertThat(result.getHeaders()).doesNotContainKey(HeaderNames.ACCESS_CONTROL_EXPOSE_HEADERS);
+    }
+
+    private Route route(HttpMethod method, String url) {
+        return new RouteBuilder().route(method).on(url).to(controller, "getRoute");
+    }
+
+    private Route preflightRoute(String url) {
+        Route route = mock(Route.class);
+        when(route.getHttpMethod()).thenReturn(HttpMethod.OPTIONS);
+        when(route.isUnbound()).thenReturn(true);
+        when(route.getUrl()).thenReturn(url);
+        return route;
+    }
+
+    private RequestContext context(String origin, String method) throws Exception {
+        FakeContext context = new FakeContext();
+        context.setHeader(HeaderNames.ORIGIN, origin);
+        if (method != null) {
+            context.setHeader(HeaderNames.ACCESS_CONTROL_REQUEST_METHOD, method);
+        }
+        FakeRequest request = new FakeRequest(context);
+        RequestContext rc = mock(RequestContext.class);
+        when(rc.context()).thenReturn(context);
+        when(rc.request()).thenReturn(request);
+        when(rc.proceed()).thenReturn(Results.notFound());
+        return rc;
+    }
+
+    private static class TestCorsFilter extends AbstractCorsFilter {
+
+        List<String> hosts = ImmutableList.of("http://perdu.com", "http://wisdom.org");
+
+        List<String> headers = ImmutableList.of("X-Foo", "X-Bar");
+
+        TestCorsFilter(Router router, boolean indexRoutes) {
+            super(router, indexRoutes);
+        }
+
+        void changeRoutes() {
+            routesChanged();
+        }
+
+        @Override
+        public List<String> getExposedHeaders() {
+            return headers;
+        }
+
+        @Override
+        public List<String> getAllowedHosts() {
+            return hosts;
+        }
+
+        @Override
+        public boolean getAllowCredentials() {
+            return true;
+        }
+
+        @Override
+        public Integer getMaxAge() {
+            return 60;
+        }
+    }
+}
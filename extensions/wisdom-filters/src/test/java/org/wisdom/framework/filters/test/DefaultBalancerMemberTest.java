@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.wisdom.api.configuration.Configuration;
 import org.wisdom.framework.filters.BalancerMember;
 import org.wisdom.framework.filters.DefaultBalancerMember;
+import org.wisdom.framework.filters.WeightedBalancerMember;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -36,12 +37,36 @@ public class DefaultBalancerMemberTest {
         when(configuration.getOrDie("name")).thenReturn("member");
         when(configuration.getOrDie("proxyTo")).thenReturn("http://perdu.com");
         when(configuration.getOrDie("balancerName")).thenReturn("balancer");
+        when(configuration.getIntegerWithDefault("weight", 1)).thenReturn(1);
 
         BalancerMember member = new DefaultBalancerMember(configuration);
 
         assertThat(member.getName()).isEqualTo("member");
         assertThat(member.proxyTo()).isEqualTo("http://perdu.com");
         assertThat(member.getBalancerName()).isEqualTo("balancer");
+        assertThat(((WeightedBalancerMember) member).getWeight()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWeightFromConfiguration() {
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getOrDie("name")).thenReturn("member");
+        when(configuration.getOrDie("proxyTo")).thenReturn("http://perdu.com");
+        when(configuration.getOrDie("balancerName")).thenReturn("balancer");
+        when(configuration.getIntegerWithDefault("weight", 1)).thenReturn(3);
+
+        assertThat(new DefaultBalancerMember(configuration).getWeight()).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWeight() {
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getOrDie("name")).thenReturn("member");
+        when(configuration.getOrDie("proxyTo")).thenReturn("http://perdu.com");
+        when(configuration.getOrDie("balancerName")).thenReturn("balancer");
+        when(configuration.getIntegerWithDefault("weight", 1)).thenReturn(0);
+
+        new DefaultBalancerMember(configuration);
     }
 
 }
\ No newline at end of file
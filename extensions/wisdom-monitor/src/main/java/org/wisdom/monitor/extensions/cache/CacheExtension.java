@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.cache;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Controller;
+import org.wisdom.api.annotations.Route;
+import org.wisdom.api.annotations.View;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.cache.ExtendedCache;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.security.Authenticated;
+import org.wisdom.api.templates.Template;
+import org.wisdom.monitor.service.MonitorExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Monitor extension displaying the statistics (hits, misses, evictions) of the regions of the available cache
+ * services.
+ */
+@Controller
+@Authenticated("Monitor-Authenticator")
+public class CacheExtension extends DefaultController implements MonitorExtension {
+
+    @Requires(optional = true, specification = ExtendedCache.class)
+    ExtendedCache[] caches;
+
+    @View("monitor/caches")
+    Template template;
+
+    /**
+     * Gets the extension main view.
+     *
+     * @return the caches page.
+     */
+    @Route(method = HttpMethod.GET, uri = "/monitor/caches")
+    public Result index() {
+        return ok(render(template));
+    }
+
+    /**
+     * Gets the statistics of each region of each cache service.
+     *
+     * @return the json form of the statistics.
+     */
+    @Route(method = HttpMethod.GET, uri = "/monitor/caches.json")
+    public Result data() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (ExtendedCache cache : caches) {
+            List<CacheStatistics> regions = new ArrayList<>();
+            for (String region : new TreeSet<>(cache.regions())) {
+                regions.add(cache.region(region).getStatistics());
+            }
+            list.add(ImmutableMap.<String, Object>of(
+                    "provider", cache.getClass().getSimpleName(),
+                    "regions", regions));
+        }
+        return ok(list).json();
+    }
+
+    /**
+     * @return the label displayed in the menu.
+     */
+    @Override
+    public String label() {
+        return "Caches";
+    }
+
+    /**
+     * @return the url of the extension page.
+     */
+    @Override
+    public String url() {
+        return "/monitor/caches";
+    }
+
+    /**
+     * @return the category of the extension such as "root", "wisdom" or "OSGi".
+     */
+    @Override
+    public String category() {
+        return "wisdom";
+    }
+}
@@ -40,9 +40,11 @@ import org.wisdom.api.annotations.Controller;
 import org.wisdom.api.annotations.Path;
 import org.wisdom.api.annotations.Route;
 import org.wisdom.api.annotations.View;
+import org.wisdom.api.bodies.RenderableStream;
 import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.Json;
+import org.wisdom.api.engine.StartupProfiler;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.http.websockets.Publisher;
@@ -51,10 +53,12 @@ import org.wisdom.api.templates.Template;
 import org.wisdom.monitor.service.HealthCheck;
 import org.wisdom.monitor.service.MonitorExtension;
 
+import java.io.ByteArrayInputStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.net.InetSocketAddress;
+import java.util.Collections;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -87,6 +91,9 @@ public class DashboardExtension extends DefaultController implements MonitorExte
     @Requires(specification = HealthCheck.class, optional = true)
     List<HealthCheck> healthChecks;
 
+    @Requires(optional = true, nullable = false, proxy = false)
+    StartupProfiler profiler;
+
     @View("monitor/dashboard")
     Template monitor;
 
@@ -96,8 +103,18 @@ public class DashboardExtension extends DefaultController implements MonitorExte
     final MetricRegistry registry;
 
     private ScheduledFuture task;
+    private ScheduledFuture healthTask;
     private HttpMetricFilter httpMetricFilter;
+    RequestTimingRecorder requestTimingRecorder;
     private ServiceRegistration<MetricRegistry> reg;
+    private boolean started;
+
+    /**
+     * The result of the last health check run, health checks are executed periodically and not on demand.
+     */
+    private volatile SortedMap<String, HealthState> health = new TreeMap<>();
+
+    private final OpenMetricsWriter openMetricsWriter = new OpenMetricsWriter();
 
     /**
      * Creates the instance of dashboard extension.
@@ -107,10 +124,31 @@ public class DashboardExtension extends DefaultController implements MonitorExte
     }
 
     /**
-     * Starts the dashboard.
+     * Starts the dashboard. The metrics and reporters are set up once the application is ready if the startup
+     * profiler defers the non-critical components.
      */
     @Validate
     public void start() {
+        synchronized (this) {
+            started = true;
+        }
+        if (profiler != null) {
+            profiler.whenReady("monitor", new Runnable() {
+                @Override
+                public void run() {
+                    startMonitoring();
+                }
+            });
+        } else {
+            startMonitoring();
+        }
+    }
+
+    private synchronized void startMonitoring() {
+        if (!started) {
+            // Stopped before the deferred start.
+            return;
+        }
         logger().info("Registering JVM metrics");
         registry.register("jvm.memory", new MemoryUsageGaugeSet());
         registry.register("jvm.garbage", new GarbageCollectorMetricSet());
@@ -123,6 +161,8 @@ public class DashboardExtension extends DefaultController implements MonitorExte
             logger().info("Registering HTTP metrics");
             this.httpMetricFilter = new HttpMetricFilter(bc, configuration, registry);
             httpMetricFilter.start();
+            this.requestTimingRecorder = new RequestTimingRecorder(bc);
+            requestTimingRecorder.start();
         }
 
         if (configuration.getBooleanWithDefault("monitor.jmx.enabled", true)) {
@@ -146,6 +186,19 @@ public class DashboardExtension extends DefaultController implements MonitorExte
         logger().info("Registering the metric registry as service");
         reg = bc.registerService(MetricRegistry.class, registry, null);
 
+        int healthPeriod = configuration.getIntegerWithDefault("monitor.health.period", 10);
+        if (healthPeriod <= 0) {
+            healthPeriod = 10;
+        }
+        healthTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+            /**
+             * Runs the health checks.
+             */
+            public void run() {
+                health = runHealthChecks();
+            }
+        }, 0, healthPeriod, TimeUnit.SECONDS);
+
         task = scheduler.scheduleAtFixedRate(new Runnable() {
             /**
              * Sends updated data to the websocket.
@@ -166,6 +219,20 @@ public class DashboardExtension extends DefaultController implements MonitorExte
         return ok(getData()).json();
     }
 
+    /**
+     * Sends the current metrics using the Prometheus / OpenMetrics text format. Health checks are not executed, the
+     * last results are used.
+     *
+     * @return the metrics.
+     */
+    @Route(method = HttpMethod.GET, uri = "/openmetrics")
+    public Result openMetrics() {
+        byte[] exposition = openMetricsWriter.write(registry, health,
+                requestTimingRecorder != null ? requestTimingRecorder.getRoutes() : null);
+        return ok().render(new RenderableStream(new ByteArrayInputStream(exposition), false))
+                .as(OpenMetricsWriter.CONTENT_TYPE);
+    }
+
     /**
      * Build an immutable map containing the current metrics.
      *
@@ -185,14 +252,20 @@ public class DashboardExtension extends DefaultController implements MonitorExte
                 .put("counters", registry.getCounters())
                 .put("meters", registry.getMeters())
                 .put("histograms", registry.getHistograms())
-                .put("health", getHealth())
+                .put("health", health)
+                .put("routes", requestTimingRecorder != null ? requestTimingRecorder.getRoutes()
+                        : Collections.emptyMap())
+                .put("phases", requestTimingRecorder != null ? requestTimingRecorder.getPhases()
+                        : Collections.emptyMap())
                 .build();
     }
 
     /**
+     * Executes all health checks.
+     *
      * @return the map name - heath check of all health sensors.
      */
-    private SortedMap<String, HealthState> getHealth() {
+    SortedMap<String, HealthState> runHealthChecks() {
         SortedMap<String, HealthState> map = new TreeMap<>();
 
         for (HealthCheck hc : healthChecks) {
@@ -252,7 +325,8 @@ public class DashboardExtension extends DefaultController implements MonitorExte
      * It stops the web socket publication, and the sensors.
      */
     @Invalidate
-    public void stop() {
+    public synchronized void stop() {
+        started = false;
         if (reg != null) {
             reg.unregister();
             reg = null;
@@ -262,10 +336,19 @@ public class DashboardExtension extends DefaultController implements MonitorExte
             task.cancel(true);
         }
 
+        if (healthTask != null && !healthTask.isCancelled()) {
+            healthTask.cancel(true);
+        }
+
         if (httpMetricFilter != null) {
             httpMetricFilter.stop();
         }
 
+        if (requestTimingRecorder != null) {
+            requestTimingRecorder.stop();
+            requestTimingRecorder = null;
+        }
+
         registry.removeMatching(new MetricFilter() {
             /**
              * Returns true to remove all metrics.
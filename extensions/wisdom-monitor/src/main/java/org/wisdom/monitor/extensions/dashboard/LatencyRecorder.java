@@ -0,0 +1,64 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.dashboard;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latencies in a HdrHistogram. The recording is wait-free, so can be done from the engine threads. The
+ * recorded values are merged into a cumulative histogram when the statistics are read.
+ */
+public class LatencyRecorder {
+
+    /**
+     * The number of significant digits kept by the histograms.
+     */
+    private static final int PRECISION = 3;
+
+    private final Recorder recorder = new Recorder(PRECISION);
+
+    private final Histogram total = new Histogram(PRECISION);
+
+    private Histogram interval;
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        // Microseconds are precise enough, and keep the histograms small.
+        recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Gets the statistics about the latencies recorded since the creation of the recorder.
+     *
+     * @return the statistics
+     */
+    public synchronized LatencyStatistics getStatistics() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return new LatencyStatistics(total);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.dashboard;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * A snapshot of a latency histogram. Latencies are given in milliseconds.
+ */
+public class LatencyStatistics {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final long count;
+    private final double mean;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    /**
+     * Creates the snapshot of the given histogram, containing values in microseconds.
+     *
+     * @param histogram the histogram
+     */
+    public LatencyStatistics(Histogram histogram) {
+        count = histogram.getTotalCount();
+        mean = histogram.getMean() / MICROS_PER_MILLI;
+        p50 = histogram.getValueAtPercentile(50.0) / MICROS_PER_MILLI;
+        p90 = histogram.getValueAtPercentile(90.0) / MICROS_PER_MILLI;
+        p99 = histogram.getValueAtPercentile(99.0) / MICROS_PER_MILLI;
+        p999 = histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI;
+        max = histogram.getMaxValue() / MICROS_PER_MILLI;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
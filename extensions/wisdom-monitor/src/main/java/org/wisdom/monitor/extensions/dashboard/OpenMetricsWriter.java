@@ -0,0 +1,282 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.dashboard;
+
+import com.codahale.metrics.*;
+import com.google.common.base.Charsets;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes metrics using the Prometheus / OpenMetrics text exposition format. The metrics are streamed into a buffer
+ * reused from one scrape to the other, without building any intermediate structure. The buffer is then encoded into
+ * a byte buffer, also reused, so each scrape only allocates the returned array.
+ * <p>
+ * Metric names are sanitized ({@literal jvm.memory.heap.used} becomes {@literal jvm_memory_heap_used}). Counters
+ * and gauges are exposed as gauges (Metrics counters can be decremented), meters as a counter and rate gauges, and
+ * timers and histograms as summaries. Durations are given in seconds.
+ */
+public class OpenMetricsWriter {
+
+    /**
+     * The content type of the text exposition format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final double MILLIS_PER_SECOND = TimeUnit.SECONDS.toMillis(1);
+
+    private final StringBuilder buffer = new StringBuilder(16 * 1024);
+
+    private final CharsetEncoder encoder = Charsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private ByteBuffer bytes = ByteBuffer.allocate(16 * 1024);
+
+    /**
+     * Sanitized names, computed once per metric.
+     */
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Writes the metrics, the health states and the route latencies.
+     *
+     * @param registry the registry
+     * @param health   the last health check results, may be {@literal null}
+     * @param routes   the route latencies, may be {@literal null}
+     * @return the exposition, encoded in UTF-8
+     */
+    public synchronized byte[] write(MetricRegistry registry, Map<String, HealthState> health,
+                                     Map<String, LatencyStatistics> routes) {
+        buffer.setLength(0);
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            writeGauge(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            String name = name(entry.getKey());
+            type(name, "gauge");
+            sample(name, entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+            writeMeter(name(entry.getKey()), entry.getValue());
+        }
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            Timer timer = entry.getValue();
+            writeSummary(name(entry.getKey()) + "_seconds", timer.getSnapshot(), timer.getCount(),
+                    1.0 / NANOS_PER_SECOND);
+        }
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            writeSummary(name(entry.getKey()), histogram.getSnapshot(), histogram.getCount(), 1.0);
+        }
+        if (health != null && !health.isEmpty()) {
+            writeHealth(health);
+        }
+        if (routes != null && !routes.isEmpty()) {
+            writeRoutes(routes);
+        }
+        return encode();
+    }
+
+    /**
+     * Encodes the buffer content without creating an intermediate string.
+     */
+    private byte[] encode() {
+        CharBuffer in = CharBuffer.wrap(buffer);
+        encoder.reset();
+        bytes.clear();
+        CoderResult result;
+        do {
+            result = encoder.encode(in, bytes, true);
+            if (result.isUnderflow()) {
+                result = encoder.flush(bytes);
+            }
+            if (result.isOverflow()) {
+                ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+                bytes.flip();
+                larger.put(bytes);
+                bytes = larger;
+            }
+        } while (result.isOverflow());
+        return Arrays.copyOf(bytes.array(), bytes.position());
+    }
+
+    private void writeGauge(String key, Gauge gauge) {
+        Object value;
+        try {
+            value = gauge.getValue();
+        } catch (RuntimeException e) { //NOSONAR
+            // A broken gauge must not break the exposition.
+            return;
+        }
+        double number;
+        if (value instanceof Number) {
+            number = ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            number = (Boolean) value ? 1 : 0;
+        } else {
+            // Not a numerical gauge, ignored.
+            return;
+        }
+        String name = name(key);
+        type(name, "gauge");
+        sample(name, number);
+    }
+
+    private void writeMeter(String name, Meter meter) {
+        type(name + "_total", "counter");
+        sample(name + "_total", meter.getCount());
+        String rate = name + "_rate";
+        type(rate, "gauge");
+        buffer.append(rate).append("{window=\"1m\"} ");
+        value(meter.getOneMinuteRate());
+        buffer.append(rate).append("{window=\"5m\"} ");
+        value(meter.getFiveMinuteRate());
+        buffer.append(rate).append("{window=\"15m\"} ");
+        value(meter.getFifteenMinuteRate());
+    }
+
+    private void writeSummary(String name, Snapshot snapshot, long count, double factor) {
+        type(name, "summary");
+        quantile(name, "0.5", snapshot.getMedian() * factor);
+        quantile(name, "0.75", snapshot.get75thPercentile() * factor);
+        quantile(name, "0.95", snapshot.get95thPercentile() * factor);
+        quantile(name, "0.99", snapshot.get99thPercentile() * factor);
+        quantile(name, "0.999", snapshot.get999thPercentile() * factor);
+        // The reservoir does not keep the sum, it is estimated from the mean.
+        sample(name + "_sum", snapshot.getMean() * factor * count);
+        sample(name + "_count", count);
+    }
+
+    private void writeHealth(Map<String, HealthState> health) {
+        type("wisdom_health", "gauge");
+        for (Map.Entry<String, HealthState> entry : health.entrySet()) {
+            buffer.append("wisdom_health{check=\"");
+            label(entry.getKey());
+            buffer.append("\"} ").append(entry.getValue().ok ? '1' : '0').append('\n');
+        }
+    }
+
+    private void writeRoutes(Map<String, LatencyStatistics> routes) {
+        String name = "wisdom_http_route_latency_seconds";
+        type(name, "summary");
+        for (Map.Entry<String, LatencyStatistics> entry : routes.entrySet()) {
+            LatencyStatistics stats = entry.getValue();
+            routeQuantile(name, entry.getKey(), "0.5", stats.getP50());
+            routeQuantile(name, entry.getKey(), "0.9", stats.getP90());
+            routeQuantile(name, entry.getKey(), "0.99", stats.getP99());
+            routeQuantile(name, entry.getKey(), "0.999", stats.getP999());
+            buffer.append(name).append("_count{route=\"");
+            label(entry.getKey());
+            buffer.append("\"} ").append(stats.getCount()).append('\n');
+        }
+    }
+
+    private void routeQuantile(String name, String route, String quantile, double millis) {
+        buffer.append(name).append("{route=\"");
+        label(route);
+        buffer.append("\",quantile=\"").append(quantile).append("\"} ");
+        value(millis / MILLIS_PER_SECOND);
+    }
+
+    private void type(String name, String type) {
+        buffer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void sample(String name, long value) {
+        buffer.append(name).append(' ').append(value).append('\n');
+    }
+
+    private void sample(String name, double value) {
+        buffer.append(name).append(' ');
+        value(value);
+    }
+
+    private void quantile(String name, String quantile, double value) {
+        buffer.append(name).append("{quantile=\"").append(quantile).append("\"} ");
+        value(value);
+    }
+
+    private void value(double value) {
+        if (Double.isNaN(value)) {
+            buffer.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            buffer.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            buffer.append((long) value);
+        } else {
+            buffer.append(value);
+        }
+        buffer.append('\n');
+    }
+
+    private void label(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                buffer.append('\\').append(c);
+            } else if (c == '\n') {
+                buffer.append("\\n");
+            } else {
+                buffer.append(c);
+            }
+        }
+    }
+
+    /**
+     * Gets the sanitized name of a metric: only letters, digits and underscores are kept, and the name must not
+     * start with a digit.
+     *
+     * @param key the metric name
+     * @return the sanitized name
+     */
+    String name(String key) {
+        String name = names.get(key);
+        if (name == null) {
+            StringBuilder builder = new StringBuilder(key.length() + 1);
+            if (key.isEmpty() || Character.isDigit(key.charAt(0))) {
+                builder.append('_');
+            }
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'
+                        || c == ':') {
+                    builder.append(c);
+                } else {
+                    builder.append('_');
+                }
+            }
+            name = builder.toString();
+            names.put(key, name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.dashboard;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.wisdom.api.engine.RequestTimingListener;
+import org.wisdom.api.engine.RequestTimings;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A class exposing a {@link org.wisdom.api.engine.RequestTimingListener} to compute the latency of each route and
+ * the time spent in each engine phase. Unlike the {@link org.wisdom.monitor.extensions.dashboard.HttpMetricFilter},
+ * it measures the whole request processing, including the routing, the serialization and the write of the response.
+ */
+public class RequestTimingRecorder implements RequestTimingListener {
+
+    /**
+     * The key used for requests not handled by a route.
+     */
+    public static final String UNBOUND = "(unbound)";
+
+    private final BundleContext context;
+    private ServiceRegistration<RequestTimingListener> reg;
+
+    private final ConcurrentMap<String, LatencyRecorder> routes = new ConcurrentHashMap<>();
+    private final Map<RequestTimings.Phase, LatencyRecorder> phases = new EnumMap<>(RequestTimings.Phase.class);
+
+    /**
+     * Creates a new instance of the recorder.
+     *
+     * @param context the bundle context
+     */
+    public RequestTimingRecorder(BundleContext context) {
+        this.context = context;
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            phases.put(phase, new LatencyRecorder());
+        }
+    }
+
+    /**
+     * Starts the recorder.
+     */
+    public void start() {
+        reg = context.registerService(RequestTimingListener.class, this, null);
+    }
+
+    /**
+     * Stops the recorder.
+     */
+    public void stop() {
+        if (reg != null) {
+            reg.unregister();
+            reg = null;
+        }
+    }
+
+    /**
+     * Records the timings of a request.
+     *
+     * @param timings the time spent in each processing phase
+     */
+    @Override
+    public void onRequestCompleted(RequestTimings timings) {
+        String key = timings.getMethod() + " " + (timings.getRoute() == null ? UNBOUND : timings.getRoute());
+        LatencyRecorder recorder = routes.get(key);
+        if (recorder == null) {
+            LatencyRecorder created = new LatencyRecorder();
+            recorder = routes.putIfAbsent(key, created);
+            if (recorder == null) {
+                recorder = created;
+            }
+        }
+        recorder.record(timings.getTotal());
+
+        for (Map.Entry<RequestTimings.Phase, LatencyRecorder> entry : phases.entrySet()) {
+            entry.getValue().record(timings.getDuration(entry.getKey()));
+        }
+    }
+
+    /**
+     * @return the latency statistics of each route, indexed by {@literal METHOD url-template}.
+     */
+    public SortedMap<String, LatencyStatistics> getRoutes() {
+        SortedMap<String, LatencyStatistics> map = new TreeMap<>();
+        for (Map.Entry<String, LatencyRecorder> entry : routes.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().getStatistics());
+        }
+        return map;
+    }
+
+    /**
+     * @return the statistics of the time spent in each engine phase, in processing order.
+     */
+    public Map<String, LatencyStatistics> getPhases() {
+        Map<String, LatencyStatistics> map = new LinkedHashMap<>();
+        for (Map.Entry<RequestTimings.Phase, LatencyRecorder> entry : phases.entrySet()) {
+            map.put(entry.getKey().name().toLowerCase(), entry.getValue().getStatistics());
+        }
+        return map;
+    }
+}
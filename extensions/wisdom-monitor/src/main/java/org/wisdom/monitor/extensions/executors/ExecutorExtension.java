@@ -168,6 +168,42 @@ public class ExecutorExtension extends DefaultController implements MonitorExten
                                 return executor.getExecutionTimeStatistics().getAverageExecutionTime();
                             }
                         })
+                        .put("p99_exec", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return executor.getExecutionTimeStatistics().getPercentile(99);
+                            }
+                        })
+                        .put("avg_wait", new Gauge<Double>() {
+                            @Override
+                            public Double getValue() {
+                                return executor.getQueueWaitTimeStatistics().getAverageExecutionTime();
+                            }
+                        })
+                        .put("p99_wait", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return executor.getQueueWaitTimeStatistics().getPercentile(99);
+                            }
+                        })
+                        .put("rejected", new Counter() {
+                            @Override
+                            public long getCount() {
+                                return executor.getRejectedTaskCount();
+                            }
+                        })
+                        .put("thread_saturation", new Gauge<Double>() {
+                            @Override
+                            public Double getValue() {
+                                return ManagedExecutorModule.getThreadSaturation(executor);
+                            }
+                        })
+                        .put("queue_saturation", new Gauge<Double>() {
+                            @Override
+                            public Double getValue() {
+                                return ManagedExecutorModule.getQueueSaturation(executor);
+                            }
+                        })
                         .build();
             }
         };
@@ -28,10 +28,43 @@ import org.wisdom.api.annotations.Service;
 import org.wisdom.api.concurrent.ManagedExecutorService;
 
 import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
 
 @Service(Module.class)
 public class ManagedExecutorModule extends SimpleModule {
 
+    /**
+     * Computes the ratio of busy threads. The pool only grows beyond its core size when its queue is full, so for
+     * unbounded queues the ratio is computed against the core size.
+     *
+     * @param executor the executor
+     * @return the ratio of busy threads, between 0 and 1
+     */
+    public static double getThreadSaturation(ManagedExecutorService executor) {
+        int max = isUnbounded(executor.getQueue()) ? executor.getCorePoolSize() : executor.getMaximumPoolSize();
+        return max <= 0 ? 0.0 : Math.min(1.0, (double) executor.getActiveCount() / max);
+    }
+
+    /**
+     * Computes the fill ratio of the work queue.
+     *
+     * @param executor the executor
+     * @return the fill ratio of bounded queues, between 0 and 1, 0 for unbounded and hand-off queues
+     */
+    public static double getQueueSaturation(ManagedExecutorService executor) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (isUnbounded(queue)) {
+            return 0.0;
+        }
+        long size = queue.size();
+        long capacity = size + queue.remainingCapacity();
+        return capacity == 0 ? 0.0 : (double) size / capacity;
+    }
+
+    private static boolean isUnbounded(BlockingQueue<Runnable> queue) {
+        return (long) queue.size() + queue.remainingCapacity() >= Integer.MAX_VALUE;
+    }
+
     public ManagedExecutorModule() {
         super("ManagedExecutorService Module");
         addSerializer(ManagedExecutorService.class, new JsonSerializer<ManagedExecutorService>() {
@@ -54,6 +87,15 @@ public class ManagedExecutorModule extends SimpleModule {
                 jsonGenerator.writeNumberField("max_exec", statistics.getMaximumExecutionTime());
                 jsonGenerator.writeNumberField("min_exec", statistics.getMinimumExecutionTime());
                 jsonGenerator.writeNumberField("total", statistics.getTotalExecutionTime());
+                jsonGenerator.writeNumberField("p50_exec", statistics.getPercentile(50));
+                jsonGenerator.writeNumberField("p99_exec", statistics.getPercentile(99));
+                final ManagedExecutorService.ExecutionStatistics wait = executor.getQueueWaitTimeStatistics();
+                jsonGenerator.writeNumberField("avg_wait", wait.getAverageExecutionTime());
+                jsonGenerator.writeNumberField("p99_wait", wait.getPercentile(99));
+                jsonGenerator.writeNumberField("max_wait", Math.max(0, wait.getMaximumExecutionTime()));
+                jsonGenerator.writeNumberField("rejected", executor.getRejectedTaskCount());
+                jsonGenerator.writeNumberField("thread_saturation", getThreadSaturation(executor));
+                jsonGenerator.writeNumberField("queue_saturation", getQueueSaturation(executor));
                 jsonGenerator.writeEndObject();
             }
         });
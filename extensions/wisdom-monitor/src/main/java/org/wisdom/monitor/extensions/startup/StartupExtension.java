@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.startup;
+
+import org.apache.felix.ipojo.annotations.Requires;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Controller;
+import org.wisdom.api.annotations.Route;
+import org.wisdom.api.annotations.View;
+import org.wisdom.api.engine.StartupProfiler;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.security.Authenticated;
+import org.wisdom.api.templates.Template;
+import org.wisdom.monitor.service.MonitorExtension;
+
+/**
+ * Monitor extension displaying the startup report: the time spent starting each bundle, the iPOJO extender jobs,
+ * the time needed by each component instance to become valid and the deferred tasks.
+ */
+@Controller
+@Authenticated("Monitor-Authenticator")
+public class StartupExtension extends DefaultController implements MonitorExtension {
+
+    @Requires
+    StartupProfiler profiler;
+
+    @View("monitor/startup")
+    Template template;
+
+    /**
+     * Gets the extension main view.
+     *
+     * @return the startup page.
+     */
+    @Route(method = HttpMethod.GET, uri = "/monitor/startup")
+    public Result index() {
+        return ok(render(template));
+    }
+
+    /**
+     * Gets the startup report.
+     *
+     * @return the json form of the report.
+     */
+    @Route(method = HttpMethod.GET, uri = "/monitor/startup.json")
+    public Result data() {
+        return ok(profiler.getReport()).json();
+    }
+
+    /**
+     * @return the label displayed in the menu.
+     */
+    @Override
+    public String label() {
+        return "Startup";
+    }
+
+    /**
+     * @return the url of the extension page.
+     */
+    @Override
+    public String url() {
+        return "/monitor/startup";
+    }
+
+    /**
+     * @return the category of the extension such as "root", "wisdom" or "OSGi".
+     */
+    @Override
+    public String category() {
+        return "wisdom";
+    }
+}
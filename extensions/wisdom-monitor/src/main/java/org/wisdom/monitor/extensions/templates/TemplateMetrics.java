@@ -0,0 +1,161 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.templates;
+
+import com.codahale.metrics.*;
+import com.google.common.collect.ImmutableMap;
+import org.apache.felix.ipojo.annotations.*;
+import org.wisdom.api.templates.MonitoredTemplateEngine;
+import org.wisdom.api.templates.TemplateStatistics;
+
+import java.util.Map;
+
+/**
+ * Publishes the statistics of the template engines (number of templates, warm-up time, cache sizes) in the metric
+ * registry, so they are available on the dashboard and on the scrape endpoint. Values are summed over all the
+ * engines exposing statistics.
+ */
+@Component
+@Instantiate
+public class TemplateMetrics {
+
+    /**
+     * The prefix of the metric names.
+     */
+    public static final String PREFIX = "templates";
+
+    @Requires(optional = true, specification = MonitoredTemplateEngine.class)
+    MonitoredTemplateEngine[] engines;
+
+    @Requires
+    MetricRegistry metrics;
+
+    /**
+     * Registers the gauges.
+     */
+    @Validate
+    public void start() {
+        metrics.register(PREFIX, new MetricSet() {
+            @Override
+            public Map<String, Metric> getMetrics() {
+                return ImmutableMap.<String, Metric>builder()
+                        .put("count", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return sum(Statistic.TEMPLATES);
+                            }
+                        })
+                        .put("warmup.count", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return sum(Statistic.WARMED_UP);
+                            }
+                        })
+                        .put("warmup.failures", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return sum(Statistic.FAILURES);
+                            }
+                        })
+                        .put("warmup.time", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return sum(Statistic.WARM_UP_TIME);
+                            }
+                        })
+                        .put("cache.templates", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return sum(Statistic.TEMPLATE_CACHE);
+                            }
+                        })
+                        .put("cache.expressions", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return sum(Statistic.EXPRESSION_CACHE);
+                            }
+                        })
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Removes the gauges.
+     */
+    @Invalidate
+    public void stop() {
+        metrics.removeMatching(new MetricFilter() {
+            @Override
+            public boolean matches(String name, Metric metric) {
+                return name.startsWith(PREFIX + ".");
+            }
+        });
+    }
+
+    long sum(Statistic statistic) {
+        long sum = 0;
+        for (MonitoredTemplateEngine engine : engines) {
+            sum += statistic.get(engine.getStatistics());
+        }
+        return sum;
+    }
+
+    enum Statistic {
+        TEMPLATES {
+            @Override
+            long get(TemplateStatistics statistics) {
+                return statistics.getTemplates();
+            }
+        },
+        WARMED_UP {
+            @Override
+            long get(TemplateStatistics statistics) {
+                return statistics.getWarmedUp();
+            }
+        },
+        FAILURES {
+            @Override
+            long get(TemplateStatistics statistics) {
+                return statistics.getFailures();
+            }
+        },
+        WARM_UP_TIME {
+            @Override
+            long get(TemplateStatistics statistics) {
+                return statistics.getWarmUpTime();
+            }
+        },
+        TEMPLATE_CACHE {
+            @Override
+            long get(TemplateStatistics statistics) {
+                return statistics.getTemplateCacheSize();
+            }
+        },
+        EXPRESSION_CACHE {
+            @Override
+            long get(TemplateStatistics statistics) {
+                return statistics.getExpressionCacheSize();
+            }
+        };
+
+        abstract long get(TemplateStatistics statistics);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.tracing;
+
+import org.wisdom.api.engine.RequestTimings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request trace kept by the {@link org.wisdom.monitor.extensions.tracing.TraceRecorder}. Durations are exposed in
+ * milliseconds to be directly serialized to JSON.
+ */
+public final class Trace {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final long timestamp;
+
+    private final RequestTimings timings;
+
+    /**
+     * Creates a new trace.
+     *
+     * @param timestamp the time at which the request has completed, in milliseconds since the epoch
+     * @param timings   the timings of the request
+     */
+    public Trace(long timestamp, RequestTimings timings) {
+        this.timestamp = timestamp;
+        this.timings = timings;
+    }
+
+    /**
+     * @return the time at which the request has completed, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the trace id.
+     */
+    public String getId() {
+        return timings.getTraceId();
+    }
+
+    /**
+     * @return the HTTP method.
+     */
+    public String getMethod() {
+        return timings.getMethod();
+    }
+
+    /**
+     * @return the url template of the route, {@literal null} if no route has handled the request.
+     */
+    public String getRoute() {
+        return timings.getRoute();
+    }
+
+    /**
+     * @return the response status.
+     */
+    public int getStatus() {
+        return timings.getStatus();
+    }
+
+    /**
+     * @return the size of the response body, {@literal -1} if unknown.
+     */
+    public long getSize() {
+        return timings.getResponseSize();
+    }
+
+    /**
+     * @return the total duration in nanoseconds.
+     */
+    long getTotal() {
+        return timings.getTotal();
+    }
+
+    /**
+     * @return the total duration in milliseconds.
+     */
+    public double getDuration() {
+        return timings.getTotal() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return the time spent in each phase in milliseconds, in processing order.
+     */
+    public Map<String, Double> getPhases() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            map.put(phase.name().toLowerCase(), timings.getDuration(phase) / NANOS_PER_MILLI);
+        }
+        return map;
+    }
+
+    /**
+     * @return the thread hops, formatted as {@literal name@thread +offset ms}.
+     */
+    public List<String> getHops() {
+        if (timings.getHops().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> list = new ArrayList<>(timings.getHops().size());
+        for (RequestTimings.Hop hop : timings.getHops()) {
+            list.add(String.format("%s@%s +%.3f ms", hop.getName(), hop.getThread(),
+                    hop.getOffset() / NANOS_PER_MILLI));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.tracing;
+
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Invalidate;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.osgi.framework.BundleContext;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Controller;
+import org.wisdom.api.annotations.Parameter;
+import org.wisdom.api.annotations.Route;
+import org.wisdom.api.annotations.View;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.security.Authenticated;
+import org.wisdom.api.templates.Template;
+import org.wisdom.monitor.service.MonitorExtension;
+
+/**
+ * Monitor extension listing the slowest recent requests, with the time spent in each engine phase and the threads
+ * that have processed them.
+ * <p>
+ * The traces are sampled, the rate is configured using {@literal monitor.tracing.sample-rate} (0.1 by default).
+ * Requests slower than {@literal monitor.tracing.slow-threshold} milliseconds (1000 by default) are always traced.
+ * The number of kept traces is configured with {@literal monitor.tracing.buffer-size} (1024 by default).
+ */
+@Controller
+@Authenticated("Monitor-Authenticator")
+public class TraceExtension extends DefaultController implements MonitorExtension {
+
+    @Requires
+    ApplicationConfiguration configuration;
+
+    @View("monitor/traces")
+    Template template;
+
+    @Context
+    BundleContext bc;
+
+    TraceRecorder recorder;
+
+    /**
+     * Starts recording the traces.
+     */
+    @Validate
+    public void start() {
+        if (configuration.getBooleanWithDefault("monitor.tracing.enabled", true)) {
+            recorder = new TraceRecorder(bc,
+                    configuration.getIntegerWithDefault("monitor.tracing.buffer-size", 1024),
+                    configuration.getDoubleWithDefault("monitor.tracing.sample-rate", 0.1),
+                    configuration.getLongWithDefault("monitor.tracing.slow-threshold", 1000L));
+            recorder.start();
+        }
+    }
+
+    /**
+     * Stops recording the traces.
+     */
+    @Invalidate
+    public void stop() {
+        if (recorder != null) {
+            recorder.stop();
+            recorder = null;
+        }
+    }
+
+    /**
+     * Gets the extension main view.
+     *
+     * @return the traces page.
+     */
+    @Route(method = HttpMethod.GET, uri = "/monitor/traces")
+    public Result index() {
+        return ok(render(template));
+    }
+
+    /**
+     * Gets the slowest recent traces.
+     *
+     * @param limit the maximum number of traces to return, 20 by default
+     * @return the json form of the traces.
+     */
+    @Route(method = HttpMethod.GET, uri = "/monitor/traces.json")
+    public Result data(@Parameter("limit") Integer limit) {
+        TraceRecorder current = recorder;
+        if (current == null) {
+            return notFound("Tracing is disabled");
+        }
+        return ok(current.getSlowest(limit == null || limit <= 0 ? 20 : limit)).json();
+    }
+
+    /**
+     * @return the label displayed in the menu.
+     */
+    @Override
+    public String label() {
+        return "Traces";
+    }
+
+    /**
+     * @return the url of the extension page.
+     */
+    @Override
+    public String url() {
+        return "/monitor/traces";
+    }
+
+    /**
+     * @return the category of the extension such as "root", "wisdom" or "OSGi".
+     */
+    @Override
+    public String category() {
+        return "wisdom";
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.tracing;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.wisdom.api.engine.RequestTimingListener;
+import org.wisdom.api.engine.RequestTimings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link org.wisdom.api.engine.RequestTimingListener} keeping the traces of the most recent requests in a fixed
+ * size ring buffer. Only a sample of the requests is kept, but requests slower than the configured threshold are
+ * always kept.
+ * <p>
+ * Recording a trace is lock-free: it claims a slot using an atomic counter and overrides the oldest trace.
+ */
+public class TraceRecorder implements RequestTimingListener {
+
+    private static final Comparator<Trace> SLOWEST_FIRST = new Comparator<Trace>() {
+        @Override
+        public int compare(Trace t1, Trace t2) {
+            return Long.compare(t2.getTotal(), t1.getTotal());
+        }
+    };
+
+    private final BundleContext context;
+    private ServiceRegistration<RequestTimingListener> reg;
+
+    private final AtomicReferenceArray<Trace> buffer;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final double sampleRate;
+    private final long slowThreshold;
+
+    /**
+     * Creates a new instance of the recorder.
+     *
+     * @param context       the bundle context
+     * @param size          the number of traces to keep, rounded to the next power of 2
+     * @param sampleRate    the ratio of requests to trace, between 0 and 1
+     * @param slowThreshold the duration (in milliseconds) above which a request is always traced
+     */
+    public TraceRecorder(BundleContext context, int size, double sampleRate, long slowThreshold) {
+        this.context = context;
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.sampleRate = sampleRate;
+        this.slowThreshold = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+    }
+
+    /**
+     * Starts the recorder.
+     */
+    public void start() {
+        reg = context.registerService(RequestTimingListener.class, this, null);
+    }
+
+    /**
+     * Stops the recorder.
+     */
+    public void stop() {
+        if (reg != null) {
+            reg.unregister();
+            reg = null;
+        }
+    }
+
+    /**
+     * @return the number of traces the buffer can hold.
+     */
+    public int capacity() {
+        return buffer.length();
+    }
+
+    /**
+     * Records the trace of a request if it is sampled.
+     *
+     * @param timings the timings of the request
+     */
+    @Override
+    public void onRequestCompleted(RequestTimings timings) {
+        if (timings.getTotal() < slowThreshold && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long index = sequence.getAndIncrement();
+        buffer.set((int) (index & mask), new Trace(System.currentTimeMillis(), timings));
+    }
+
+    /**
+     * Gets the slowest traces among the ones held by the buffer.
+     *
+     * @param limit the maximum number of traces to return
+     * @return the slowest traces, slowest first
+     */
+    public List<Trace> getSlowest(int limit) {
+        List<Trace> traces = new ArrayList<>();
+        for (int i = 0; i < buffer.length(); i++) {
+            Trace trace = buffer.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        Collections.sort(traces, SLOWEST_FIRST);
+        if (traces.size() > limit) {
+            return new ArrayList<>(traces.subList(0, Math.max(0, limit)));
+        }
+        return traces;
+    }
+}
@@ -19,11 +19,19 @@
  */
 package org.wisdom.monitor.extensions.dashboard;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 import org.junit.Test;
 import org.osgi.framework.BundleContext;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.http.Result;
+import org.wisdom.monitor.service.HealthCheck;
 
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -53,6 +61,7 @@ public class DashboardExtensionTest {
         extension.configuration = configuration;
         extension.bc = context;
         extension.scheduler = Executors.newSingleThreadScheduledExecutor();
+        extension.healthChecks = Collections.emptyList();
         extension.start();
 
         assertThat(extension.registry.getGauges())
@@ -68,10 +77,56 @@ public class DashboardExtensionTest {
         assertThat(extension.registry.counter("http.activeRequests")).isNotNull();
         assertThat(extension.registry.meter("http.responseCodes.others")).isNotNull();
         assertThat(extension.registry.timer("http.requests")).isNotNull();
+        assertThat(extension.requestTimingRecorder).isNotNull();
 
         extension.stop();
     }
 
+    @Test
+    public void testHealthChecksAreRunPeriodically() throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault("monitor.health.period", 10)).thenReturn(1);
+
+        final AtomicInteger calls = new AtomicInteger();
+        HealthCheck check = new HealthCheck() {
+            @Override
+            public String name() {
+                return "check";
+            }
+
+            @Override
+            public boolean check() throws Exception {
+                calls.incrementAndGet();
+                return true;
+            }
+        };
+
+        DashboardExtension extension = new DashboardExtension();
+        extension.configuration = configuration;
+        extension.bc = mock(BundleContext.class);
+        extension.scheduler = Executors.newSingleThreadScheduledExecutor();
+        extension.healthChecks = ImmutableList.of(check);
+        extension.start();
+
+        try {
+            for (int i = 0; i < 50 && calls.get() == 0; i++) {
+                Thread.sleep(100);
+            }
+            int count = calls.get();
+            assertThat(count).isGreaterThanOrEqualTo(1);
+
+            // Serving the metrics does not run the checks.
+            Result result = extension.openMetrics();
+            assertThat(result.getContentType()).startsWith("text/plain");
+            assertThat(new String(ByteStreams.toByteArray((InputStream) result.getRenderable().content()),
+                    Charsets.UTF_8)).contains("wisdom_health{check=\"check\"} 1");
+            extension.openMetrics();
+            assertThat(calls.get()).isLessThanOrEqualTo(count + 1);
+        } finally {
+            extension.stop();
+        }
+    }
+
     @Test
     public void testLabel() throws Exception {
         DashboardExtension extension = new DashboardExtension();
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.dashboard;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenMetricsWriterTest {
+
+    @Test
+    public void testNames() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        assertThat(writer.name("jvm.memory.heap.used")).isEqualTo("jvm_memory_heap_used");
+        assertThat(writer.name("http.responseCodes.ok")).isEqualTo("http_responseCodes_ok");
+        assertThat(writer.name("1st-metric")).isEqualTo("_1st_metric");
+    }
+
+    @Test
+    public void testExposition() {
+        MetricRegistry registry = new MetricRegistry();
+        registry.register("jvm.threads.count", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return 42;
+            }
+        });
+        registry.register("jvm.name", new Gauge<String>() {
+            @Override
+            public String getValue() {
+                return "not a number";
+            }
+        });
+        registry.counter("http.activeRequests").inc(3);
+        registry.meter("http.responseCodes.ok").mark(5);
+        registry.timer("http.requests").update(2, TimeUnit.SECONDS);
+        registry.histogram("sizes").update(10);
+
+        Histogram histogram = new Histogram(3);
+        histogram.recordValue(1000);
+        Map<String, LatencyStatistics> routes = ImmutableMap.of("GET /items/{id}", new LatencyStatistics(histogram));
+        Map<String, HealthState> health = ImmutableMap.of("db", HealthState.ok(), "disk \"1\"", HealthState.ko());
+
+        String text = new String(new OpenMetricsWriter().write(registry, health, routes), Charsets.UTF_8);
+
+        assertThat(text)
+                .contains("# TYPE jvm_threads_count gauge\njvm_threads_count 42\n")
+                .doesNotContain("jvm_name")
+                .contains("# TYPE http_activeRequests gauge\nhttp_activeRequests 3\n")
+                .contains("# TYPE http_responseCodes_ok_total counter\nhttp_responseCodes_ok_total 5\n")
+                .contains("http_responseCodes_ok_rate{window=\"1m\"} ")
+                .contains("# TYPE http_requests_seconds summary\n")
+                .contains("http_requests_seconds{quantile=\"0.99\"} 2\n")
+                .contains("http_requests_seconds_count 1\n")
+                .contains("http_requests_seconds_sum 2\n")
+                .contains("sizes{quantile=\"0.5\"} 10\n")
+                .contains("wisdom_health{check=\"db\"} 1\n")
+                .contains("wisdom_health{check=\"disk \\\"1\\\"\"} 0\n")
+                .contains("wisdom_http_route_latency_seconds{route=\"GET /items/{id}\",quantile=\"0.99\"} 0.001\n")
+                .contains("wisdom_http_route_latency_seconds_count{route=\"GET /items/{id}\"} 1\n");
+    }
+
+    @Test
+    public void testBufferIsReused() {
+        MetricRegistry registry = new MetricRegistry();
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        registry.counter("a").inc();
+        assertThat(writer.write(registry, null, null)).isEqualTo("# TYPE a gauge\na 1\n".getBytes(Charsets.UTF_8));
+        registry.counter("a").inc();
+        assertThat(writer.write(registry, null, null)).isEqualTo("# TYPE a gauge\na 2\n".getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void testEncodingLargerThanTheInitialBuffer() {
+        MetricRegistry registry = new MetricRegistry();
+        for (int i = 0; i < 2000; i++) {
+            registry.counter("counter." + i).inc(i);
+        }
+        Map<String, HealthState> health = ImmutableMap.of("d\u00e9p\u00f4t", HealthState.ok());
+        String text = new String(new OpenMetricsWriter().write(registry, health, null), Charsets.UTF_8);
+        assertThat(text.length()).isGreaterThan(16 * 1024);
+        assertThat(text)
+                .contains("counter_1999 1999\n")
+                .endsWith("wisdom_health{check=\"d\u00e9p\u00f4t\"} 1\n");
+    }
+}
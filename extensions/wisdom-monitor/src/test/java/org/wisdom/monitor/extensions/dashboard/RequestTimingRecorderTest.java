@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.dashboard;
+
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.wisdom.api.engine.RequestTimings;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class RequestTimingRecorderTest {
+
+    private static RequestTimings timings(String method, String route, long millis) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        // Everything is spent in the action method, but the write.
+        long[] durations = new long[RequestTimings.Phase.values().length];
+        durations[RequestTimings.Phase.INVOCATION.ordinal()] = nanos - 1000;
+        durations[RequestTimings.Phase.WRITE.ordinal()] = 1000;
+        return new RequestTimings(method, route, 200, durations, nanos);
+    }
+
+    @Test
+    public void testRecording() {
+        RequestTimingRecorder recorder = new RequestTimingRecorder(mock(BundleContext.class));
+        for (int i = 1; i <= 100; i++) {
+            recorder.onRequestCompleted(timings("GET", "/items/{id}", i));
+        }
+        recorder.onRequestCompleted(timings("POST", "/items", 5));
+        recorder.onRequestCompleted(timings("GET", null, 1));
+
+        Map<String, LatencyStatistics> routes = recorder.getRoutes();
+        assertThat(routes).containsOnlyKeys("GET /items/{id}", "POST /items", "GET " + RequestTimingRecorder.UNBOUND);
+
+        LatencyStatistics stats = routes.get("GET /items/{id}");
+        assertThat(stats.getCount()).isEqualTo(100);
+        assertThat(stats.getP50()).isBetween(49.9, 50.1);
+        assertThat(stats.getP99()).isBetween(98.9, 99.1);
+        assertThat(stats.getMax()).isBetween(99.9, 100.1);
+        assertThat(stats.getMean()).isBetween(50.4, 50.6);
+
+        Map<String, LatencyStatistics> phases = recorder.getPhases();
+        assertThat(phases.keySet()).containsExactly("read", "routing", "invocation", "serialization", "encoding",
+                "write");
+        assertThat(phases.get("invocation").getCount()).isEqualTo(102);
+        assertThat(phases.get("invocation").getMax()).isBetween(99.9, 100.1);
+        assertThat(phases.get("routing").getMax()).isEqualTo(0.0);
+        assertThat(phases.get("write").getMax()).isEqualTo(0.001);
+    }
+
+    @Test
+    public void testStatisticsAreCumulative() {
+        RequestTimingRecorder recorder = new RequestTimingRecorder(mock(BundleContext.class));
+        recorder.onRequestCompleted(timings("GET", "/", 10));
+        assertThat(recorder.getRoutes().get("GET /").getCount()).isEqualTo(1);
+        recorder.onRequestCompleted(timings("GET", "/", 10));
+        assertThat(recorder.getRoutes().get("GET /").getCount()).isEqualTo(2);
+        assertThat(recorder.getRoutes().get("GET /").getCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.concurrent.ManagedFutureTask;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the serialization of the executors and the saturation computation.
+ */
+public class ManagedExecutorModuleTest {
+
+    private ManagedExecutorService executor(BlockingQueue<Runnable> queue) {
+        ManagedExecutorService executor = mock(ManagedExecutorService.class);
+        when(executor.name()).thenReturn("test");
+        when(executor.getCorePoolSize()).thenReturn(2);
+        when(executor.getMaximumPoolSize()).thenReturn(8);
+        when(executor.getActiveCount()).thenReturn(2);
+        when(executor.getQueue()).thenReturn(queue);
+        when(executor.getRejectedTaskCount()).thenReturn(3L);
+        when(executor.getHungTasks()).thenReturn(Collections.<ManagedFutureTask>emptyList());
+        ManagedExecutorService.ExecutionStatistics statistics = new ManagedExecutorService.ExecutionStatistics();
+        statistics.accept(10);
+        when(executor.getExecutionTimeStatistics()).thenReturn(statistics);
+        ManagedExecutorService.ExecutionStatistics wait = new ManagedExecutorService.ExecutionStatistics();
+        wait.accept(4);
+        when(executor.getQueueWaitTimeStatistics()).thenReturn(wait);
+        return executor;
+    }
+
+    @Test
+    public void testSaturationWithBoundedQueue() {
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(4);
+        queue.add(mock(Runnable.class));
+        ManagedExecutorService executor = executor(queue);
+        assertThat(ManagedExecutorModule.getThreadSaturation(executor)).isEqualTo(0.25);
+        assertThat(ManagedExecutorModule.getQueueSaturation(executor)).isEqualTo(0.25);
+    }
+
+    @Test
+    public void testSaturationWithUnboundedQueue() {
+        BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        queue.add(mock(Runnable.class));
+        ManagedExecutorService executor = executor(queue);
+        // The pool does not grow beyond its core size.
+        assertThat(ManagedExecutorModule.getThreadSaturation(executor)).isEqualTo(1.0);
+        assertThat(ManagedExecutorModule.getQueueSaturation(executor)).isEqualTo(0.0);
+    }
+
+    @Test
+    public void testSerialization() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new ManagedExecutorModule());
+        JsonNode node = mapper.valueToTree(executor(new ArrayBlockingQueue<Runnable>(4)));
+        assertThat(node.get("name").asText()).isEqualTo("test");
+        assertThat(node.get("p99_exec").asLong()).isEqualTo(10);
+        assertThat(node.get("avg_wait").asDouble()).isEqualTo(4.0);
+        assertThat(node.get("max_wait").asLong()).isEqualTo(4);
+        assertThat(node.get("rejected").asLong()).isEqualTo(3);
+        assertThat(node.get("thread_saturation").asDouble()).isEqualTo(0.25);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.templates;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import org.wisdom.api.templates.MonitoredTemplateEngine;
+import org.wisdom.api.templates.TemplateStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TemplateMetricsTest {
+
+    @Test
+    public void testGauges() {
+        MonitoredTemplateEngine thymeleaf = mock(MonitoredTemplateEngine.class);
+        when(thymeleaf.getStatistics()).thenReturn(new TemplateStatistics("thymeleaf", 10, 9, 1, 250, 9, 42));
+        MonitoredTemplateEngine other = mock(MonitoredTemplateEngine.class);
+        when(other.getStatistics()).thenReturn(new TemplateStatistics("other", 2, 0, 0, 0, 0, 0));
+
+        TemplateMetrics metrics = new TemplateMetrics();
+        metrics.metrics = new MetricRegistry();
+        metrics.engines = new MonitoredTemplateEngine[]{thymeleaf, other};
+        metrics.start();
+
+        assertThat(value(metrics, "templates.count")).isEqualTo(12L);
+        assertThat(value(metrics, "templates.warmup.count")).isEqualTo(9L);
+        assertThat(value(metrics, "templates.warmup.failures")).isEqualTo(1L);
+        assertThat(value(metrics, "templates.warmup.time")).isEqualTo(250L);
+        assertThat(value(metrics, "templates.cache.templates")).isEqualTo(9L);
+        assertThat(value(metrics, "templates.cache.expressions")).isEqualTo(42L);
+
+        metrics.stop();
+        assertThat(metrics.metrics.getGauges()).isEmpty();
+    }
+
+    private Object value(TemplateMetrics metrics, String name) {
+        Gauge gauge = metrics.metrics.getGauges().get(name);
+        return gauge.getValue();
+    }
+}
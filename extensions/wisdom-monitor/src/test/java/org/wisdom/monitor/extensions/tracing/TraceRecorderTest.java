@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.tracing;
+
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.wisdom.api.engine.RequestTimings;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class TraceRecorderTest {
+
+    private static RequestTimings timings(String id, long millis) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        long[] durations = new long[RequestTimings.Phase.values().length];
+        durations[RequestTimings.Phase.INVOCATION.ordinal()] = nanos;
+        return new RequestTimings(id, "GET", "/items/{id}", 200, durations, nanos, 42,
+                Collections.singletonList(new RequestTimings.Hop("async-result", "worker-1", nanos / 2)));
+    }
+
+    @Test
+    public void testSlowestTraces() {
+        TraceRecorder recorder = new TraceRecorder(mock(BundleContext.class), 16, 1.0, 1000);
+        for (int i = 1; i <= 10; i++) {
+            recorder.onRequestCompleted(timings("t" + i, i));
+        }
+        List<Trace> traces = recorder.getSlowest(3);
+        assertThat(traces).hasSize(3);
+        assertThat(traces.get(0).getId()).isEqualTo("t10");
+        assertThat(traces.get(1).getId()).isEqualTo("t9");
+        assertThat(traces.get(2).getId()).isEqualTo("t8");
+
+        Trace trace = traces.get(0);
+        assertThat(trace.getDuration()).isEqualTo(10.0);
+        assertThat(trace.getSize()).isEqualTo(42);
+        assertThat(trace.getPhases().get("invocation")).isEqualTo(10.0);
+        assertThat(trace.getHops()).containsExactly("async-result@worker-1 +5.000 ms");
+    }
+
+    @Test
+    public void testTheOldestTracesAreOverridden() {
+        TraceRecorder recorder = new TraceRecorder(mock(BundleContext.class), 5, 1.0, 1000);
+        assertThat(recorder.capacity()).isEqualTo(8);
+        for (int i = 100; i > 0; i--) {
+            recorder.onRequestCompleted(timings("t" + i, i));
+        }
+        // Only the 8 last (and fastest) requests are kept.
+        List<Trace> traces = recorder.getSlowest(20);
+        assertThat(traces).hasSize(8);
+        assertThat(traces.get(0).getId()).isEqualTo("t8");
+    }
+
+    @Test
+    public void testSampling() {
+        TraceRecorder recorder = new TraceRecorder(mock(BundleContext.class), 16, 0.0, 50);
+        recorder.onRequestCompleted(timings("fast", 10));
+        assertThat(recorder.getSlowest(10)).isEmpty();
+        // Slow requests are always traced.
+        recorder.onRequestCompleted(timings("slow", 60));
+        assertThat(recorder.getSlowest(10)).hasSize(1);
+    }
+}
@@ -339,6 +339,8 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
 
     private Result switchToGet(Route route, RequestContext context) {
         // A HEAD request was emitted, and unfortunately, no action handled it. Switch to GET.
+        // The default router already routes HEAD requests to the GET actions, this is only used with routers that
+        // don't.
         Route getRoute = router.getRouteFor(HttpMethod.GET, route.getUrl());
         if (getRoute == null || getRoute.isUnbound()) {
             return renderNotFound(route, Results.notFound());
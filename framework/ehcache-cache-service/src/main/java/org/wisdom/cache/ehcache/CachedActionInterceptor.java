@@ -20,6 +20,9 @@
 package org.wisdom.cache.ehcache;
 
 import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.SettableFuture;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
@@ -27,15 +30,38 @@ import org.apache.felix.ipojo.annotations.Requires;
 import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wisdom.api.bodies.NoHttpBody;
 import org.wisdom.api.cache.Cache;
 import org.wisdom.api.cache.Cached;
-import org.wisdom.api.http.HeaderNames;
-import org.wisdom.api.http.Result;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.content.ContentCodec;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.content.ContentSerializer;
+import org.wisdom.api.cookies.Cookie;
+import org.wisdom.api.http.*;
 import org.wisdom.api.interception.Interceptor;
 import org.wisdom.api.interception.RequestContext;
+import org.wisdom.api.router.Route;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An action interceptor caching the result of an action and returning the cached result if it was cached already.
+ * <p>
+ * The result is not cached as it is, but serialized: the cache contains the status, the headers and the body (and
+ * its gzipped version when the body can be compressed). So cache hits do not re-render the result. Concurrent
+ * requests missing the same key are coalesced: only one of them invokes the action, the others wait for its result.
+ * Expired responses can also be served while being refreshed in the background (see {@link
+ * org.wisdom.api.cache.Cached#staleWhileRevalidate()}).
  */
 @Component
 @Provides(specifications = Interceptor.class)
@@ -45,6 +71,16 @@ public class CachedActionInterceptor extends Interceptor<Cached> {
     @Requires
     protected Cache cache;
 
+    @Requires
+    protected ContentEngine engine;
+
+    @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", proxy = false)
+    protected ManagedExecutorService executor;
+
+    /**
+     * The computations in progress, used to coalesce concurrent misses on the same key.
+     */
+    private final ConcurrentMap<String, SettableFuture<CachedResponse>> inflight = new ConcurrentHashMap<>();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CachedActionInterceptor.class);
 
@@ -54,7 +90,8 @@ public class CachedActionInterceptor extends Interceptor<Cached> {
      * In this case, the interception chain is cut.
      * <p>
      * If the result is not yet cached, the interception chain continues, and the result is cached to be used during
-     * the next invocation.
+     * the next invocation. If another request is already computing the result, the interception chain is cut, and
+     * the result of the other request is returned (asynchronously).
      *
      * @param configuration the interception configuration
      * @param context       the interception context
@@ -62,45 +99,275 @@ public class CachedActionInterceptor extends Interceptor<Cached> {
      * @throws Exception something bad happened
      */
     @Override
-    public Result call(Cached configuration, RequestContext context) throws Exception {
+    public Result call(final Cached configuration, final RequestContext context) throws Exception {
+        if (context.context() instanceof DetachedContext) {
+            // Background refresh, the result is cached by the refreshing task.
+            return context.proceed();
+        }
+
         // Can we use the Cached version ?
         boolean nocache =
                 HeaderNames.NOCACHE_VALUE.equalsIgnoreCase(context.context().header(HeaderNames.CACHE_CONTROL));
 
-        String key;
-        if (Strings.isNullOrEmpty(configuration.key())) {
-            key = context.request().uri();
-        } else {
-            key = configuration.key();
-        }
+        final String key = getKey(configuration, context);
+        final boolean gzip = acceptsGzip(context);
 
-        Result result = null;
         if (!nocache) {
-            result = (Result) cache.get(key);
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                if (!cached.isFresh(System.currentTimeMillis())) {
+                    refresh(configuration, context, key);
+                }
+                LOGGER.debug("Returning cached result for {} (key:{})", context.request().uri(), key);
+                return cached.toResult(gzip);
+            }
         }
 
-        if (result == null) {
+        final SettableFuture<CachedResponse> flight = SettableFuture.create();
+        final SettableFuture<CachedResponse> leader = inflight.putIfAbsent(key, flight);
+        if (leader != null) {
+            // Another request is computing the result, wait for it without blocking the current thread.
+            LOGGER.debug("Waiting for the computation of {} (key:{})", context.request().uri(), key);
+            return new AsyncResult(new Callable<Result>() {
+                @Override
+                public Result call() throws Exception {
+                    CachedResponse response = leader.get();
+                    if (response == null) {
+                        // The result was not cacheable, compute our own.
+                        return complete(context.proceed());
+                    }
+                    return response.toResult(gzip);
+                }
+            });
+        }
+
+        Result result;
+        try {
             result = context.proceed();
-        } else {
-            LOGGER.info("Returning cached result for {} (key:{})",
-                    context.request().uri(), key);
+        } catch (Exception e) {
+            release(key, flight, null);
+            throw e;
+        }
+
+        if (result instanceof AsyncResult) {
+            final AsyncResult async = (AsyncResult) result;
+            return new AsyncResult(new Callable<Result>() {
+                @Override
+                public Result call() throws Exception {
+                    Result computed;
+                    try {
+                        computed = complete(async);
+                    } catch (Exception e) {
+                        release(key, flight, null);
+                        throw e;
+                    }
+                    return toResult(configuration, context, key, computed, flight, gzip);
+                }
+            });
+        }
+        return toResult(configuration, context, key, result, flight, gzip);
+    }
+
+    private Result toResult(Cached configuration, RequestContext context, String key, Result result,
+                            SettableFuture<CachedResponse> flight, boolean gzip) throws Exception {
+        CachedResponse response = save(configuration, context.context(), key, result, flight);
+        if (response == null) {
             return result;
         }
+        // The body of the initial result has been consumed, so return a new result. Cookies are not cached, but must
+        // be sent with this result.
+        Result copy = response.toResult(gzip);
+        for (Cookie cookie : result.getCookies()) {
+            copy.with(cookie);
+        }
+        return copy;
+    }
 
-        Duration duration;
-        if (configuration.duration() == 0) {
-            // Eternity == 1 year.
-            duration = Duration.standardDays(365);
+    /**
+     * Computes the cached response and stores it in the cache. The computation in progress is released once done.
+     */
+    private CachedResponse save(Cached configuration, Context context, String key, Result result,
+                                SettableFuture<CachedResponse> flight) throws Exception {
+        CachedResponse response = null;
+        try {
+            response = serialize(configuration, context, result);
+            if (response != null) {
+                cache.set(key, response, getTimeToLive(configuration));
+                LOGGER.debug("Caching result of {} for {} seconds (key:{})",
+                        context.request().uri(), configuration.duration(), key);
+            }
+            return response;
+        } finally {
+            release(key, flight, response);
+        }
+    }
+
+    private void release(String key, SettableFuture<CachedResponse> flight, CachedResponse response) {
+        inflight.remove(key, flight);
+        flight.set(response);
+    }
+
+    /**
+     * Refreshes a stale response in the background. The refresh is skipped if the key is already being computed.
+     * <p>
+     * The response of the current request is sent before the refresh completes, so the route is re-invoked (with its
+     * filters and interceptors) using a detached context. As the refreshed response is served to every request
+     * having the same key, this context only contains what the key covers: the URI, the parameters and the varying
+     * headers. It has no session, flash scope or cookies.
+     */
+    private void refresh(final Cached configuration, final RequestContext context, final String key) {
+        final SettableFuture<CachedResponse> flight = SettableFuture.create();
+        if (inflight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        LOGGER.debug("Refreshing the cached result of {} (key:{})", context.request().uri(), key);
+        final DetachedContext detached = new DetachedContext(context.context(), getVaryingHeaders(configuration));
+        final Route route = context.route();
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Context.CONTEXT.set(detached);
+                    try {
+                        save(configuration, detached, key, complete(route.invoke()), flight);
+                    } catch (Exception e) {
+                        LOGGER.error("Cannot refresh the cached result of {} (key:{})", detached.request().uri(),
+                                key, e);
+                        release(key, flight, null);
+                    } finally {
+                        Context.CONTEXT.remove();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Rejected, the next request will retry.
+            release(key, flight, null);
+        }
+    }
+
+    /**
+     * Serializes the given result. Only successful results are cached.
+     *
+     * @return the serialized response, {@code null} if the result cannot be cached.
+     */
+    private CachedResponse serialize(Cached configuration, Context context, Result result) throws Exception {
+        if (result.getStatusCode() < Status.OK || result.getStatusCode() >= Status.MULTIPLE_CHOICES) {
+            return null;
+        }
+
+        Renderable<?> renderable = result.getRenderable();
+        if (renderable == null) {
+            renderable = NoHttpBody.INSTANCE;
+        }
+        if (renderable.requireSerializer()) {
+            ContentSerializer serializer = null;
+            if (result.getContentType() != null) {
+                serializer = engine.getContentSerializerForContentType(result.getContentType());
+            }
+            if (serializer == null) {
+                serializer = engine.getBestSerializer(context.request().mediaTypes());
+                if (serializer == null) {
+                    // Let the engine handle the error.
+                    return null;
+                }
+                result.with(HeaderNames.CONTENT_TYPE, serializer.getContentType());
+            }
+            serializer.serialize(renderable);
+        }
+
+        byte[] content;
+        InputStream stream = renderable.render(context, result);
+        try {
+            content = ByteStreams.toByteArray(stream);
+        } finally {
+            Closeables.closeQuietly(stream);
+        }
+
+        Map<String, String> headers = new HashMap<>(result.getHeaders());
+        String type = result.getFullContentType();
+        if (type == null) {
+            type = renderable.mimetype();
+        }
+        if (type != null) {
+            headers.put(HeaderNames.CONTENT_TYPE, type);
+        }
+
+        byte[] gzipped = null;
+        ContentCodec codec = engine.getContentCodecForEncodingType(EncodingNames.GZIP);
+        if (codec != null && content.length > 0
+                && engine.getContentEncodingHelper().shouldEncode(context, result, renderable)) {
+            InputStream encoded = codec.encode(new ByteArrayInputStream(content));
+            try {
+                gzipped = ByteStreams.toByteArray(encoded);
+            } finally {
+                Closeables.closeQuietly(encoded);
+            }
+        }
+
+        return new CachedResponse(result.getStatusCode(), headers, content, gzipped,
+                System.currentTimeMillis() + getDuration(configuration).getMillis());
+    }
+
+    private static Result complete(Result result) throws Exception {
+        Result current = result;
+        while (current instanceof AsyncResult) {
+            AsyncResult async = (AsyncResult) current;
+            current = async.callable().call();
+            // Merge the headers of the asynchronous result, as done by the engine.
+            for (Map.Entry<String, String> header : async.getHeaders().entrySet()) {
+                if (!current.getHeaders().containsKey(header.getKey())) {
+                    current.with(header.getKey(), header.getValue());
+                }
+            }
+        }
+        return current;
+    }
+
+    private String getKey(Cached configuration, RequestContext context) {
+        StringBuilder key = new StringBuilder();
+        if (Strings.isNullOrEmpty(configuration.key())) {
+            key.append(context.request().uri());
         } else {
-            duration = Duration.standardSeconds(configuration.duration());
+            key.append(configuration.key());
+        }
+        for (String header : getVaryingHeaders(configuration)) {
+            appendHeader(key, context, header);
         }
+        return key.toString();
+    }
 
+    private static List<String> getVaryingHeaders(Cached configuration) {
+        List<String> headers = new ArrayList<>();
+        headers.add(HeaderNames.ACCEPT);
+        Collections.addAll(headers, configuration.vary());
+        return headers;
+    }
 
-        cache.set(key, result, duration);
-        LoggerFactory.getLogger(this.getClass()).info("Caching result of {} for {} seconds (key:{})",
-                context.request().uri(), configuration.duration(), key);
+    private static void appendHeader(StringBuilder key, RequestContext context, String header) {
+        String value = context.context().header(header);
+        if (value != null) {
+            key.append('|').append(header).append('=').append(value);
+        }
+    }
+
+    private boolean acceptsGzip(RequestContext context) {
+        String header = context.context().header(HeaderNames.ACCEPT_ENCODING);
+        return header != null
+                && engine.getContentEncodingHelper().parseAcceptEncodingHeader(header).contains(EncodingNames.GZIP);
+    }
+
+    private static Duration getDuration(Cached configuration) {
+        if (configuration.duration() == 0) {
+            // Eternity == 1 year.
+            return Duration.standardDays(365);
+        } else {
+            return Duration.standardSeconds(configuration.duration());
+        }
+    }
 
-        return result;
+    private static Duration getTimeToLive(Cached configuration) {
+        // Keep stale responses during the revalidation window.
+        return getDuration(configuration).plus(Duration.standardSeconds(configuration.staleWhileRevalidate()));
     }
 
     /**
@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.wisdom.api.bodies.RenderableStream;
+import org.wisdom.api.http.EncodingNames;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The cached form of a {@link org.wisdom.api.http.Result} stored by the {@link
+ * org.wisdom.cache.ehcache.CachedActionInterceptor}. It contains the status, the headers and the serialized body. When
+ * the body can be compressed, the gzipped body is also stored, so it is not compressed for every request.
+ * <p>
+ * Instances are serializable and can be encoded by Jackson, so they can be stored by off-heap caches.
+ */
+public class CachedResponse implements Serializable {
+
+    private final int status;
+    private final HashMap<String, String> headers;
+    private final byte[] content;
+    private final byte[] gzipped;
+    private final long freshUntil;
+
+    /**
+     * Creates a new {@link org.wisdom.cache.ehcache.CachedResponse}.
+     *
+     * @param status     the HTTP status
+     * @param headers    the headers, including the {@literal Content-Type}
+     * @param content    the serialized body
+     * @param gzipped    the gzipped body, {@code null} if the body must not be compressed
+     * @param freshUntil the time (in milliseconds) until when the response is fresh
+     */
+    @JsonCreator
+    public CachedResponse(@JsonProperty("status") int status,
+                          @JsonProperty("headers") Map<String, String> headers,
+                          @JsonProperty("content") byte[] content,
+                          @JsonProperty("gzippedContent") byte[] gzipped,
+                          @JsonProperty("freshUntil") long freshUntil) {
+        this.status = status;
+        this.headers = new HashMap<>(headers);
+        this.content = content;
+        this.gzipped = gzipped;
+        this.freshUntil = freshUntil;
+    }
+
+    /**
+     * @return the HTTP status.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the headers, including the {@literal Content-Type}.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the serialized body.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the gzipped body, {@code null} if not compressed.
+     */
+    public byte[] getGzippedContent() {
+        return gzipped;
+    }
+
+    /**
+     * @return the time (in milliseconds) until when the response is fresh.
+     */
+    public long getFreshUntil() {
+        return freshUntil;
+    }
+
+    /**
+     * Checks whether the response is still fresh, or if it needs to be refreshed.
+     *
+     * @param now the current time in milliseconds
+     * @return {@code true} if the response is fresh
+     */
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    /**
+     * Builds a new {@link org.wisdom.api.http.Result} from the cached data. This method can be called concurrently,
+     * as each call creates a new result.
+     *
+     * @param gzip whether or not the client accepts the gzip encoding
+     * @return the new result
+     */
+    public Result toResult(boolean gzip) {
+        Result result = new Result(status);
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            result.with(entry.getKey(), entry.getValue());
+        }
+        byte[] body = content;
+        if (gzipped != null) {
+            result.with(HeaderNames.VARY, HeaderNames.ACCEPT_ENCODING);
+            if (gzip) {
+                body = gzipped;
+                // The content-encoding header disables the encoding done by the engine.
+                result.with(HeaderNames.CONTENT_ENCODING, EncodingNames.GZIP);
+            }
+        }
+        return result.render(new RenderableStream(new ByteArrayInputStream(body), false));
+    }
+}
@@ -0,0 +1,635 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.MediaType;
+import org.wisdom.api.cookies.Cookie;
+import org.wisdom.api.cookies.Cookies;
+import org.wisdom.api.cookies.FlashCookie;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.http.*;
+import org.wisdom.api.router.Route;
+
+import java.io.BufferedReader;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A context built from an HTTP context, outliving the request it was created from. It is used to re-invoke a route
+ * in the background once the response of the original request has been sent (to refresh a stale cached response).
+ * <p>
+ * The refreshed response is shared by all the requests having the same cache key, so only the data covered by the
+ * key is copied: the URI, the path, the parameters and the given (varying) headers. The session and the flash scope
+ * are empty and the changes made to them are discarded. There are no cookies, no body, no form and no uploaded
+ * files. The data is copied when the context is created, so it must be created while the original request is being
+ * processed.
+ */
+class DetachedContext implements Context {
+
+    private static final Cookies NO_COOKIES = new Cookies() {
+        @Override
+        public Cookie get(String name) {
+            return null;
+        }
+    };
+
+    private final Long id;
+    private final DetachedRequest request;
+    private final String contextPath;
+    private final FlashCookie flash = new EmptyFlashCookie();
+    private final SessionCookie session = new EmptySessionCookie();
+    private Route route;
+
+    /**
+     * Creates a new {@link org.wisdom.cache.ehcache.DetachedContext} from the given context.
+     *
+     * @param context the context to copy, must be the context of a request being processed
+     * @param headers the names of the headers to copy
+     */
+    DetachedContext(Context context, Collection<String> headers) {
+        this.id = context.id();
+        this.request = new DetachedRequest(context.request(), headers);
+        this.contextPath = context.contextPath();
+        this.route = context.route();
+    }
+
+    private static Map<String, List<String>> copy(Map<String, List<String>> map) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (map != null) {
+            for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+                copy.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static Map<String, List<String>> copy(Map<String, List<String>> map, Collection<String> names) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (map != null) {
+            for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+                if (contains(names, entry.getKey())) {
+                    copy.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static boolean contains(Collection<String> names, String name) {
+        for (String candidate : names) {
+            if (candidate.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String first(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.get(0);
+    }
+
+    @Override
+    public Long id() {
+        return id;
+    }
+
+    @Override
+    public Request request() {
+        return request;
+    }
+
+    @Override
+    public String path() {
+        return request.path();
+    }
+
+    @Override
+    public FlashCookie flash() {
+        return flash;
+    }
+
+    @Override
+    public SessionCookie session() {
+        return session;
+    }
+
+    @Override
+    public Cookie cookie(String cookieName) {
+        return request.cookie(cookieName);
+    }
+
+    @Override
+    public boolean hasCookie(String cookieName) {
+        return request.cookie(cookieName) != null;
+    }
+
+    @Override
+    public Cookies cookies() {
+        return request.cookies();
+    }
+
+    @Override
+    public String contextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String parameter(String name) {
+        return request.parameter(name);
+    }
+
+    @Override
+    public List<String> parameterMultipleValues(String name) {
+        return request.parameterMultipleValues(name);
+    }
+
+    @Override
+    public String parameter(String name, String defaultValue) {
+        return request.parameter(name, defaultValue);
+    }
+
+    @Override
+    public Integer parameterAsInteger(String name) {
+        return request.parameterAsInteger(name);
+    }
+
+    @Override
+    public Integer parameterAsInteger(String name, Integer defaultValue) {
+        return request.parameterAsInteger(name, defaultValue);
+    }
+
+    @Override
+    public Boolean parameterAsBoolean(String name) {
+        return request.parameterAsBoolean(name);
+    }
+
+    @Override
+    public Boolean parameterAsBoolean(String name, boolean defaultValue) {
+        return request.parameterAsBoolean(name, defaultValue);
+    }
+
+    @Override
+    public String parameterFromPath(String name) {
+        String encoded = parameterFromPathEncoded(name);
+        if (encoded == null) {
+            return null;
+        }
+        return URI.create(encoded).getPath();
+    }
+
+    @Override
+    public String parameterFromPathEncoded(String name) {
+        if (route == null) {
+            return null;
+        }
+        return route.getPathParametersEncoded(path()).get(name);
+    }
+
+    @Override
+    public Integer parameterFromPathAsInteger(String key) {
+        String parameter = parameterFromPath(key);
+        if (parameter == null) {
+            return null;
+        }
+        return Integer.parseInt(parameter);
+    }
+
+    @Override
+    public Map<String, List<String>> parameters() {
+        return request.parameters();
+    }
+
+    @Override
+    public String header(String name) {
+        return first(request.headers().get(name));
+    }
+
+    @Override
+    public List<String> headers(String name) {
+        return request.headers().get(name);
+    }
+
+    @Override
+    public Map<String, List<String>> headers() {
+        return request.headers();
+    }
+
+    @Override
+    public String cookieValue(String name) {
+        Cookie cookie = request.cookie(name);
+        if (cookie == null) {
+            return null;
+        }
+        return cookie.value();
+    }
+
+    /**
+     * The body is not part of the cache key, so it is not copied.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public <T> T body(Class<T> classOfT) {
+        return null;
+    }
+
+    @Override
+    public String body() {
+        return null;
+    }
+
+    @Override
+    public byte[] raw() {
+        return null;
+    }
+
+    @Override
+    public BufferedReader reader() {
+        return null;
+    }
+
+    @Override
+    public Route route() {
+        return route;
+    }
+
+    @Override
+    public void route(Route route) {
+        this.route = route;
+    }
+
+    /**
+     * Uploaded files are not copied, so the detached context is never multipart.
+     *
+     * @return {@code false}
+     */
+    @Override
+    public boolean isMultipart() {
+        return false;
+    }
+
+    @Override
+    public Collection<? extends FileItem> files() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public FileItem file(String name) {
+        return null;
+    }
+
+    @Override
+    @Deprecated
+    public Map<String, List<String>> attributes() {
+        return form();
+    }
+
+    @Override
+    public Map<String, List<String>> form() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * The copy of the request.
+     */
+    private static class DetachedRequest extends Request {
+
+        private final String uri;
+        private final String path;
+        private final String method;
+        private final String host;
+        private final String encoding;
+        private final String language;
+        private final String charset;
+        private final MediaType mediaType;
+        private final Collection<MediaType> mediaTypes;
+        private final Map<String, List<String>> headers;
+        private final Map<String, List<String>> parameters;
+        private final Map<String, Object> data = new ConcurrentHashMap<>();
+
+        DetachedRequest(Request request, Collection<String> names) {
+            this.uri = request.uri();
+            this.path = request.path();
+            this.method = request.method();
+            this.host = request.host();
+            this.headers = copy(request.headers(), names);
+            this.parameters = copy(request.parameters());
+            // The values computed from the headers are only kept if the header is copied.
+            this.encoding = contains(names, HeaderNames.ACCEPT_ENCODING) ? request.encoding() : null;
+            this.language = contains(names, HeaderNames.ACCEPT_LANGUAGE) ? request.language() : null;
+            this.charset = contains(names, HeaderNames.ACCEPT_CHARSET) ? request.charset() : null;
+            if (contains(names, HeaderNames.ACCEPT)) {
+                this.mediaType = request.mediaType();
+                this.mediaTypes = ImmutableList.copyOf(request.mediaTypes());
+            } else {
+                this.mediaType = null;
+                this.mediaTypes = Collections.emptyList();
+            }
+        }
+
+        @Override
+        public String uri() {
+            return uri;
+        }
+
+        /**
+         * The client address is not part of the cache key, so it is not copied.
+         *
+         * @return {@code null}
+         */
+        @Override
+        public String remoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String host() {
+            return host;
+        }
+
+        @Override
+        public String path() {
+            return path;
+        }
+
+        @Override
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        @Override
+        public Collection<MediaType> mediaTypes() {
+            return mediaTypes;
+        }
+
+        @Override
+        public boolean accepts(String mimeType) {
+            MediaType input = MediaType.parse(mimeType);
+            for (MediaType type : mediaTypes) {
+                if (input.is(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Cookies cookies() {
+            return NO_COOKIES;
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return headers;
+        }
+
+        @Override
+        public String encoding() {
+            return encoding;
+        }
+
+        @Override
+        public String language() {
+            return language;
+        }
+
+        @Override
+        public String charset() {
+            return charset;
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public String method() {
+            return method;
+        }
+
+        @Override
+        public String parameter(String name) {
+            return first(parameters.get(name));
+        }
+
+        @Override
+        public List<String> parameterMultipleValues(String name) {
+            List<String> values = parameters.get(name);
+            if (values == null) {
+                return Collections.emptyList();
+            }
+            return values;
+        }
+
+        @Override
+        public String parameter(String name, String defaultValue) {
+            String value = parameter(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            return value;
+        }
+
+        @Override
+        public Integer parameterAsInteger(String name) {
+            return parameterAsInteger(name, null);
+        }
+
+        @Override
+        public Integer parameterAsInteger(String name, Integer defaultValue) {
+            String value = parameter(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        @Override
+        public Boolean parameterAsBoolean(String name) {
+            return parameterAsBoolean(name, false);
+        }
+
+        @Override
+        public Boolean parameterAsBoolean(String name, boolean defaultValue) {
+            String value = parameter(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            return Boolean.parseBoolean(value);
+        }
+
+        @Override
+        public Map<String, List<String>> parameters() {
+            return parameters;
+        }
+
+        @Override
+        public Map<String, Object> data() {
+            return data;
+        }
+    }
+
+    /**
+     * An empty session. The changes are discarded.
+     */
+    private static class EmptySessionCookie implements SessionCookie {
+
+        @Override
+        public void init(Context context) {
+            // Nothing to read.
+        }
+
+        @Override
+        public String getId() {
+            return null;
+        }
+
+        @Override
+        public Map<String, String> getData() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public void save(Context context, Result result) {
+            // The response of a background refresh is not sent to any client.
+        }
+
+        @Override
+        public void put(String key, String value) {
+            // Discarded.
+        }
+
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public String remove(String key) {
+            return null;
+        }
+
+        @Override
+        public void clear() {
+            // Already empty.
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+    }
+
+    /**
+     * An empty flash scope. The changes are discarded.
+     */
+    private static class EmptyFlashCookie implements FlashCookie {
+
+        @Override
+        public void init(Context context) {
+            // Nothing to read.
+        }
+
+        @Override
+        public void save(Context context, Result result) {
+            // The response of a background refresh is not sent to any client.
+        }
+
+        @Override
+        public void put(String key, String value) {
+            // Discarded.
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            // Discarded.
+        }
+
+        @Override
+        public void error(String value) {
+            // Discarded.
+        }
+
+        @Override
+        public void success(String value) {
+            // Discarded.
+        }
+
+        @Override
+        public void discard(String key) {
+            // Already empty.
+        }
+
+        @Override
+        public void discard() {
+            // Already empty.
+        }
+
+        @Override
+        public void keep(String key) {
+            // Already empty.
+        }
+
+        @Override
+        public void keep() {
+            // Already empty.
+        }
+
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public boolean remove(String key) {
+            return false;
+        }
+
+        @Override
+        public void clearCurrentFlashCookieData() {
+            // Already empty.
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return false;
+        }
+
+        @Override
+        public Map<String, String> getCurrentFlashCookieData() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, String> getOutgoingFlashCookieData() {
+            return Collections.emptyMap();
+        }
+    }
+}
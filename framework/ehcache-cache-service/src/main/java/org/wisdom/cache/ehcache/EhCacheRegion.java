@@ -0,0 +1,229 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.Statistics;
+import org.joda.time.Duration;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.cache.ExtendedCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A region of the EhCache-based cache service. Each region is backed by an EhCache cache having the same name.
+ */
+@SuppressWarnings("unchecked")
+public class EhCacheRegion implements ExtendedCache {
+
+    private final EhCacheService service;
+    private final Ehcache cache;
+
+    /**
+     * Creates a new region.
+     *
+     * @param service the cache service having created the region
+     * @param cache   the underlying EhCache cache
+     */
+    public EhCacheRegion(EhCacheService service, Ehcache cache) {
+        this.service = service;
+        this.cache = cache;
+        this.cache.setStatisticsEnabled(true);
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time in seconds (0 second means eternity).
+     */
+    @Override
+    public void set(String key, Object value, int expiration) {
+        Element element = new Element(key, value);
+        if (expiration == 0) {
+            element.setEternal(true);
+        }
+        element.setTimeToLive(expiration);
+        cache.put(element);
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time.
+     */
+    @Override
+    public void set(String key, Object value, Duration expiration) {
+        cache.put(element(key, value, expiration));
+    }
+
+    private static Element element(String key, Object value, Duration expiration) {
+        Element element = new Element(key, value);
+        if (expiration == null) {
+            element.setEternal(true);
+        } else {
+            element.setTimeToLive((int) expiration.getStandardSeconds());
+        }
+        return element;
+    }
+
+    /**
+     * Gets an entry from the cache.
+     *
+     * @param key Item key.
+     * @return the stored object, {@literal null} if none of expired.
+     */
+    @Override
+    public Object get(String key) {
+        Element element = cache.get(key);
+        if (element != null) {
+            return element.getObjectValue();
+        }
+        return null;
+    }
+
+    /**
+     * Removes an object from the cache.
+     *
+     * @param key Item key
+     * @return {@literal true} if the object was removed, {@literal false} otherwise.
+     */
+    @Override
+    public boolean remove(String key) {
+        return cache.remove(key);
+    }
+
+    /**
+     * Gets a set of entries from the cache.
+     *
+     * @param keys the keys
+     * @return the map of key -> value for the keys having a value in the cache
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> result = new HashMap<>();
+        for (Map.Entry<Object, Element> entry : cache.getAll(keys).entrySet()) {
+            if (entry.getValue() != null) {
+                result.put((String) entry.getKey(), (T) entry.getValue().getObjectValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a set of entries in the cache.
+     *
+     * @param values     the key -> value map
+     * @param expiration Expiration time.
+     */
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        List<Element> elements = new ArrayList<>(values.size());
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+            elements.add(element(entry.getKey(), entry.getValue(), expiration));
+        }
+        cache.putAll(elements);
+    }
+
+    /**
+     * Gets an entry from the cache, or computes it. The computation is done while holding the write lock of the
+     * key, so concurrent callers wait for the value instead of computing it again.
+     *
+     * @param key        Item key.
+     * @param loader     the callable computing the value
+     * @param expiration Expiration time.
+     * @return the cached or computed value
+     * @throws Exception if the loader has thrown an exception
+     */
+    @Override
+    public <T> T computeIfAbsent(String key, Callable<T> loader, Duration expiration) throws Exception {
+        T value = (T) get(key);
+        if (value != null) {
+            return value;
+        }
+        cache.acquireWriteLockOnKey(key);
+        try {
+            Element element = cache.getQuiet(key);
+            if (element != null && !cache.isExpired(element)) {
+                return (T) element.getObjectValue();
+            }
+            value = loader.call();
+            if (value != null) {
+                cache.put(element(key, value, expiration));
+            }
+            return value;
+        } finally {
+            cache.releaseWriteLockOnKey(key);
+        }
+    }
+
+    /**
+     * Gets a named region.
+     *
+     * @param name the name of the region
+     * @return the region
+     */
+    @Override
+    public ExtendedCache region(String name) {
+        return service.region(name);
+    }
+
+    /**
+     * @return the name of the region.
+     */
+    @Override
+    public String name() {
+        return cache.getName();
+    }
+
+    /**
+     * @return the names of the regions created by the cache service.
+     */
+    @Override
+    public Collection<String> regions() {
+        return service.regions();
+    }
+
+    /**
+     * @return the statistics computed by EhCache for this region.
+     */
+    @Override
+    public CacheStatistics getStatistics() {
+        Statistics statistics = cache.getStatistics();
+        return new CacheStatistics(name(), statistics.getCacheHits(), statistics.getCacheMisses(),
+                statistics.getEvictionCount(), statistics.getObjectCount());
+    }
+
+    /**
+     * @return the underlying EhCache cache.
+     */
+    Ehcache getCache() {
+        return cache;
+    }
+}
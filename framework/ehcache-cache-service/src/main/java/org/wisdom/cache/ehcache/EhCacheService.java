@@ -20,22 +20,30 @@
 package org.wisdom.cache.ehcache;
 
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
 import org.apache.felix.ipojo.annotations.*;
 import org.joda.time.Duration;
 import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.cache.ExtendedCache;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An implementation of the cache service based on EhCache.
  */
 @Component(immediate = true)
-@Provides
+@Provides(specifications = {Cache.class, ExtendedCache.class},
+        properties = @StaticServiceProperty(name = "cache.provider", value = "ehcache", type = "java.lang.String"))
 @Instantiate
-public class EhCacheService implements Cache {
+public class EhCacheService implements ExtendedCache {
 
     private static final String WISDOM_KEY = "wisdom";
 
@@ -51,7 +59,8 @@ public class EhCacheService implements Cache {
      */
     public static final String INTERNAL_CONFIGURATION = "org/wisdom/cache/ehcache/ehcache-default.xml";
 
-    private net.sf.ehcache.Cache cache;
+    private final ConcurrentMap<String, EhCacheRegion> regions = new ConcurrentHashMap<>();
+    private EhCacheRegion cache;
     private CacheManager manager;
 
     @Requires ApplicationConfiguration configuration;
@@ -76,8 +85,7 @@ public class EhCacheService implements Cache {
                             "cannot load " + INTERNAL_CONFIGURATION + " file");
                 }
             }
-            manager.addCache(WISDOM_KEY);
-            cache = manager.getCache(WISDOM_KEY);
+            cache = (EhCacheRegion) region(WISDOM_KEY);
         } finally {
             Thread.currentThread().setContextClassLoader(original);
         }
@@ -89,7 +97,10 @@ public class EhCacheService implements Cache {
      */
     @Invalidate
     public void stop() {
-        manager.removeCache(WISDOM_KEY);
+        for (String name : regions.keySet()) {
+            manager.removeCache(name);
+        }
+        regions.clear();
     }
 
     /**
@@ -101,12 +112,7 @@ public class EhCacheService implements Cache {
      */
     @Override
     public void set(String key, Object value, int expiration) {
-        Element element = new Element(key, value);
-        if (expiration == 0) {
-            element.setEternal(true);
-        }
-        element.setTimeToLive(expiration);
-        cache.put(element);
+        cache.set(key, value, expiration);
     }
 
     /**
@@ -118,13 +124,7 @@ public class EhCacheService implements Cache {
      */
     @Override
     public void set(String key, Object value, Duration expiration) {
-        Element element = new Element(key, value);
-        if (expiration == null) {
-            element.setEternal(true);
-        } else {
-            element.setTimeToLive((int) expiration.getStandardSeconds());
-        }
-        cache.put(element);
+        cache.set(key, value, expiration);
     }
 
     /**
@@ -135,11 +135,7 @@ public class EhCacheService implements Cache {
      */
     @Override
     public Object get(String key) {
-        Element element = cache.get(key);
-        if (element != null) {
-            return element.getObjectValue();
-        }
-        return null;
+        return cache.get(key);
     }
 
     /**
@@ -152,4 +148,86 @@ public class EhCacheService implements Cache {
     public boolean remove(String key) {
         return cache.remove(key);
     }
+
+    /**
+     * Gets a set of entries from the default region.
+     *
+     * @param keys the keys
+     * @return the map of key -> value for the keys having a value in the cache
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        return cache.getAll(keys);
+    }
+
+    /**
+     * Adds a set of entries in the default region.
+     *
+     * @param values     the key -> value map
+     * @param expiration Expiration time.
+     */
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        cache.setAll(values, expiration);
+    }
+
+    /**
+     * Gets an entry from the default region, or computes it.
+     *
+     * @param key        Item key.
+     * @param loader     the callable computing the value
+     * @param expiration Expiration time.
+     * @return the cached or computed value
+     * @throws Exception if the loader has thrown an exception
+     */
+    @Override
+    public <T> T computeIfAbsent(String key, Callable<T> loader, Duration expiration) throws Exception {
+        return cache.computeIfAbsent(key, loader, expiration);
+    }
+
+    /**
+     * Gets a named region. Regions are backed by EhCache caches having the same name, so they can be configured
+     * in the 'ehcache.xml' file. If not configured, the default cache configuration is used.
+     *
+     * @param name the name of the region
+     * @return the region
+     */
+    @Override
+    public ExtendedCache region(String name) {
+        EhCacheRegion region = regions.get(name);
+        if (region == null) {
+            synchronized (this) {
+                region = regions.get(name);
+                if (region == null) {
+                    region = new EhCacheRegion(this, manager.addCacheIfAbsent(name));
+                    regions.put(name, region);
+                }
+            }
+        }
+        return region;
+    }
+
+    /**
+     * @return the name of the default region.
+     */
+    @Override
+    public String name() {
+        return WISDOM_KEY;
+    }
+
+    /**
+     * @return the names of the created regions.
+     */
+    @Override
+    public Collection<String> regions() {
+        return new ArrayList<>(regions.keySet());
+    }
+
+    /**
+     * @return the statistics of the default region.
+     */
+    @Override
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
 }
@@ -19,23 +19,41 @@
  */
 package org.wisdom.cache.ehcache;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.io.ByteStreams;
 import org.joda.time.Duration;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.wisdom.api.cache.Cache;
 import org.wisdom.api.cache.Cached;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.content.ContentCodec;
+import org.wisdom.api.content.ContentEncodingHelper;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.cookies.SessionCookie;
 import org.wisdom.api.http.*;
 import org.wisdom.api.interception.RequestContext;
+import org.wisdom.api.router.Route;
 
-import java.util.TreeMap;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,109 +61,295 @@ import static org.mockito.Mockito.*;
  */
 public class CachedActionInterceptorTest {
 
+    private CachedActionInterceptor interceptor;
+    private ContentEncodingHelper helper;
+
+    @Before
+    public void setUp() {
+        interceptor = new CachedActionInterceptor();
+        interceptor.engine = mock(ContentEngine.class);
+        helper = mock(ContentEncodingHelper.class);
+        when(interceptor.engine.getContentEncodingHelper()).thenReturn(helper);
+        interceptor.executor = mock(ManagedExecutorService.class);
+    }
+
+    private Cached cached(String key, int duration, int stale) {
+        Cached cached = mock(Cached.class);
+        when(cached.duration()).thenReturn(duration);
+        when(cached.staleWhileRevalidate()).thenReturn(stale);
+        when(cached.key()).thenReturn(key);
+        when(cached.vary()).thenReturn(new String[0]);
+        return cached;
+    }
+
+    private RequestContext context(Context ctx, Result result) throws Exception {
+        RequestContext context = mock(RequestContext.class);
+        final Request request = mock(Request.class);
+        when(request.uri()).thenReturn("/my/url?withquery");
+        when(context.request()).thenReturn(request);
+        when(context.context()).thenReturn(ctx);
+        if (!(ctx instanceof DetachedContext)) {
+            when(ctx.request()).thenReturn(request);
+        }
+        when(context.proceed()).thenReturn(result);
+        return context;
+    }
+
+    private static String content(Result result) throws Exception {
+        return new String(ByteStreams.toByteArray((InputStream) result.getRenderable().content()), "UTF-8");
+    }
+
     @Test
     public void testCaching() throws Exception {
-        CachedActionInterceptor interceptor = new CachedActionInterceptor();
         interceptor.cache = mock(Cache.class);
-        Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("key");
+        Cached cached = cached("key", 10, 0);
 
-        RequestContext context = mock(RequestContext.class);
-        when(context.request()).thenReturn(mock(Request.class));
         Context ctx = mock(Context.class);
-        when(context.context()).thenReturn(ctx);
-        when(context.context().header(anyString())).thenReturn(null);
         final Result r = Results.ok("Result");
-        when(context.proceed()).thenReturn(r);
+        RequestContext context = context(ctx, r);
 
         Result result = interceptor.call(cached, context);
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
-        // Check that the result was put in cache.
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getContentType()).startsWith(MimeTypes.TEXT);
+        // Check that the serialized result was put in cache.
         verify(interceptor.cache, times(1)).get("key");
-        verify(interceptor.cache, times(1)).set("key", r, Duration.standardSeconds(10));
+        ArgumentCaptor<CachedResponse> captor = ArgumentCaptor.forClass(CachedResponse.class);
+        verify(interceptor.cache, times(1)).set(eq("key"), captor.capture(), eq(Duration.standardSeconds(10)));
+        assertThat(new String(captor.getValue().getContent(), "UTF-8")).isEqualTo("Result");
 
-        when(interceptor.cache.get("key")).thenReturn(r);
+        when(interceptor.cache.get("key")).thenReturn(captor.getValue());
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
 
         verify(interceptor.cache, times(2)).get("key");
+        verify(context, times(1)).proceed();
     }
 
     @Test
     public void testCachingWithoutKey() throws Exception {
-        CachedActionInterceptor interceptor = new CachedActionInterceptor();
         interceptor.cache = mock(Cache.class);
-        Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("");
+        Cached cached = cached("", 10, 0);
 
-        RequestContext context = mock(RequestContext.class);
-        final Request request = mock(Request.class);
-        when(request.uri()).thenReturn("/my/url?withquery");
-        when(context.request()).thenReturn(request);
         Context ctx = mock(Context.class);
-        when(context.context()).thenReturn(ctx);
-        when(context.context().header(anyString())).thenReturn(null);
         final Result r = Results.ok("Result");
-        when(context.proceed()).thenReturn(r);
+        RequestContext context = context(ctx, r);
 
         Result result = interceptor.call(cached, context);
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
         // Check that the result was put in cache.
         verify(interceptor.cache, times(1)).get("/my/url?withquery");
-        verify(interceptor.cache, times(1)).set("/my/url?withquery", r, Duration.standardSeconds(10));
+        verify(interceptor.cache, times(1)).set(eq("/my/url?withquery"), any(CachedResponse.class),
+                eq(Duration.standardSeconds(10)));
+    }
 
-        when(interceptor.cache.get("key")).thenReturn(r);
-        result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r);
+    @Test
+    public void testKeyVaryingOnHeaders() throws Exception {
+        interceptor.cache = new DummyCache();
+        Cached cached = cached("key", 10, 0);
+        when(cached.vary()).thenReturn(new String[]{"X-Tenant"});
 
-        verify(interceptor.cache, times(2)).get("/my/url?withquery");
+        Context ctx = mock(Context.class);
+        when(ctx.header(HeaderNames.ACCEPT)).thenReturn("application/json");
+        when(ctx.header("X-Tenant")).thenReturn("acme");
+        RequestContext context = context(ctx, Results.ok("Result"));
+
+        interceptor.call(cached, context);
+        assertThat(((DummyCache) interceptor.cache).keySet())
+                .containsExactly("key|Accept=application/json|X-Tenant=acme");
     }
 
     @Test
     public void testCachingNoCache() throws Exception {
-        CachedActionInterceptor interceptor = new CachedActionInterceptor();
         interceptor.cache = new DummyCache();
-        Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("key");
+        Cached cached = cached("key", 10, 0);
 
-        RequestContext context = mock(RequestContext.class);
-        when(context.request()).thenReturn(mock(Request.class));
         Context ctx = mock(Context.class);
-        when(context.context()).thenReturn(ctx);
-        when(context.context().header(anyString())).thenReturn(null);
-        final Result r = Results.ok("Result");
-        when(context.proceed()).thenReturn(r);
+        RequestContext context = context(ctx, Results.ok("Result"));
 
         Result result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Result");
 
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
-
-        final Result r2 = Results.ok("Result2");
-        when(context.proceed()).thenReturn(r2);
+        when(context.proceed()).thenReturn(Results.ok("Result2"));
 
         result = interceptor.call(cached, context);
         // r is cached return r even is r2 is the new result.
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
 
         // The object is cached, let's use NO CACHE
-        when(context.context().header(HeaderNames.CACHE_CONTROL)).thenReturn(HeaderNames.NOCACHE_VALUE);
+        when(ctx.header(HeaderNames.CACHE_CONTROL)).thenReturn(HeaderNames.NOCACHE_VALUE);
 
         result = interceptor.call(cached, context);
-        assertThat(result).isNotEqualTo(r).isEqualTo(r2);
+        assertThat(content(result)).isEqualTo("Result2");
 
-        final Result r3 = Results.ok("Result3");
-        when(context.proceed()).thenReturn(r3);
+        when(context.proceed()).thenReturn(Results.ok("Result3"));
 
         // Remove the cache-control
-        when(context.context().header(HeaderNames.CACHE_CONTROL)).thenReturn(null);
+        when(ctx.header(HeaderNames.CACHE_CONTROL)).thenReturn(null);
+        result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Result2");
+    }
+
+    @Test
+    public void testErrorsAreNotCached() throws Exception {
+        interceptor.cache = new DummyCache();
+        Cached cached = cached("key", 10, 0);
+
+        Context ctx = mock(Context.class);
+        Result error = Results.internalServerError("boom");
+        RequestContext context = context(ctx, error);
+
+        assertThat(interceptor.call(cached, context)).isSameAs(error);
+        assertThat((DummyCache) interceptor.cache).isEmpty();
+    }
+
+    @Test
+    public void testPrecompressedContent() throws Exception {
+        interceptor.cache = new DummyCache();
+        Cached cached = cached("key", 10, 0);
+        ContentCodec codec = mock(ContentCodec.class);
+        when(codec.encode(any(InputStream.class))).thenReturn(new ByteArrayInputStream("gzipped".getBytes()));
+        when(interceptor.engine.getContentCodecForEncodingType(EncodingNames.GZIP)).thenReturn(codec);
+        when(helper.shouldEncode(any(Context.class), any(Result.class), any(Renderable.class))).thenReturn(true);
+        when(helper.parseAcceptEncodingHeader("gzip, deflate")).thenReturn(Arrays.asList("gzip", "deflate"));
+
+        Context ctx = mock(Context.class);
+        when(ctx.header(HeaderNames.ACCEPT_ENCODING)).thenReturn("gzip, deflate");
+        RequestContext context = context(ctx, Results.ok("Result"));
+
+        Result result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("gzipped");
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_ENCODING)).isEqualTo(EncodingNames.GZIP);
+
+        // Client not supporting gzip.
+        when(ctx.header(HeaderNames.ACCEPT_ENCODING)).thenReturn(null);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r2).isNotEqualTo(r3);
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat(result.getHeaders()).doesNotContainKey(HeaderNames.CONTENT_ENCODING);
+        verify(codec, times(1)).encode(any(InputStream.class));
+    }
+
+    @Test
+    public void testConcurrentMissesAreCoalesced() throws Exception {
+        interceptor.cache = new DummyCache();
+        final Cached cached = cached("key", 10, 0);
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Context ctx = mock(Context.class);
+        final RequestContext context = context(ctx, null);
+        when(context.proceed()).thenAnswer(new org.mockito.stubbing.Answer<Result>() {
+            @Override
+            public Result answer(org.mockito.invocation.InvocationOnMock invocation) throws Throwable {
+                computing.countDown();
+                release.await();
+                return Results.ok("Result");
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Result> leader = executor.submit(new Callable<Result>() {
+            @Override
+            public Result call() throws Exception {
+                return interceptor.call(cached, context);
+            }
+        });
+        assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The second request does not invoke the action, but waits asynchronously.
+        Result follower = interceptor.call(cached, context);
+        assertThat(follower).isInstanceOf(AsyncResult.class);
+        release.countDown();
+
+        assertThat(content(leader.get(10, TimeUnit.SECONDS))).isEqualTo("Result");
+        assertThat(content(((AsyncResult) follower).callable().call())).isEqualTo("Result");
+        verify(context, times(1)).proceed();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        interceptor.cache = new DummyCache();
+        Cached cached = cached("key", 10, 60);
+        interceptor.cache.set("key", new CachedResponse(Status.OK,
+                Collections.singletonMap(HeaderNames.CONTENT_TYPE, MimeTypes.TEXT),
+                "Stale".getBytes(), null, System.currentTimeMillis() - 1000), 0);
+
+        when(cached.vary()).thenReturn(new String[]{"X-Tenant"});
+        Context ctx = mock(Context.class);
+        RequestContext context = context(ctx, Results.ok("Fresh"));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(HeaderNames.ACCEPT, Collections.singletonList(MimeTypes.TEXT));
+        headers.put("x-tenant", Collections.singletonList("acme"));
+        headers.put(HeaderNames.COOKIE, Collections.singletonList("session=secret"));
+        when(ctx.request().headers()).thenReturn(headers);
+        SessionCookie session = mock(SessionCookie.class);
+        when(session.get("user")).thenReturn("alice");
+        when(ctx.session()).thenReturn(session);
+        // The refresh re-invokes the route with a detached context, as the current one is completed.
+        final Route route = mock(Route.class);
+        when(route.invoke()).thenAnswer(new org.mockito.stubbing.Answer<Result>() {
+            @Override
+            public Result answer(org.mockito.invocation.InvocationOnMock invocation) throws Throwable {
+                Context detached = Context.CONTEXT.get();
+                assertThat(detached).isInstanceOf(DetachedContext.class);
+                assertThat(detached.request().uri()).isEqualTo("/my/url?withquery");
+                // Only the data covered by the key is available.
+                assertThat(detached.header("X-Tenant")).isEqualTo("acme");
+                assertThat(detached.header(HeaderNames.ACCEPT)).isEqualTo(MimeTypes.TEXT);
+                assertThat(detached.header(HeaderNames.COOKIE)).isNull();
+                assertThat(detached.session().get("user")).isNull();
+                assertThat(detached.session().isEmpty()).isTrue();
+                assertThat(detached.cookie("session")).isNull();
+                return Results.ok("Fresh");
+            }
+        });
+        when(context.route()).thenReturn(route);
+
+        // The stale response is returned, and a refresh is submitted.
+        Result result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Stale");
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(interceptor.executor, times(1)).submit(captor.capture());
+        verify(context, never()).proceed();
+
+        captor.getValue().run();
+        verify(route, times(1)).invoke();
+        assertThat(Context.CONTEXT.get()).isNull();
+        result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Fresh");
+        verify(context, never()).proceed();
+    }
+
+    @Test
+    public void testDetachedContextBypassesTheCache() throws Exception {
+        interceptor.cache = mock(Cache.class);
+        Cached cached = cached("key", 10, 60);
+        Context ctx = mock(Context.class);
+        when(ctx.request()).thenReturn(mock(Request.class));
+        RequestContext context = context(new DetachedContext(ctx, Collections.<String>emptyList()),
+                Results.ok("Fresh"));
+
+        Result result = interceptor.call(cached, context);
+        assertThat(result.getRenderable().content()).isEqualTo("Fresh");
+        verifyZeroInteractions(interceptor.cache);
+    }
+
+    @Test
+    public void testCachedResponseRoundTrip() throws Exception {
+        CachedResponse response = new CachedResponse(Status.OK,
+                Collections.singletonMap(HeaderNames.CONTENT_TYPE, MimeTypes.TEXT),
+                "Hello".getBytes(), "Gzipped".getBytes(), 1000L);
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        CachedResponse decoded = mapper.readValue(mapper.writeValueAsBytes(response), CachedResponse.class);
+
+        assertThat(decoded.getStatus()).isEqualTo(Status.OK);
+        assertThat(decoded.getHeaders()).containsEntry(HeaderNames.CONTENT_TYPE, MimeTypes.TEXT);
+        assertThat(decoded.getContent()).isEqualTo("Hello".getBytes());
+        assertThat(decoded.getGzippedContent()).isEqualTo("Gzipped".getBytes());
+        assertThat(decoded.getFreshUntil()).isEqualTo(1000L);
+        assertThat(decoded.isFresh(999L)).isTrue();
+        assertThat(decoded.isFresh(1000L)).isFalse();
     }
 
     @Test
@@ -156,11 +360,8 @@ public class CachedActionInterceptorTest {
         svc.configuration = configuration;
         svc.start();
 
-        final CachedActionInterceptor interceptor = new CachedActionInterceptor();
         interceptor.cache = svc;
-        final Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("key");
+        final Cached cached = cached("key", 10, 0);
 
         CountDownLatch startSignal = new CountDownLatch(1);
         final int client = 100;
@@ -182,7 +383,7 @@ public class CachedActionInterceptorTest {
                         when(context.proceed()).thenReturn(r);
                         Result result = interceptor.call(cached, context);
 
-                        if (! result.getRenderable().content().equals("Result")) {
+                        if (! content(result).equals("Result")) {
                             counter.getAndIncrement();
                         }
                     } catch (Exception e) {
@@ -203,6 +404,7 @@ public class CachedActionInterceptorTest {
         svc.stop();
     }
 
+    @SuppressWarnings("unchecked")
     private class DummyCache extends TreeMap<String, Object> implements Cache {
         @Override
         public void set(String key, Object value, int expiration) {
@@ -23,8 +23,14 @@ import org.joda.time.Duration;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.cache.ExtendedCache;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -208,6 +214,72 @@ public class EhCacheServiceTest {
         svc.stop();
     }
 
+    @Test
+    public void testBulkOperations() {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        EhCacheService svc = new EhCacheService();
+        svc.configuration = configuration;
+        svc.start();
+
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+        svc.setAll(values, Duration.standardSeconds(60));
+
+        Map<String, String> result = svc.getAll(Arrays.asList("a", "b", "c"));
+        assertThat(result).hasSize(2).containsEntry("a", "1").containsEntry("b", "2");
+
+        svc.stop();
+    }
+
+    @Test
+    public void testComputeIfAbsent() throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        EhCacheService svc = new EhCacheService();
+        svc.configuration = configuration;
+        svc.start();
+
+        final AtomicInteger calls = new AtomicInteger();
+        Callable<String> loader = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "value-" + calls.incrementAndGet();
+            }
+        };
+        assertThat(svc.computeIfAbsent("key", loader, null)).isEqualTo("value-1");
+        assertThat(svc.computeIfAbsent("key", loader, null)).isEqualTo("value-1");
+        assertThat(calls.get()).isEqualTo(1);
+
+        svc.stop();
+    }
+
+    @Test
+    public void testRegionsAndStatistics() {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        EhCacheService svc = new EhCacheService();
+        svc.configuration = configuration;
+        svc.start();
+
+        ExtendedCache region = svc.region("users");
+        assertThat(svc.region("users")).isSameAs(region);
+        assertThat(region.name()).isEqualTo("users");
+        assertThat(svc.regions()).contains("wisdom", "users");
+
+        region.set("key", "value", 0);
+        svc.set("key", "other", 0);
+        assertThat(region.<String>get("key")).isEqualTo("value");
+        assertThat(region.<String>get("missing")).isNull();
+
+        CacheStatistics statistics = region.getStatistics();
+        assertThat(statistics.getName()).isEqualTo("users");
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getSize()).isEqualTo(1);
+        assertThat(statistics.getHitRatio()).isEqualTo(0.5);
+
+        svc.stop();
+    }
+
     private void waitForCleanup(EhCacheService svc) throws InterruptedException {
         for (int count = 0; count < 5; count++) {
             Object obj = svc.get("key");
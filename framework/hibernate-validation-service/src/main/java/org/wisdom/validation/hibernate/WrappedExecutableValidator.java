@@ -39,12 +39,18 @@ public class WrappedExecutableValidator implements ExecutableValidator {
 
     @Override
     public <T> Set<ConstraintViolation<T>> validateParameters(T t, Method method, Object[] objects, Class<?>... classes) {
-        final ClassLoader original = Thread.currentThread().getContextClassLoader();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader original = thread.getContextClassLoader();
+        final ClassLoader loader = this.getClass().getClassLoader();
+        if (original == loader) {
+            // Already set, avoid the swaps.
+            return delegate.validateParameters(t, method, objects, classes);
+        }
         try {
-            Thread.currentThread().setContextClassLoader(this.getClass().getClassLoader());
+            thread.setContextClassLoader(loader);
             return delegate.validateParameters(t, method, objects, classes);
         } finally {
-            Thread.currentThread().setContextClassLoader(original);
+            thread.setContextClassLoader(original);
         }
     }
 
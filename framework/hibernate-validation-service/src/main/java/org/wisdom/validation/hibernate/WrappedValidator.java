@@ -32,8 +32,14 @@ public class WrappedValidator implements Validator {
 
     private final Validator delegate;
 
+    /**
+     * The executable validator, created once as it's used on every request validating parameters.
+     */
+    private final ExecutableValidator executableValidator;
+
     WrappedValidator(Validator delegate) {
         this.delegate = delegate;
+        this.executableValidator = new WrappedExecutableValidator(delegate.forExecutables());
     }
 
     @Override
@@ -69,6 +75,6 @@ public class WrappedValidator implements Validator {
 
     @Override
     public ExecutableValidator forExecutables() {
-        return new WrappedExecutableValidator(delegate.forExecutables());
+        return executableValidator;
     }
 }
@@ -22,9 +22,18 @@ package org.wisdom.i18n;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Invalidate;
 import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 import org.wisdom.api.DefaultController;
 import org.wisdom.api.annotations.*;
+import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.Json;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.MimeTypes;
@@ -35,16 +44,74 @@ import java.util.*;
 
 /**
  * A controller allowing clients to retrieve the internationalized messages.
+ * <p>
+ * The bundles served to the clients are rendered once, and served with an entity tag, cache headers and a gzipped
+ * form. The rendered bundles are discarded when bundles arrive or leave, and rendered again on the next request.
  */
 @Controller
 public class I18nController extends DefaultController {
 
+    /**
+     * The configuration key to set the max age (in seconds) of the served bundles.
+     */
+    public static final String BUNDLE_MAX_AGE = "i18n.bundles.max-age";
+
+    /**
+     * The max age used when not configured. Clients revalidate their copy using the entity tag once expired.
+     */
+    public static final long DEFAULT_BUNDLE_MAX_AGE = 3600;
+
+    /**
+     * The maximum number of rendered bundles kept in memory. The JSON bundles depend on the list of locales given
+     * by the client, so we can't keep all of them: the least recently used ones are evicted.
+     */
+    static final int MAX_RENDERED_BUNDLES = 256;
+
     @Requires
     InternationalizationService service;
 
     @Requires
     Json json;
 
+    @Requires
+    ApplicationConfiguration configuration;
+
+    @Context
+    BundleContext bundleContext;
+
+    /**
+     * The rendered bundles, indexed by format and locale(s).
+     */
+    private final Cache<String, RenderedBundle> rendered = CacheBuilder.newBuilder()
+            .maximumSize(MAX_RENDERED_BUNDLES).build();
+
+    /**
+     * Discards the rendered bundles when a bundle, and so its resource bundles, arrives or leaves.
+     */
+    private final BundleListener listener = new BundleListener() {
+        @Override
+        public void bundleChanged(BundleEvent event) {
+            rendered.invalidateAll();
+        }
+    };
+
+    /**
+     * Starts tracking the bundles, to discard the rendered bundles when they change.
+     */
+    @Validate
+    public void start() {
+        bundleContext.addBundleListener(listener);
+    }
+
+    /**
+     * Stops tracking the bundles.
+     */
+    @Invalidate
+    public void stop() {
+        bundleContext.removeBundleListener(listener);
+        rendered.invalidateAll();
+    }
+
     @Route(method = HttpMethod.GET, uri = "i18n/bundles/{file<.+>}.properties")
     public Result getBundleResource(@PathParameter("file") String file) {
 
@@ -59,21 +126,29 @@ public class I18nController extends DefaultController {
             locale = Locale.forLanguageTag(file.substring(file.indexOf('_') + 1).replace("_", "-"));
         }
 
-        Collection<ResourceBundle> bundles = service.bundles(locale);
+        List<ResourceBundle> bundles = new ArrayList<>(service.bundles(locale));
 
         // Do we have this locale
         if (bundles.isEmpty()) {
             // No, return not found
             return notFound().as(MimeTypes.TEXT);
-        } else {
+        }
+
+        String key = "properties:" + locale.toLanguageTag();
+        RenderedBundle bundle = rendered.getIfPresent(key);
+        // The resource bundles may have changed between the bundle event and the invalidation.
+        if (bundle == null || !bundle.isUpToDate(bundles)) {
             StringBuilder builder = new StringBuilder();
-            for (ResourceBundle bundle : bundles) {
-                for (String key : bundle.keySet()) {
-                    builder.append(key).append("=").append(bundle.getString(key)).append("\n");
+            for (ResourceBundle rb : bundles) {
+                for (String k : rb.keySet()) {
+                    builder.append(k).append("=").append(rb.getString(k)).append("\n");
                 }
             }
-            return ok(builder.toString()).as(MimeTypes.TEXT);
+            String text = builder.toString();
+            bundle = new RenderedBundle(bundles, text, text, MimeTypes.TEXT);
+            rendered.put(key, bundle);
         }
+        return bundle.toResult(context(), getMaxAge());
     }
 
 
@@ -93,25 +168,51 @@ public class I18nController extends DefaultController {
             }
         }
 
-        // i18next use a specific Json Format
-        ObjectNode result = json.newObject();
+        // The rendered form depends on the bundles of each locale.
+        StringBuilder key = new StringBuilder("json:");
+        List<ResourceBundle> bundles = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>(locales.size());
         for (Locale locale : locales) {
-            ObjectNode lang = json.newObject();
-            ObjectNode translation = json.newObject();
-            lang.set("translation", translation);
-            Collection<ResourceBundle> bundles = service.bundles(locale);
-            for (ResourceBundle bundle : bundles) {
-                for (String key : bundle.keySet()) {
-                    populateJsonResourceBundle(translation, key, bundle.getString(key));
+            key.append(locale.toLanguageTag()).append(' ');
+            Collection<ResourceBundle> forLocale = service.bundles(locale);
+            bundles.addAll(forLocale);
+            sizes.add(forLocale.size());
+        }
+
+        RenderedBundle bundle = rendered.getIfPresent(key.toString());
+        if (bundle == null || !bundle.isUpToDate(bundles)) {
+            // i18next use a specific Json Format
+            ObjectNode result = json.newObject();
+            Iterator<ResourceBundle> iterator = bundles.iterator();
+            for (int i = 0; i < locales.size(); i++) {
+                Locale locale = locales.get(i);
+                ObjectNode lang = json.newObject();
+                ObjectNode translation = json.newObject();
+                lang.set("translation", translation);
+                for (int j = 0; j < sizes.get(i); j++) {
+                    ResourceBundle rb = iterator.next();
+                    for (String k : rb.keySet()) {
+                        populateJsonResourceBundle(translation, k, rb.getString(k));
+                    }
                 }
+                String langName = locale.toLanguageTag();
+                if (locale.equals(InternationalizationService.DEFAULT_LOCALE)) {
+                    langName = "dev";
+                }
+                result.set(langName, lang);
             }
-            String langName = locale.toLanguageTag();
-            if (locale.equals(InternationalizationService.DEFAULT_LOCALE)) {
-                langName = "dev";
-            }
-            result.set(langName, lang);
+            bundle = new RenderedBundle(bundles, result, json.stringify(result), MimeTypes.JSON);
+            rendered.put(key.toString(), bundle);
+        }
+        return bundle.toResult(context(), getMaxAge());
+    }
+
+    private long getMaxAge() {
+        // configuration is null in unit tests.
+        if (configuration == null) {
+            return DEFAULT_BUNDLE_MAX_AGE;
         }
-        return ok(result);
+        return configuration.getLongWithDefault(BUNDLE_MAX_AGE, DEFAULT_BUNDLE_MAX_AGE);
     }
 
     private void populateJsonResourceBundle(ObjectNode node, String key, String value) {
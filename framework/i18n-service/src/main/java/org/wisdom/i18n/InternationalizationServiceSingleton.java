@@ -28,6 +28,7 @@ import org.osgi.util.tracker.BundleTrackerCustomizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.engine.StartupProfiler;
 import org.wisdom.api.i18n.InternationalizationService;
 
 import java.util.*;
@@ -53,10 +54,19 @@ public class InternationalizationServiceSingleton implements Internationalizatio
     @Requires
     ApplicationConfiguration configuration;
 
+    @Requires(optional = true, nullable = false, proxy = false)
+    StartupProfiler profiler;
+
+    /**
+     * The managed extensions. The list is never modified, it is replaced when extensions arrive or leave.
+     */
+    private volatile List<I18nExtension> extensions = Collections.emptyList();
+
     /**
-     * The managed extensions.
+     * The message index built from {@link #extensions}, replaced with it.
      */
-    private List<I18nExtension> extensions = new ArrayList<>();
+    private volatile MessageIndex index = MessageIndex.EMPTY;
+
     private BundleTracker<List<I18nExtension>> tracker;
 
     public InternationalizationServiceSingleton(BundleContext context) {
@@ -76,16 +86,47 @@ public class InternationalizationServiceSingleton implements Internationalizatio
 
     @Validate
     public void start() {
-        tracker = new BundleTracker<>(context, Bundle.ACTIVE, this);
-        tracker.open();
+        final BundleTracker<List<I18nExtension>> created = new BundleTracker<>(context, Bundle.ACTIVE, this);
+        synchronized (this) {
+            tracker = created;
+        }
+        if (profiler != null) {
+            // The messages are loaded once the application is ready, if the profiler defers the startup tasks.
+            profiler.whenReady("i18n extender", new Runnable() {
+                @Override
+                public void run() {
+                    open(created);
+                }
+            });
+        } else {
+            open(created);
+        }
+    }
+
+    private void open(BundleTracker<List<I18nExtension>> created) {
+        synchronized (this) {
+            // Does not open a tracker if the service has been stopped in the meantime.
+            if (tracker != created) {
+                return;
+            }
+        }
+        created.open();
     }
 
     @Invalidate
     public void stop() {
-        if (tracker != null) {
-            tracker.close();
+        BundleTracker<List<I18nExtension>> current;
+        synchronized (this) {
+            current = tracker;
+            tracker = null;
+        }
+        if (current != null) {
+            current.close();
+        }
+        synchronized (this) {
+            extensions = Collections.emptyList();
+            index = MessageIndex.EMPTY;
         }
-        extensions.clear();
     }
 
     /**
@@ -145,25 +186,17 @@ public class InternationalizationServiceSingleton implements Internationalizatio
      * @return the formatted internationalized message
      */
     public String get(Locale[] locales, String key, Object... args) {
-        for (Locale locale : locales) {
-            I18nExtension extension = getExtension(locale, key);
-            if (extension != null) {
-                return extension.get(key, args);
-            }
+        MessageIndex.Message message = index.get(locales, key);
+        if (message != null) {
+            return message.format(args);
         }
-        // Use default.
-        I18nExtension extension = getExtension(InternationalizationService.DEFAULT_LOCALE, key);
-        if (extension != null) {
-            return extension.get(key, args);
-        }
-
         return null;
     }
 
     /**
      * Gets the message identified by `key` for the given locale. The message can be parameterized using `args`,
      * applied to the message using  {@link java.text.MessageFormat}. If the message is not provided for the given
-     * locale, the default locale is tried. If the message is still not provided, {@literal null} is returned.
+     * locale, the locale of its language and then the default locale are tried. If the message is still not provided, {@literal null} is returned.
      *
      * @param locale the locale
      * @param key    the key
@@ -172,15 +205,10 @@ public class InternationalizationServiceSingleton implements Internationalizatio
      */
     @Override
     public String get(Locale locale, String key, Object... args) {
-        I18nExtension extension = getExtension(locale, key);
-        if (extension != null) {
-            return extension.get(key, args);
-        }
-        extension = getExtension(InternationalizationService.DEFAULT_LOCALE, key);
-        if (extension != null) {
-            return extension.get(key, args);
+        MessageIndex.Message message = index.get(locale, key);
+        if (message != null) {
+            return message.format(args);
         }
-
         return null;
     }
 
@@ -205,56 +233,7 @@ public class InternationalizationServiceSingleton implements Internationalizatio
      */
     @Override
     public Map<String, String> getAllMessages(Locale... locales) {
-        Map<String, String> messages = new HashMap<>();
-        List<I18nExtension> extensionForLocale;
-        for (Locale locale : locales) {
-            extensionForLocale = getExtension(locale);
-            for (I18nExtension extension : extensionForLocale) {
-                merge(messages, extension.map());
-            }
-        }
-        // Now add the messages for the default locale
-        extensionForLocale = getExtension(DEFAULT_LOCALE);
-        for (I18nExtension extension : extensionForLocale) {
-            merge(messages, extension.map());
-        }
-        return messages;
-    }
-
-    private void merge(Map<String, String> map1, Map<String, String> map2) {
-        for (Map.Entry<String, String> entry : map2.entrySet()) {
-            if (!map1.containsKey(entry.getKey())) {
-                map1.put(entry.getKey(), entry.getValue());
-            }
-        }
-    }
-
-    private List<I18nExtension> getExtension(Locale locale) {
-        if (locale.equals(defaultLocale)) {
-            locale = InternationalizationService.DEFAULT_LOCALE;
-        }
-        List<I18nExtension> list = new ArrayList<>();
-        for (I18nExtension extension : extensions) {
-            if (extension.locale().equals(locale)) {
-                list.add(extension);
-            } else if (locale.equals(defaultLocale)  && extension.locale().equals(DEFAULT_LOCALE)) {
-                list.add(extension);
-            }
-        }
-        return list;
-    }
-
-    private I18nExtension getExtension(Locale locale, String key) {
-        if (locale.equals(defaultLocale)) {
-            locale = InternationalizationService.DEFAULT_LOCALE;
-        }
-        for (I18nExtension extension : extensions) {
-            if (extension.locale().equals(locale)
-                    && extension.keys().contains(key)) {
-                return extension;
-            }
-        }
-        return null;
+        return index.getAll(locales);
     }
 
     /**
@@ -285,7 +264,11 @@ public class InternationalizationServiceSingleton implements Internationalizatio
         }
         LOGGER.info(list.size() + " resource bundle(s) loaded from {} ({})", bundle.getSymbolicName(),
                 bundle.getBundleId());
-        extensions.addAll(list);
+        synchronized (this) {
+            List<I18nExtension> copy = new ArrayList<>(extensions);
+            copy.addAll(list);
+            update(copy);
+        }
         return list;
     }
 
@@ -323,13 +306,23 @@ public class InternationalizationServiceSingleton implements Internationalizatio
      */
     @Override
     public void removedBundle(Bundle bundle, BundleEvent event, List<I18nExtension> list) {
-        for (I18nExtension extension : list) {
-            synchronized (this) {
-                extensions.remove(extension);
-            }
+        synchronized (this) {
+            List<I18nExtension> copy = new ArrayList<>(extensions);
+            copy.removeAll(list);
+            update(copy);
         }
         LOGGER.info("Bundle {} ({}) does not offer the {} resource bundle(s) anymore",
                 bundle.getSymbolicName(), bundle.getBundleId(), list.size());
 
     }
+
+    /**
+     * Publishes a new set of extensions and the index built from it. Must be called while holding the lock.
+     *
+     * @param list the new set of extensions
+     */
+    private void update(List<I18nExtension> list) {
+        index = new MessageIndex(list, defaultLocale);
+        extensions = Collections.unmodifiableList(list);
+    }
 }
@@ -0,0 +1,253 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.i18n;
+
+import org.wisdom.api.i18n.InternationalizationService;
+
+import java.text.MessageFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An immutable index of the messages provided by a set of {@link org.wisdom.i18n.I18nExtension}. Messages are
+ * indexed by locale and key, so retrieving a message does not require to iterate over the extensions. The index is
+ * never modified, a new index is built when extensions arrive or leave.
+ * <p>
+ * The fallback chain of a locale (the messages of the locale itself, then the ones of its language, e.g. {@code fr_FR}
+ * then {@code fr}) is resolved on the first lookup and kept in the index. The default messages are tried after the
+ * chain. The locale configured by the application is mapped to the default locale, so its chain contains the default
+ * messages, and a request listing it before another locale gets the default messages first.
+ */
+final class MessageIndex {
+
+    /**
+     * The maximum number of fallback chains kept by the index. Locales come from the requests,
+     * so we don't want to cache them all.
+     */
+    static final int MAX_CACHED_CHAINS = 256;
+
+    /**
+     * The empty index.
+     */
+    static final MessageIndex EMPTY = new MessageIndex(Collections.<I18nExtension>emptyList(), null);
+
+    private final Map<Locale, Map<String, Message>> messages;
+
+    private final Map<String, Message> defaults;
+
+    private final Locale defaultLocale;
+
+    private final ConcurrentMap<Locale, List<Map<String, Message>>> chains = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the index. When several extensions provide the same key for the same locale, the first one wins.
+     *
+     * @param extensions    the extensions
+     * @param defaultLocale the locale configured by the application, its messages are the one from the default
+     *                      locale. May be {@literal null}.
+     */
+    MessageIndex(List<I18nExtension> extensions, Locale defaultLocale) {
+        this.defaultLocale = defaultLocale;
+        Map<Locale, Map<String, Message>> index = new HashMap<>();
+        for (I18nExtension extension : extensions) {
+            Map<String, Message> map = index.get(extension.locale());
+            if (map == null) {
+                map = new HashMap<>();
+                index.put(extension.locale(), map);
+            }
+            ResourceBundle bundle = extension.bundle();
+            for (String key : bundle.keySet()) {
+                if (!map.containsKey(key)) {
+                    map.put(key, new Message(bundle.getString(key)));
+                }
+            }
+        }
+        Map<String, Message> def = index.get(InternationalizationService.DEFAULT_LOCALE);
+        this.defaults = def == null ? Collections.<String, Message>emptyMap() : def;
+        this.messages = index;
+    }
+
+    /**
+     * Gets the message identified by the given key, looking into the fallback chain of the given locale and
+     * then into the default locale.
+     *
+     * @param locale the locale
+     * @param key    the key
+     * @return the message, {@literal null} if not found
+     */
+    Message get(Locale locale, String key) {
+        for (Map<String, Message> map : chain(locale)) {
+            Message message = map.get(key);
+            if (message != null) {
+                return message;
+            }
+        }
+        return defaults.get(key);
+    }
+
+    /**
+     * Gets the message identified by the given key, looking into the fallback chain of each given locale and then
+     * into the default locale.
+     *
+     * @param locales the ordered set of locales
+     * @param key     the key
+     * @return the message, {@literal null} if not found
+     */
+    Message get(Locale[] locales, String key) {
+        for (Locale locale : locales) {
+            for (Map<String, Message> map : chain(locale)) {
+                Message message = map.get(key);
+                if (message != null) {
+                    return message;
+                }
+            }
+        }
+        return defaults.get(key);
+    }
+
+    /**
+     * Collects the messages available for the given locales and the default locale. A key is only added if it is
+     * not provided by a previous locale.
+     *
+     * @param locales the ordered set of locales
+     * @return the key - message map
+     */
+    Map<String, String> getAll(Locale... locales) {
+        Map<String, String> result = new HashMap<>();
+        for (Locale locale : locales) {
+            for (Map<String, Message> map : chain(locale)) {
+                merge(result, map);
+            }
+        }
+        merge(result, defaults);
+        return result;
+    }
+
+    private static void merge(Map<String, String> result, Map<String, Message> map) {
+        for (Map.Entry<String, Message> entry : map.entrySet()) {
+            if (!result.containsKey(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue().pattern());
+            }
+        }
+    }
+
+    /**
+     * Gets the message maps to look into for the given locale, before the default locale.
+     *
+     * @param locale the locale
+     * @return the list of maps, empty if no extension provides messages for this locale or its language
+     */
+    List<Map<String, Message>> chain(Locale locale) {
+        List<Map<String, Message>> chain = chains.get(locale);
+        if (chain == null) {
+            chain = computeChain(locale);
+            if (chains.size() < MAX_CACHED_CHAINS) {
+                chains.putIfAbsent(locale, chain);
+            }
+        }
+        return chain;
+    }
+
+    private List<Map<String, Message>> computeChain(Locale locale) {
+        Set<Locale> candidates = new LinkedHashSet<>();
+        candidates.add(locale);
+        if (!locale.getVariant().isEmpty()) {
+            candidates.add(new Locale(locale.getLanguage(), locale.getCountry()));
+        }
+        if (!locale.getCountry().isEmpty()) {
+            candidates.add(new Locale(locale.getLanguage()));
+        }
+        List<Map<String, Message>> chain = new ArrayList<>();
+        for (Locale candidate : candidates) {
+            Map<String, Message> map;
+            if (candidate.equals(defaultLocale) || candidate.equals(InternationalizationService.DEFAULT_LOCALE)) {
+                // The messages of the application locale are the default ones.
+                map = defaults;
+            } else {
+                map = messages.get(candidate);
+            }
+            if (map != null && !map.isEmpty() && !chain.contains(map)) {
+                chain.add(map);
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * A message. The pattern is parsed once, on the first formatting, and the parsed
+     * {@link java.text.MessageFormat} is reused by the following calls.
+     */
+    static final class Message {
+
+        private final String pattern;
+
+        /**
+         * The parsed format. {@link java.text.MessageFormat} is not thread-safe, so it is taken while being used.
+         * Concurrent callers format a clone of the {@link #prototype}.
+         */
+        private final AtomicReference<MessageFormat> available = new AtomicReference<>();
+
+        private volatile MessageFormat prototype;
+
+        Message(String pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * @return the raw message.
+         */
+        String pattern() {
+            return pattern;
+        }
+
+        /**
+         * Formats the message. If {@literal args} is empty, the raw message is returned.
+         *
+         * @param args the arguments
+         * @return the formatted message
+         */
+        String format(Object... args) {
+            if (args == null || args.length == 0) {
+                return pattern;
+            }
+            MessageFormat format = available.getAndSet(null);
+            if (format == null) {
+                format = newFormat();
+            }
+            try {
+                return format.format(args);
+            } finally {
+                available.compareAndSet(null, format);
+            }
+        }
+
+        private MessageFormat newFormat() {
+            MessageFormat proto = prototype;
+            if (proto == null) {
+                // Concurrent first calls may parse the pattern twice, that's harmless.
+                proto = new MessageFormat(pattern);
+                prototype = proto;
+            }
+            return (MessageFormat) proto.clone();
+        }
+    }
+}
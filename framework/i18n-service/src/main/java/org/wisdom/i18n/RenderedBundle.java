@@ -0,0 +1,199 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.i18n;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import org.wisdom.api.http.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The rendered form of a set of resource bundles, as served by the {@link org.wisdom.i18n.I18nController}. The
+ * payload is serialized and compressed once, the responses just write the bytes.
+ */
+final class RenderedBundle {
+
+    private final List<ResourceBundle> sources;
+
+    private final Payload identity;
+
+    private final Payload gzip;
+
+    /**
+     * Renders the given content.
+     *
+     * @param sources  the resource bundles used to build the content, used to detect that the rendered form is out
+     *                 of date
+     * @param content  the content (a String or a JSON node)
+     * @param text     the serialized form of the content
+     * @param mimeType the mime type of the content
+     */
+    RenderedBundle(List<ResourceBundle> sources, Object content, String text, String mimeType) {
+        this.sources = sources;
+        byte[] bytes = text.getBytes(Charsets.UTF_8);
+        String hash = Hashing.murmur3_128().hashBytes(bytes).toString();
+        this.identity = new Payload(content, mimeType, bytes, ETags.quote(hash));
+        this.gzip = new Payload(content, mimeType, compress(bytes), ETags.quote(hash + "-gzip"));
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream stream = new GZIPOutputStream(out)) {
+            stream.write(bytes);
+        } catch (IOException e) {
+            // Cannot happen, we are writing in memory.
+            throw new IllegalStateException("Cannot compress the resource bundle", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks whether this rendered form has been built from the given resource bundles.
+     *
+     * @param bundles the current resource bundles
+     * @return {@literal true} if the rendered form can still be used
+     */
+    boolean isUpToDate(List<ResourceBundle> bundles) {
+        return sources.equals(bundles);
+    }
+
+    /**
+     * Builds the result answering the current request. The gzipped representation is sent if the client accepts it.
+     * If the client already holds the representation, a {@literal 304 - NOT MODIFIED} result is returned.
+     *
+     * @param context the context
+     * @param maxAge  the max age in seconds, {@literal 0} disables the caching (revalidation is still possible)
+     * @return the result
+     */
+    Result toResult(Context context, long maxAge) {
+        Payload payload = acceptsGzip(context.header(HeaderNames.ACCEPT_ENCODING)) ? gzip : identity;
+        Result result;
+        String ifNoneMatch = context.header(HeaderNames.IF_NONE_MATCH);
+        if (ETags.matches(ifNoneMatch, identity.etag) || ETags.matches(ifNoneMatch, gzip.etag)) {
+            result = Results.notModified(payload.etag);
+        } else {
+            // The payload is encoded in UTF-8, clients must not guess the charset.
+            result = Results.ok().render(payload).as(payload.mimeType).with(Charsets.UTF_8).withETag(payload.etag);
+            if (payload == gzip) {
+                result.with(HeaderNames.CONTENT_ENCODING, EncodingNames.GZIP);
+            }
+        }
+        result.with(HeaderNames.VARY, HeaderNames.ACCEPT_ENCODING);
+        if (maxAge > 0) {
+            result.with(HeaderNames.CACHE_CONTROL, "max-age=" + maxAge);
+        } else {
+            result.with(HeaderNames.CACHE_CONTROL, "no-cache");
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given {@literal Accept-Encoding} header accepts gzip.
+     *
+     * @param header the header, may be {@literal null}
+     * @return {@literal true} if the client accepts gzip
+     */
+    static boolean acceptsGzip(String header) {
+        if (header == null) {
+            return false;
+        }
+        for (String item : header.split(",")) {
+            String[] segments = item.split(";");
+            String coding = segments[0].trim();
+            if (EncodingNames.GZIP.equalsIgnoreCase(coding) || "*".equals(coding)) {
+                return segments.length == 1 || !isZeroQuality(segments[1]);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2)) == 0.0;
+        } catch (NumberFormatException e) { //NOSONAR
+            return false;
+        }
+    }
+
+    /**
+     * A pre-rendered representation. The content is the logical content (String or JSON node) so tests and
+     * interceptors can still read it, while the rendering just writes the bytes.
+     */
+    private static final class Payload implements Renderable<Object> {
+
+        private final Object content;
+        private final String mimeType;
+        private final byte[] bytes;
+        private final String etag;
+
+        private Payload(Object content, String mimeType, byte[] bytes, String etag) {
+            this.content = content;
+            this.mimeType = mimeType;
+            this.bytes = bytes;
+            this.etag = etag;
+        }
+
+        @Override
+        public InputStream render(Context context, Result result) {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public long length() {
+            return bytes.length;
+        }
+
+        @Override
+        public String mimetype() {
+            return mimeType;
+        }
+
+        @Override
+        public Object content() {
+            return content;
+        }
+
+        @Override
+        public boolean requireSerializer() {
+            return false;
+        }
+
+        @Override
+        public void setSerializedForm(String serialized) {
+            // Already serialized.
+        }
+
+        @Override
+        public boolean mustBeChunked() {
+            return false;
+        }
+    }
+}
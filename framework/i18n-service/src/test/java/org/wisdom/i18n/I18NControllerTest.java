@@ -23,8 +23,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.apache.commons.io.IOUtils;
 import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.http.Status;
@@ -34,9 +38,14 @@ import org.wisdom.test.http.HttpResponse;
 import org.wisdom.test.parents.*;
 import sun.util.resources.cldr.om.LocaleNames_om;
 
+import java.io.ByteArrayInputStream;
+import java.util.List;
 import java.util.Locale;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * Check the behavior of the internationalization controller.
@@ -45,11 +54,17 @@ public class I18NControllerTest extends WisdomUnitTest {
 
     private I18nController controller;
 
+    private InternationalizationServiceSingleton service;
+
+    private Bundle bundle;
+
+    private List<I18nExtension> extensions;
+
     @Before
     public void setUp() {
-        InternationalizationServiceSingleton service = new InternationalizationServiceSingleton(null);
-        final Bundle bundle = InternationalizationServiceSingletonTest.getMockBundle();
-        service.addingBundle(bundle,
+        service = new InternationalizationServiceSingleton(null);
+        bundle = InternationalizationServiceSingletonTest.getMockBundle();
+        extensions = service.addingBundle(bundle,
                 new BundleEvent(BundleEvent.STARTED, bundle));
         controller = new I18nController();
         controller.service = service;
@@ -136,13 +151,22 @@ public class I18NControllerTest extends WisdomUnitTest {
         }).invoke();
         assertThat(toString(result)).isEqualTo("bonjour");
 
-        // Not supported locale, delegate to default
+        // Not supported locale, delegate to its language
         result = Action.action(new Invocation() {
             @Override
             public Result invoke() throws Throwable {
                 return controller.getMessage("welcome", Locale.FRANCE);
             }
         }).invoke();
+        assertThat(toString(result)).isEqualTo("bonjour");
+
+        // Not supported language, delegate to default
+        result = Action.action(new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getMessage("welcome", Locale.CHINA);
+            }
+        }).invoke();
         assertThat(toString(result)).isEqualTo("hello");
     }
 
@@ -201,7 +225,7 @@ public class I18NControllerTest extends WisdomUnitTest {
         })
                 .header(HeaderNames.ACCEPT_LANGUAGE, "fr-FR")
                 .invoke();
-        assertThat(toString(result)).contains("hello");
+        assertThat(toString(result)).contains("bonjour");
 
         result = Action.action(new Invocation() {
             @Override
@@ -237,5 +261,133 @@ public class I18NControllerTest extends WisdomUnitTest {
         assertThat(toString(result)).contains("bonjour");
     }
 
+    @Test
+    public void testThatBundlesAreCachedAndTagged() throws Exception {
+        Action.ActionResult result = Action.action(new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResource("Messages_fr");
+            }
+        }).invoke();
+        assertThat(status(result)).isEqualTo(Status.OK);
+        String etag = result.getResult().getHeaders().get(HeaderNames.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(result.getResult().getHeaders().get(HeaderNames.CACHE_CONTROL)).isEqualTo("max-age=3600");
+        assertThat(result.getResult().getHeaders()).doesNotContainKey(HeaderNames.CONTENT_ENCODING);
+        assertThat(IOUtils.toString(result.getResult().getRenderable().render(null, null), "UTF-8"))
+                .contains("welcome=bonjour");
+
+        // The client holds the bundle.
+        result = Action.action(new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResource("Messages_fr");
+            }
+        }).header(HeaderNames.IF_NONE_MATCH, etag).invoke();
+        assertThat(status(result)).isEqualTo(Status.NOT_MODIFIED);
+        assertThat(result.getResult().getHeaders().get(HeaderNames.ETAG)).isEqualTo(etag);
+
+        // Gzipped form.
+        result = Action.action(new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResource("Messages_fr");
+            }
+        }).header(HeaderNames.ACCEPT_ENCODING, "deflate, gzip").invoke();
+        assertThat(status(result)).isEqualTo(Status.OK);
+        assertThat(result.getResult().getHeaders().get(HeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        String gzipTag = result.getResult().getHeaders().get(HeaderNames.ETAG);
+        assertThat(gzipTag).isNotEqualTo(etag);
+        assertThat(IOUtils.toString(new GZIPInputStream(result.getResult().getRenderable().render(null, null)),
+                "UTF-8")).contains("welcome=bonjour");
 
+        result = Action.action(new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResource("Messages_fr");
+            }
+        }).header(HeaderNames.ACCEPT_ENCODING, "gzip").header(HeaderNames.IF_NONE_MATCH, gzipTag).invoke();
+        assertThat(status(result)).isEqualTo(Status.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testThatBundlesAreRenderedAgainWhenBundlesChange() throws Exception {
+        Invocation invocation = new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResourceForI18Next("fr dev");
+            }
+        };
+        Action.ActionResult result = Action.action(invocation).invoke();
+        String etag = result.getResult().getHeaders().get(HeaderNames.ETAG);
+        assertThat(json(result).get("fr").get("translation").get("welcome").asText()).isEqualTo("bonjour");
+        Object rendered = result.getResult().getRenderable();
+
+        result = Action.action(invocation).invoke();
+        assertThat(result.getResult().getRenderable()).isSameAs(rendered);
+
+        service.removedBundle(bundle, null, extensions);
+        result = Action.action(invocation).header(HeaderNames.IF_NONE_MATCH, etag).invoke();
+        assertThat(status(result)).isEqualTo(Status.OK);
+        assertThat(result.getResult().getHeaders().get(HeaderNames.ETAG)).isNotEqualTo(etag);
+        assertThat(json(result).get("fr").get("translation").size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testThatBundlesAreDiscardedOnBundleEvents() throws Exception {
+        BundleContext context = mock(BundleContext.class);
+        controller.bundleContext = context;
+        controller.start();
+        ArgumentCaptor<BundleListener> listener = ArgumentCaptor.forClass(BundleListener.class);
+        verify(context).addBundleListener(listener.capture());
+
+        Invocation invocation = new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResourceForI18Next("fr");
+            }
+        };
+        Action.ActionResult result = Action.action(invocation).invoke();
+        assertThat(result.getResult().getFullContentType()).isEqualTo("application/json; charset=UTF-8");
+        Object rendered = result.getResult().getRenderable();
+        assertThat(Action.action(invocation).invoke().getResult().getRenderable()).isSameAs(rendered);
+
+        listener.getValue().bundleChanged(new BundleEvent(BundleEvent.STARTED, bundle));
+        assertThat(Action.action(invocation).invoke().getResult().getRenderable()).isNotSameAs(rendered);
+
+        controller.stop();
+        verify(context).removeBundleListener(listener.getValue());
+    }
+
+    @Test
+    public void testThatTheLeastRecentlyUsedBundlesAreEvicted() throws Exception {
+        for (int i = 0; i < I18nController.MAX_RENDERED_BUNDLES * 2; i++) {
+            final String locales = "fr x-" + i;
+            Action.action(new Invocation() {
+                @Override
+                public Result invoke() throws Throwable {
+                    return controller.getBundleResourceForI18Next(locales);
+                }
+            }).invoke();
+        }
+        Invocation invocation = new Invocation() {
+            @Override
+            public Result invoke() throws Throwable {
+                return controller.getBundleResourceForI18Next("fr dev");
+            }
+        };
+        // The cache is full, but recent bundles are still kept.
+        Object rendered = Action.action(invocation).invoke().getResult().getRenderable();
+        assertThat(Action.action(invocation).invoke().getResult().getRenderable()).isSameAs(rendered);
+    }
+
+    @Test
+    public void testAcceptEncodingParsing() {
+        assertThat(RenderedBundle.acceptsGzip(null)).isFalse();
+        assertThat(RenderedBundle.acceptsGzip("deflate")).isFalse();
+        assertThat(RenderedBundle.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(RenderedBundle.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(RenderedBundle.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(RenderedBundle.acceptsGzip("*")).isTrue();
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.i18n;
+
+import org.junit.Test;
+import org.wisdom.api.i18n.InternationalizationService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the message index.
+ */
+public class MessageIndexTest {
+
+    @Test
+    public void testFallbackChain() {
+        MessageIndex index = new MessageIndex(Arrays.asList(
+                extension(Locale.FRANCE, "welcome", "salut"),
+                extension(Locale.FRENCH, "welcome", "bonjour", "lang", "français"),
+                extension(InternationalizationService.DEFAULT_LOCALE, "welcome", "hello", "lang", "english",
+                        "extra", "extra")
+        ), null);
+
+        assertThat(index.get(Locale.FRANCE, "welcome").pattern()).isEqualTo("salut");
+        assertThat(index.get(Locale.FRANCE, "lang").pattern()).isEqualTo("français");
+        assertThat(index.get(new Locale("fr", "BE"), "welcome").pattern()).isEqualTo("bonjour");
+        assertThat(index.get(Locale.FRENCH, "welcome").pattern()).isEqualTo("bonjour");
+        assertThat(index.get(Locale.FRENCH, "extra").pattern()).isEqualTo("extra");
+        assertThat(index.get(Locale.CHINA, "lang").pattern()).isEqualTo("english");
+        assertThat(index.get(Locale.CHINA, "missing")).isNull();
+
+        // The chain is not resolved again.
+        assertThat(index.chain(Locale.FRENCH)).isSameAs(index.chain(Locale.FRENCH)).hasSize(1);
+        assertThat(index.chain(Locale.FRANCE)).hasSize(2);
+        assertThat(index.chain(Locale.CHINA)).isEmpty();
+
+        assertThat(index.get(new Locale[]{Locale.CHINA, Locale.FRANCE, Locale.FRENCH}, "lang").pattern())
+                .isEqualTo("français");
+        assertThat(index.getAll(Locale.FRANCE, Locale.FRENCH)).containsEntry("welcome", "salut")
+                .containsEntry("lang", "français").containsEntry("extra", "extra").hasSize(3);
+    }
+
+    @Test
+    public void testApplicationLocaleUsesTheDefaultMessages() {
+        MessageIndex index = new MessageIndex(Arrays.asList(
+                extension(Locale.ENGLISH, "welcome", "hi"),
+                extension(InternationalizationService.DEFAULT_LOCALE, "welcome", "hello")
+        ), Locale.ENGLISH);
+
+        assertThat(index.get(Locale.ENGLISH, "welcome").pattern()).isEqualTo("hello");
+        assertThat(index.get(Locale.FRENCH, "welcome").pattern()).isEqualTo("hello");
+    }
+
+    @Test
+    public void testTheApplicationLocaleIsConsultedAtItsPosition() {
+        MessageIndex index = new MessageIndex(Arrays.asList(
+                extension(Locale.FRENCH, "welcome", "bonjour", "lang", "français"),
+                extension(InternationalizationService.DEFAULT_LOCALE, "welcome", "hello")
+        ), Locale.ENGLISH);
+
+        assertThat(index.get(new Locale[]{Locale.ENGLISH, Locale.FRENCH}, "welcome").pattern()).isEqualTo("hello");
+        assertThat(index.get(new Locale[]{Locale.ENGLISH, Locale.FRENCH}, "lang").pattern()).isEqualTo("français");
+        assertThat(index.get(new Locale[]{Locale.US, Locale.FRENCH}, "welcome").pattern()).isEqualTo("hello");
+        assertThat(index.get(new Locale[]{Locale.FRENCH, Locale.ENGLISH}, "welcome").pattern())
+                .isEqualTo("bonjour");
+        assertThat(index.getAll(Locale.ENGLISH, Locale.FRENCH)).containsEntry("welcome", "hello")
+                .containsEntry("lang", "français").hasSize(2);
+        assertThat(index.getAll(Locale.FRENCH, Locale.ENGLISH)).containsEntry("welcome", "bonjour");
+    }
+
+    @Test
+    public void testFirstExtensionWins() {
+        MessageIndex index = new MessageIndex(Arrays.asList(
+                extension(Locale.FRENCH, "welcome", "bonjour"),
+                extension(Locale.FRENCH, "welcome", "salut", "lang", "français")
+        ), null);
+        assertThat(index.get(Locale.FRENCH, "welcome").pattern()).isEqualTo("bonjour");
+        assertThat(index.get(Locale.FRENCH, "lang").pattern()).isEqualTo("français");
+    }
+
+    @Test
+    public void testTheNumberOfCachedChainsIsBounded() {
+        Locale locale = new Locale("y");
+        MessageIndex index = new MessageIndex(Arrays.asList(
+                extension(locale, "welcome", "hi"),
+                extension(InternationalizationService.DEFAULT_LOCALE, "welcome", "hello")), null);
+        for (int i = 0; i < MessageIndex.MAX_CACHED_CHAINS * 2; i++) {
+            assertThat(index.get(new Locale("x" + i), "welcome").pattern()).isEqualTo("hello");
+        }
+        assertThat(index.get(locale, "welcome").pattern()).isEqualTo("hi");
+        assertThat(index.chain(locale)).isNotSameAs(index.chain(locale));
+    }
+
+    @Test
+    public void testFormatting() {
+        MessageIndex.Message message = new MessageIndex.Message("Hello {0}, you have {1} message(s) - '{0}'");
+        assertThat(message.format()).isEqualTo("Hello {0}, you have {1} message(s) - '{0}'");
+        assertThat(message.format("wisdom", 2)).isEqualTo("Hello wisdom, you have 2 message(s) - {0}");
+        assertThat(message.format("bob", 3)).isEqualTo("Hello bob, you have 3 message(s) - {0}");
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        final MessageIndex.Message message = new MessageIndex.Message("{0} - {1}");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final int id = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int j = 0; j < 1000; j++) {
+                            if (!message.format(id, j).equals(id + " - " + j)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static I18nExtension extension(Locale locale, final String... entries) {
+        ResourceBundle bundle = new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+                Object[][] contents = new Object[entries.length / 2][];
+                for (int i = 0; i < contents.length; i++) {
+                    contents[i] = new Object[]{entries[2 * i], entries[2 * i + 1]};
+                }
+                return contents;
+            }
+        };
+        I18nExtension extension = mock(I18nExtension.class);
+        when(extension.locale()).thenReturn(locale);
+        when(extension.bundle()).thenReturn(bundle);
+        return extension;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * A codec based on Jackson. Used with a binary data format such as Smile, it produces compact forms and is
+ * generally faster than the Java serialization. Values must be mappable by Jackson (beans, maps, lists, strings...).
+ * Notice that the generic type of collections is not kept, so a list of beans is decoded as a list of maps.
+ * <p>
+ * The encoded form starts with the name of the value's class. The classes of the encoded values are (weakly)
+ * recorded and used when decoding, as they generally come from other bundles. Maps and collections without a public default
+ * constructor are decoded using {@link java.util.LinkedHashMap}, {@link java.util.LinkedHashSet} or {@link
+ * java.util.ArrayList}.
+ */
+public class JacksonCodec implements ValueCodec {
+
+    private final ObjectMapper mapper;
+
+    private final RecordedClasses classes = new RecordedClasses();
+
+    /**
+     * Creates a new codec.
+     *
+     * @param mapper the object mapper, configured with the data format to use
+     */
+    public JacksonCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Encodes the value.
+     *
+     * @param value the value, not {@literal null}
+     * @return the encoded form
+     * @throws IOException if the value cannot be encoded
+     */
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        Class<?> clazz = getDecodingClass(value.getClass());
+        classes.record(clazz);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(clazz.getName());
+        mapper.writeValue(out, value);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Gets the class used to decode a value. Maps and collections not having a public default constructor (such as
+     * unmodifiable or singleton collections) are decoded using the standard implementations.
+     *
+     * @param clazz the class of the value
+     * @return the class to use to decode the value
+     */
+    private static Class<?> getDecodingClass(Class<?> clazz) {
+        if (!Map.class.isAssignableFrom(clazz) && !Collection.class.isAssignableFrom(clazz)) {
+            return clazz;
+        }
+        try {
+            if (Modifier.isPublic(clazz.getModifiers()) && !Modifier.isAbstract(clazz.getModifiers())) {
+                clazz.getConstructor();
+                return clazz;
+            }
+        } catch (NoSuchMethodException e) { //NOSONAR
+            // No default constructor, use a standard implementation.
+        }
+        if (Map.class.isAssignableFrom(clazz)) {
+            return LinkedHashMap.class;
+        } else if (Set.class.isAssignableFrom(clazz)) {
+            return LinkedHashSet.class;
+        } else {
+            return ArrayList.class;
+        }
+    }
+
+    /**
+     * Decodes the value.
+     *
+     * @param data the encoded form
+     * @return the value
+     * @throws IOException if the value cannot be decoded
+     */
+    @Override
+    public Object decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        String name = in.readUTF();
+        Class<?> clazz = classes.get(name);
+        if (clazz == null) {
+            try {
+                clazz = JacksonCodec.class.getClassLoader().loadClass(name);
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Cannot decode the cached value, unknown class " + name, e);
+            }
+        }
+        return mapper.readValue(in, clazz);
+    }
+
+    /**
+     * Forgets the recorded classes.
+     */
+    @Override
+    public void clear() {
+        classes.clear();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A small on-heap LRU cache holding the decoded form of the most recently read values. Each value is associated with
+ * the version of the stored entry it has been decoded from, so a value is never returned once the entry has been
+ * updated.
+ * <p>
+ * The values are instances of classes generally coming from other bundles, so the near cache is emptied when a
+ * bundle is uninstalled or updated (see {@link OffHeapCacheService}).
+ */
+class NearCache {
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates a new near cache.
+     *
+     * @param size the maximum number of values, 0 to disable the near cache
+     */
+    NearCache(final int size) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Gets a decoded value.
+     *
+     * @param key     the key
+     * @param version the version of the stored entry
+     * @return the decoded value, {@literal null} if not in the near cache, or decoded from another version
+     */
+    synchronized Object get(String key, long version) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            return entry.value;
+        }
+        return null;
+    }
+
+    /**
+     * Stores a decoded value.
+     *
+     * @param key     the key
+     * @param version the version of the stored entry
+     * @param value   the decoded value
+     */
+    synchronized void put(String key, long version, Object value) {
+        Entry entry = entries.get(key);
+        // Do not replace a more recent value.
+        if (entry == null || entry.version < version) {
+            entries.put(key, new Entry(version, value));
+        }
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key the key
+     */
+    synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all the values.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final long version;
+        private final Object value;
+
+        private Entry(long version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.felix.ipojo.annotations.*;
+import org.joda.time.Duration;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.cache.ExtendedCache;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An implementation of the cache service storing the values outside of the heap. Large cached data sets do not
+ * inflate the heap, and so do not increase the garbage collection pauses. Each region pairs a small on-heap near
+ * cache with an off-heap store made of direct {@link java.nio.ByteBuffer}.
+ * <p>
+ * This service is published with a lower ranking than the default cache service, and with the {@code
+ * cache.provider=offheap} property. So, to use it, you need to select it explicitly:
+ * {@code @Requires(filter = "(cache.provider=offheap)") Cache cache;}
+ * <p>
+ * It is configured from the {@code cache.offheap} entry of the application configuration:
+ * <ul>
+ * <li>{@code capacity}: the maximum amount of off-heap memory used by a region (64M by default)</li>
+ * <li>{@code slab-size}: the size of the slabs, also the maximum size of an encoded value (4M by default)</li>
+ * <li>{@code near-cache-size}: the number of decoded values kept on heap per region (1000 by default)</li>
+ * <li>{@code codec}: the codec used to encode values: {@code smile} (default) or {@code serialization}</li>
+ * </ul>
+ * These settings can be overridden for a specific region in {@code cache.offheap.regions.$name}.
+ */
+@Component(immediate = true)
+@Provides(specifications = {Cache.class, ExtendedCache.class}, properties = {
+        @StaticServiceProperty(name = OffHeapCacheService.PROVIDER_PROPERTY, value = "offheap",
+                type = "java.lang.String"),
+        @StaticServiceProperty(name = "service.ranking", value = "-1", type = "java.lang.Integer")
+})
+@Instantiate
+public class OffHeapCacheService implements ExtendedCache {
+
+    /**
+     * The service property identifying the cache provider.
+     */
+    public static final String PROVIDER_PROPERTY = "cache.provider";
+
+    /**
+     * The name of the default region.
+     */
+    public static final String DEFAULT_REGION = "wisdom";
+
+    /**
+     * The default capacity of a region: 64 MB.
+     */
+    public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+    /**
+     * The default slab size: 4 MB.
+     */
+    public static final long DEFAULT_SLAB_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * The default number of decoded values kept on heap per region.
+     */
+    public static final int DEFAULT_NEAR_CACHE_SIZE = 1000;
+
+    private final ConcurrentMap<String, OffHeapRegion> regions = new ConcurrentHashMap<>();
+    private OffHeapRegion cache;
+
+    @Requires
+    ApplicationConfiguration configuration;
+
+    @Context
+    BundleContext context;
+
+    /**
+     * Empties the near caches when a bundle is uninstalled or updated, as the decoded values they hold may be
+     * instances of its classes and so would keep its class loader alive.
+     */
+    private final BundleListener listener = new BundleListener() {
+        @Override
+        public void bundleChanged(BundleEvent event) {
+            if (event.getType() == BundleEvent.UNRESOLVED || event.getType() == BundleEvent.UNINSTALLED) {
+                for (OffHeapRegion region : regions.values()) {
+                    region.clearNearCache();
+                }
+            }
+        }
+    };
+
+    /**
+     * Creates the default region and starts tracking the bundles.
+     */
+    @Validate
+    public void start() {
+        cache = (OffHeapRegion) region(DEFAULT_REGION);
+        context.addBundleListener(listener);
+    }
+
+    /**
+     * Releases all the regions.
+     */
+    @Invalidate
+    public void stop() {
+        context.removeBundleListener(listener);
+        for (OffHeapRegion region : regions.values()) {
+            region.clear();
+        }
+        regions.clear();
+    }
+
+    /**
+     * Adds an entry in the default region.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time in seconds (0 second means eternity).
+     */
+    @Override
+    public <T> void set(String key, T value, int expiration) {
+        cache.set(key, value, expiration);
+    }
+
+    /**
+     * Adds an entry in the default region.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time.
+     */
+    @Override
+    public <T> void set(String key, T value, Duration expiration) {
+        cache.set(key, value, expiration);
+    }
+
+    /**
+     * Gets an entry from the default region.
+     *
+     * @param key Item key.
+     * @return the stored object, {@literal null} if none of expired.
+     */
+    @Override
+    public <T> T get(String key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Removes an object from the default region.
+     *
+     * @param key Item key
+     * @return {@literal true} if the object was removed, {@literal false} otherwise.
+     */
+    @Override
+    public boolean remove(String key) {
+        return cache.remove(key);
+    }
+
+    /**
+     * Gets a set of entries from the default region.
+     *
+     * @param keys the keys
+     * @return the map of key -> value for the keys having a value in the cache
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        return cache.getAll(keys);
+    }
+
+    /**
+     * Adds a set of entries in the default region.
+     *
+     * @param values     the key -> value map
+     * @param expiration Expiration time.
+     */
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        cache.setAll(values, expiration);
+    }
+
+    /**
+     * Gets an entry from the default region, or computes it.
+     *
+     * @param key        Item key.
+     * @param loader     the callable computing the value
+     * @param expiration Expiration time.
+     * @return the cached or computed value
+     * @throws Exception if the loader has thrown an exception
+     */
+    @Override
+    public <T> T computeIfAbsent(String key, Callable<T> loader, Duration expiration) throws Exception {
+        return cache.computeIfAbsent(key, loader, expiration);
+    }
+
+    /**
+     * Gets a named region, creates it if it does not exist yet.
+     *
+     * @param name the name of the region
+     * @return the region
+     */
+    @Override
+    public ExtendedCache region(String name) {
+        OffHeapRegion region = regions.get(name);
+        if (region == null) {
+            region = createRegion(name);
+            OffHeapRegion existing = regions.putIfAbsent(name, region);
+            if (existing != null) {
+                region = existing;
+            }
+        }
+        return region;
+    }
+
+    private OffHeapRegion createRegion(String name) {
+        Configuration global = configuration.getConfiguration("cache.offheap");
+        Configuration conf = global != null ? global.getConfiguration("regions." + name) : null;
+
+        long capacity = getBytes(conf, global, "capacity", DEFAULT_CAPACITY);
+        long slabSize = Math.min(getBytes(conf, global, "slab-size", DEFAULT_SLAB_SIZE), capacity);
+        if (slabSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The slab size of the cache region '" + name + "' must not exceed "
+                    + Integer.MAX_VALUE + " bytes");
+        }
+        int nearSize = DEFAULT_NEAR_CACHE_SIZE;
+        Integer size = get(conf, global, "near-cache-size");
+        if (size != null) {
+            nearSize = size;
+        }
+        String codec = "smile";
+        if (conf != null && conf.get("codec") != null) {
+            codec = conf.get("codec");
+        } else if (global != null && global.get("codec") != null) {
+            codec = global.get("codec");
+        }
+        return new OffHeapRegion(this, name, createCodec(codec), capacity, (int) slabSize, nearSize);
+    }
+
+    private static long getBytes(Configuration conf, Configuration global, String key, long defaultValue) {
+        Long value = null;
+        if (conf != null) {
+            value = conf.getBytes(key);
+        }
+        if (value == null && global != null) {
+            value = global.getBytes(key);
+        }
+        return value != null ? value : defaultValue;
+    }
+
+    private static Integer get(Configuration conf, Configuration global, String key) {
+        Integer value = null;
+        if (conf != null) {
+            value = conf.getInteger(key);
+        }
+        if (value == null && global != null) {
+            value = global.getInteger(key);
+        }
+        return value;
+    }
+
+    /**
+     * Creates the codec for the given name.
+     *
+     * @param name the name, either {@code smile} or {@code serialization}
+     * @return the codec
+     */
+    static ValueCodec createCodec(String name) {
+        switch (name) {
+            case "smile":
+                return new JacksonCodec(new ObjectMapper(new SmileFactory()));
+            case "serialization":
+                return new SerializationCodec();
+            default:
+                throw new IllegalArgumentException("Unknown cache codec '" + name + "', supported codecs are " +
+                        "'smile' and 'serialization'");
+        }
+    }
+
+    /**
+     * @return the name of the default region.
+     */
+    @Override
+    public String name() {
+        return DEFAULT_REGION;
+    }
+
+    /**
+     * @return the names of the created regions.
+     */
+    @Override
+    public Collection<String> regions() {
+        return new ArrayList<>(regions.keySet());
+    }
+
+    /**
+     * @return the statistics of the default region.
+     */
+    @Override
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.cache.ExtendedCache;
+import org.wisdom.api.cache.CacheStatistics;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A region of the off-heap cache service. Values are encoded using a {@link ValueCodec} and stored in a {@link
+ * SlabStore}, so they do not occupy the heap. A {@link NearCache} keeps the most recently read values in their
+ * decoded form to avoid decoding them on every read.
+ * <p>
+ * When the store is full, the oldest slab is recycled, evicting the entries it contains. Expired entries are
+ * removed when read.
+ */
+@SuppressWarnings("unchecked")
+public class OffHeapRegion implements ExtendedCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapRegion.class);
+
+    private final OffHeapCacheService service;
+    private final String name;
+    private final ValueCodec codec;
+    private final SlabStore store;
+    private final NearCache near;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> index = new HashMap<>();
+    private final List<String>[] keysBySlab;
+    private long version;
+
+    private final ConcurrentMap<String, FutureTask<?>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new region.
+     *
+     * @param service  the cache service having created the region, may be {@literal null} if the region is used
+     *                 on its own
+     * @param name     the region name
+     * @param codec    the codec used to encode the values
+     * @param capacity the maximum amount of off-heap memory used by the region, in bytes
+     * @param slabSize the size of a slab in bytes, also the maximum size of an encoded value
+     * @param nearSize the maximum number of values kept in the near cache
+     */
+    public OffHeapRegion(OffHeapCacheService service, String name, ValueCodec codec, long capacity, int slabSize,
+                         int nearSize) {
+        this.service = service;
+        this.name = name;
+        this.codec = codec;
+        this.near = new NearCache(nearSize);
+        this.store = new SlabStore(capacity, slabSize, new SlabStore.RecycleListener() {
+            @Override
+            public void recycled(int slab) {
+                evict(slab);
+            }
+        });
+        this.keysBySlab = new List[store.getSlabCount()];
+        for (int i = 0; i < keysBySlab.length; i++) {
+            keysBySlab[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time in seconds (0 second means eternity).
+     */
+    @Override
+    public <T> void set(String key, T value, int expiration) {
+        put(key, value, expiration == 0 ? 0 : System.currentTimeMillis() + expiration * 1000L);
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time ({@literal null} means eternity).
+     */
+    @Override
+    public <T> void set(String key, T value, Duration expiration) {
+        put(key, value, expiresAt(expiration));
+    }
+
+    private static long expiresAt(Duration expiration) {
+        if (expiration == null || expiration.getMillis() == 0) {
+            return 0;
+        }
+        return System.currentTimeMillis() + expiration.getMillis();
+    }
+
+    private void put(String key, Object value, long expiresAt) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        byte[] data = encode(key, value);
+        if (data == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            write(key, data, expiresAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private byte[] encode(String key, Object value) {
+        try {
+            return codec.encode(value);
+        } catch (IOException e) {
+            LOGGER.error("Cannot encode the value of '{}' in the cache region '{}', the value is not cached", key,
+                    name, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the data. Must be called with the write lock.
+     */
+    private void write(String key, byte[] data, long expiresAt) {
+        near.remove(key);
+        long location = store.write(data);
+        if (location == -1) {
+            LOGGER.warn("Cannot store the value of '{}' in the cache region '{}', the value is too large ({} " +
+                    "bytes)", key, name, data.length);
+            index.remove(key);
+            return;
+        }
+        index.put(key, new Entry(location, data.length, expiresAt, ++version));
+        keysBySlab[SlabStore.slab(location)].add(key);
+    }
+
+    /**
+     * Evicts the entries stored in the given slab. Called with the write lock.
+     */
+    private void evict(int slab) {
+        long now = System.currentTimeMillis();
+        for (String key : keysBySlab[slab]) {
+            Entry entry = index.get(key);
+            // The entry may have been updated and stored in another slab.
+            if (entry != null && SlabStore.slab(entry.location) == slab) {
+                index.remove(key);
+                near.remove(key);
+                if (!entry.isExpired(now)) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        keysBySlab[slab].clear();
+    }
+
+    /**
+     * Gets an entry from the cache.
+     *
+     * @param key Item key.
+     * @return the stored object, {@literal null} if none of expired.
+     */
+    @Override
+    public <T> T get(String key) {
+        Entry entry;
+        byte[] data;
+        lock.readLock().lock();
+        try {
+            entry = index.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                data = null;
+            } else {
+                Object value = near.get(key, entry.version);
+                if (value != null) {
+                    hits.incrementAndGet();
+                    return (T) value;
+                }
+                data = store.read(entry.location, entry.length);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (data == null) {
+            misses.incrementAndGet();
+            discard(key, entry);
+            return null;
+        }
+
+        Object value;
+        try {
+            value = codec.decode(data);
+        } catch (IOException e) {
+            LOGGER.error("Cannot decode the value of '{}' from the cache region '{}'", key, name, e);
+            misses.incrementAndGet();
+            discard(key, entry);
+            return null;
+        }
+        near.put(key, entry.version, value);
+        hits.incrementAndGet();
+        return (T) value;
+    }
+
+    /**
+     * Removes the given entry, if not updated in the meantime.
+     */
+    private void discard(String key, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (index.get(key) == entry) {
+                index.remove(key);
+                near.remove(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an object from the cache.
+     *
+     * @param key Item key
+     * @return {@literal true} if the object was removed, {@literal false} otherwise.
+     */
+    @Override
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            near.remove(key);
+            Entry entry = index.remove(key);
+            return entry != null && !entry.isExpired(System.currentTimeMillis());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a set of entries from the cache.
+     *
+     * @param keys the keys
+     * @return the map of key -> value for the keys having a value in the cache
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> result = new HashMap<>();
+        for (String key : keys) {
+            T value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a set of entries in the cache. The values are encoded first, and then stored at once.
+     *
+     * @param values     the key -> value map
+     * @param expiration Expiration time ({@literal null} means eternity).
+     */
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        long expiresAt = expiresAt(expiration);
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+            if (entry.getValue() == null) {
+                remove(entry.getKey());
+            } else {
+                byte[] data = encode(entry.getKey(), entry.getValue());
+                if (data != null) {
+                    encoded.put(entry.getKey(), data);
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, byte[]> entry : encoded.entrySet()) {
+                write(entry.getKey(), entry.getValue(), expiresAt);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets an entry from the cache, or computes it. Concurrent callers for the same key wait for the value
+     * computed by the first caller.
+     *
+     * @param key        Item key.
+     * @param loader     the callable computing the value
+     * @param expiration Expiration time ({@literal null} means eternity).
+     * @return the cached or computed value
+     * @throws Exception if the loader has thrown an exception
+     */
+    @Override
+    public <T> T computeIfAbsent(String key, Callable<T> loader, Duration expiration) throws Exception {
+        T value = get(key);
+        if (value != null) {
+            return value;
+        }
+        FutureTask<T> task = new FutureTask<>(loader);
+        FutureTask<T> computation = (FutureTask<T>) loading.putIfAbsent(key, task);
+        if (computation == null) {
+            try {
+                task.run();
+                value = task.get();
+                if (value != null) {
+                    set(key, value, expiration);
+                }
+                return value;
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } finally {
+                loading.remove(key, task);
+            }
+        }
+        try {
+            return computation.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        if (e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Gets a named region.
+     *
+     * @param name the name of the region
+     * @return the region
+     */
+    @Override
+    public ExtendedCache region(String name) {
+        if (service == null) {
+            throw new UnsupportedOperationException("The region '" + this.name + "' is not managed by a cache " +
+                    "service");
+        }
+        return service.region(name);
+    }
+
+    /**
+     * @return the name of the region.
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the names of the regions created by the cache service.
+     */
+    @Override
+    public Collection<String> regions() {
+        if (service == null) {
+            return Collections.singletonList(name);
+        }
+        return service.regions();
+    }
+
+    /**
+     * @return the statistics of the region.
+     */
+    @Override
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(name, hits.get(), misses.get(), evictions.get(), size());
+    }
+
+    /**
+     * @return the number of stored entries, including the expired entries not removed yet.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the amount of off-heap memory allocated by the region, in bytes.
+     */
+    public long getAllocatedMemory() {
+        lock.readLock().lock();
+        try {
+            return store.getAllocatedMemory();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the decoded values from the near cache. The entries stay in the off-heap store and are decoded again
+     * when read.
+     */
+    public void clearNearCache() {
+        near.clear();
+    }
+
+    /**
+     * Removes all the entries and releases the off-heap memory, as well as the classes recorded by the codec.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            near.clear();
+            for (List<String> keys : keysBySlab) {
+                keys.clear();
+            }
+            store.clear();
+            codec.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The location and metadata of a stored value.
+     */
+    private static class Entry {
+        private final long location;
+        private final int length;
+        private final long expiresAt;
+        private final long version;
+
+        private Entry(long location, int length, long expiresAt, long version) {
+            this.location = location;
+            this.length = length;
+            this.expiresAt = expiresAt;
+            this.version = version;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now >= expiresAt;
+        }
+    }
+}
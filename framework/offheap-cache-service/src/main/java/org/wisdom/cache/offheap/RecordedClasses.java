@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The classes of the encoded values, used by the codecs to decode them. As these classes generally come from other
+ * bundles, they are weakly referenced, so the class loader of an uninstalled or updated bundle can be collected.
+ */
+final class RecordedClasses {
+
+    private final ConcurrentMap<String, WeakReference<Class<?>>> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Records a class. A previously recorded class with the same name (loaded by an older version of the bundle)
+     * is replaced.
+     *
+     * @param clazz the class
+     */
+    void record(Class<?> clazz) {
+        WeakReference<Class<?>> ref = classes.get(clazz.getName());
+        if (ref == null || ref.get() != clazz) {
+            classes.put(clazz.getName(), new WeakReference<Class<?>>(clazz));
+        }
+    }
+
+    /**
+     * Gets a recorded class.
+     *
+     * @param name the class name
+     * @return the class, {@literal null} if not recorded or if its class loader was collected
+     */
+    Class<?> get(String name) {
+        WeakReference<Class<?>> ref = classes.get(name);
+        if (ref == null) {
+            return null;
+        }
+        return ref.get();
+    }
+
+    /**
+     * Forgets all the recorded classes.
+     */
+    void clear() {
+        classes.clear();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import java.io.*;
+
+/**
+ * A codec based on the Java serialization. Values must implement {@link java.io.Serializable}.
+ * <p>
+ * As the cached classes generally come from other bundles, the classes written during the encoding are (weakly)
+ * recorded, and used when decoding.
+ */
+public class SerializationCodec implements ValueCodec {
+
+    private final RecordedClasses classes = new RecordedClasses();
+
+    /**
+     * Serializes the value.
+     *
+     * @param value the value, not {@literal null}
+     * @return the serialized form
+     * @throws IOException if the value cannot be serialized
+     */
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes) {
+            @Override
+            protected void annotateClass(Class<?> cl) throws IOException {
+                classes.record(cl);
+            }
+        }) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes the value.
+     *
+     * @param data the serialized form
+     * @return the value
+     * @throws IOException if the value cannot be deserialized
+     */
+    @Override
+    public Object decode(byte[] data) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                Class<?> clazz = classes.get(desc.getName());
+                if (clazz != null) {
+                    return clazz;
+                }
+                return super.resolveClass(desc);
+            }
+        }) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot decode the cached value", e);
+        }
+    }
+
+    /**
+     * Forgets the recorded classes.
+     */
+    @Override
+    public void clear() {
+        classes.clear();
+    }
+}
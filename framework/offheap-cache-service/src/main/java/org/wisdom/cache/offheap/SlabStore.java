@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores byte arrays in a ring of direct {@link java.nio.ByteBuffer} (slabs). Data is appended to the current slab.
+ * When the current slab is full, the next slab is used. When all the slabs have been used, the oldest slab is
+ * recycled, and its content is dropped (the {@link RecycleListener} is notified so the entries stored in the slab can
+ * be evicted). Slabs are allocated lazily.
+ * <p>
+ * The location of the stored data is encoded in a {@code long}: the slab index in the high 32 bits,
+ * and the offset in the low 32 bits.
+ * <p>
+ * This class is not thread-safe. Writes must be exclusive, while reads can be done concurrently (but not
+ * concurrently with writes).
+ */
+class SlabStore {
+
+    /**
+     * Notified when a slab is going to be reused.
+     */
+    interface RecycleListener {
+        /**
+         * The content of the given slab is going to be overridden.
+         *
+         * @param slab the slab index
+         */
+        void recycled(int slab);
+    }
+
+    private final int slabSize;
+    private final ByteBuffer[] slabs;
+    private final RecycleListener listener;
+
+    private int current;
+    private int position;
+
+    /**
+     * Creates a new store.
+     *
+     * @param capacity the maximum amount of memory used by the store in bytes
+     * @param slabSize the size of a slab in bytes, also the maximum size of a stored array
+     * @param listener the listener notified when a slab is recycled
+     */
+    SlabStore(long capacity, int slabSize, RecycleListener listener) {
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("The slab size must be strictly positive");
+        }
+        this.slabSize = slabSize;
+        this.slabs = new ByteBuffer[(int) Math.max(1, capacity / slabSize)];
+        this.listener = listener;
+    }
+
+    /**
+     * Writes the given data.
+     *
+     * @param data the data
+     * @return the location of the data, -1 if the data does not fit in a slab
+     */
+    long write(byte[] data) {
+        if (data.length > slabSize) {
+            return -1;
+        }
+        if (slabs[current] == null) {
+            slabs[current] = ByteBuffer.allocateDirect(slabSize);
+        } else if (position + data.length > slabSize) {
+            current = (current + 1) % slabs.length;
+            position = 0;
+            if (slabs[current] == null) {
+                slabs[current] = ByteBuffer.allocateDirect(slabSize);
+            } else {
+                listener.recycled(current);
+            }
+        }
+        ByteBuffer buffer = slabs[current].duplicate();
+        buffer.position(position);
+        buffer.put(data);
+        long location = ((long) current << 32) | position;
+        position += data.length;
+        return location;
+    }
+
+    /**
+     * Reads data.
+     *
+     * @param location the location returned by {@link #write(byte[])}
+     * @param length   the length of the data
+     * @return the data
+     */
+    byte[] read(long location, int length) {
+        ByteBuffer buffer = slabs[slab(location)].duplicate();
+        buffer.position((int) location);
+        byte[] data = new byte[length];
+        buffer.get(data);
+        return data;
+    }
+
+    /**
+     * Gets the slab index of a location.
+     *
+     * @param location the location
+     * @return the index of the slab containing the data
+     */
+    static int slab(long location) {
+        return (int) (location >>> 32);
+    }
+
+    /**
+     * @return the number of slabs.
+     */
+    int getSlabCount() {
+        return slabs.length;
+    }
+
+    /**
+     * @return the amount of memory currently allocated in bytes.
+     */
+    long getAllocatedMemory() {
+        long allocated = 0;
+        for (ByteBuffer slab : slabs) {
+            if (slab != null) {
+                allocated += slabSize;
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Releases the slabs. The store can still be used, slabs are allocated again when needed.
+     */
+    void clear() {
+        for (int i = 0; i < slabs.length; i++) {
+            slabs[i] = null;
+        }
+        current = 0;
+        position = 0;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import java.io.IOException;
+
+/**
+ * Encodes the cached values to bytes before storing them outside of the heap, and decodes them on retrieval.
+ * Implementations must be thread-safe.
+ */
+public interface ValueCodec {
+
+    /**
+     * Encodes a value.
+     *
+     * @param value the value, not {@literal null}
+     * @return the encoded form
+     * @throws IOException if the value cannot be encoded
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Decodes a value.
+     *
+     * @param data the encoded form, as returned by {@link #encode(Object)}
+     * @return the value
+     * @throws IOException if the value cannot be decoded
+     */
+    Object decode(byte[] data) throws IOException;
+
+    /**
+     * Releases the resources held by the codec, such as the recorded classes. Called once the encoded values have
+     * been discarded.
+     */
+    void clear();
+}
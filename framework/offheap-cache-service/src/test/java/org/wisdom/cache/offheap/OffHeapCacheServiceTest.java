@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import org.joda.time.Duration;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.wisdom.api.cache.ExtendedCache;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the off-heap cache service.
+ */
+public class OffHeapCacheServiceTest {
+
+    @Test
+    public void testDefaultRegion() {
+        OffHeapCacheService svc = new OffHeapCacheService();
+        svc.configuration = mock(ApplicationConfiguration.class);
+        svc.context = mock(BundleContext.class);
+        svc.start();
+
+        assertThat(svc.name()).isEqualTo(OffHeapCacheService.DEFAULT_REGION);
+        assertThat(svc.<String>get("key")).isNull();
+        svc.set("key", "value", Duration.standardSeconds(10));
+        assertThat(svc.<String>get("key")).isEqualTo("value");
+        assertThat(svc.getStatistics().getHits()).isEqualTo(1);
+
+        svc.stop();
+    }
+
+    @Test
+    public void testRegions() {
+        OffHeapCacheService svc = new OffHeapCacheService();
+        svc.configuration = mock(ApplicationConfiguration.class);
+        svc.context = mock(BundleContext.class);
+        svc.start();
+
+        ExtendedCache region = svc.region("users");
+        assertThat(svc.region("users")).isSameAs(region);
+        assertThat(region.region("users")).isSameAs(region);
+        assertThat(svc.regions()).containsOnly("wisdom", "users");
+
+        region.set("key", "value", 0);
+        svc.set("key", "other", 0);
+        assertThat(region.<String>get("key")).isEqualTo("value");
+        assertThat(svc.<String>get("key")).isEqualTo("other");
+
+        svc.stop();
+        assertThat(svc.regions()).isEmpty();
+    }
+
+    @Test
+    public void testRegionConfiguration() {
+        OffHeapCacheService svc = new OffHeapCacheService();
+        svc.configuration = mock(ApplicationConfiguration.class);
+        svc.context = mock(BundleContext.class);
+        Configuration global = mock(Configuration.class);
+        Configuration users = mock(Configuration.class);
+        when(svc.configuration.getConfiguration("cache.offheap")).thenReturn(global);
+        when(global.getConfiguration("regions.users")).thenReturn(users);
+        when(global.getBytes("capacity")).thenReturn(1024L * 1024);
+        when(global.getBytes("slab-size")).thenReturn(null);
+        when(global.getInteger("near-cache-size")).thenReturn(null);
+        when(global.get("codec")).thenReturn("serialization");
+        when(users.getBytes("capacity")).thenReturn(400L);
+        when(users.getBytes("slab-size")).thenReturn(100L);
+        svc.start();
+
+        OffHeapRegion region = (OffHeapRegion) svc.region("users");
+        for (int i = 0; i < 100; i++) {
+            region.set("key-" + i, i, 0);
+        }
+        assertThat(region.getAllocatedMemory()).isEqualTo(400);
+        assertThat(region.getStatistics().getEvictions()).isGreaterThan(0);
+
+        svc.stop();
+    }
+
+    @Test
+    public void testNearCachesAreEmptiedWhenABundleLeaves() {
+        OffHeapCacheService svc = new OffHeapCacheService();
+        svc.configuration = mock(ApplicationConfiguration.class);
+        svc.context = mock(BundleContext.class);
+        svc.start();
+        ArgumentCaptor<BundleListener> listener = ArgumentCaptor.forClass(BundleListener.class);
+        verify(svc.context).addBundleListener(listener.capture());
+
+        svc.set("key", "value", 0);
+        String value = svc.get("key");
+        // Read from the near cache.
+        assertThat(svc.<String>get("key")).isSameAs(value);
+
+        listener.getValue().bundleChanged(new BundleEvent(BundleEvent.STOPPED, mock(Bundle.class)));
+        assertThat(svc.<String>get("key")).isSameAs(value);
+
+        listener.getValue().bundleChanged(new BundleEvent(BundleEvent.UNRESOLVED, mock(Bundle.class)));
+        // Decoded again from the off-heap store.
+        assertThat(svc.<String>get("key")).isEqualTo("value").isNotSameAs(value);
+
+        svc.stop();
+        verify(svc.context).removeBundleListener(listener.getValue());
+    }
+}
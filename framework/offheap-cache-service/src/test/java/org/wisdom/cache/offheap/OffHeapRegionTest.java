@@ -0,0 +1,241 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.offheap;
+
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the off-heap region.
+ */
+public class OffHeapRegionTest {
+
+    private OffHeapRegion region(ValueCodec codec, long capacity, int slabSize) {
+        return new OffHeapRegion(null, "test", codec, capacity, slabSize, 10);
+    }
+
+    @Test
+    public void testSetGetRemove() {
+        OffHeapRegion region = region(new SerializationCodec(), 1024 * 1024, 1024);
+        assertThat(region.<String>get("key")).isNull();
+        region.set("key", "value", 0);
+        assertThat(region.<String>get("key")).isEqualTo("value");
+        // Second read from the near cache.
+        assertThat(region.<String>get("key")).isEqualTo("value");
+
+        region.set("key", "value2", 0);
+        assertThat(region.<String>get("key")).isEqualTo("value2");
+
+        assertThat(region.remove("key")).isTrue();
+        assertThat(region.<String>get("key")).isNull();
+        assertThat(region.remove("key")).isFalse();
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        OffHeapRegion region = region(new SerializationCodec(), 1024 * 1024, 1024);
+        region.set("key", "value", Duration.millis(50));
+        assertThat(region.<String>get("key")).isEqualTo("value");
+        Thread.sleep(100);
+        assertThat(region.<String>get("key")).isNull();
+        assertThat(region.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testSizeBasedEviction() {
+        // 4 slabs of 100 bytes.
+        OffHeapRegion region = region(new SerializationCodec(), 400, 100);
+        for (int i = 0; i < 100; i++) {
+            region.set("key-" + i, i, 0);
+        }
+        assertThat(region.<Integer>get("key-99")).isEqualTo(99);
+        assertThat(region.<Integer>get("key-0")).isNull();
+        assertThat(region.getStatistics().getEvictions()).isGreaterThan(0);
+        assertThat(region.getStatistics().getSize() + region.getStatistics().getEvictions()).isEqualTo(100);
+        assertThat(region.getAllocatedMemory()).isEqualTo(400);
+    }
+
+    @Test
+    public void testTooLargeValue() {
+        OffHeapRegion region = region(new SerializationCodec(), 1000, 100);
+        region.set("key", "value", 0);
+        char[] large = new char[200];
+        Arrays.fill(large, 'a');
+        region.set("key", new String(large), 0);
+        // The old value must not be returned.
+        assertThat(region.<String>get("key")).isNull();
+    }
+
+    @Test
+    public void testStatistics() {
+        OffHeapRegion region = region(new SerializationCodec(), 1024 * 1024, 1024);
+        region.set("key", "value", 0);
+        region.get("key");
+        region.get("key");
+        region.get("missing");
+        assertThat(region.getStatistics().getName()).isEqualTo("test");
+        assertThat(region.getStatistics().getHits()).isEqualTo(2);
+        assertThat(region.getStatistics().getMisses()).isEqualTo(1);
+        assertThat(region.getStatistics().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBulkOperations() {
+        OffHeapRegion region = region(new SerializationCodec(), 1024 * 1024, 1024);
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+        region.setAll(values, null);
+        assertThat(region.<String>getAll(Arrays.asList("a", "b", "c")))
+                .hasSize(2).containsEntry("a", "1").containsEntry("b", "2");
+    }
+
+    @Test
+    public void testComputeIfAbsent() throws Exception {
+        final OffHeapRegion region = region(new SerializationCodec(), 1024 * 1024, 1024);
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Callable<String> loader = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await();
+                return "value-" + calls.incrementAndGet();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<?>[] futures = new Future[4];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return region.computeIfAbsent("key", loader, null);
+                }
+            });
+        }
+        Thread.sleep(100);
+        latch.countDown();
+        for (Future<?> future : futures) {
+            assertThat(future.get()).isEqualTo("value-1");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        executor.shutdown();
+
+        try {
+            region.computeIfAbsent("other", new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw new IllegalStateException("expected");
+                }
+            }, null);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).isEqualTo("expected");
+        }
+        assertThat(region.<String>get("other")).isNull();
+    }
+
+    @Test
+    public void testSmileCodec() {
+        OffHeapRegion region = region(OffHeapCacheService.createCodec("smile"), 1024 * 1024, 1024);
+        region.set("key", new User("wisdom", 42), 0);
+        region.set("map", Collections.singletonMap("name", "wisdom"), 0);
+
+        User user = region.get("key");
+        assertThat(user.getName()).isEqualTo("wisdom");
+        assertThat(user.getAge()).isEqualTo(42);
+        Map<String, String> map = region.get("map");
+        assertThat(map).isInstanceOf(LinkedHashMap.class);
+        assertThat(map).containsEntry("name", "wisdom");
+    }
+
+    @Test
+    public void testClearReleasesTheRecordedClasses() {
+        ValueCodec codec = spy(OffHeapCacheService.createCodec("smile"));
+        OffHeapRegion region = region(codec, 1024 * 1024, 1024);
+        region.set("key", new User("wisdom", 42), 0);
+        region.clear();
+        verify(codec).clear();
+        assertThat(region.<User>get("key")).isNull();
+    }
+
+    @Test
+    public void testRecordedClasses() {
+        RecordedClasses classes = new RecordedClasses();
+        assertThat(classes.get(User.class.getName())).isNull();
+        classes.record(User.class);
+        assertThat(classes.get(User.class.getName())).isEqualTo(User.class);
+        classes.clear();
+        assertThat(classes.get(User.class.getName())).isNull();
+    }
+
+    @Test
+    public void testSerializationCodec() {
+        OffHeapRegion region = region(OffHeapCacheService.createCodec("serialization"), 1024 * 1024, 1024);
+        region.set("key", new User("wisdom", 42), 0);
+        User user = region.get("key");
+        assertThat(user.getName()).isEqualTo("wisdom");
+        assertThat(user.getAge()).isEqualTo(42);
+    }
+
+    public static class User implements Serializable {
+        private String name;
+        private int age;
+
+        public User() {
+            // Used by Jackson.
+        }
+
+        public User(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.felix.ipojo.annotations.*;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 import org.wisdom.api.DefaultController;
 import org.wisdom.api.asset.Asset;
 import org.wisdom.api.asset.AssetProvider;
@@ -45,6 +47,10 @@ import java.util.List;
 
 /**
  * A controller publishing the resources found in a folder and in bundles.
+ * <p>
+ * Fingerprinted assets (listed in the {@code asset-manifest.properties} files generated by the Wisdom Maven plugin)
+ * are served with a far-future immutable cache policy, and {@link #assetAt(String)} resolves logical paths to
+ * their fingerprinted version.
  */
 @Component(immediate = true)
 @Provides
@@ -61,7 +67,17 @@ public class AssetController extends DefaultController implements AssetProvider
     @Requires
     Crypto crypto;
 
+    /**
+     * The index of the fingerprinted assets, loaded lazily and discarded when bundles change.
+     */
+    private volatile AssetManifest manifest;
 
+    private final BundleListener listener = new BundleListener() {
+        @Override
+        public void bundleChanged(BundleEvent event) {
+            manifest = null;
+        }
+    };
 
     /**
      * Creates an instance of the asset controller.
@@ -76,6 +92,27 @@ public class AssetController extends DefaultController implements AssetProvider
         this.manageAssetsFromBundles = manageAssetsFromBundles;
     }
 
+    /**
+     * Starts tracking the bundles, so the fingerprinted assets they provide are indexed.
+     */
+    @Validate
+    public void start() {
+        if (manageAssetsFromBundles) {
+            context.addBundleListener(listener);
+        }
+    }
+
+    /**
+     * Stops tracking the bundles.
+     */
+    @Invalidate
+    public void stop() {
+        if (manageAssetsFromBundles) {
+            context.removeBundleListener(listener);
+        }
+        manifest = null;
+    }
+
     /**
      * @return the 'serve' routes.
      */
@@ -96,7 +133,13 @@ public class AssetController extends DefaultController implements AssetProvider
             path = path.substring(1);
         }
 
-        Asset<?> asset = getAssetFromFS(path);
+        Asset<?> asset = getManifest().getFingerprintedAsset(path);
+        if (asset != null) {
+            // The content of the asset is identified by its name, it can be cached forever.
+            return CacheUtils.fromImmutableAsset(context(), asset);
+        }
+
+        asset = getAssetFromFS(path);
         if (asset == null  && manageAssetsFromBundles) {
             asset = getAssetFromBundle(path);
         }
@@ -107,6 +150,35 @@ public class AssetController extends DefaultController implements AssetProvider
         return notFound();
     }
 
+    /**
+     * Gets the index of the fingerprinted assets. In dev mode, the index is reloaded when the manifest from the
+     * asset directory is updated.
+     *
+     * @return the index
+     */
+    private AssetManifest getManifest() {
+        AssetManifest current = manifest;
+        if (current == null || (configuration.isDev() && current.isStale())) {
+            current = AssetManifest.load(directory, "/" + directory.getName() + "/",
+                    manageAssetsFromBundles ? context.getBundles() : null);
+            manifest = current;
+        }
+        return current;
+    }
+
+    /**
+     * Retrieves the fingerprinted version of an asset. This lookup does not access the file system.
+     *
+     * @param path the logical path of the asset
+     * @return the fingerprinted asset, {@literal null} if the asset has not been fingerprinted
+     */
+    public Asset<?> fingerprintedAssetAt(String path) {
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return getManifest().resolve(path);
+    }
+
     private Asset<URL> getAssetFromBundle(String path) {
         Bundle[] bundles = context.getBundles();
         // Skip bundle 0
@@ -184,14 +256,18 @@ public class AssetController extends DefaultController implements AssetProvider
     }
 
     /**
-     * Retrieves an asset.
+     * Retrieves an asset. The fingerprinted version of the asset is returned if there is one.
      *
      * @param path the asset path
      * @return the Asset object, or {@literal null} if the current provider can't serve this asset.
      */
     @Override
     public Asset<?> assetAt(String path) {
-        Asset<?> asset = getAssetFromFS(path);
+        Asset<?> asset = fingerprintedAssetAt(path);
+        if (asset != null) {
+            return asset;
+        }
+        asset = getAssetFromFS(path);
         if (asset == null) {
             asset = getAssetFromBundle(path);
         }
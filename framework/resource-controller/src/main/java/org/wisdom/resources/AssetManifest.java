@@ -0,0 +1,174 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.resources;
+
+import org.osgi.framework.Bundle;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.asset.Asset;
+import org.wisdom.api.asset.DefaultAsset;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * An immutable index of the fingerprinted assets, built from the {@code asset-manifest.properties} files generated
+ * by the Wisdom Maven plugin. Each entry associates the logical path of an asset (such as {@code js/app.js}) with
+ * its fingerprinted version (such as {@code js/app.0a1b2c3d4e.js}). Lookups do not access the file system.
+ */
+class AssetManifest {
+
+    /**
+     * The name of the manifest file, at the root of the asset directories.
+     */
+    public static final String MANIFEST = "asset-manifest.properties";
+
+    /**
+     * An empty manifest.
+     */
+    public static final AssetManifest EMPTY = new AssetManifest(null, 0L,
+            Collections.<String, Asset<?>>emptyMap(), Collections.<String, Asset<?>>emptyMap());
+
+    private final File file;
+    private final long lastModified;
+
+    /**
+     * Logical path to fingerprinted asset.
+     */
+    private final Map<String, Asset<?>> logical;
+
+    /**
+     * Fingerprinted path to fingerprinted asset.
+     */
+    private final Map<String, Asset<?>> fingerprinted;
+
+    private AssetManifest(File file, long lastModified, Map<String, Asset<?>> logical,
+                          Map<String, Asset<?>> fingerprinted) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.logical = logical;
+        this.fingerprinted = fingerprinted;
+    }
+
+    /**
+     * Loads the manifests from the given directory and bundles. Assets from the directory take precedence over
+     * the ones from the bundles.
+     *
+     * @param directory the asset directory
+     * @param prefix    the URL prefix of the assets from the directory
+     * @param bundles   the bundles, {@code null} if assets from bundles are not managed
+     * @return the manifest
+     */
+    public static AssetManifest load(File directory, String prefix, Bundle[] bundles) {
+        Map<String, Asset<?>> logical = new HashMap<>();
+        Map<String, Asset<?>> fingerprinted = new HashMap<>();
+
+        if (bundles != null) {
+            // Iterate in reverse order, so the first bundle providing an asset wins, as in the asset controller.
+            // Skip bundle 0
+            for (int i = bundles.length - 1; i > 0; i--) {
+                URL url = bundles[i].getEntry("/assets/" + MANIFEST);
+                if (url == null) {
+                    continue;
+                }
+                Properties properties = new Properties();
+                try (InputStream stream = url.openStream()) {
+                    properties.load(stream);
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(AssetManifest.class).error("Cannot read the asset manifest of {}",
+                            bundles[i].getSymbolicName(), e);
+                    continue;
+                }
+                for (String path : properties.stringPropertyNames()) {
+                    String target = properties.getProperty(path);
+                    URL content = bundles[i].getEntry("/assets/" + target);
+                    if (content != null) {
+                        add(logical, fingerprinted, path, target, new DefaultAsset<>("/assets/" + target, content,
+                                bundles[i].getSymbolicName(), bundles[i].getLastModified(), null));
+                    }
+                }
+            }
+        }
+
+        File file = new File(directory, MANIFEST);
+        long lastModified = file.lastModified();
+        if (file.isFile()) {
+            Properties properties = new Properties();
+            try (InputStream stream = new FileInputStream(file)) {
+                properties.load(stream);
+            } catch (IOException e) {
+                LoggerFactory.getLogger(AssetManifest.class).error("Cannot read the asset manifest {}",
+                        file.getAbsolutePath(), e);
+            }
+            for (String path : properties.stringPropertyNames()) {
+                String target = properties.getProperty(path);
+                File content = new File(directory, target);
+                if (content.isFile()) {
+                    add(logical, fingerprinted, path, target, new DefaultAsset<>(prefix + target, content,
+                            content.getAbsolutePath(), content.lastModified(), null));
+                }
+            }
+        }
+
+        return new AssetManifest(file, lastModified, logical, fingerprinted);
+    }
+
+    private static void add(Map<String, Asset<?>> logical, Map<String, Asset<?>> fingerprinted, String path,
+                            String target, Asset<?> asset) {
+        logical.put(path, asset);
+        fingerprinted.put(target, asset);
+    }
+
+    /**
+     * Checks whether the manifest file from the asset directory has been modified since this manifest was loaded.
+     * Changes in bundles are not detected.
+     *
+     * @return {@code true} if the manifest needs to be reloaded
+     */
+    public boolean isStale() {
+        return file != null && file.lastModified() != lastModified;
+    }
+
+    /**
+     * Gets the fingerprinted version of an asset.
+     *
+     * @param path the logical path of the asset, relative to the asset directory
+     * @return the fingerprinted asset, {@code null} if the asset has not been fingerprinted
+     */
+    public Asset<?> resolve(String path) {
+        return logical.get(path);
+    }
+
+    /**
+     * Gets the fingerprinted asset with the given path.
+     *
+     * @param path the fingerprinted path, relative to the asset directory
+     * @return the asset, {@code null} if the path is not the path of a fingerprinted asset
+     */
+    public Asset<?> getFingerprintedAsset(String path) {
+        return fingerprinted.get(path);
+    }
+}
@@ -98,11 +98,20 @@ public class AssetsSingleton extends DefaultController implements Assets {
      *
      * @param path the path
      * @return the path to retrieve the asset or {@literal null} if not found. If there are several matches,
-     * return the first one.
+     * return the first one. Fingerprinted versions of the assets are preferred.
      */
     @Override
     public Asset assetAt(String path) {
-        // The simplest implementation is to delegate to the provider and see if they return something.
+        // Fingerprinted assets are looked up first, the lookup being cheap (no file system access).
+        for (AssetProvider provider : providers) {
+            if (provider instanceof AssetController) {
+                Asset asset = ((AssetController) provider).fingerprintedAssetAt(path);
+                if (asset != null) {
+                    return asset;
+                }
+            }
+        }
+        // Then, delegate to the provider and see if they return something.
         for (AssetProvider provider : providers) {
             Asset asset = provider.assetAt(path);
             if (asset != null) {
@@ -43,6 +43,11 @@ public class CacheUtils {
      * Default value for Cache-Control http header when not set in application.conf.
      */
     public static final String HTTP_CACHE_CONTROL_DEFAULT = "3600";
+    /**
+     * Cache-Control value used for fingerprinted assets. Their URL changes when their content changes, so they
+     * can be cached forever, and never revalidated.
+     */
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
     /**
      * Enable / disable etag E.g. ETag:"f0680fd3".
      */
@@ -184,18 +189,40 @@ public class CacheUtils {
         if (CacheUtils.isNotModified(context, asset.getLastModified(), asset.getEtag())) {
             return new Result(Status.NOT_MODIFIED);
         } else {
-            Result result;
-            if (asset.getContent() instanceof File) {
-                result = Results.ok((File) asset.getContent());
-            } else if (asset.getContent() instanceof URL) {
-                result = Results.ok((URL) asset.getContent());
-            } else {
-                // Use object, probably won't work.
-                result = Results.ok(asset.getContent());
-            }
+            Result result = toResult(asset);
             addLastModified(result, asset.getLastModified());
             addCacheControlAndEtagToResult(result, asset.getEtag(), configuration);
             return result;
         }
     }
+
+    /**
+     * Computes the result to send a fingerprinted asset. The content of such an asset never changes,
+     * so the result is marked as immutable, and conditional requests are always answered with NOT_MODIFIED.
+     *
+     * @param context the context
+     * @param asset   the fingerprinted asset
+     * @return the result
+     */
+    public static Result fromImmutableAsset(Context context, Asset asset) {
+        if (context.header(HeaderNames.IF_NONE_MATCH) != null
+                || context.header(HeaderNames.IF_MODIFIED_SINCE) != null) {
+            return new Result(Status.NOT_MODIFIED).with(HeaderNames.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+        }
+        Result result = toResult(asset);
+        addLastModified(result, asset.getLastModified());
+        result.with(HeaderNames.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+        return result;
+    }
+
+    private static Result toResult(Asset asset) {
+        if (asset.getContent() instanceof File) {
+            return Results.ok((File) asset.getContent());
+        } else if (asset.getContent() instanceof URL) {
+            return Results.ok((URL) asset.getContent());
+        } else {
+            // Use object, probably won't work.
+            return Results.ok(asset.getContent());
+        }
+    }
 }
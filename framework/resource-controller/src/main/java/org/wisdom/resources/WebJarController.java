@@ -34,6 +34,7 @@ import org.wisdom.api.asset.AssetProvider;
 import org.wisdom.api.asset.DefaultAsset;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.engine.StartupProfiler;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.router.Route;
@@ -115,6 +116,11 @@ public class WebJarController extends DefaultController implements BundleTracker
     @Requires
     ApplicationConfiguration configuration;
 
+    @Requires(optional = true, nullable = false, proxy = false)
+    StartupProfiler profiler;
+
+    private volatile boolean started;
+
     /**
      * Constructor used for testing purpose only.
      *
@@ -149,6 +155,7 @@ public class WebJarController extends DefaultController implements BundleTracker
      */
     @Validate
     public void start() {
+        started = true;
         if (directory.isDirectory()) {
             buildFileIndex();
         }
@@ -156,7 +163,19 @@ public class WebJarController extends DefaultController implements BundleTracker
             tracker.open();
         }
         if (deployer != null) {
-            deployer.start();
+            // Expanding the webjars from the application directory is not required to serve the first requests.
+            if (profiler != null) {
+                profiler.whenReady("WebJar deployer", new Runnable() {
+                    @Override
+                    public void run() {
+                        if (started) {
+                            deployer.start();
+                        }
+                    }
+                });
+            } else {
+                deployer.start();
+            }
         }
     }
 
@@ -165,6 +184,7 @@ public class WebJarController extends DefaultController implements BundleTracker
      */
     @Invalidate
     public void stop() {
+        started = false;
         if (deployer != null) {
             deployer.stop();
         }
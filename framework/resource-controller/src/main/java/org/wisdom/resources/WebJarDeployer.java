@@ -225,10 +225,12 @@ public class WebJarDeployer extends ExtensionBasedDeployer {
     }
 
     /**
-     * Registers the deployer service.
+     * Registers the deployer service, if not already registered.
      */
     public synchronized void start() {
-        reg = context.registerService(Deployer.class, this, null);
+        if (reg == null) {
+            reg = context.registerService(Deployer.class, this, null);
+        }
     }
 
     /**
@@ -237,6 +239,7 @@ public class WebJarDeployer extends ExtensionBasedDeployer {
     public synchronized void stop() {
         if (reg != null) {
             reg.unregister();
+            reg = null;
         }
     }
 
@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.resources;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.wisdom.api.asset.Asset;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Status;
+import org.wisdom.test.parents.FakeContext;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the index of fingerprinted assets and how they are served.
+ */
+public class AssetManifestTest {
+
+    private File root = new File("target/wisdom-test/fingerprint");
+    private File bundleRoot = new File("target/wisdom-test/fingerprint-bundle");
+
+    @Before
+    public void setUp() throws IOException {
+        FileUtils.write(new File(root, "app.js"), "var a = 1;");
+        FileUtils.write(new File(root, "app.0123456789.js"), "var a = 1;");
+        FileUtils.write(new File(root, AssetManifest.MANIFEST), "app.js=app.0123456789.js\n");
+
+        FileUtils.write(new File(bundleRoot, "assets/app.9876543210.js"), "var a = 0;");
+        FileUtils.write(new File(bundleRoot, "assets/css/style.9876543210.css"), "body {}");
+        FileUtils.write(new File(bundleRoot, "assets/" + AssetManifest.MANIFEST),
+                "app.js=app.9876543210.js\ncss/style.css=css/style.9876543210.css\n");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(root);
+        FileUtils.deleteQuietly(bundleRoot);
+    }
+
+    @Test
+    public void testLoadFromDirectory() {
+        AssetManifest manifest = AssetManifest.load(root, "/assets/", null);
+        Asset<?> asset = manifest.resolve("app.js");
+        assertThat(asset.getPath()).isEqualTo("/assets/app.0123456789.js");
+        assertThat(asset.getContent()).isEqualTo(new File(root, "app.0123456789.js"));
+        assertThat(manifest.getFingerprintedAsset("app.0123456789.js")).isSameAs(asset);
+        assertThat(manifest.getFingerprintedAsset("app.js")).isNull();
+        assertThat(manifest.resolve("missing.js")).isNull();
+        assertThat(manifest.isStale()).isFalse();
+    }
+
+    @Test
+    public void testDirectoryOverridesBundles() throws Exception {
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getSymbolicName()).thenReturn("app");
+        for (String path : new String[]{AssetManifest.MANIFEST, "app.9876543210.js", "css/style.9876543210.css"}) {
+            when(bundle.getEntry("/assets/" + path)).thenReturn(new File(bundleRoot, "assets/" + path).toURI()
+                    .toURL());
+        }
+
+        AssetManifest manifest = AssetManifest.load(root, "/assets/", new Bundle[]{mock(Bundle.class), bundle});
+        assertThat(manifest.resolve("app.js").getPath()).isEqualTo("/assets/app.0123456789.js");
+        assertThat(manifest.resolve("css/style.css").getPath()).isEqualTo("/assets/css/style.9876543210.css");
+        assertThat(manifest.getFingerprintedAsset("css/style.9876543210.css")).isNotNull();
+    }
+
+    @Test
+    public void testStaleness() {
+        AssetManifest manifest = AssetManifest.load(root, "/assets/", null);
+        assertThat(new File(root, AssetManifest.MANIFEST).setLastModified(System.currentTimeMillis() - 10000))
+                .isTrue();
+        assertThat(manifest.isStale()).isTrue();
+        assertThat(AssetManifest.EMPTY.isStale()).isFalse();
+    }
+
+    @Test
+    public void testImmutableResult() {
+        Asset<?> asset = AssetManifest.load(root, "/assets/", null).resolve("app.js");
+
+        FakeContext context = new FakeContext();
+        Result result = CacheUtils.fromImmutableAsset(context, asset);
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders().get(HeaderNames.CACHE_CONTROL))
+                .isEqualTo("public, max-age=31536000, immutable");
+        assertThat(result.getHeaders()).doesNotContainKey(HeaderNames.ETAG);
+
+        context.setHeader(HeaderNames.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT");
+        result = CacheUtils.fromImmutableAsset(context, asset);
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_MODIFIED);
+    }
+}
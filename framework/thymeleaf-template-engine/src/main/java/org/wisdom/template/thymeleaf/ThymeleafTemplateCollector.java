@@ -26,14 +26,20 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.StandardCache;
 import org.thymeleaf.dialect.IDialect;
 import org.thymeleaf.messageresolver.IMessageResolver;
 import org.thymeleaf.templateresolver.TemplateResolver;
 import org.wisdom.api.asset.Assets;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.router.Router;
+import org.wisdom.api.templates.MonitoredTemplateEngine;
 import org.wisdom.api.templates.Template;
 import org.wisdom.api.templates.TemplateEngine;
+import org.wisdom.api.templates.TemplateStatistics;
+import org.wisdom.template.thymeleaf.impl.TemplateWarmer;
 import org.wisdom.template.thymeleaf.impl.ThymeLeafTemplateImplementation;
 import org.wisdom.template.thymeleaf.impl.WisdomTemplateEngine;
 import org.wisdom.template.thymeleaf.impl.WisdomURLResourceResolver;
@@ -44,14 +50,20 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The main component of the Thymeleaf template engine integration in Wisdom.
+ * <p>
+ * When {@link #WARMUP} is enabled (and not in dev mode), templates are parsed and cached in background as soon as
+ * they are registered, so the first requests do not pay for the parsing.
  */
 @Component(immediate = true)
-@Provides(specifications = {ThymeleafTemplateCollector.class, TemplateEngine.class})
+@Provides(specifications = {ThymeleafTemplateCollector.class, TemplateEngine.class, MonitoredTemplateEngine.class})
 @Instantiate(name = "Thymeleaf template engine")
-public class ThymeleafTemplateCollector implements TemplateEngine {
+public class ThymeleafTemplateCollector implements MonitoredTemplateEngine {
 
     /**
      * The extension of the template supported by this engine.
@@ -63,6 +75,16 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
      */
     public static final String THYMELEAF_ENGINE_NAME = "thymeleaf";
 
+    /**
+     * Configuration key enabling the template warm-up.
+     */
+    public static final String WARMUP = "application.template.thymeleaf.warmup";
+
+    /**
+     * Configuration key enabling the parsing of the OGNL expressions during the warm-up.
+     */
+    public static final String WARMUP_EXPRESSIONS = "application.template.thymeleaf.warmup.expressions";
+
     @Requires
     IMessageResolver messageResolver;
 
@@ -90,6 +112,19 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
 
     Set<IDialect> dialects = new HashSet();
 
+    @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", optional = true, nullable = false,
+            proxy = false)
+    ManagedExecutorService executor;
+
+    /**
+     * The warmer, {@literal null} if the warm-up is disabled.
+     */
+    private volatile TemplateWarmer warmer;
+
+    private final AtomicInteger warmedUp = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong warmUpTime = new AtomicLong();
+
 
     /**
      * Creates the collector.
@@ -201,9 +236,75 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
                 template.getServiceProperties());
         registrations.put(template, reg);
         LOGGER.info("Thymeleaf template added for {}", templateURL.toExternalForm());
+        warmUp(template);
         return template;
     }
 
+    /**
+     * Schedules the warm-up of the given template, if enabled. The warm-up is executed by the system executor
+     * when available.
+     *
+     * @param template the template
+     */
+    private void warmUp(final ThymeLeafTemplateImplementation template) {
+        final TemplateWarmer current = warmer;
+        if (current == null) {
+            return;
+        }
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                warmUp(current, template);
+            }
+        };
+        if (executor != null) {
+            executor.submit(task);
+        } else {
+            task.run();
+        }
+    }
+
+    private void warmUp(TemplateWarmer current, ThymeLeafTemplateImplementation template) {
+        if (!registrations.containsKey(template)) {
+            // Deleted in the meantime.
+            return;
+        }
+        WisdomTemplateEngine target;
+        synchronized (this) {
+            target = engine;
+        }
+        long begin = System.nanoTime();
+        try {
+            int expressions = current.warmUp(target, template);
+            warmedUp.incrementAndGet();
+            LOGGER.debug("Thymeleaf template {} warmed up ({} expressions parsed)", template.fullName(),
+                    expressions);
+        } catch (RuntimeException e) {
+            // The error is reported when the template is rendered.
+            failures.incrementAndGet();
+            LOGGER.warn("Cannot warm up the Thymeleaf template {}: {}", template.fullName(), e.getMessage());
+        } finally {
+            warmUpTime.addAndGet(System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * @return a snapshot of the number of templates, warm-up progress and cache sizes.
+     */
+    @Override
+    public TemplateStatistics getStatistics() {
+        long templateCacheSize = 0;
+        long expressionCacheSize = 0;
+        synchronized (this) {
+            if (engine != null && engine.getCacheManager() != null) {
+                templateCacheSize = size(engine.getCacheManager().getTemplateCache());
+                expressionCacheSize = size(engine.getCacheManager().getExpressionCache());
+            }
+        }
+        return new TemplateStatistics(name(), registrations.size(), warmedUp.get(), failures.get(),
+                TimeUnit.NANOSECONDS.toMillis(warmUpTime.get()), templateCacheSize, expressionCacheSize);
+    }
+
     /**
      * Initializes the thymeleaf template engine.
      */
@@ -244,6 +345,30 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
 
         engine.setMessageResolver(messageResolver);
         engine.initialize();
+
+        // In dev mode, the cache is useless (ttl = 1), so is the warm-up.
+        if (configuration.getBooleanWithDefault(WARMUP, false) && !configuration.isDev()) {
+            warmer = new TemplateWarmer(configuration.getBooleanWithDefault(WARMUP_EXPRESSIONS, false));
+        } else {
+            warmer = null;
+        }
+    }
+
+    private static long size(ICache<?, ?> cache) {
+        // Only the standard caches report their size.
+        if (cache instanceof StandardCache) {
+            return ((StandardCache) cache).size();
+        }
+        return 0;
+    }
+
+    /**
+     * Warms up all the registered templates, used when the engine has been recreated.
+     */
+    private void warmUpAll() {
+        for (ThymeLeafTemplateImplementation template : registrations.keySet()) {
+            warmUp(template);
+        }
     }
 
     /**
@@ -262,6 +387,7 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
             for (Template template : getTemplates()) {
                 ((ThymeLeafTemplateImplementation) template).updateEngine(engine);
             }
+            warmUpAll();
         }
     }
 
@@ -278,6 +404,7 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
             for (Template template : getTemplates()) {
                 ((ThymeLeafTemplateImplementation) template).updateEngine(engine);
             }
+            warmUpAll();
         }
     }
 
@@ -62,6 +62,33 @@ public class ExtendedOGNLExpressionEvaluator implements IStandardVariableExpress
         return var;
     }
 
+    /**
+     * Parses the given OGNL expression and stores the parsed tree in the expression cache, so it does not need to be
+     * parsed on the first rendering.
+     *
+     * @param configuration the Thymeleaf configuration
+     * @param expression    the OGNL expression
+     * @return {@literal true} if the expression has been parsed, {@literal false} if it is not a valid expression or
+     * if there is no expression cache
+     */
+    public static boolean precompile(Configuration configuration, String expression) {
+        final ICacheManager cacheManager = configuration.getCacheManager();
+        if (cacheManager == null || cacheManager.getExpressionCache() == null) {
+            return false;
+        }
+        final ICache<String, Object> cache = cacheManager.getExpressionCache();
+        if (cache.get(OGNL_CACHE_PREFIX + expression) != null) {
+            return true;
+        }
+        try {
+            cache.put(OGNL_CACHE_PREFIX + expression, Ognl.parseExpression(expression));
+            return true;
+        } catch (OgnlException e) { //NOSONAR
+            // The expression is reported when the template is rendered.
+            return false;
+        }
+    }
+
     @Override
     public String toString() {
         return "OGNL extended by Wisdom";
@@ -369,6 +369,7 @@ public class Routes {
 
     /**
      * Gets the url of the given asset. Throws an exception if the asset cannot be found.
+     * If the asset has been fingerprinted, the url of the fingerprinted version is returned.
      *
      * @param path the asset's path
      * @return the url
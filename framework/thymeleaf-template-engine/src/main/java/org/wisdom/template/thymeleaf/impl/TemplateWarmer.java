@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.thymeleaf.Configuration;
+import org.thymeleaf.Template;
+import org.thymeleaf.TemplateProcessingParameters;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.dom.AbstractTextNode;
+import org.thymeleaf.dom.Attribute;
+import org.thymeleaf.dom.NestableAttributeHolderNode;
+import org.thymeleaf.dom.NestableNode;
+import org.thymeleaf.dom.Node;
+import org.wisdom.template.thymeleaf.dialect.ExtendedOGNLExpressionEvaluator;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses templates ahead of their first rendering, so the parsed document lands in the template cache of the engine.
+ * Optionally, the OGNL expressions found in the template are parsed and stored in the expression cache.
+ * <p>
+ * Fragments are cached with the template declaring them: as each registered template is warmed up, the templates
+ * included by the others are parsed too.
+ */
+public class TemplateWarmer {
+
+    /**
+     * Matches the variable (${...}) and selection (*{...}) expressions.
+     */
+    private static final Pattern EXPRESSION = Pattern.compile("[$*]\\{([^{}]+)\\}");
+
+    /**
+     * Preprocessing marker, such expressions are only known at rendering time.
+     */
+    private static final String PREPROCESSING = "__";
+
+    private final boolean precompileExpressions;
+
+    /**
+     * Creates a warmer.
+     *
+     * @param precompileExpressions whether or not OGNL expressions are parsed too
+     */
+    public TemplateWarmer(boolean precompileExpressions) {
+        this.precompileExpressions = precompileExpressions;
+    }
+
+    /**
+     * Parses the given template and caches it.
+     *
+     * @param engine   the engine
+     * @param template the template
+     * @return the number of OGNL expressions that have been parsed
+     */
+    public int warmUp(WisdomTemplateEngine engine, ThymeLeafTemplateImplementation template) {
+        Configuration configuration = engine.getConfiguration();
+        Template parsed = engine.getTemplateRepository().getTemplate(
+                new TemplateProcessingParameters(configuration, template.fullName(), new Context()));
+        if (!precompileExpressions) {
+            return 0;
+        }
+        return precompile(configuration, parsed.getDocument());
+    }
+
+    private int precompile(Configuration configuration, Node node) {
+        int count = 0;
+        if (node instanceof NestableAttributeHolderNode && ((NestableAttributeHolderNode) node).hasAttributes()) {
+            for (Attribute attribute : ((NestableAttributeHolderNode) node).unsafeGetAttributes()) {
+                if (attribute != null) {
+                    count += precompile(configuration, attribute.getValue());
+                }
+            }
+        } else if (node instanceof AbstractTextNode) {
+            // Inlined expressions.
+            count += precompile(configuration, ((AbstractTextNode) node).getContent());
+        }
+        if (node instanceof NestableNode) {
+            for (Node child : ((NestableNode) node).getChildren()) {
+                count += precompile(configuration, child);
+            }
+        }
+        return count;
+    }
+
+    private int precompile(Configuration configuration, String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        Matcher matcher = EXPRESSION.matcher(value);
+        while (matcher.find()) {
+            String expression = matcher.group(1);
+            if (!expression.contains(PREPROCESSING)
+                    && ExtendedOGNLExpressionEvaluator.precompile(configuration, expression)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
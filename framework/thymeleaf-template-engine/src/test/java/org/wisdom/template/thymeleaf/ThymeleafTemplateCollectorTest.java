@@ -26,6 +26,7 @@ import org.osgi.framework.ServiceRegistration;
 import org.thymeleaf.dialect.IDialect;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.templates.Template;
+import org.wisdom.api.templates.TemplateStatistics;
 import org.wisdom.template.thymeleaf.impl.MyDialect;
 import org.wisdom.template.thymeleaf.impl.WisdomMessageResolver;
 import org.wisdom.template.thymeleaf.impl.WisdomTemplateEngine;
@@ -87,6 +88,72 @@ public class ThymeleafTemplateCollectorTest {
         collector.stop();
     }
 
+    @Test
+    public void testWarmUp() throws Exception {
+        BundleContext ctxt = mock(BundleContext.class);
+        Bundle bundle = mock(Bundle.class);
+        when(ctxt.getBundle()).thenReturn(bundle);
+        when(bundle.getBundleContext()).thenReturn(ctxt);
+        when(ctxt.registerService(any(Class.class), any(Template.class), any(Dictionary.class))).thenReturn(mock
+                (ServiceRegistration.class));
+        ThymeleafTemplateCollector collector = new ThymeleafTemplateCollector(ctxt);
+        collector.configuration = mock(ApplicationConfiguration.class);
+        when(collector.configuration.getWithDefault("application.template.thymeleaf.mode",
+                "HTML5")).thenReturn("HTML5");
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.ttl",
+                60 * 1000)).thenReturn(60 * 1000);
+        when(collector.configuration.getBooleanWithDefault(ThymeleafTemplateCollector.WARMUP, false))
+                .thenReturn(true);
+        when(collector.configuration.getBooleanWithDefault(ThymeleafTemplateCollector.WARMUP_EXPRESSIONS, false))
+                .thenReturn(true);
+        collector.messageResolver = new WisdomMessageResolver();
+        collector.configure();
+
+        // Without executor, the warm-up is done synchronously.
+        File var = new File("src/test/resources/templates/var.thl.html");
+        collector.addTemplate(bundle, var.toURI().toURL());
+
+        TemplateStatistics statistics = collector.getStatistics();
+        assertThat(statistics.getTemplates()).isEqualTo(1);
+        assertThat(statistics.getWarmedUp()).isEqualTo(1);
+        assertThat(statistics.getFailures()).isEqualTo(0);
+        assertThat(statistics.getTemplateCacheSize()).isEqualTo(1);
+        assertThat(statistics.getExpressionCacheSize()).isGreaterThan(0);
+
+        // The engine is recreated when a dialect arrives, templates are warmed up again.
+        collector.bindDialect(new MyDialect());
+        statistics = collector.getStatistics();
+        assertThat(statistics.getWarmedUp()).isEqualTo(2);
+        assertThat(statistics.getTemplateCacheSize()).isEqualTo(1);
+
+        collector.stop();
+    }
+
+    @Test
+    public void testNoWarmUpByDefault() throws Exception {
+        BundleContext ctxt = mock(BundleContext.class);
+        Bundle bundle = mock(Bundle.class);
+        when(ctxt.getBundle()).thenReturn(bundle);
+        when(bundle.getBundleContext()).thenReturn(ctxt);
+        when(ctxt.registerService(any(Class.class), any(Template.class), any(Dictionary.class))).thenReturn(mock
+                (ServiceRegistration.class));
+        ThymeleafTemplateCollector collector = new ThymeleafTemplateCollector(ctxt);
+        collector.configuration = mock(ApplicationConfiguration.class);
+        when(collector.configuration.getWithDefault("application.template.thymeleaf.mode",
+                "HTML5")).thenReturn("HTML5");
+        collector.messageResolver = new WisdomMessageResolver();
+        collector.configure();
+
+        File var = new File("src/test/resources/templates/var.thl.html");
+        collector.addTemplate(bundle, var.toURI().toURL());
+
+        TemplateStatistics statistics = collector.getStatistics();
+        assertThat(statistics.getTemplates()).isEqualTo(1);
+        assertThat(statistics.getWarmedUp()).isEqualTo(0);
+        assertThat(statistics.getTemplateCacheSize()).isEqualTo(0);
+        collector.stop();
+    }
+
     @Test
     public void testBindAndUnbindDialects() throws Exception {
         BundleContext ctxt = mock(BundleContext.class);